@@ -0,0 +1,433 @@
+package io.github.tootertutor.ModularPacks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
+
+import io.github.tootertutor.ModularPacks.api.ModularPacksAPI;
+import io.github.tootertutor.ModularPacks.gui.BackpackMenuHolder;
+import io.github.tootertutor.ModularPacks.gui.ModuleScreenHolder;
+import io.github.tootertutor.ModularPacks.item.Keys;
+import io.github.tootertutor.ModularPacks.util.ItemStacks;
+
+/**
+ * Live index of where each backpack UUID currently is.
+ * - carried: backpackId -> (player, slot) copies; slot {@link #CURSOR_SLOT} is
+ * the cursor
+ * - viewers: backpackId -> players whose open top inventory belongs to it
+ * - placed copies come from {@link PlacedBackpackManager}
+ *
+ * Inventory listeners only mark players dirty, and only for events that can
+ * move a backpack item (checked on the stack's PDC view) or open and close an
+ * inventory; a dirty player's inventory is rescanned the next time the index is
+ * read (and by a slow safety sweep), so bursts of clicks cost one scan. Entries
+ * may still be stale between marks; callers verify the slot they touch and call
+ * {@link #markDirty(Player)} on a mismatch.
+ *
+ * Any UUID found in more than one place is logged as a possible dupe.
+ *
+ * Main thread only.
+ */
+public final class BackpackHolderRegistry implements Listener {
+
+    public static final int CURSOR_SLOT = -1;
+
+    private static final long SWEEP_INTERVAL_TICKS = 1200L; // 1 minute
+    private static final long DUPE_WARNING_COOLDOWN_MS = 5L * 60L * 1000L;
+
+    public record CarriedCopy(UUID playerId, int slot) {
+    }
+
+    private final ModularPacksPlugin plugin;
+
+    private final Map<UUID, Set<CarriedCopy>> carried = new HashMap<>();
+    private final Map<UUID, Map<Integer, UUID>> byPlayer = new HashMap<>(); // playerId -> slot -> backpackId
+    // playerId -> tick it was last marked; kept through that tick so scans made
+    // by handlers of the marking event are repeated once the change has applied
+    private final Map<UUID, Integer> dirty = new HashMap<>();
+    private final Map<UUID, Integer> scannedAt = new HashMap<>(); // playerId -> tick of last rescan
+
+    private final Map<UUID, Set<UUID>> viewers = new HashMap<>();
+    private final Map<UUID, UUID> viewing = new HashMap<>(); // viewerId -> backpackId
+
+    private final Map<UUID, Long> lastDupeWarning = new HashMap<>();
+    private BukkitTask sweepTask;
+
+    public BackpackHolderRegistry(ModularPacksPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            markDirty(p);
+        }
+        if (sweepTask == null) {
+            sweepTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sweep, SWEEP_INTERVAL_TICKS,
+                    SWEEP_INTERVAL_TICKS);
+        }
+    }
+
+    public void stop() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        carried.clear();
+        byPlayer.clear();
+        dirty.clear();
+        scannedAt.clear();
+        viewers.clear();
+        viewing.clear();
+        lastDupeWarning.clear();
+    }
+
+    /**
+     * Schedules a rescan of this player's inventory and cursor.
+     */
+    public void markDirty(Player player) {
+        if (player != null)
+            dirty.put(player.getUniqueId(), Bukkit.getCurrentTick());
+    }
+
+    /**
+     * Carried copies of a backpack after reconciling dirty players. The result is
+     * a snapshot; verify the slot before writing to it.
+     */
+    public List<CarriedCopy> carriedCopies(UUID backpackId) {
+        if (backpackId == null)
+            return List.of();
+        reconcile();
+        Set<CarriedCopy> copies = carried.get(backpackId);
+        return copies == null ? List.of() : new ArrayList<>(copies);
+    }
+
+    /**
+     * Rescans the player right away, for a caller that found a copy moved since
+     * the last scan.
+     *
+     * @return the player's slots now holding this backpack ({@link #CURSOR_SLOT}
+     *         for the cursor)
+     */
+    public List<Integer> rescanCarriedSlots(Player player, UUID backpackId) {
+        Set<UUID> touched = new LinkedHashSet<>();
+        rescan(player, touched);
+        for (UUID id : touched) {
+            checkDuplicate(id);
+        }
+        Map<Integer, UUID> slots = byPlayer.get(player.getUniqueId());
+        if (slots == null)
+            return List.of();
+        List<Integer> out = new ArrayList<>();
+        for (var e : slots.entrySet()) {
+            if (e.getValue().equals(backpackId))
+                out.add(e.getKey());
+        }
+        return out;
+    }
+
+    /**
+     * Players whose open top inventory is this backpack or one of its module
+     * screens.
+     */
+    public Set<UUID> viewers(UUID backpackId) {
+        Set<UUID> ids = backpackId == null ? null : viewers.get(backpackId);
+        return ids == null ? Set.of() : new HashSet<>(ids);
+    }
+
+    private void sweep() {
+        // Marked as of the previous tick so the scan below settles them.
+        int before = Bukkit.getCurrentTick() - 1;
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            dirty.merge(p.getUniqueId(), before, Math::max);
+        }
+        reconcile();
+        lastDupeWarning.values().removeIf(t -> System.currentTimeMillis() - t > DUPE_WARNING_COOLDOWN_MS);
+    }
+
+    private void reconcile() {
+        if (dirty.isEmpty())
+            return;
+
+        int now = Bukkit.getCurrentTick();
+        Set<UUID> touched = new LinkedHashSet<>();
+        for (var it = dirty.entrySet().iterator(); it.hasNext();) {
+            var e = it.next();
+            UUID playerId = e.getKey();
+            Player p = Bukkit.getPlayer(playerId);
+            if (p == null || !p.isOnline()) {
+                forgetPlayer(playerId);
+                scannedAt.remove(playerId);
+                it.remove();
+                continue;
+            }
+            boolean markedThisTick = e.getValue() >= now;
+            if (markedThisTick && Integer.valueOf(now).equals(scannedAt.get(playerId)))
+                continue; // at most one scan per tick while the change may be pending
+            rescan(p, touched);
+            if (markedThisTick) {
+                scannedAt.put(playerId, now);
+            } else {
+                scannedAt.remove(playerId);
+                it.remove();
+            }
+        }
+
+        for (UUID id : touched) {
+            checkDuplicate(id);
+        }
+    }
+
+    private void rescan(Player player, Set<UUID> touched) {
+        UUID playerId = player.getUniqueId();
+        forgetPlayer(playerId);
+
+        Keys keys = plugin.keys();
+        Map<Integer, UUID> slots = new HashMap<>();
+        ItemStack[] contents = player.getInventory().getContents();
+        if (contents != null) {
+            for (int i = 0; i < contents.length; i++) {
+                UUID id = backpackIdOf(keys, contents[i]);
+                if (id != null)
+                    slots.put(i, id);
+            }
+        }
+        UUID cursorId = backpackIdOf(keys, player.getItemOnCursor());
+        if (cursorId != null)
+            slots.put(CURSOR_SLOT, cursorId);
+
+        if (slots.isEmpty())
+            return;
+
+        byPlayer.put(playerId, slots);
+        for (var e : slots.entrySet()) {
+            carried.computeIfAbsent(e.getValue(), k -> new HashSet<>()).add(new CarriedCopy(playerId, e.getKey()));
+            touched.add(e.getValue());
+        }
+    }
+
+    private void forgetPlayer(UUID playerId) {
+        Map<Integer, UUID> old = byPlayer.remove(playerId);
+        if (old == null)
+            return;
+        for (var e : old.entrySet()) {
+            Set<CarriedCopy> copies = carried.get(e.getValue());
+            if (copies == null)
+                continue;
+            copies.remove(new CarriedCopy(playerId, e.getKey()));
+            if (copies.isEmpty())
+                carried.remove(e.getValue());
+        }
+    }
+
+    private void checkDuplicate(UUID backpackId) {
+        int carriedCount = carriedCount(backpackId);
+        int placedCount = placedCount(backpackId);
+        if (carriedCount + placedCount <= 1)
+            return;
+
+        long now = System.currentTimeMillis();
+        Long last = lastDupeWarning.get(backpackId);
+        if (last != null && now - last < DUPE_WARNING_COOLDOWN_MS)
+            return;
+        lastDupeWarning.put(backpackId, now);
+
+        List<String> where = new ArrayList<>();
+        for (CarriedCopy copy : carried.getOrDefault(backpackId, Set.of())) {
+            Player p = Bukkit.getPlayer(copy.playerId());
+            String name = p == null ? copy.playerId().toString() : p.getName();
+            where.add(name + (copy.slot() == CURSOR_SLOT ? " (cursor)" : " (slot " + copy.slot() + ")"));
+        }
+        if (placedCount > 0) {
+            for (Location loc : plugin.placedBackpacks().getPlacementLocations(backpackId)) {
+                where.add("placed at " + loc.getWorld().getName() + " " + loc.getBlockX() + "," + loc.getBlockY()
+                        + "," + loc.getBlockZ());
+            }
+        }
+        plugin.getLogger().warning("Possible duplicated backpack " + backpackId + " found in "
+                + (carriedCount + placedCount) + " places: " + String.join(", ", where));
+    }
+
+    private int carriedCount(UUID backpackId) {
+        Set<CarriedCopy> copies = carried.get(backpackId);
+        return copies == null ? 0 : copies.size();
+    }
+
+    private int placedCount(UUID backpackId) {
+        PlacedBackpackManager placed = plugin.placedBackpacks();
+        if (placed == null || !placed.isBackpackPlaced(backpackId))
+            return 0;
+        return placed.getPlacementLocations(backpackId).size();
+    }
+
+    private boolean isBackpack(ItemStack it) {
+        return ItemStacks.isNotAir(it) && it.hasItemMeta()
+                && it.getPersistentDataContainer().has(plugin.keys().BACKPACK_ID, PersistentDataType.STRING);
+    }
+
+    private static UUID backpackIdOf(Keys keys, ItemStack it) {
+        if (ItemStacks.isAir(it) || !it.hasItemMeta())
+            return null;
+        String idStr = it.getPersistentDataContainer().get(keys.BACKPACK_ID, PersistentDataType.STRING);
+        if (idStr == null)
+            return null;
+        try {
+            return UUID.fromString(idStr);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private void setViewing(UUID viewerId, UUID backpackId) {
+        UUID previous = viewing.remove(viewerId);
+        if (previous != null) {
+            Set<UUID> ids = viewers.get(previous);
+            if (ids != null) {
+                ids.remove(viewerId);
+                if (ids.isEmpty())
+                    viewers.remove(previous);
+            }
+        }
+        if (backpackId != null) {
+            viewing.put(viewerId, backpackId);
+            viewers.computeIfAbsent(backpackId, k -> new HashSet<>()).add(viewerId);
+        }
+    }
+
+    private static UUID backpackIdOfHolder(Object holder) {
+        if (holder instanceof BackpackMenuHolder bmh)
+            return bmh.backpackId();
+        if (holder instanceof ModuleScreenHolder msh)
+            return msh.backpackId();
+        return null;
+    }
+
+    private void markDirty(HumanEntity entity) {
+        if (entity instanceof Player p)
+            markDirty(p);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent e) {
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        UUID id = e.getPlayer().getUniqueId();
+        forgetPlayer(id);
+        dirty.remove(id);
+        scannedAt.remove(id);
+        setViewing(id, null);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onOpen(InventoryOpenEvent e) {
+        UUID backpackId = backpackIdOfHolder(e.getInventory().getHolder());
+        if (backpackId == null && e.getPlayer() instanceof Player p && ModularPacksAPI.getInstance() != null) {
+            // Module screens with vanilla holders are tracked through their module session.
+            backpackId = ModularPacksAPI.getInstance().getModuleRegistry().getActiveBackpackId(p);
+        }
+        setViewing(e.getPlayer().getUniqueId(), backpackId);
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onClose(InventoryCloseEvent e) {
+        setViewing(e.getPlayer().getUniqueId(), null);
+        markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onClick(InventoryClickEvent e) {
+        HumanEntity who = e.getWhoClicked();
+        boolean movesBackpack = isBackpack(e.getCurrentItem()) || isBackpack(e.getCursor());
+        if (!movesBackpack && e.getHotbarButton() >= 0)
+            movesBackpack = isBackpack(who.getInventory().getItem(e.getHotbarButton()));
+        if (!movesBackpack && e.getClick() == ClickType.SWAP_OFFHAND)
+            movesBackpack = isBackpack(who.getInventory().getItemInOffHand());
+        if (movesBackpack)
+            markDirty(who);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDrag(InventoryDragEvent e) {
+        if (isBackpack(e.getOldCursor()))
+            markDirty(e.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent e) {
+        if (e.getEntity() instanceof Player p && isBackpack(e.getItem().getItemStack()))
+            markDirty(p);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent e) {
+        if (isBackpack(e.getItemDrop().getItemStack()))
+            markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwap(PlayerSwapHandItemsEvent e) {
+        if (isBackpack(e.getMainHandItem()) || isBackpack(e.getOffHandItem()))
+            markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlace(BlockPlaceEvent e) {
+        if (isBackpack(e.getItemInHand()))
+            markDirty(e.getPlayer());
+    }
+
+    // Placed-backpack pickup and backpack placement move items outside click
+    // events. Checked before those handlers run, while the placed block is still
+    // registered; the mark holds through this tick.
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onInteract(PlayerInteractEvent e) {
+        Block block = e.getClickedBlock();
+        if (isBackpack(e.getItem())
+                || (block != null && plugin.placedBackpacks().isPlacedAt(block.getLocation())))
+            markDirty(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent e) {
+        markDirty(e.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent e) {
+        markDirty(e.getPlayer());
+    }
+}
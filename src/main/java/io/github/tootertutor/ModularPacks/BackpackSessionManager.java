@@ -144,8 +144,8 @@ public final class BackpackSessionManager {
     }
 
     /**
-     * Refresh all online players' backpack items that point at this backpackId.
-     * Throttled to avoid scanning inventories too frequently (magnet/feeding).
+     * Refresh the carried copies of this backpackId, as found by the
+     * {@link BackpackHolderRegistry}. Throttled per backpack (magnet/feeding).
      */
     public void refreshLinkedBackpacksThrottled(UUID backpackId, BackpackData data) {
         if (backpackId == null || data == null)
@@ -168,31 +168,44 @@ public final class BackpackSessionManager {
         if (type == null)
             return;
 
-        int totalSlots = type.rows() * 9;
-        Keys keys = plugin.keys();
-
-        for (Player p : Bukkit.getOnlinePlayers()) {
-            ItemStack[] contents = p.getInventory().getContents();
-            if (contents != null) {
-                for (int i = 0; i < contents.length; i++) {
-                    ItemStack it = contents[i];
-                    if (!isLinkedBackpack(keys, it, backpackId))
-                        continue;
-                    if (backpackItems.refreshInPlace(it, type, backpackId, data, totalSlots)) {
-                        p.getInventory().setItem(i, it);
-                    }
-                }
-            }
+        BackpackHolderRegistry holders = plugin.holders();
+        if (holders == null)
+            return;
 
-            ItemStack cursor = p.getItemOnCursor();
-            if (isLinkedBackpack(keys, cursor, backpackId)) {
-                if (backpackItems.refreshInPlace(cursor, type, backpackId, data, totalSlots)) {
-                    p.setItemOnCursor(cursor);
-                }
+        Set<UUID> rescanned = new HashSet<>();
+        for (BackpackHolderRegistry.CarriedCopy copy : holders.carriedCopies(backpackId)) {
+            Player p = Bukkit.getPlayer(copy.playerId());
+            if (p == null || rescanned.contains(p.getUniqueId()))
+                continue;
+            if (refreshCarriedCopy(p, copy.slot(), backpackId, type, data))
+                continue;
+            // Moved since the last scan; rescan this player and refresh it where it is now.
+            rescanned.add(p.getUniqueId());
+            for (int slot : holders.rescanCarriedSlots(p, backpackId)) {
+                refreshCarriedCopy(p, slot, backpackId, type, data);
             }
         }
     }
 
+    /**
+     * @return false if the slot no longer holds this backpack
+     */
+    private boolean refreshCarriedCopy(Player p, int slot, UUID backpackId, BackpackTypeDef type,
+            BackpackData data) {
+        boolean cursor = slot == BackpackHolderRegistry.CURSOR_SLOT;
+        ItemStack it = cursor ? p.getItemOnCursor() : p.getInventory().getItem(slot);
+        if (!isLinkedBackpack(plugin.keys(), it, backpackId))
+            return false;
+        if (!backpackItems.refreshInPlace(it, type, backpackId, data, type.rows() * 9))
+            return true;
+        if (cursor) {
+            p.setItemOnCursor(it);
+        } else {
+            p.getInventory().setItem(slot, it);
+        }
+        return true;
+    }
+
     private boolean isViewerStillInSession(UUID viewerId, UUID backpackId) {
         Player p = Bukkit.getPlayer(viewerId);
         if (p == null || !p.isOnline())
@@ -246,13 +259,27 @@ public final class BackpackSessionManager {
             }
         }
 
-        for (Player p : Bukkit.getOnlinePlayers()) {
-            if (exceptViewer != null && exceptViewer.equals(p.getUniqueId()))
+        // Only current viewers and lock holders of the group can be in a session.
+        Set<UUID> candidates = new HashSet<>();
+        BackpackHolderRegistry holders = plugin.holders();
+        for (UUID id : group) {
+            if (holders != null)
+                candidates.addAll(holders.viewers(id));
+            UUID lockHolder = lockedToViewer.get(id);
+            if (lockHolder != null)
+                candidates.add(lockHolder);
+        }
+        if (exceptViewer != null)
+            candidates.remove(exceptViewer);
+
+        for (UUID candidate : candidates) {
+            Player p = Bukkit.getPlayer(candidate);
+            if (p == null)
                 continue;
 
             boolean inSession = false;
             for (UUID id : group) {
-                if (isViewerStillInSession(p.getUniqueId(), id)) {
+                if (isViewerStillInSession(candidate, id)) {
                     inSession = true;
                     break;
                 }
@@ -0,0 +1,70 @@
+package io.github.tootertutor.ModularPacks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Coalesces client inventory resyncs.
+ * Listeners call {@link #request(Player)} instead of scheduling
+ * {@code player.updateInventory()} themselves; one task per tick then sends at
+ * most one full resync per player, no matter how many clicks asked for it
+ * (e.g. sorting-mod click bursts).
+ *
+ * Main thread only.
+ */
+public final class InventoryResyncQueue {
+
+    private final ModularPacksPlugin plugin;
+
+    private final Set<UUID> pending = new LinkedHashSet<>();
+    private BukkitTask flushTask;
+
+    public InventoryResyncQueue(ModularPacksPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Marks the player's open view for a full resync on the next tick.
+     */
+    public void request(Player player) {
+        if (player == null)
+            return;
+
+        pending.add(player.getUniqueId());
+        if (flushTask == null)
+            flushTask = Bukkit.getScheduler().runTask(plugin, this::flush);
+    }
+
+    /**
+     * Drops pending resyncs (plugin disable).
+     */
+    public void clear() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        pending.clear();
+    }
+
+    private void flush() {
+        flushTask = null;
+        if (pending.isEmpty())
+            return;
+
+        List<UUID> batch = new ArrayList<>(pending);
+        pending.clear();
+
+        for (UUID playerId : batch) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null && player.isOnline())
+                player.updateInventory();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package io.github.tootertutor.ModularPacks;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.bukkit.Bukkit;
 import org.bukkit.event.HandlerList;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -15,11 +18,16 @@ import io.github.tootertutor.ModularPacks.commands.sub.RecoverSubcommand;
 import io.github.tootertutor.ModularPacks.commands.sub.RefreshSkullsSubcommand;
 import io.github.tootertutor.ModularPacks.commands.sub.ReloadSubcommand;
 import io.github.tootertutor.ModularPacks.commands.sub.SetTypeSubcommand;
+import io.github.tootertutor.ModularPacks.config.BackpackTypeDef;
 import io.github.tootertutor.ModularPacks.config.ConfigManager;
 import io.github.tootertutor.ModularPacks.config.LangManager;
+import io.github.tootertutor.ModularPacks.config.Placeholders;
+import io.github.tootertutor.ModularPacks.config.UpgradeDef;
 import io.github.tootertutor.ModularPacks.data.SQLiteBackpackRepository;
 import io.github.tootertutor.ModularPacks.gui.BackpackMenuRenderer;
+import io.github.tootertutor.ModularPacks.gui.BackpackSortMode;
 import io.github.tootertutor.ModularPacks.gui.ScreenRouter;
+import io.github.tootertutor.ModularPacks.item.ItemKinds;
 import io.github.tootertutor.ModularPacks.item.Keys;
 import io.github.tootertutor.ModularPacks.listeners.backpack.AdminBackpackListMenuListener;
 import io.github.tootertutor.ModularPacks.listeners.backpack.BackpackEverlastingListener;
@@ -38,6 +46,7 @@ import io.github.tootertutor.ModularPacks.listeners.module.CraftingModuleListene
 import io.github.tootertutor.ModularPacks.listeners.module.FurnaceModuleListener;
 import io.github.tootertutor.ModularPacks.listeners.module.ModuleFilterScreenListener;
 import io.github.tootertutor.ModularPacks.listeners.module.ModuleRecipeListener;
+import io.github.tootertutor.ModularPacks.listeners.module.ModuleTriggerListener;
 import io.github.tootertutor.ModularPacks.listeners.module.PreventModulePlacementListener;
 import io.github.tootertutor.ModularPacks.listeners.module.PreventModuleUseListener;
 import io.github.tootertutor.ModularPacks.listeners.module.PumpSettingsListener;
@@ -48,6 +57,7 @@ import io.github.tootertutor.ModularPacks.model.ModelManager;
 import io.github.tootertutor.ModularPacks.modules.ModuleEngineService;
 import io.github.tootertutor.ModularPacks.recipes.RecipeManager;
 import io.github.tootertutor.ModularPacks.update.UpdateCheckerService;
+import io.github.tootertutor.ModularPacks.util.Text;
 
 public final class ModularPacksPlugin extends JavaPlugin {
 
@@ -55,10 +65,13 @@ public final class ModularPacksPlugin extends JavaPlugin {
     private LangManager langManager;
     private SQLiteBackpackRepository repository;
     private Keys keys;
+    private ItemKinds itemKinds;
     private ModuleEngineService engines;
     private ClickDebugListener clickDebug;
     private RecipeManager recipes;
     private BackpackSessionManager sessions;
+    private InventoryResyncQueue resyncs;
+    private BackpackHolderRegistry holders;
     private ModuleFactory moduleFactory;
     private PlacedBackpackManager placedBackpacks;
     private BackpackMenuRenderer backpackMenuRenderer;
@@ -81,19 +94,23 @@ public final class ModularPacksPlugin extends JavaPlugin {
 
         this.configManager = new ConfigManager(this);
         this.configManager.reload();
+        this.itemKinds = new ItemKinds(this);
 
         this.updateCheckerService = new UpdateCheckerService(this);
         this.updateCheckerService.start();
 
         this.langManager = new LangManager(this);
         this.langManager.reload();
+        refreshTextCaches();
 
         this.repository = new SQLiteBackpackRepository(this);
         this.repository.init();
 
         this.sessions = new BackpackSessionManager(this);
+        this.resyncs = new InventoryResyncQueue(this);
 
         this.placedBackpacks = new PlacedBackpackManager(this);
+        this.holders = new BackpackHolderRegistry(this);
         this.modelManager = new ModelManager(this);
 
         // Create module instances
@@ -108,6 +125,7 @@ public final class ModularPacksPlugin extends JavaPlugin {
         Bukkit.getPluginManager().registerEvents(this.recipes, this);
 
         this.backpackMenuRenderer = new BackpackMenuRenderer(this);
+        BackpackSortMode.precomputeOrders();
 
         Bukkit.getPluginManager().registerEvents(new BackpackUseListener(this), this);
         Bukkit.getPluginManager().registerEvents(new BackpackMenuListener(this, backpackMenuRenderer, screenRouter),
@@ -118,6 +136,7 @@ public final class ModularPacksPlugin extends JavaPlugin {
         Bukkit.getPluginManager().registerEvents(new RestockModuleListener(this), this);
         Bukkit.getPluginManager().registerEvents(new PreventNestingListener(this), this);
         Bukkit.getPluginManager().registerEvents(new PumpSettingsListener(this), this);
+        Bukkit.getPluginManager().registerEvents(new ModuleTriggerListener(this), this);
         Bukkit.getPluginManager().registerEvents(new PreventModulePlacementListener(this), this);
         Bukkit.getPluginManager().registerEvents(new PreventModuleUseListener(this), this);
         Bukkit.getPluginManager().registerEvents(new BackpackEverlastingListener(this), this);
@@ -137,6 +156,8 @@ public final class ModularPacksPlugin extends JavaPlugin {
                 .registerEvents(new StonecutterModuleListener(this, screenRouter.getStonecutterModule()), this);
         Bukkit.getPluginManager().registerEvents(new RecipePreviewListener(), this);
         Bukkit.getPluginManager().registerEvents(modelManager, this);
+        Bukkit.getPluginManager().registerEvents(holders, this);
+        holders.start();
 
         if (cfg().debugClickLog()) {
             this.clickDebug = new ClickDebugListener(this);
@@ -185,6 +206,11 @@ public final class ModularPacksPlugin extends JavaPlugin {
         if (updateCheckerService != null)
             updateCheckerService.stop();
 
+        if (resyncs != null)
+            resyncs.clear();
+        if (holders != null)
+            holders.stop();
+
         getLogger().info("modularpacks disabled.");
     }
 
@@ -204,6 +230,10 @@ public final class ModularPacksPlugin extends JavaPlugin {
         return keys;
     }
 
+    public ItemKinds itemKinds() {
+        return itemKinds;
+    }
+
     public RecipeManager recipes() {
         return recipes;
     }
@@ -212,6 +242,14 @@ public final class ModularPacksPlugin extends JavaPlugin {
         return sessions;
     }
 
+    public InventoryResyncQueue resyncs() {
+        return resyncs;
+    }
+
+    public BackpackHolderRegistry holders() {
+        return holders;
+    }
+
     public ModuleFactory moduleFactory() {
         return moduleFactory;
     }
@@ -235,8 +273,11 @@ public final class ModularPacksPlugin extends JavaPlugin {
     public void reloadAll() {
         cfg().reload();
         lang().reload();
+        refreshTextCaches();
         if (recipes != null)
             recipes.reload();
+        if (repository != null)
+            repository.capabilities().forgetAll();
 
         boolean wantClickLog = cfg().debugClickLog();
         if (wantClickLog && clickDebug == null) {
@@ -253,6 +294,33 @@ public final class ModularPacksPlugin extends JavaPlugin {
         refreshUpdateChecker();
     }
 
+    /**
+     * Rebuilds everything derived from config/lang text: placeholder templates,
+     * GUI nav templates and the parsed component cache (warmed with lang strings
+     * and the static parts of type/module items). Call after either reloads.
+     */
+    public void refreshTextCaches() {
+        Placeholders.reload(this);
+        if (backpackMenuRenderer != null)
+            backpackMenuRenderer.invalidateTemplates();
+
+        Text.CacheStats stats = Text.cacheStats();
+        if (stats.lookups() > 0)
+            getLogger().info("Text component cache before reload: " + stats);
+        Text.clearCache();
+
+        List<String> warm = new ArrayList<>(lang().allStrings());
+        for (BackpackTypeDef type : cfg().getTypes()) {
+            warm.add(type.displayName());
+            warm.addAll(Placeholders.expandBackpackLore(this, type, null, type.lore()));
+        }
+        for (UpgradeDef def : cfg().getUpgrades()) {
+            warm.add(Placeholders.expandText(this, def, null, def.displayName()));
+            warm.addAll(Placeholders.expandLore(this, def, def.lore()));
+        }
+        Text.preload(warm);
+    }
+
     public void refreshUpdateChecker() {
         if (updateCheckerService == null) {
             updateCheckerService = new UpdateCheckerService(this);
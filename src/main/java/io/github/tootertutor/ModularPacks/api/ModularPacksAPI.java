@@ -1,6 +1,7 @@
 package io.github.tootertutor.ModularPacks.api;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
@@ -13,11 +14,20 @@ import org.bukkit.plugin.Plugin;
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
 import io.github.tootertutor.ModularPacks.api.modules.IModule;
 import io.github.tootertutor.ModularPacks.api.modules.ModuleRegistry;
+import io.github.tootertutor.ModularPacks.api.modules.TickingModule;
 import io.github.tootertutor.ModularPacks.config.BackpackTypeDef;
 import io.github.tootertutor.ModularPacks.config.ScreenType;
 import io.github.tootertutor.ModularPacks.config.UpgradeDef;
 import io.github.tootertutor.ModularPacks.data.BackpackData;
 import io.github.tootertutor.ModularPacks.data.ItemStackCodec;
+import io.github.tootertutor.ModularPacks.data.ModuleStateCodec;
+import io.github.tootertutor.ModularPacks.data.ModuleStateCodecs;
+import io.github.tootertutor.ModularPacks.gui.BackpackSortModes;
+import io.github.tootertutor.ModularPacks.gui.SortKey;
+import io.github.tootertutor.ModularPacks.gui.SortMode;
+import io.github.tootertutor.ModularPacks.modules.crafting.AutocraftingStateCodec;
+import io.github.tootertutor.ModularPacks.modules.furnace.FurnaceStateCodec;
+import io.github.tootertutor.ModularPacks.modules.tank.TankStateCodec;
 
 /**
  * Public API for ModularPacks.
@@ -44,6 +54,15 @@ public class ModularPacksAPI {
     private ModularPacksAPI(ModularPacksPlugin plugin) {
         this.plugin = plugin;
         this.moduleRegistry = new ModuleRegistry(plugin.getLogger());
+        registerBuiltInStateCodecs();
+    }
+
+    private static void registerBuiltInStateCodecs() {
+        for (ModuleStateCodec<?> codec : List.of(
+                FurnaceStateCodec.CODEC, TankStateCodec.CODEC, AutocraftingStateCodec.CODEC)) {
+            if (ModuleStateCodecs.get(codec.id()) == null)
+                ModuleStateCodecs.register(codec);
+        }
     }
 
     /**
@@ -175,6 +194,29 @@ public class ModularPacksAPI {
         return moduleRegistry.unregisterModule(moduleId);
     }
 
+    /**
+     * Register a passive module with the module engine. It is ticked for every
+     * carried or placed backpack with a matching, enabled module installed.
+     * Modules passed to registerModule that implement {@link TickingModule} are
+     * registered automatically.
+     * 
+     * @param module The ticking module to register
+     * @throws IllegalArgumentException if module is null or already registered
+     */
+    public void registerTickingModule(TickingModule module) {
+        moduleRegistry.registerTickingModule(module);
+    }
+
+    /**
+     * Unregister a passive module from the module engine.
+     * 
+     * @param moduleId The module ID
+     * @return true if the module was removed, false if it didn't exist
+     */
+    public boolean unregisterTickingModule(String moduleId) {
+        return moduleRegistry.unregisterTickingModule(moduleId);
+    }
+
     /**
      * Get a module by its ID.
      * 
@@ -244,6 +286,128 @@ public class ModularPacksAPI {
         return moduleRegistry.getModuleCount();
     }
 
+    /**
+     * Register a binary state codec for a custom module.
+     * States are stored as a header, the codec ID, a version byte and the
+     * codec's own layout; bytes without that header are passed to
+     * {@link ModuleStateCodec#decodeLegacy(byte[])}.
+     *
+     * @param codec The codec to register
+     * @throws IllegalArgumentException if codec is null, invalid, or its ID is
+     *                                  already registered
+     */
+    public void registerStateCodec(ModuleStateCodec<?> codec) {
+        ModuleStateCodecs.register(codec);
+    }
+
+    /**
+     * Unregister a state codec by ID.
+     *
+     * @param codecId The codec ID
+     * @return true if the codec was removed
+     */
+    public boolean unregisterStateCodec(String codecId) {
+        return ModuleStateCodecs.unregister(codecId);
+    }
+
+    /**
+     * Get a registered state codec by ID (case-insensitive).
+     *
+     * @param codecId The codec ID
+     * @return The codec, or null if not registered
+     */
+    public ModuleStateCodec<?> getStateCodec(String codecId) {
+        return ModuleStateCodecs.get(codecId);
+    }
+
+    /**
+     * Encode a module state with the given codec.
+     *
+     * @param codec The codec
+     * @param state The state to encode
+     * @return framed state bytes
+     */
+    public <T> byte[] encodeModuleState(ModuleStateCodec<T> codec, T state) {
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec cannot be null");
+        }
+        return ModuleStateCodecs.encode(codec, state);
+    }
+
+    /**
+     * Decode module state bytes (framed or legacy) with the given codec.
+     *
+     * @param codec The codec
+     * @param bytes The stored bytes
+     * @return the decoded state, or the codec's empty state if unreadable
+     */
+    public <T> T decodeModuleState(ModuleStateCodec<T> codec, byte[] bytes) {
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec cannot be null");
+        }
+        return ModuleStateCodecs.decode(codec, bytes);
+    }
+
+    /**
+     * Decode module state bytes for a read-modify-write. Use this instead of
+     * {@link #decodeModuleState} when the state will be written back.
+     *
+     * @param codec The codec
+     * @param bytes The stored bytes
+     * @return the decoded state, or null if framed bytes are unreadable (another
+     *         module type, a newer version, truncated); leave them untouched then
+     */
+    public <T> T tryDecodeModuleState(ModuleStateCodec<T> codec, byte[] bytes) {
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec cannot be null");
+        }
+        return ModuleStateCodecs.tryDecode(codec, bytes);
+    }
+
+    /**
+     * Register a custom sort mode. It is appended to the sort button's cycle.
+     * Modes supply a {@link SortKey} per stack; keys are extracted once per
+     * sort (once per kind of item unless the mode is amount-sensitive) and the
+     * sort only compares keys.
+     *
+     * @param mode The sort mode to register
+     * @throws IllegalArgumentException if mode is null, invalid, or its ID is
+     *                                  already registered
+     */
+    public void registerSortMode(SortMode mode) {
+        BackpackSortModes.register(mode);
+    }
+
+    /**
+     * Unregister a sort mode by ID. The default mode cannot be removed; open
+     * backpacks using a removed mode restart the cycle on the next click.
+     *
+     * @param modeId The sort mode ID
+     * @return true if the mode was removed
+     */
+    public boolean unregisterSortMode(String modeId) {
+        return BackpackSortModes.unregister(modeId);
+    }
+
+    /**
+     * Get a registered sort mode by ID (case-insensitive).
+     *
+     * @param modeId The sort mode ID
+     * @return The sort mode, or null if not registered
+     */
+    public SortMode getSortMode(String modeId) {
+        return BackpackSortModes.get(modeId);
+    }
+
+    /**
+     * Get all registered sort modes, in cycle order.
+     *
+     * @return Immutable list of sort modes
+     */
+    public List<SortMode> getSortModes() {
+        return BackpackSortModes.all();
+    }
+
     /**
      * Get the full logical storage contents for a backpack UUID.
      *
@@ -480,7 +644,7 @@ public class ModularPacksAPI {
     }
 
     private void persistBackpackStorage(BackpackStorageContext ctx) {
-        ctx.data.contentsBytes(ItemStackCodec.toBytes(ctx.logicalContents));
+        ctx.data.contents(ctx.logicalContents);
         plugin.repo().saveBackpack(ctx.data);
         plugin.sessions().refreshLinkedBackpacksThrottled(ctx.data.backpackId(), ctx.data);
     }
@@ -0,0 +1,117 @@
+package io.github.tootertutor.ModularPacks.api.modules;
+
+import java.util.BitSet;
+import java.util.Set;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Logical contents of a backpack, as handed to a {@link TickingModule} through
+ * {@link ModuleTickContext#contents()}. Lookups by material go through an index,
+ * so modules can visit only candidate slots of large backpacks.
+ *
+ * <p>
+ * All writes must go through this interface; stacks returned by
+ * {@link #get(int)} must not be changed directly. Modules that do not
+ * {@link TickingModule#mutatesContents() mutate contents} get a read-only view
+ * whose write methods throw {@link UnsupportedOperationException}.
+ */
+public interface BackpackContents {
+
+    int size();
+
+    /**
+     * @return The stack in the slot, or null for an empty slot
+     */
+    ItemStack get(int slot);
+
+    /**
+     * Replaces a slot.
+     */
+    void set(int slot, ItemStack stack);
+
+    /**
+     * Removes up to {@code amount} items from a slot, clearing it when empty.
+     *
+     * @return Number of items actually removed
+     */
+    int shrink(int slot, int amount);
+
+    /**
+     * Occupied slots holding the given material. The returned set is live; do not
+     * modify it, and re-read bits after a write.
+     */
+    BitSet slotsOf(Material material);
+
+    /**
+     * @return Materials currently present in the contents
+     */
+    Set<Material> materials();
+
+    /**
+     * @return Lowest empty slot, or -1 when the contents are full
+     */
+    int firstEmpty();
+
+    /**
+     * @return Number of empty slots
+     */
+    int emptyCount();
+
+    /**
+     * Sums the amount of stacks similar to {@code marker}, stopping once
+     * {@code cap} is reached.
+     */
+    int countSimilar(ItemStack marker, int cap);
+
+    /**
+     * Free room in existing stacks similar to {@code stack} (empty slots not
+     * included).
+     */
+    int mergeSpace(ItemStack stack);
+
+    /**
+     * Number of slots that {@link #take(ItemStack, int)} would empty completely
+     * for the same arguments, without changing anything.
+     */
+    int drainedSlots(ItemStack marker, int amount);
+
+    /**
+     * Checks whether {@code stack} fits without actually inserting it.
+     */
+    boolean canFit(ItemStack stack);
+
+    /**
+     * Removes up to {@code amount} items similar to {@code marker}, draining slots
+     * in ascending order.
+     *
+     * @return Number of items actually removed
+     */
+    int take(ItemStack marker, int amount);
+
+    /**
+     * Takes a single item similar to {@code marker} from the first matching slot.
+     *
+     * @return A one-item stack, or null when nothing matches
+     */
+    ItemStack takeOne(ItemStack marker);
+
+    /**
+     * Merges into similar stacks first, then fills empty slots (respecting max
+     * stack size). Changes the passed stack in place: its amount is reduced by
+     * what was inserted and a remainder is that same instance, so pass a copy
+     * of a stack that must stay intact. Stacks placed in empty slots are copies.
+     *
+     * @return null when fully inserted, otherwise the remainder
+     */
+    ItemStack insert(ItemStack stack);
+
+    /**
+     * Inserts {@code total} copies of {@code prototype}, split into stacks of at
+     * most its max stack size.
+     *
+     * @return Number of items that did not fit
+     */
+    int insertCopies(ItemStack prototype, int total);
+}
@@ -1,6 +1,9 @@
 package io.github.tootertutor.ModularPacks.api.modules;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +22,8 @@ public final class ModuleRegistry {
 
     private final Map<String, IModule> modules = new ConcurrentHashMap<>();
     private final Map<ScreenType, IModule> modulesByScreenType = new ConcurrentHashMap<>();
+    private final Map<String, TickingModule> tickingModules = new LinkedHashMap<>(); // guarded by this
+    private volatile List<TickingModule> tickingSnapshot = List.of();
     private final Logger logger;
 
     public ModuleRegistry(Logger logger) {
@@ -55,6 +60,70 @@ public final class ModuleRegistry {
         }
 
         logger.info("Registered module: " + moduleId + " (Screen: " + screenType + ")");
+
+        if (module instanceof TickingModule ticking) {
+            registerTickingModule(ticking);
+        }
+    }
+
+    /**
+     * Register a passive module with the module engine. Modules tick in
+     * registration order; ids are case-insensitive.
+     * 
+     * @param module The ticking module to register
+     * @throws IllegalArgumentException if a ticking module with the same ID is
+     *                                  already registered
+     */
+    public synchronized void registerTickingModule(TickingModule module) {
+        if (module == null) {
+            throw new IllegalArgumentException("Ticking module cannot be null");
+        }
+
+        String moduleId = module.getModuleId();
+        if (moduleId == null || moduleId.isBlank()) {
+            throw new IllegalArgumentException("Module ID cannot be null or blank");
+        }
+
+        if (tickingModules.putIfAbsent(moduleId.toLowerCase(Locale.ROOT), module) != null) {
+            throw new IllegalArgumentException("Ticking module with ID '" + moduleId + "' is already registered");
+        }
+        tickingSnapshot = List.copyOf(tickingModules.values());
+    }
+
+    /**
+     * Unregister a passive module from the module engine.
+     * 
+     * @param moduleId The ID of the ticking module
+     * @return true if the module was unregistered
+     */
+    public synchronized boolean unregisterTickingModule(String moduleId) {
+        if (moduleId == null || tickingModules.remove(moduleId.toLowerCase(Locale.ROOT)) == null) {
+            return false;
+        }
+        tickingSnapshot = List.copyOf(tickingModules.values());
+        return true;
+    }
+
+    /**
+     * Get a ticking module by its ID (case-insensitive).
+     * 
+     * @param moduleId The module ID
+     * @return Optional containing the ticking module if found
+     */
+    public synchronized Optional<TickingModule> getTickingModule(String moduleId) {
+        if (moduleId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tickingModules.get(moduleId.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Get all ticking modules in tick order.
+     * 
+     * @return Immutable snapshot of the ticking modules
+     */
+    public List<TickingModule> getTickingModules() {
+        return tickingSnapshot;
     }
 
     /**
@@ -67,6 +136,9 @@ public final class ModuleRegistry {
         IModule removed = modules.remove(moduleId);
         if (removed != null) {
             modulesByScreenType.remove(removed.getScreenType());
+            if (removed instanceof TickingModule) {
+                unregisterTickingModule(moduleId);
+            }
             logger.info("Unregistered module: " + moduleId);
             return true;
         }
@@ -157,5 +229,9 @@ public final class ModuleRegistry {
         logger.info("Clearing all registered modules");
         modules.clear();
         modulesByScreenType.clear();
+        synchronized (this) {
+            tickingModules.clear();
+            tickingSnapshot = List.of();
+        }
     }
 }
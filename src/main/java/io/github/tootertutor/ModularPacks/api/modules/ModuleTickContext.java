@@ -0,0 +1,96 @@
+package io.github.tootertutor.ModularPacks.api.modules;
+
+import java.util.BitSet;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import io.github.tootertutor.ModularPacks.data.BackpackData;
+
+/**
+ * What a {@link TickingModule} sees of one backpack during one engine cycle.
+ * Everything that needs decoding is resolved on first use, so a precondition
+ * that only looks at the player never pays for the contents.
+ *
+ * <p>
+ * Only valid during the call it was passed to.
+ */
+public interface ModuleTickContext {
+
+    /**
+     * @return The carrying player, or null for a placed backpack
+     */
+    Player player();
+
+    /**
+     * @return The player's location, or the block location of a placed backpack
+     *         (null if the placement is no longer valid)
+     */
+    Location location();
+
+    UUID backpackId();
+
+    String backpackType();
+
+    /**
+     * @return The backpack data (module states, snapshots, ...)
+     */
+    BackpackData data();
+
+    /**
+     * @return The installed, enabled module this tick is for, or null if there
+     *         is none
+     */
+    UUID moduleId();
+
+    /**
+     * @return The decoded module item snapshot, or null
+     */
+    ItemStack moduleSnapshot();
+
+    /**
+     * @return The persisted module state bytes, or null
+     */
+    byte[] moduleState();
+
+    /**
+     * @return true if a player has this module's own screen open
+     */
+    boolean isModuleScreenOpen();
+
+    /**
+     * Decoded logical contents, shared by all modules ticking this backpack.
+     * Modules that do not {@link TickingModule#mutatesContents() mutate
+     * contents} get a read-only view; they also tick while the backpack GUI is
+     * open, so what they read may lag behind it.
+     *
+     * @return The contents
+     */
+    BackpackContents contents();
+
+    /**
+     * @return Player inventory slots the wake this tick answers is about, or
+     *         null for a regular cycle (all slots); do not modify
+     */
+    BitSet wakeSlots();
+
+    /**
+     * @return The result of {@link TickingModule#prepareAsync}, or null
+     */
+    Object prepared();
+
+    /**
+     * @return The value stored by the precondition, or null
+     */
+    Object probeResult();
+
+    /**
+     * Stores a value from {@link TickingModule#shouldTick} for
+     * {@link TickingModule#tick}.
+     *
+     * @param value The value to keep
+     */
+    void probeResult(Object value);
+}
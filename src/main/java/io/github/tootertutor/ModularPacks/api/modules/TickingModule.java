@@ -0,0 +1,108 @@
+package io.github.tootertutor.ModularPacks.api.modules;
+
+import java.util.UUID;
+
+/**
+ * Optional contract for modules that work passively while a backpack is carried
+ * or placed (magnets, feeders, pumps, ...). The module engine schedules every
+ * registered ticking module, built-in or external, for each backpack that has a
+ * matching module installed and enabled.
+ *
+ * <p>
+ * A tick runs in phases, cheapest first:
+ * <ol>
+ * <li>{@link #shouldTick(ModuleTickContext)}: world-only precondition on the
+ * main thread; backpack contents are not decoded yet</li>
+ * <li>{@link #prepareAsync(UUID, UUID, byte[])}: optional off-thread work on a
+ * copy of the module state (only when {@link #hasAsyncPhase()})</li>
+ * <li>{@link #tick(ModuleTickContext)}: main-thread work; may read the
+ * contents and change the module state, and change the contents too when
+ * {@link #mutatesContents()}</li>
+ * </ol>
+ *
+ * <p>
+ * {@link IModule} implementations that also implement this interface are
+ * scheduled automatically when registered. The module id must match the
+ * installed module item's type (the {@code UpgradeDef} id).
+ */
+public interface TickingModule {
+
+    /**
+     * The engine runs every 10 ticks; shorter intervals are rounded up to it.
+     */
+    int ENGINE_PERIOD_TICKS = 10;
+
+    /**
+     * @return the module type this ticks for (e.g. "Magnet", "MyModule")
+     */
+    String getModuleId();
+
+    /**
+     * Get the number of server ticks between two ticks of the same installed
+     * module. Rounded up to a multiple of {@link #ENGINE_PERIOD_TICKS}.
+     *
+     * @return The tick interval
+     */
+    default int getTickInterval() {
+        return ENGINE_PERIOD_TICKS;
+    }
+
+    /**
+     * Whether the module changes the backpack contents or installed module
+     * snapshots. Such modules are skipped while the backpack GUI is open, since
+     * the open GUI owns those until it closes. Other modules get a read-only
+     * {@link ModuleTickContext#contents()} view.
+     *
+     * @return true if the module mutates the backpack
+     */
+    default boolean mutatesContents() {
+        return true;
+    }
+
+    /**
+     * Cheap precondition, called on the main thread when the module is due.
+     * Should only look at the world and player (and, if needed, the module
+     * state); decoding contents here defeats the purpose. Values worked out
+     * here can be passed on with {@link ModuleTickContext#probeResult(Object)}.
+     *
+     * @param context The tick context
+     * @return true if {@link #tick(ModuleTickContext)} has work this cycle
+     */
+    default boolean shouldTick(ModuleTickContext context) {
+        return true;
+    }
+
+    /**
+     * @return true if {@link #prepareAsync(UUID, UUID, byte[])} should run
+     *         before each main-thread tick
+     */
+    default boolean hasAsyncPhase() {
+        return false;
+    }
+
+    /**
+     * Off-thread phase. Runs on a worker thread once the module is due and its
+     * precondition passed. The result is handed to the module's next due
+     * {@link #tick(ModuleTickContext)} through
+     * {@link ModuleTickContext#prepared()}; returning null skips that tick.
+     * Must not touch the Bukkit API or the backpack data.
+     *
+     * @param backpackId The backpack UUID
+     * @param moduleId   The installed module UUID
+     * @param state      Copy of the persisted module state (may be null)
+     * @return Prepared work for the main thread, or null
+     */
+    default Object prepareAsync(UUID backpackId, UUID moduleId, byte[] state) {
+        return null;
+    }
+
+    /**
+     * Main-thread phase. Changes to {@link ModuleTickContext#contents()} and
+     * {@link ModuleTickContext#data()} are saved once after all modules of the
+     * backpack have ticked.
+     *
+     * @param context The tick context
+     * @return true if anything was changed and the backpack must be saved
+     */
+    boolean tick(ModuleTickContext context);
+}
@@ -121,6 +121,7 @@ public final class GiveSubcommand extends AbstractSubcommand {
             target.getInventory().addItem(item);
             ensureOwnedBackpackRow(target, item);
         }
+        plugin.holders().markDirty(target);
 
         ctx.sendInfo("Gave " + target.getName() + " x" + amount + " backpack(s): " + type.id());
     }
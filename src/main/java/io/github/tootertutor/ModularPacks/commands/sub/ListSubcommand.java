@@ -102,20 +102,21 @@ public final class ListSubcommand extends AbstractSubcommand {
             return;
         }
 
-        UUID ownerUuid = target.getUniqueId();
-        List<BackpackSummary> rows = plugin.repo().listBackpacksByOwner(ownerUuid);
-
-        if (rows.isEmpty()) {
-            ctx.sendInfo("No backpacks found in DB for " + target.getName() + " (" + ownerUuid + ").");
-            return;
-        }
-
         if (openMenu) {
             Player viewer = ctx.requirePlayer();
             if (viewer == null) {
                 return;
             }
-            listMenu.openMenu(viewer, target, rows);
+            // Rows are queried page by page off the main thread.
+            listMenu.openMenu(viewer, target);
+            return;
+        }
+
+        UUID ownerUuid = target.getUniqueId();
+        List<BackpackSummary> rows = plugin.repo().listBackpacksByOwner(ownerUuid);
+
+        if (rows.isEmpty()) {
+            ctx.sendInfo("No backpacks found in DB for " + target.getName() + " (" + ownerUuid + ").");
             return;
         }
 
@@ -6,6 +6,7 @@ import java.util.Locale;
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
 import io.github.tootertutor.ModularPacks.commands.AbstractSubcommand;
 import io.github.tootertutor.ModularPacks.commands.CommandContext;
+import io.github.tootertutor.ModularPacks.util.Text;
 
 /**
  * Reload config, language, and recipes from disk.
@@ -93,6 +94,12 @@ public final class ReloadSubcommand extends AbstractSubcommand {
             reloaded.append("lang");
         }
 
+        Text.CacheStats textStats = null;
+        if (reloadConfig || reloadLang) {
+            textStats = Text.cacheStats();
+            plugin.refreshTextCaches();
+        }
+
         if (reloadRecipes) {
             if (reloaded.length() > 0)
                 reloaded.append(", ");
@@ -101,6 +108,8 @@ public final class ReloadSubcommand extends AbstractSubcommand {
         }
 
         ctx.sendInfo("Reloaded: " + reloaded.toString());
+        if (textStats != null && textStats.lookups() > 0)
+            ctx.sendInfo("Text cache before reload: " + textStats);
     }
 
     @Override
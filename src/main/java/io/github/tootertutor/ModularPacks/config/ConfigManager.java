@@ -3,8 +3,9 @@ package io.github.tootertutor.ModularPacks.config;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -24,7 +25,6 @@ import org.bukkit.plugin.Plugin;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
 import io.github.tootertutor.ModularPacks.screens.core.DefaultScreenTypeResolver;
-import io.github.tootertutor.ModularPacks.util.ItemStacks;
 
 public final class ConfigManager {
 
@@ -66,13 +66,6 @@ public final class ConfigManager {
     private String updateCheckerNotifyPermission = "modularpacks.update.notify";
     private String updateCheckerReleaseApiUrl = "https://api.github.com/repos/tootertutor/ModularPacks/releases/latest";
 
-    // Container rules
-    private boolean allowShulkerBoxes = false;
-    private boolean allowBundles = false;
-
-    // Item types that cannot be inserted into backpacks (e.g. by Magnet)
-    private Set<Material> backpackInsertBlacklist = Set.of();
-
     // Placeable backpacks settings
     private boolean placeableEnabled = true;
     private boolean dropPlacedBackpacksOnExplosion = false;
@@ -93,8 +86,9 @@ public final class ConfigManager {
     // Single shared NamespacedKey for all GUI menu items; value identifies the type
     private NamespacedKey guiItemKey;
 
-    // Backpack types by name
-    private final Map<String, BackpackTypeDef> types = new HashMap<>();
+    // Backpack types, container rules and hot-path upgrade settings; replaced
+    // whole on reload
+    private volatile ConfigSnapshot snapshot;
 
     // Upgrades by ID
     private final Map<String, UpgradeDef> upgrades = new HashMap<>();
@@ -113,7 +107,6 @@ public final class ConfigManager {
         this.backpacksYaml = backpacksCfg;
         this.modulesYaml = modulesCfg;
 
-        this.types.clear();
         this.upgrades.clear();
 
         resizeGui = cfg.getBoolean("modularpacks.ResizeGUI", false);
@@ -146,8 +139,8 @@ public final class ConfigManager {
             updateCheckerReleaseApiUrl = "https://api.github.com/repos/tootertutor/ModularPacks/releases/latest";
         }
 
-        allowShulkerBoxes = cfg.getBoolean("modularpacks.AllowShulkerBoxes", false);
-        allowBundles = cfg.getBoolean("modularpacks.AllowBundles", false);
+        boolean allowShulkerBoxes = cfg.getBoolean("modularpacks.AllowShulkerBoxes", false);
+        boolean allowBundles = cfg.getBoolean("modularpacks.AllowBundles", false);
 
         backpackOpenSound = parseSound(cfg.getString("modularpacks.BackpackOpenSound", "CHEST_OPEN"),
                 Sound.BLOCK_CHEST_OPEN);
@@ -165,13 +158,12 @@ public final class ConfigManager {
 
         // Global insert blacklist (Magnet respects this; other insertion paths may as
         // well)
-        Set<Material> bl = new HashSet<>();
+        Set<Material> bl = EnumSet.noneOf(Material.class);
         for (String raw : cfg.getStringList("modularpacks.BackpackInsertBlacklist")) {
             Material m = parseMaterial(raw);
             if (m != null)
                 bl.add(m);
         }
-        backpackInsertBlacklist = Collections.unmodifiableSet(bl);
 
         // Placeable backpacks settings
         placeableEnabled = cfg.getBoolean("modularpacks.Placeable", true);
@@ -194,6 +186,7 @@ public final class ConfigManager {
         guiItemKey = new NamespacedKey(plugin, "gui-item");
 
         // Backpack types
+        Map<String, BackpackTypeDef> types = new LinkedHashMap<>();
         ConfigurationSection typesSec = backpacksCfg.getConfigurationSection("BackpackTypes");
         if (typesSec != null) {
             for (String key : typesSec.getKeys(false)) {
@@ -255,6 +248,27 @@ public final class ConfigManager {
 
         // Load external module definitions from other plugins
         loadExternalModuleDefinitions();
+
+        snapshot = new ConfigSnapshot(
+                Collections.unmodifiableMap(types),
+                Collections.unmodifiableSet(bl),
+                allowShulkerBoxes,
+                allowBundles,
+                ConfigSnapshot.Magnet.load(this),
+                ConfigSnapshot.Feeding.load(this),
+                ConfigSnapshot.Jukebox.load(this),
+                ConfigSnapshot.Autocrafting.load(this),
+                ConfigSnapshot.Pump.load(this),
+                ConfigSnapshot.ExpPump.load(this));
+        Placeholders.invalidate();
+    }
+
+    /**
+     * @return the settings of the last reload; fetch once and read from the
+     *         returned snapshot to see one consistent reload
+     */
+    public ConfigSnapshot snapshot() {
+        return snapshot;
     }
 
     /**
@@ -417,11 +431,11 @@ public final class ConfigManager {
     }
 
     public boolean allowShulkerBoxes() {
-        return allowShulkerBoxes;
+        return snapshot.allowShulkerBoxes();
     }
 
     public boolean allowBundles() {
-        return allowBundles;
+        return snapshot.allowBundles();
     }
 
     public Sound backpackOpenSound() {
@@ -433,26 +447,12 @@ public final class ConfigManager {
     }
 
     public Set<Material> backpackInsertBlacklist() {
-        return backpackInsertBlacklist;
+        return snapshot.insertBlacklist();
     }
 
     public boolean isAllowedInBackpack(ItemStack stack) {
-        if (ItemStacks.isAir(stack))
-            return true;
-
-        Material mat = stack.getType();
-
-        // Admin-controlled hard blacklist
-        if (backpackInsertBlacklist != null && backpackInsertBlacklist.contains(mat))
-            return false;
-
-        if (!allowShulkerBoxes && isShulkerBox(mat))
-            return false;
-
-        if (!allowBundles && isBundle(mat))
-            return false;
-
-        return true;
+        // Admin blacklist and container rules, precomputed per material
+        return plugin.itemKinds().isAllowedInBackpack(stack);
     }
 
     public boolean isPlaceableEnabled() {
@@ -538,17 +538,6 @@ public final class ConfigManager {
         }
     }
 
-    private static boolean isShulkerBox(Material mat) {
-        return mat != null && mat.name().endsWith("SHULKER_BOX");
-    }
-
-    private static boolean isBundle(Material mat) {
-        if (mat == null)
-            return false;
-        String name = mat.name();
-        return name.equals("BUNDLE") || name.endsWith("_BUNDLE");
-    }
-
     private static Material parseMaterial(String name) {
         if (name == null)
             return null;
@@ -705,11 +694,11 @@ public final class ConfigManager {
     public BackpackTypeDef findType(String input) {
         if (input == null)
             return null;
-        return types.get(input.toLowerCase(Locale.ROOT));
+        return snapshot.types().get(input.toLowerCase(Locale.ROOT));
     }
 
     public Collection<BackpackTypeDef> getTypes() {
-        return types.values();
+        return snapshot.types().values();
     }
 
     public UpgradeDef getUpgrade(String input) {
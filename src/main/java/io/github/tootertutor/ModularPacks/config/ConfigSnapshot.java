@@ -0,0 +1,81 @@
+package io.github.tootertutor.ModularPacks.config;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.bukkit.Material;
+
+/**
+ * Typed settings read on hot paths, built once per reload and published whole,
+ * so engines read plain fields and async workers always see a single reload.
+ * - types: backpack types by lower-case id, in config order
+ * - insertBlacklist: materials that may never be inserted (EnumSet-backed)
+ * - magnet/feeding/...: per-upgrade settings, defaulted and clamped
+ *
+ * Settings that module items override per instance (modes, target level, ...)
+ * keep their config value here as the fallback.
+ */
+public record ConfigSnapshot(
+        Map<String, BackpackTypeDef> types,
+        Set<Material> insertBlacklist,
+        boolean allowShulkerBoxes,
+        boolean allowBundles,
+        Magnet magnet,
+        Feeding feeding,
+        Jukebox jukebox,
+        Autocrafting autocrafting,
+        Pump pump,
+        ExpPump expPump) {
+
+    public record Magnet(double range, int maxItemsPerTick) {
+        static Magnet load(ConfigManager cfg) {
+            return new Magnet(cfg.getDouble("Upgrades.Magnet.Range", 6.0),
+                    Math.max(1, Math.min(256, cfg.getInt("Upgrades.Magnet.MaxItemsPerTick", 32))));
+        }
+    }
+
+    public record Feeding(int minFoodLevel, int cooldownTicks) {
+        static Feeding load(ConfigManager cfg) {
+            return new Feeding(Math.max(0, Math.min(20, cfg.getInt("Upgrades.Feeding.MinFoodLevel", 18))),
+                    Math.max(0, cfg.getInt("Upgrades.Feeding.CooldownTicks", 20)));
+        }
+    }
+
+    public record Jukebox(double hearRadius, float volume, float pitch, int trackDurationTicks) {
+        static Jukebox load(ConfigManager cfg) {
+            return new Jukebox(Math.max(0.0, cfg.getDouble("Upgrades.Jukebox.HearRadius", 32.0)),
+                    (float) cfg.getDouble("Upgrades.Jukebox.Volume", 1.0),
+                    (float) cfg.getDouble("Upgrades.Jukebox.Pitch", 1.0),
+                    Math.max(20, cfg.getInt("Upgrades.Jukebox.TrackDurationTicks", 2400)));
+        }
+    }
+
+    public record Autocrafting(int craftingIntervalTicks) {
+        static Autocrafting load(ConfigManager cfg) {
+            return new Autocrafting(Math.max(10, cfg.getInt("Upgrades.Autocrafting.CraftingIntervalTicks", 120)));
+        }
+    }
+
+    public record Pump(int intervalTicks) {
+        static Pump load(ConfigManager cfg) {
+            return new Pump(Math.max(10, cfg.getInt("Upgrades.Pump.IntervalTicks", 40)));
+        }
+    }
+
+    /**
+     * - mendingXpPerCycle: points spent on mending per pump cycle (1-100)
+     * - keepLevelStepsPerCycle: levels KEEP_LEVEL moves per pump cycle (1-10)
+     */
+    public record ExpPump(int intervalTicks, boolean mendEquippedItems, int targetLevel, int mendingXpPerCycle,
+            int keepLevelStepsPerCycle) {
+        static ExpPump load(ConfigManager cfg) {
+            int keepLevelSteps = cfg.getInt("Upgrades.ExpPump.KeepLevelLevelsPerTick",
+                    cfg.getInt("Upgrades.ExpPump.KeepLevelXpPerTick", 1));
+            return new ExpPump(Math.max(10, cfg.getInt("Upgrades.ExpPump.IntervalTicks", 40)),
+                    cfg.getBoolean("Upgrades.ExpPump.MendEquippedItems", false),
+                    cfg.getInt("Upgrades.ExpPump.TargetLevel", 30),
+                    Math.max(1, Math.min(100, cfg.getInt("Upgrades.ExpPump.MendingXpPerTick", 2))),
+                    Math.max(1, Math.min(10, keepLevelSteps)));
+        }
+    }
+}
@@ -33,6 +33,7 @@ public final class LangManager {
         }
         this.lang = YamlConfiguration.loadConfiguration(f);
         localeCache.clear();
+        Placeholders.invalidate();
     }
 
     /**
@@ -71,6 +72,28 @@ public final class LangManager {
         return lang.get(path);
     }
 
+    /**
+     * Every string value in the default locale file, including list entries.
+     * Used to warm text caches at reload.
+     */
+    public List<String> allStrings() {
+        if (lang == null)
+            return Collections.emptyList();
+        List<String> out = new java.util.ArrayList<>();
+        for (String key : lang.getKeys(true)) {
+            Object raw = lang.get(key);
+            if (raw instanceof String str) {
+                out.add(str);
+            } else if (raw instanceof List<?> list) {
+                for (Object o : list) {
+                    if (o instanceof String str)
+                        out.add(str);
+                }
+            }
+        }
+        return out;
+    }
+
     public boolean has(String path) {
         if (lang == null || path == null)
             return false;
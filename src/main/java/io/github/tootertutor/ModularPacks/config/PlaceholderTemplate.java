@@ -0,0 +1,114 @@
+package io.github.tootertutor.ModularPacks.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A lore/lang line parsed once into literal text and {@code {key}} slots.
+ * - parts: literal text, or the placeholder key when {@code keys[i]} is true
+ * - pureKey: key of a line that is only a placeholder (surrounding whitespace
+ * ignored), so list values can replace the whole line
+ *
+ * Keys follow the same grammar as the old {@code \{([A-Za-z0-9._\-]+)\}}
+ * pattern; braces that do not form a valid key stay literal.
+ */
+final class PlaceholderTemplate {
+
+    private final String source;
+    private final String[] parts;
+    private final boolean[] keys;
+    private final String pureKey;
+    private final boolean hasPlaceholders;
+
+    private PlaceholderTemplate(String source, String[] parts, boolean[] keys, String pureKey,
+            boolean hasPlaceholders) {
+        this.source = source;
+        this.parts = parts;
+        this.keys = keys;
+        this.pureKey = pureKey;
+        this.hasPlaceholders = hasPlaceholders;
+    }
+
+    static PlaceholderTemplate compile(String source) {
+        List<String> parts = new ArrayList<>();
+        List<Boolean> keys = new ArrayList<>();
+
+        int literalStart = 0;
+        int i = 0;
+        int n = source.length();
+        while (i < n) {
+            if (source.charAt(i) != '{') {
+                i++;
+                continue;
+            }
+            int end = i + 1;
+            while (end < n && isKeyChar(source.charAt(end)))
+                end++;
+            if (end == i + 1 || end >= n || source.charAt(end) != '}') {
+                i++;
+                continue;
+            }
+            if (i > literalStart) {
+                parts.add(source.substring(literalStart, i));
+                keys.add(Boolean.FALSE);
+            }
+            parts.add(source.substring(i + 1, end));
+            keys.add(Boolean.TRUE);
+            i = end + 1;
+            literalStart = i;
+        }
+        if (literalStart < n) {
+            parts.add(source.substring(literalStart));
+            keys.add(Boolean.FALSE);
+        }
+
+        boolean[] keyFlags = new boolean[keys.size()];
+        int keyCount = 0;
+        String onlyKey = null;
+        boolean onlyWhitespace = true;
+        for (int j = 0; j < keyFlags.length; j++) {
+            keyFlags[j] = keys.get(j);
+            if (keyFlags[j]) {
+                keyCount++;
+                onlyKey = parts.get(j);
+            } else if (!parts.get(j).isBlank()) {
+                onlyWhitespace = false;
+            }
+        }
+
+        String pureKey = keyCount == 1 && onlyWhitespace ? onlyKey : null;
+        return new PlaceholderTemplate(source, parts.toArray(new String[0]), keyFlags, pureKey, keyCount > 0);
+    }
+
+    private static boolean isKeyChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '.' || c == '_' || c == '-';
+    }
+
+    String source() {
+        return source;
+    }
+
+    int size() {
+        return parts.length;
+    }
+
+    String part(int index) {
+        return parts[index];
+    }
+
+    boolean isKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @return the placeholder key when the line is just {@code {key}}, else null
+     */
+    String pureKey() {
+        return pureKey;
+    }
+
+    boolean hasPlaceholders() {
+        return hasPlaceholders;
+    }
+}
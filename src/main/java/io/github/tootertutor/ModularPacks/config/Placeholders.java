@@ -5,8 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -24,17 +23,53 @@ public final class Placeholders {
 
     private static final int MAX_EXPANSION_DEPTH = 6;
     private static final int MAX_EXPANDED_LINES = 250;
-    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z0-9._\\-]+)\\}");
+    private static final int MAX_CACHED_TEMPLATES = 8192;
+
+    // Parsed lines, resolved lang values and per-upgrade config scalars; all are
+    // rebuilt lazily after reload(plugin).
+    private static final Map<String, PlaceholderTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<String, Replacement> LANG_VALUES = new ConcurrentHashMap<>();
+    private static final Map<String, UpgradeScalars> UPGRADE_SCALARS = new ConcurrentHashMap<>();
+    private static final Replacement MISSING = new Replacement(null, null);
+
+    /**
+     * Drops cached templates and resolved lang/upgrade values. Called by config
+     * and lang reloads themselves, whichever path triggers them; values are
+     * resolved again on next use.
+     */
+    public static void invalidate() {
+        TEMPLATES.clear();
+        LANG_VALUES.clear();
+        UPGRADE_SCALARS.clear();
+    }
+
+    /**
+     * Drops cached templates and values, then pre-parses configured lore and
+     * display names. Call after both config and lang have been reloaded.
+     */
+    public static void reload(ModularPacksPlugin plugin) {
+        invalidate();
+        if (plugin == null || plugin.cfg() == null)
+            return;
+
+        for (BackpackTypeDef type : plugin.cfg().getTypes()) {
+            precompile(type.displayName());
+            if (type.lore() != null)
+                type.lore().forEach(Placeholders::precompile);
+        }
+        for (UpgradeDef def : plugin.cfg().getUpgrades()) {
+            precompile(def.displayName());
+            if (def.lore() != null)
+                def.lore().forEach(Placeholders::precompile);
+            upgradeScalars(plugin, def);
+        }
+    }
 
     public static List<String> expandLore(ModularPacksPlugin plugin, List<String> lore) {
         if (plugin == null)
             return lore == null ? List.of() : lore;
 
-        Map<String, Replacement> overrides = new HashMap<>();
-        // Back-compat: treat {moduleActions} as "primary" actions.
-        overrides.put("moduleActions", Replacement.list(langActionsPrimary(plugin)));
-
-        return expandLines(plugin, null, null, lore, overrides);
+        return expandLines(moduleContext(plugin, null, null), lore);
     }
 
     public static List<String> expandBackpackLore(ModularPacksPlugin plugin, BackpackTypeDef type, UUID backpackId,
@@ -70,19 +105,14 @@ public final class Placeholders {
         if (plugin == null)
             return lore == null ? List.of() : lore;
 
-        Map<String, Replacement> overrides = new HashMap<>();
+        Context ctx = new Context(plugin);
 
-        String backpackIdStr = backpackId == null ? "" : backpackId.toString();
-        overrides.put("backpackId", Replacement.scalar(backpackIdStr));
-        overrides.put("BackpackId", Replacement.scalar(backpackIdStr));
+        ctx.scalar("backpackId", backpackId == null ? "" : backpackId.toString());
 
         if (type != null) {
-            overrides.put("typeId", Replacement.scalar(type.id()));
-            overrides.put("TypeId", Replacement.scalar(type.id()));
-            overrides.put("rows", Replacement.scalar(Integer.toString(type.rows())));
-            overrides.put("Rows", Replacement.scalar(Integer.toString(type.rows())));
-            overrides.put("upgradeSlots", Replacement.scalar(Integer.toString(type.upgradeSlots())));
-            overrides.put("UpgradeSlots", Replacement.scalar(Integer.toString(type.upgradeSlots())));
+            ctx.scalar("typeId", type.id());
+            ctx.scalar("rows", Integer.toString(type.rows()));
+            ctx.scalar("upgradeSlots", Integer.toString(type.upgradeSlots()));
         }
 
         int usedSlots = 0;
@@ -91,24 +121,13 @@ public final class Placeholders {
         List<String> installedModuleLines = new ArrayList<>();
 
         if (data != null) {
-            ItemStack[] decoded = ItemStackCodec.fromBytes(data.contentsBytes());
-
-            int effectiveTotalSlots = totalSlots > 0 ? totalSlots : decoded.length;
-
-            int limit = Math.min(decoded.length, Math.max(0, effectiveTotalSlots));
-            for (int i = 0; i < limit; i++) {
-                ItemStack it = decoded[i];
-                if (ItemStacks.isAir(it))
-                    continue;
-                usedSlots++;
-                itemCount += Math.max(0, it.getAmount());
-            }
+            // Aggregates are maintained by the contents writers and backfilled on load.
+            usedSlots = data.usedSlots();
+            itemCount = data.itemCount();
 
             installedModules = data.installedModules().size();
 
-            // Build installed module display lines from stored snapshots (preferred)
-            // or fall back to module UUID.
-            Keys keys = plugin.keys();
+            // Build installed module display lines from the recorded module types.
             data.installedModules().entrySet().stream()
                     .sorted(Map.Entry.comparingByKey())
                     .forEach(e -> {
@@ -116,22 +135,12 @@ public final class Placeholders {
                         if (moduleId == null)
                             return;
 
+                        String moduleType = data.moduleTypes().get(moduleId);
+
                         String display = null;
-                        byte[] snap = data.installedSnapshots().get(moduleId);
-                        if (snap != null) {
-                            ItemStack[] arr = ItemStackCodec.fromBytes(snap);
-                            ItemStack moduleItem = (arr != null && arr.length > 0) ? arr[0] : null;
-                            if (moduleItem != null && moduleItem.hasItemMeta()) {
-                                ItemMeta meta = moduleItem.getItemMeta();
-                                if (meta != null) {
-                                    String moduleType = meta.getPersistentDataContainer().get(keys.MODULE_TYPE,
-                                            PersistentDataType.STRING);
-                                    if (moduleType != null) {
-                                        UpgradeDef def = plugin.cfg().findUpgrade(moduleType);
-                                        display = def != null ? def.displayName() : moduleType;
-                                    }
-                                }
-                            }
+                        if (moduleType != null) {
+                            UpgradeDef def = plugin.cfg().findUpgrade(moduleType);
+                            display = def != null ? def.displayName() : moduleType;
                         }
 
                         if (display == null) {
@@ -150,18 +159,11 @@ public final class Placeholders {
         if (effectiveTotalSlots < 0)
             effectiveTotalSlots = 0;
 
-        overrides.put("totalSlots", Replacement.scalar(Integer.toString(effectiveTotalSlots)));
-        overrides.put("TotalSlots", Replacement.scalar(Integer.toString(effectiveTotalSlots)));
-
-        overrides.put("usedSlots", Replacement.scalar(Integer.toString(usedSlots)));
-        overrides.put("UsedSlots", Replacement.scalar(Integer.toString(usedSlots)));
-        overrides.put("itemCount", Replacement.scalar(Integer.toString(itemCount)));
-        overrides.put("ItemCount", Replacement.scalar(Integer.toString(itemCount)));
-        overrides.put("installedModuleCount", Replacement.scalar(Integer.toString(installedModules)));
-        overrides.put("InstalledModuleCount", Replacement.scalar(Integer.toString(installedModules)));
-
-        overrides.put("installedModules", Replacement.list(installedModuleLines));
-        overrides.put("InstalledModules", Replacement.list(installedModuleLines));
+        ctx.scalar("totalSlots", Integer.toString(effectiveTotalSlots));
+        ctx.scalar("usedSlots", Integer.toString(usedSlots));
+        ctx.scalar("itemCount", Integer.toString(itemCount));
+        ctx.scalar("installedModuleCount", Integer.toString(installedModules));
+        ctx.list("installedModules", installedModuleLines);
 
         boolean empty = (usedSlots <= 0 && itemCount <= 0);
         List<String> tpl = empty ? plugin.lang().getList("backpackContentsEmpty")
@@ -171,9 +173,9 @@ public final class Placeholders {
                     ? List.of("&7Contents: &8(Empty)")
                     : List.of("&7Contents: &f{usedSlots}&7/&f{totalSlots} &7slots", "&7Items: &f{itemCount}");
         }
-        overrides.put("backpackContents", Replacement.list(tpl));
+        ctx.list("backpackContents", tpl);
 
-        return expandLines(plugin, null, null, lore, overrides);
+        return expandLines(ctx, lore);
     }
 
     public static List<String> expandLore(ModularPacksPlugin plugin, UpgradeDef def, List<String> lore) {
@@ -184,122 +186,57 @@ public final class Placeholders {
             List<String> lore) {
         if (plugin == null)
             return lore == null ? List.of() : lore;
-        if (def == null)
-            return expandLore(plugin, lore);
-
-        Map<String, Replacement> overrides = new HashMap<>();
-        overrides.put("moduleActions", Replacement.list(resolveActions(plugin, def)));
-
-        String toggleState = resolveToggleState(plugin, def, moduleItem);
-        // Always register toggleState so non-toggleable modules can safely omit it.
-        overrides.put("toggleState", Replacement.scalar(toggleState));
-
-        // Optional module-specific placeholders
-        if (def.id() != null && def.id().equalsIgnoreCase("Jukebox")) {
-            overrides.put("jukeboxMode", Replacement.scalar(resolveJukeboxMode(plugin, moduleItem)));
-        } else {
-            overrides.put("jukeboxMode", Replacement.scalar(""));
-        }
-        if (def.id() != null && def.id().equalsIgnoreCase("Feeding")) {
-            overrides.put("feedingMode", Replacement.scalar(resolveFeedingMode(plugin, moduleItem)));
-        } else {
-            overrides.put("feedingMode", Replacement.scalar(""));
-        }
-        if (def.id() != null && (def.id().equalsIgnoreCase("Pump") || def.id().equalsIgnoreCase("ExpPump"))) {
-            overrides.put("pumpMode", Replacement.scalar(resolvePumpMode(plugin, moduleItem, def.id())));
-        } else {
-            overrides.put("pumpMode", Replacement.scalar(""));
-        }
-        if (def.id() != null && def.id().equalsIgnoreCase("ExpPump")) {
-            overrides.put("expPumpMending", Replacement.scalar(resolveExpPumpMending(plugin, moduleItem)));
-            String targetLevel = Integer.toString(resolveExpPumpTargetLevel(plugin, moduleItem));
-            overrides.put("level", Replacement.scalar(targetLevel));
-            overrides.put("Level", Replacement.scalar(targetLevel));
-            overrides.put("targetLevel", Replacement.scalar(targetLevel));
-            overrides.put("TargetLevel", Replacement.scalar(targetLevel));
-        } else {
-            overrides.put("expPumpMending", Replacement.scalar(""));
-            overrides.put("level", Replacement.scalar(""));
-            overrides.put("Level", Replacement.scalar(""));
-            overrides.put("targetLevel", Replacement.scalar(""));
-            overrides.put("TargetLevel", Replacement.scalar(""));
-        }
-        if (def.id() != null && def.id().equalsIgnoreCase("Restock")) {
-            String threshold = Integer.toString(resolveRestockThreshold(plugin, moduleItem, def));
-            // Value placeholder used inside lang templates (e.g. {restockThreshold} ->
-            // "&7... {threshold}")
-            overrides.put("threshold", Replacement.scalar(threshold));
-            overrides.put("Threshold", Replacement.scalar(threshold));
-            overrides.put("restockThresholdValue", Replacement.scalar(threshold));
-            overrides.put("RestockThresholdValue", Replacement.scalar(threshold));
-        } else {
-            overrides.put("threshold", Replacement.scalar(""));
-            overrides.put("Threshold", Replacement.scalar(""));
-            overrides.put("restockThresholdValue", Replacement.scalar(""));
-            overrides.put("RestockThresholdValue", Replacement.scalar(""));
-        }
-
-        addUpgradeConfigScalars(plugin, def, overrides);
 
-        return expandLines(plugin, def, moduleItem, lore, overrides);
+        return expandLines(moduleContext(plugin, def, moduleItem), lore);
     }
 
     public static String expandText(ModularPacksPlugin plugin, UpgradeDef def, ItemStack moduleItem, String text) {
         if (plugin == null || text == null)
             return text;
 
-        Map<String, Replacement> overrides = new HashMap<>();
-        if (def != null) {
-            overrides.put("moduleActions", Replacement.list(resolveActions(plugin, def)));
-            String toggleState = resolveToggleState(plugin, def, moduleItem);
-            overrides.put("toggleState", Replacement.scalar(toggleState));
-            if (def.id() != null && def.id().equalsIgnoreCase("Jukebox")) {
-                overrides.put("jukeboxMode", Replacement.scalar(resolveJukeboxMode(plugin, moduleItem)));
-            } else {
-                overrides.put("jukeboxMode", Replacement.scalar(""));
-            }
-            if (def.id() != null && def.id().equalsIgnoreCase("Feeding")) {
-                overrides.put("feedingMode", Replacement.scalar(resolveFeedingMode(plugin, moduleItem)));
-            } else {
-                overrides.put("feedingMode", Replacement.scalar(""));
-            }
-            if (def.id() != null && (def.id().equalsIgnoreCase("Pump") || def.id().equalsIgnoreCase("ExpPump"))) {
-                overrides.put("pumpMode", Replacement.scalar(resolvePumpMode(plugin, moduleItem, def.id())));
-            } else {
-                overrides.put("pumpMode", Replacement.scalar(""));
-            }
-            if (def.id() != null && def.id().equalsIgnoreCase("ExpPump")) {
-                overrides.put("expPumpMending", Replacement.scalar(resolveExpPumpMending(plugin, moduleItem)));
-                String targetLevel = Integer.toString(resolveExpPumpTargetLevel(plugin, moduleItem));
-                overrides.put("level", Replacement.scalar(targetLevel));
-                overrides.put("Level", Replacement.scalar(targetLevel));
-                overrides.put("targetLevel", Replacement.scalar(targetLevel));
-                overrides.put("TargetLevel", Replacement.scalar(targetLevel));
-            } else {
-                overrides.put("expPumpMending", Replacement.scalar(""));
-                overrides.put("level", Replacement.scalar(""));
-                overrides.put("Level", Replacement.scalar(""));
-                overrides.put("targetLevel", Replacement.scalar(""));
-                overrides.put("TargetLevel", Replacement.scalar(""));
-            }
-            if (def.id() != null && def.id().equalsIgnoreCase("Restock")) {
-                String threshold = Integer.toString(resolveRestockThreshold(plugin, moduleItem, def));
-                overrides.put("threshold", Replacement.scalar(threshold));
-                overrides.put("Threshold", Replacement.scalar(threshold));
-                overrides.put("restockThresholdValue", Replacement.scalar(threshold));
-                overrides.put("RestockThresholdValue", Replacement.scalar(threshold));
-            } else {
-                overrides.put("threshold", Replacement.scalar(""));
-                overrides.put("Threshold", Replacement.scalar(""));
-                overrides.put("restockThresholdValue", Replacement.scalar(""));
-                overrides.put("RestockThresholdValue", Replacement.scalar(""));
-            }
-            addUpgradeConfigScalars(plugin, def, overrides);
+        return render(moduleContext(plugin, def, moduleItem), text, 0);
+    }
+
+    private static Context moduleContext(ModularPacksPlugin plugin, UpgradeDef def, ItemStack moduleItem) {
+        Context ctx = new Context(plugin);
+        if (def == null) {
+            // Back-compat: treat {moduleActions} as "primary" actions.
+            ctx.list("moduleActions", langActionsPrimary(plugin));
+            return ctx;
+        }
+
+        String id = def.id() == null ? "" : def.id();
+        ctx.list("moduleActions", resolveActions(plugin, def));
+        // Always register toggleState so non-toggleable modules can safely omit it.
+        ctx.scalar("toggleState", resolveToggleState(plugin, def, moduleItem));
+
+        // Optional module-specific placeholders
+        ctx.scalar("jukeboxMode", id.equalsIgnoreCase("Jukebox") ? resolveJukeboxMode(plugin, moduleItem) : "");
+        ctx.scalar("feedingMode", id.equalsIgnoreCase("Feeding") ? resolveFeedingMode(plugin, moduleItem) : "");
+        boolean pump = id.equalsIgnoreCase("Pump") || id.equalsIgnoreCase("ExpPump");
+        ctx.scalar("pumpMode", pump ? resolvePumpMode(plugin, moduleItem, id) : "");
+
+        if (id.equalsIgnoreCase("ExpPump")) {
+            ctx.scalar("expPumpMending", resolveExpPumpMending(plugin, moduleItem));
+            String targetLevel = Integer.toString(resolveExpPumpTargetLevel(plugin, moduleItem));
+            ctx.scalar("level", targetLevel);
+            ctx.scalar("targetLevel", targetLevel);
         } else {
-            overrides.put("moduleActions", Replacement.list(langActionsPrimary(plugin)));
+            ctx.scalar("expPumpMending", "");
+            ctx.scalar("level", "");
+            ctx.scalar("targetLevel", "");
         }
 
-        return expandString(plugin, def, moduleItem, text, overrides);
+        // Value placeholder used inside lang templates (e.g. {restockThreshold} ->
+        // "&7... {threshold}")
+        String threshold = id.equalsIgnoreCase("Restock")
+                ? Integer.toString(resolveRestockThreshold(plugin, moduleItem, def))
+                : "";
+        ctx.scalar("threshold", threshold);
+        ctx.scalar("restockThresholdValue", threshold);
+
+        ctx.scalars = upgradeScalars(plugin, def);
+        return ctx;
     }
 
     public static String expandLangText(ModularPacksPlugin plugin, UpgradeDef def, ItemStack moduleItem,
@@ -688,34 +625,38 @@ public final class Placeholders {
         return fallback;
     }
 
-    private static void addUpgradeConfigScalars(ModularPacksPlugin plugin, UpgradeDef def,
-            Map<String, Replacement> overrides) {
+    /**
+     * Scalars from {@code Upgrades.<id>}, read once per reload.
+     * - exact: config key -> formatted value (wins over built-in values)
+     * - aliases: lowerCamel key -> value, skipped when a lang key of that name
+     * exists (e.g. {@code restockThreshold} in en_us.yml)
+     */
+    private static UpgradeScalars upgradeScalars(ModularPacksPlugin plugin, UpgradeDef def) {
         if (plugin == null || def == null || def.id() == null)
-            return;
-        if (overrides == null)
-            return;
+            return null;
 
-        var sec = plugin.cfg().getConfigurationSection("Upgrades." + def.id());
-        if (sec == null)
-            return;
+        return UPGRADE_SCALARS.computeIfAbsent(def.id(), id -> {
+            Map<String, String> exact = new HashMap<>();
+            Map<String, String> aliases = new HashMap<>();
 
-        for (String key : sec.getKeys(false)) {
-            Object raw = sec.get(key);
-            String formatted = formatScalar(raw);
-            if (formatted == null)
-                continue;
+            var sec = plugin.cfg().getConfigurationSection("Upgrades." + id);
+            if (sec != null) {
+                for (String key : sec.getKeys(false)) {
+                    String formatted = formatScalar(sec.get(key));
+                    if (formatted == null)
+                        continue;
 
-            overrides.put(key, Replacement.scalar(formatted));
+                    exact.put(key, formatted);
 
-            String lc = lowerCamel(key);
-            if (lc != null && !lc.equals(key)) {
-                // Avoid overriding lang template keys (e.g. `restockThreshold` in en_us.yml).
-                if (plugin.lang() != null && plugin.lang().raw(lc) != null) {
-                    continue;
+                    String lc = lowerCamel(key);
+                    if (lc != null && !lc.equals(key)
+                            && (plugin.lang() == null || plugin.lang().raw(lc) == null)) {
+                        aliases.putIfAbsent(lc, formatted);
+                    }
                 }
-                overrides.putIfAbsent(lc, Replacement.scalar(formatted));
             }
-        }
+            return new UpgradeScalars(Map.copyOf(exact), Map.copyOf(aliases));
+        });
     }
 
     private static String lowerCamel(String key) {
@@ -773,175 +714,187 @@ public final class Placeholders {
         return s.substring(0, end);
     }
 
-    private static List<String> expandLines(
-            ModularPacksPlugin plugin,
-            UpgradeDef def,
-            ItemStack moduleItem,
-            List<String> lore,
-            Map<String, Replacement> overrides) {
+    private static void precompile(String source) {
+        if (source != null)
+            template(source);
+    }
+
+    private static PlaceholderTemplate template(String source) {
+        PlaceholderTemplate t = TEMPLATES.get(source);
+        if (t != null)
+            return t;
+        t = PlaceholderTemplate.compile(source);
+        if (TEMPLATES.size() < MAX_CACHED_TEMPLATES)
+            TEMPLATES.putIfAbsent(source, t);
+        return t;
+    }
+
+    private static List<String> expandLines(Context ctx, List<String> lore) {
         if (lore == null || lore.isEmpty())
             return List.of();
 
-        List<String> current = new ArrayList<>();
+        List<String> out = new ArrayList<>(lore.size());
         for (String line : lore) {
-            if (line != null)
-                current.add(line);
-        }
-
-        for (int depth = 0; depth < MAX_EXPANSION_DEPTH; depth++) {
-            boolean changed = false;
-            List<String> next = new ArrayList<>();
-
-            for (String line : current) {
-                if (line == null)
-                    continue;
-
-                List<String> expanded = expandLineToLines(plugin, def, moduleItem, line, overrides);
-                if (expanded.isEmpty() || expanded.size() != 1 || !expanded.get(0).equals(line)) {
-                    changed = true;
-                }
-
-                for (String out : expanded) {
-                    if (out == null)
-                        continue;
-                    next.add(out);
-                    if (next.size() >= MAX_EXPANDED_LINES)
-                        break;
-                }
-                if (next.size() >= MAX_EXPANDED_LINES)
-                    break;
-            }
-
-            current = next;
-            if (!changed)
+            if (line == null)
+                continue;
+            expandLine(ctx, template(line), 0, out);
+            if (out.size() >= MAX_EXPANDED_LINES)
                 break;
         }
-
-        return current;
+        return out;
     }
 
-    private static String expandString(
-            ModularPacksPlugin plugin,
-            UpgradeDef def,
-            ItemStack moduleItem,
-            String text,
-            Map<String, Replacement> overrides) {
-        if (text == null)
-            return null;
+    /**
+     * Expands one parsed line in a single pass. A list placeholder alone on its
+     * line becomes one line per entry; inside other text it repeats the line per
+     * entry. Scalars are substituted inline, expanding nested placeholders up to
+     * MAX_EXPANSION_DEPTH. Unknown placeholders are left untouched.
+     */
+    private static void expandLine(Context ctx, PlaceholderTemplate line, int depth, List<String> out) {
+        if (out.size() >= MAX_EXPANDED_LINES)
+            return;
+        if (!line.hasPlaceholders() || depth >= MAX_EXPANSION_DEPTH) {
+            out.add(line.source());
+            return;
+        }
 
-        String current = text;
-        for (int depth = 0; depth < MAX_EXPANSION_DEPTH; depth++) {
-            Matcher m = PLACEHOLDER.matcher(current);
-            boolean any = false;
-            StringBuffer sb = new StringBuffer();
-            while (m.find()) {
-                any = true;
-                String key = m.group(1);
-                Replacement r = resolveReplacement(plugin, def, moduleItem, key, overrides);
-                String repl = r == null ? null : r.asScalar();
-                if (r != null && repl == null) {
-                    // Known placeholder with no scalar value => remove.
-                    repl = "";
-                }
-                if (repl == null) {
-                    repl = m.group(0); // leave untouched
+        String pureKey = line.pureKey();
+        if (pureKey != null) {
+            Replacement r = ctx.resolve(pureKey);
+            if (r != null && r.isList()) {
+                // Empty lists hide the line (lets you disable lines via empty list).
+                for (String entry : r.list()) {
+                    if (entry == null)
+                        continue;
+                    if (entry.indexOf('{') < 0) {
+                        out.add(entry);
+                    } else {
+                        expandLine(ctx, template(entry), depth + 1, out);
+                    }
+                    if (out.size() >= MAX_EXPANDED_LINES)
+                        return;
                 }
-                m.appendReplacement(sb, Matcher.quoteReplacement(repl));
+                return;
             }
-            if (!any)
-                return current;
-            m.appendTail(sb);
-
-            String next = sb.toString();
-            if (next.equals(current))
-                break;
-            current = next;
+            if (r != null && r.scalar() == null)
+                return; // hide pure placeholder line
         }
-        return current;
-    }
-
-    private static List<String> expandLineToLines(
-            ModularPacksPlugin plugin,
-            UpgradeDef def,
-            ItemStack moduleItem,
-            String line,
-            Map<String, Replacement> overrides) {
-        List<String> lines = List.of(line);
 
-        List<String> next = new ArrayList<>();
-
-        for (String cur : lines) {
-            if (cur == null)
-                continue;
+        List<StringBuilder> branches = new ArrayList<>(1);
+        branches.add(new StringBuilder(line.source().length() + 16));
+        // key -> {entry count, stride}: repeated list keys reuse their branch's entry
+        Map<String, int[]> listShapes = null;
 
-            Matcher m = PLACEHOLDER.matcher(cur);
-            if (!m.find()) {
-                next.add(cur);
+        for (int i = 0; i < line.size(); i++) {
+            String part = line.part(i);
+            if (!line.isKey(i)) {
+                appendAll(branches, part);
                 continue;
             }
 
-            String key = m.group(1);
-            Replacement r = resolveReplacement(plugin, def, moduleItem, key, overrides);
+            Replacement r = ctx.resolve(part);
             if (r == null) {
-                next.add(cur); // unknown placeholder
+                appendAll(branches, "{" + part + "}");
+                continue;
+            }
+            if (!r.isList()) {
+                appendAll(branches, render(ctx, r.scalar(), depth + 1));
                 continue;
             }
 
-            if (r.isList()) {
-                List<String> repls = r.list();
-                if (repls == null || repls.isEmpty()) {
-                    // hide pure placeholder lines (lets you disable lines via empty list)
-                    if (!cur.trim().equals("{" + key + "}")) {
-                        next.add(cur.replace("{" + key + "}", ""));
-                    }
-                    continue;
-                }
-
-                if (cur.trim().equals("{" + key + "}")) {
-                    next.addAll(repls);
-                    continue;
-                }
+            List<String> entries = r.list();
+            if (entries.isEmpty())
+                continue;
 
-                for (String repl : repls) {
-                    next.add(cur.replace("{" + key + "}", repl == null ? "" : repl));
-                    if (next.size() >= MAX_EXPANDED_LINES)
-                        break;
+            int[] shape = listShapes == null ? null : listShapes.get(part);
+            if (shape != null) {
+                for (int b = 0; b < branches.size(); b++) {
+                    String entry = entries.get(Math.min(entries.size() - 1, (b / shape[1]) % shape[0]));
+                    branches.get(b).append(render(ctx, entry, depth + 1));
                 }
                 continue;
             }
 
-            String repl = r.scalar();
-            if (repl == null) {
-                // hide pure placeholder line
-                if (!cur.trim().equals("{" + key + "}")) {
-                    next.add(cur.replace("{" + key + "}", ""));
+            int count = Math.min(entries.size(), Math.max(1, MAX_EXPANDED_LINES / branches.size()));
+            String[] rendered = new String[count];
+            for (int e = 0; e < count; e++) {
+                rendered[e] = render(ctx, entries.get(e), depth + 1);
+            }
+
+            List<StringBuilder> next = new ArrayList<>(branches.size() * count);
+            for (StringBuilder branch : branches) {
+                for (String entry : rendered) {
+                    next.add(new StringBuilder(branch).append(entry));
                 }
-                continue;
             }
-            next.add(cur.replace("{" + key + "}", repl));
+            branches = next;
+
+            if (listShapes == null)
+                listShapes = new HashMap<>();
+            for (int[] existing : listShapes.values()) {
+                existing[1] *= count;
+            }
+            listShapes.put(part, new int[] { count, 1 });
         }
 
-        return next;
+        for (StringBuilder branch : branches) {
+            out.add(branch.toString());
+            if (out.size() >= MAX_EXPANDED_LINES)
+                return;
+        }
     }
 
-    private static Replacement resolveReplacement(
-            ModularPacksPlugin plugin,
-            UpgradeDef def,
-            ItemStack moduleItem,
-            String key,
-            Map<String, Replacement> overrides) {
-        if (key == null || key.isBlank())
-            return null;
+    private static void appendAll(List<StringBuilder> branches, String text) {
+        for (StringBuilder branch : branches) {
+            branch.append(text);
+        }
+    }
 
-        if (overrides != null) {
-            Replacement r = overrides.get(key);
-            if (r != null)
-                return r;
+    /**
+     * Expands a single string. Lists contribute their first entry; known
+     * placeholders without a value are removed.
+     */
+    private static String render(Context ctx, String text, int depth) {
+        if (text == null)
+            return "";
+        if (text.indexOf('{') < 0 || depth >= MAX_EXPANSION_DEPTH)
+            return text;
+
+        PlaceholderTemplate t = template(text);
+        if (!t.hasPlaceholders())
+            return text;
+
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < t.size(); i++) {
+            String part = t.part(i);
+            if (!t.isKey(i)) {
+                sb.append(part);
+                continue;
+            }
+            Replacement r = ctx.resolve(part);
+            if (r == null) {
+                sb.append('{').append(part).append('}');
+                continue;
+            }
+            sb.append(render(ctx, r.asScalar(), depth + 1));
         }
+        return sb.toString();
+    }
 
+    private static Replacement langValue(ModularPacksPlugin plugin, String key) {
         if (plugin == null || plugin.lang() == null)
             return null;
 
+        Replacement cached = LANG_VALUES.get(key);
+        if (cached == null) {
+            cached = readLangValue(plugin, key);
+            if (LANG_VALUES.size() < MAX_CACHED_TEMPLATES)
+                LANG_VALUES.put(key, cached);
+        }
+        return cached == MISSING ? null : cached;
+    }
+
+    private static Replacement readLangValue(ModularPacksPlugin plugin, String key) {
         Object raw = plugin.lang().raw(key);
         if (raw instanceof List<?> list) {
             List<String> out = new ArrayList<>();
@@ -950,14 +903,64 @@ public final class Placeholders {
                     continue;
                 out.add(o.toString());
             }
-            return Replacement.list(out);
+            return Replacement.list(List.copyOf(out));
         }
 
         String formatted = formatScalar(raw);
         if (formatted != null)
             return Replacement.scalar(formatted);
 
-        return null;
+        return MISSING;
+    }
+
+    private record UpgradeScalars(Map<String, String> exact, Map<String, String> aliases) {
+    }
+
+    /**
+     * Values for one expansion call. Built-in keys are registered in lowerCamel
+     * form; lookups also accept the UpperCamel spelling (e.g. {UsedSlots}).
+     */
+    private static final class Context {
+        private final ModularPacksPlugin plugin;
+        private final Map<String, Replacement> values = new HashMap<>();
+        private UpgradeScalars scalars;
+
+        Context(ModularPacksPlugin plugin) {
+            this.plugin = plugin;
+        }
+
+        void scalar(String key, String value) {
+            values.put(key, Replacement.scalar(value));
+        }
+
+        void list(String key, List<String> value) {
+            values.put(key, Replacement.list(value));
+        }
+
+        Replacement resolve(String key) {
+            if (key == null || key.isEmpty())
+                return null;
+
+            if (scalars != null) {
+                String v = scalars.exact().get(key);
+                if (v != null)
+                    return Replacement.scalar(v);
+            }
+
+            Replacement r = values.get(key);
+            if (r == null && Character.isUpperCase(key.charAt(0)))
+                r = values.get(lowerCamel(key));
+            if (r != null)
+                return r;
+
+            if (scalars != null) {
+                String v = scalars.aliases().get(key);
+                if (v != null)
+                    return Replacement.scalar(v);
+            }
+
+            return langValue(plugin, key);
+        }
     }
 
     private record Replacement(String scalar, List<String> list) {
@@ -981,4 +984,5 @@ public final class Placeholders {
             return null;
         }
     }
+
 }
@@ -4,12 +4,21 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+import org.bukkit.inventory.ItemStack;
+
 /**
  * Backpack persistent state (per backpack UUID).
  * - contents: full logical storage (rows*9), NOT just current page
  * - installedModules: slotIndex (0..upgradeSlots-1) -> moduleId
  * - installedSnapshots: moduleId -> serialized ItemStack snapshot (fallback
  * safety)
+ * - liveContents: decoded contents while a menu session edits them; encoded
+ * back to contentsBytes only when the bytes are next read (i.e. on persist)
+ * - usedSlots/itemCount: contents aggregates kept next to the bytes (-1 when
+ * unknown, e.g. rows written before the columns existed)
+ * - moduleTypes: moduleId -> MODULE_TYPE, so lore never decodes snapshots
+ * - moduleMask: persisted {@link ModuleCapabilities} mask as of the last
+ * load/save ({@link ModuleCapabilities#UNKNOWN} for legacy rows)
  */
 public final class BackpackData {
 
@@ -17,10 +26,16 @@ public final class BackpackData {
     private String backpackType;
 
     private byte[] contentsBytes; // ItemStack[] bytes
+    private ItemStack[] liveContents;
+    private boolean liveContentsDirty;
+    private int usedSlots = -1;
+    private int itemCount = -1;
 
     private final Map<Integer, UUID> installedModules = new HashMap<>();
     private final Map<UUID, byte[]> installedSnapshots = new HashMap<>();
     private final Map<UUID, byte[]> moduleStates = new HashMap<>();
+    private final Map<UUID, String> moduleTypes = new HashMap<>();
+    private long moduleMask = ModuleCapabilities.UNKNOWN;
 
     // Sharing fields
     private boolean isShared = false;
@@ -51,11 +66,131 @@ public final class BackpackData {
     }
 
     public byte[] contentsBytes() {
+        if (liveContentsDirty) {
+            contentsBytes = ItemStackCodec.toBytes(liveContents);
+            countContents(liveContents);
+            liveContentsDirty = false;
+        }
         return contentsBytes;
     }
 
+    /**
+     * Replaces the encoded contents. Aggregates become unknown; use
+     * {@link #contentsBytes(byte[], int, int)} when they are already known.
+     */
     public void contentsBytes(byte[] bytes) {
+        contentsBytes(bytes, -1, -1);
+    }
+
+    /**
+     * Replaces the encoded contents together with their stored aggregates.
+     *
+     * @param usedSlots non-air slot count, or -1 when unknown
+     * @param itemCount summed stack amounts, or -1 when unknown
+     */
+    public void contentsBytes(byte[] bytes, int usedSlots, int itemCount) {
         this.contentsBytes = bytes;
+        this.liveContents = null;
+        this.liveContentsDirty = false;
+        this.usedSlots = usedSlots < 0 || itemCount < 0 ? -1 : usedSlots;
+        this.itemCount = this.usedSlots < 0 ? -1 : itemCount;
+    }
+
+    /**
+     * Copies another instance's contents, keeping its aggregates when known.
+     */
+    public void copyContentsFrom(BackpackData other) {
+        byte[] bytes = other.contentsBytes();
+        if (other.hasContentsStats()) {
+            contentsBytes(bytes, other.usedSlots(), other.itemCount());
+        } else {
+            contentsBytes(bytes);
+        }
+    }
+
+    /**
+     * Encodes a full logical contents array and records its aggregates in the
+     * same pass, so later lore refreshes need no decode.
+     */
+    public void contents(ItemStack[] contents) {
+        ItemStack[] safe = contents == null ? new ItemStack[0] : contents;
+        this.contentsBytes = ItemStackCodec.toBytes(safe);
+        this.liveContents = null;
+        this.liveContentsDirty = false;
+        countContents(safe);
+    }
+
+    /**
+     * Decoded logical contents, decoded once and then edited in place.
+     * Call {@link #markContentsDirty()} after writing to the returned array.
+     *
+     * @param size logical slot count (rows * 9); the array is resized to match
+     * @return live contents array
+     */
+    public ItemStack[] liveContents(int size) {
+        if (liveContents == null) {
+            liveContents = ItemStackCodec.fromBytes(contentsBytes);
+        }
+        if (liveContents.length != size) {
+            ItemStack[] resized = new ItemStack[size];
+            System.arraycopy(liveContents, 0, resized, 0, Math.min(liveContents.length, size));
+            liveContents = resized;
+            liveContentsDirty = true;
+        }
+        return liveContents;
+    }
+
+    /**
+     * Flags the live contents as changed so they are encoded on the next
+     * {@link #contentsBytes()} read.
+     */
+    public void markContentsDirty() {
+        if (liveContents != null)
+            liveContentsDirty = true;
+    }
+
+    /**
+     * @return true when usedSlots/itemCount can be answered without decoding
+     */
+    public boolean hasContentsStats() {
+        return usedSlots >= 0 || liveContents != null;
+    }
+
+    /**
+     * Non-air slot count. Decodes once only when the aggregate is unknown.
+     */
+    public int usedSlots() {
+        ensureContentsStats();
+        return usedSlots;
+    }
+
+    /**
+     * Sum of stack amounts. Decodes once only when the aggregate is unknown.
+     */
+    public int itemCount() {
+        ensureContentsStats();
+        return itemCount;
+    }
+
+    private void ensureContentsStats() {
+        if (liveContentsDirty || (usedSlots < 0 && liveContents != null)) {
+            countContents(liveContents);
+        } else if (usedSlots < 0) {
+            countContents(ItemStackCodec.fromBytes(contentsBytes));
+        }
+    }
+
+    private void countContents(ItemStack[] contents) {
+        int used = 0;
+        int count = 0;
+        for (ItemStack it : contents) {
+            if (it == null || it.getType().isAir())
+                continue;
+            used++;
+            count += Math.max(0, it.getAmount());
+        }
+        this.usedSlots = used;
+        this.itemCount = count;
     }
 
     public Map<Integer, UUID> installedModules() {
@@ -70,6 +205,22 @@ public final class BackpackData {
         return moduleStates;
     }
 
+    /**
+     * moduleId -> MODULE_TYPE. A module UUID never changes type, so entries stay
+     * valid across snapshot rewrites; stale ids are ignored once uninstalled.
+     */
+    public Map<UUID, String> moduleTypes() {
+        return moduleTypes;
+    }
+
+    public long moduleMask() {
+        return moduleMask;
+    }
+
+    public void moduleMask(long mask) {
+        this.moduleMask = mask;
+    }
+
     public boolean isShared() {
         return isShared;
     }
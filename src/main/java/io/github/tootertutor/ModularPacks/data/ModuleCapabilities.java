@@ -0,0 +1,178 @@
+package io.github.tootertutor.ModularPacks.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+import io.github.tootertutor.ModularPacks.item.Keys;
+
+/**
+ * Per-backpack bitmask of the module types installed and not toggled off, so
+ * "does this backpack have X enabled?" is a single long read.
+ * - bits: module type (case-insensitive) -> bit index, allocated once per
+ * database and never reused, so masks stay valid across restarts and in item
+ * PDCs
+ * - UNKNOWN: rows saved before the mask existed; callers fall back to decoding
+ * - memo: moduleId -> (snapshot hash, bit), so saves only decode changed
+ * snapshots; least recently used entries are evicted past MEMO_LIMIT
+ *
+ * Types beyond the 63 available bits get no bit; checks for them always fall
+ * back. Whether the upgrade itself is enabled in config is not part of the mask.
+ */
+public final class ModuleCapabilities {
+
+    public static final long UNKNOWN = -1L;
+    public static final int MAX_BITS = 63;
+    private static final int MEMO_LIMIT = 4096;
+
+    private final Keys keys;
+    private final ToIntFunction<String> allocator;
+    private final Predicate<String> toggleable;
+    private final Map<String, Integer> bits = new ConcurrentHashMap<>();
+    private final Map<UUID, long[]> memo = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, long[]> eldest) {
+            return size() > MEMO_LIMIT;
+        }
+    });
+
+    /**
+     * @param allocator  persists and returns a new bit for a type, or -1 when none
+     *                   are left
+     * @param toggleable whether a type's module can be toggled off; the enabled
+     *                   flag of other types is ignored
+     */
+    ModuleCapabilities(Keys keys, ToIntFunction<String> allocator, Predicate<String> toggleable) {
+        this.keys = keys;
+        this.allocator = allocator;
+        this.toggleable = toggleable;
+    }
+
+    void load(String moduleType, int bit) {
+        if (moduleType != null && bit >= 0 && bit < MAX_BITS)
+            bits.putIfAbsent(key(moduleType), bit);
+    }
+
+    /**
+     * @return the bit for a type, or 0 when it has none yet
+     */
+    public long bitOf(String moduleType) {
+        if (moduleType == null)
+            return 0L;
+        Integer bit = bits.get(key(moduleType));
+        return bit == null ? 0L : 1L << bit;
+    }
+
+    /**
+     * @return true only when the mask proves the type is installed and enabled
+     */
+    public boolean includes(long mask, String moduleType) {
+        long bit = bitOf(moduleType);
+        return mask != UNKNOWN && bit != 0L && (mask & bit) != 0L;
+    }
+
+    /**
+     * @return true only when the mask proves the type is absent or toggled off
+     */
+    public boolean excludes(long mask, String moduleType) {
+        if (mask == UNKNOWN)
+            return false;
+        long bit = bitOf(moduleType);
+        if (bit == 0L)
+            // No bit yet: no saved mask can contain the type, unless it was never
+            // allocated because the bits ran out.
+            return bits.size() < MAX_BITS;
+        return (mask & bit) == 0L;
+    }
+
+    public long maskOf(BackpackData data) {
+        return maskOf(data.installedModules(), data.installedSnapshots(), data.moduleTypes());
+    }
+
+    /**
+     * Computes the mask of installed modules, allocating bits for new types.
+     */
+    public long maskOf(Map<Integer, UUID> slotToModule, Map<UUID, byte[]> snapshots, Map<UUID, String> types) {
+        long mask = 0L;
+        for (UUID moduleId : slotToModule.values()) {
+            if (moduleId != null)
+                mask |= moduleBit(moduleId, snapshots.get(moduleId), types.get(moduleId));
+        }
+        return mask;
+    }
+
+    /**
+     * Drops the memoized bit of a module that left its backpack.
+     */
+    public void forget(UUID moduleId) {
+        if (moduleId != null)
+            memo.remove(moduleId);
+    }
+
+    /**
+     * Drops every memoized bit; toggleability comes from config, so a reload can
+     * change them.
+     */
+    public void forgetAll() {
+        memo.clear();
+    }
+
+    private long moduleBit(UUID moduleId, byte[] snapshot, String knownType) {
+        long hash = snapshot == null ? 0L : Arrays.hashCode(snapshot) | ((long) snapshot.length << 32);
+        long[] cached = memo.get(moduleId);
+        if (cached != null && cached[0] == hash)
+            return cached[1];
+
+        String moduleType = knownType;
+        Byte flag = null;
+        ItemMeta meta = decodeMeta(snapshot);
+        if (meta != null) {
+            PersistentDataContainer pdc = meta.getPersistentDataContainer();
+            String snapshotType = pdc.get(keys.MODULE_TYPE, PersistentDataType.STRING);
+            if (snapshotType != null)
+                moduleType = snapshotType;
+            flag = pdc.get(keys.MODULE_ENABLED, PersistentDataType.BYTE);
+        }
+        boolean enabled = flag == null || flag != 0 || moduleType == null || !toggleable.test(moduleType);
+
+        long bit = 0L;
+        if (enabled && moduleType != null && !moduleType.isBlank()) {
+            bit = bitOf(moduleType);
+            if (bit == 0L) {
+                int allocated = allocator.applyAsInt(key(moduleType));
+                if (allocated >= 0 && allocated < MAX_BITS) {
+                    load(moduleType, allocated);
+                    bit = bitOf(moduleType);
+                }
+            }
+        }
+        memo.put(moduleId, new long[] { hash, bit });
+        return bit;
+    }
+
+    private static ItemMeta decodeMeta(byte[] snapshot) {
+        if (snapshot == null)
+            return null;
+        try {
+            ItemStack[] arr = ItemStackCodec.fromBytes(snapshot);
+            return arr.length == 0 || arr[0] == null ? null : arr[0].getItemMeta();
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    private static String key(String moduleType) {
+        return moduleType.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,9 +1,44 @@
 package io.github.tootertutor.ModularPacks.data;
 
-public interface ModuleStateCodec {
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Versioned binary codec for one module type's persisted state.
+ * Payloads are framed by {@link ModuleStateCodecs}: header, module-type id,
+ * version byte, then the fixed layout written by {@link #write}.
+ *
+ * @param <T> decoded state type
+ */
+public interface ModuleStateCodec<T> {
     String id(); // e.g. "Tank", "Smelting"
 
-    byte[] encode(Object state);
+    /**
+     * @return current layout version (0..255), written after the id
+     */
+    int version();
+
+    /**
+     * @return state used when bytes are absent or unreadable
+     */
+    T empty();
+
+    void write(T state, DataOutput out) throws IOException;
+
+    /**
+     * Reads a payload written by this codec at {@code version} (never newer than
+     * {@link #version()}).
+     */
+    T read(DataInput in, int version) throws IOException;
 
-    Object decode(byte[] bytes);
+    /**
+     * Decodes a payload from before binary framing (YAML, etc.). It is
+     * re-encoded in the current layout on the next write.
+     *
+     * @return decoded state, or null when the bytes are not recognised
+     */
+    default T decodeLegacy(byte[] bytes) {
+        return null;
+    }
 }
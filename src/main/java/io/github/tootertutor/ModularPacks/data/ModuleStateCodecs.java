@@ -0,0 +1,198 @@
+package io.github.tootertutor.ModularPacks.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.inventory.ItemStack;
+
+import io.github.tootertutor.ModularPacks.util.ItemStacks;
+
+/**
+ * Registry and framing for binary module states.
+ * - header: 0x00 'M' 'S' (never the start of YAML text, gzip or legacy MPAC)
+ * - id: module-type id (modified UTF-8)
+ * - version: unsigned byte
+ * - payload: codec-defined fixed layout
+ *
+ * Unframed bytes are handed to {@link ModuleStateCodec#decodeLegacy(byte[])},
+ * so old states keep loading and are upgraded when next written.
+ */
+public final class ModuleStateCodecs {
+
+    private static final byte[] HEADER = { 0x00, 'M', 'S' };
+    private static final int MAX_ITEM_BYTES = 4 * 1024 * 1024;
+
+    private static final Map<String, ModuleStateCodec<?>> CODECS = new ConcurrentHashMap<>();
+
+    private ModuleStateCodecs() {
+    }
+
+    /**
+     * Registers a codec under its id (case-insensitive).
+     *
+     * @throws IllegalArgumentException if the codec is invalid or the id is taken
+     */
+    public static void register(ModuleStateCodec<?> codec) {
+        if (codec == null)
+            throw new IllegalArgumentException("Codec cannot be null");
+        String id = codec.id();
+        if (id == null || id.isBlank())
+            throw new IllegalArgumentException("Codec ID cannot be null or blank");
+        if (codec.version() < 0 || codec.version() > 0xFF)
+            throw new IllegalArgumentException("Codec version must be 0..255: " + codec.version());
+        if (CODECS.putIfAbsent(key(id), codec) != null)
+            throw new IllegalArgumentException("State codec with ID '" + id + "' is already registered");
+    }
+
+    public static boolean unregister(String id) {
+        return id != null && CODECS.remove(key(id)) != null;
+    }
+
+    public static ModuleStateCodec<?> get(String id) {
+        return id == null ? null : CODECS.get(key(id));
+    }
+
+    public static Collection<ModuleStateCodec<?>> all() {
+        return Collections.unmodifiableCollection(CODECS.values());
+    }
+
+    /**
+     * @return true when the bytes carry the binary state header
+     */
+    public static boolean isFramed(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER.length)
+            return false;
+        for (int i = 0; i < HEADER.length; i++) {
+            if (bytes[i] != HEADER[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the module-type id from framed bytes.
+     *
+     * @return the id, or null when the bytes are not framed
+     */
+    public static String idOf(byte[] bytes) {
+        if (!isFramed(bytes))
+            return null;
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            in.skipBytes(HEADER.length);
+            return in.readUTF();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    public static <T> byte[] encode(ModuleStateCodec<T> codec, T state) {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(baos);
+            out.write(HEADER);
+            out.writeUTF(codec.id());
+            out.writeByte(codec.version());
+            codec.write(state, out);
+            out.flush();
+            return baos.toByteArray();
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to encode " + codec.id() + " module state", ex);
+        }
+    }
+
+    /**
+     * Decodes framed or legacy bytes for display. Anything unreadable decodes to
+     * {@link ModuleStateCodec#empty()}; callers that write the state back must use
+     * {@link #tryDecode} instead.
+     */
+    public static <T> T decode(ModuleStateCodec<T> codec, byte[] bytes) {
+        T state = tryDecode(codec, bytes);
+        return state == null ? codec.empty() : state;
+    }
+
+    /**
+     * Decodes framed or legacy bytes. Missing bytes and unrecognised legacy bytes
+     * decode to {@link ModuleStateCodec#empty()}.
+     *
+     * @return null when framed bytes cannot be read (another module type, a newer
+     *         version, truncated or corrupt); callers must then leave the stored
+     *         bytes untouched instead of writing a state over them
+     */
+    public static <T> T tryDecode(ModuleStateCodec<T> codec, byte[] bytes) {
+        if (bytes == null || bytes.length == 0)
+            return codec.empty();
+
+        if (!isFramed(bytes)) {
+            T legacy;
+            try {
+                legacy = codec.decodeLegacy(bytes);
+            } catch (RuntimeException ex) {
+                legacy = null;
+            }
+            return legacy == null ? codec.empty() : legacy;
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            in.skipBytes(HEADER.length);
+            String id = in.readUTF();
+            if (!id.equalsIgnoreCase(codec.id()))
+                return null;
+            int version = in.readUnsignedByte();
+            if (version > codec.version())
+                return null;
+            return codec.read(in, version);
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a nullable item as a length-prefixed Paper binary blob (0 = empty).
+     */
+    public static void writeItem(DataOutput out, ItemStack item) throws IOException {
+        if (ItemStacks.isAir(item)) {
+            out.writeInt(0);
+            return;
+        }
+        byte[] bytes = item.serializeAsBytes();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static ItemStack readItem(DataInput in) throws IOException {
+        int len = in.readInt();
+        if (len <= 0)
+            return null;
+        if (len > MAX_ITEM_BYTES)
+            throw new IOException("Invalid item payload size: " + len);
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return ItemStack.deserializeBytes(bytes);
+    }
+
+    public static void writeNullableUTF(DataOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null)
+            out.writeUTF(s);
+    }
+
+    public static String readNullableUTF(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static String key(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+}
@@ -8,10 +8,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
 
 public final class SQLiteBackpackRepository {
@@ -19,19 +23,24 @@ public final class SQLiteBackpackRepository {
     private final ModularPacksPlugin plugin;
     private Connection connection;
 
+    // Read-only connection for worker-thread queries; WAL lets it read while the
+    // main connection writes. Guarded by readLock.
+    private final Object readLock = new Object();
+    private Connection readConnection;
+
+    private final ModuleCapabilities capabilities;
+
     public SQLiteBackpackRepository(ModularPacksPlugin plugin) {
         this.plugin = plugin;
+        this.capabilities = new ModuleCapabilities(plugin.keys(), this::allocateModuleBit, type -> {
+            var def = plugin.cfg().findUpgrade(type);
+            return def != null && def.toggleable();
+        });
     }
 
     public void init() {
         try {
-            File dbFile = new File(plugin.getDataFolder(), "backpacks.db");
-            String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
-
-            // Enable connection pooling optimizations for SQLite
-            url += "?journal_mode=WAL&synchronous=NORMAL&cache_size=10000&temp_store=MEMORY";
-
-            connection = DriverManager.getConnection(url);
+            connection = DriverManager.getConnection(url());
 
             // Enable Write-Ahead Logging for better concurrency
             try (Statement st = connection.createStatement()) {
@@ -64,6 +73,17 @@ public final class SQLiteBackpackRepository {
                 migrateColumn(st, "backpacks", "share_host_id", "TEXT");
                 migrateColumn(st, "backpacks", "sort_locked", "BOOLEAN DEFAULT 0");
                 migrateColumn(st, "backpacks", "backpack_name", "TEXT DEFAULT ''");
+                migrateColumn(st, "backpacks", "used_slots", "INTEGER");
+                migrateColumn(st, "backpacks", "item_count", "INTEGER");
+                migrateColumn(st, "backpacks", "module_mask", "INTEGER");
+                st.executeUpdate("""
+                            CREATE INDEX IF NOT EXISTS idx_backpacks_owner
+                            ON backpacks(owner_uuid);
+                        """);
+                st.executeUpdate("""
+                            CREATE INDEX IF NOT EXISTS idx_backpacks_module_mask
+                            ON backpacks(module_mask);
+                        """);
 
                 st.executeUpdate("""
                             CREATE TABLE IF NOT EXISTS backpack_modules (
@@ -76,6 +96,20 @@ public final class SQLiteBackpackRepository {
                             );
                         """);
                 migrateColumn(st, "backpack_modules", "module_state", "BLOB");
+                migrateColumn(st, "backpack_modules", "module_type", "TEXT");
+
+                // Stable bit per module type for backpacks.module_mask
+                st.executeUpdate("""
+                            CREATE TABLE IF NOT EXISTS module_type_bits (
+                              module_type TEXT PRIMARY KEY,
+                              bit INTEGER NOT NULL UNIQUE
+                            );
+                        """);
+                try (ResultSet rs = st.executeQuery("SELECT module_type, bit FROM module_type_bits")) {
+                    while (rs.next()) {
+                        capabilities.load(rs.getString("module_type"), rs.getInt("bit"));
+                    }
+                }
 
                 // Void module audit + recovery log (full item bytes preserved)
                 st.executeUpdate("""
@@ -118,7 +152,24 @@ public final class SQLiteBackpackRepository {
         }
     }
 
+    private String url() {
+        File dbFile = new File(plugin.getDataFolder(), "backpacks.db");
+        String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
+
+        // Enable connection pooling optimizations for SQLite
+        return url + "?journal_mode=WAL&synchronous=NORMAL&cache_size=10000&temp_store=MEMORY";
+    }
+
     public void close() {
+        synchronized (readLock) {
+            try {
+                if (readConnection != null && !readConnection.isClosed())
+                    readConnection.close();
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Failed to close read connection: " + e.getMessage());
+            }
+            readConnection = null;
+        }
         try {
             if (connection != null && !connection.isClosed()) {
                 // Checkpoint WAL file before closing
@@ -146,6 +197,26 @@ public final class SQLiteBackpackRepository {
         return connection;
     }
 
+    /**
+     * Get the worker-thread read connection, opening it if necessary.
+     * Callers must hold readLock.
+     */
+    private Connection getReadConnection() throws SQLException {
+        if (readConnection == null || readConnection.isClosed()) {
+            readConnection = DriverManager.getConnection(url());
+            try (Statement st = readConnection.createStatement()) {
+                st.execute("PRAGMA busy_timeout=5000;");
+                st.execute("""
+                        CREATE TEMP TABLE IF NOT EXISTS admin_list_placed (
+                          backpack_id TEXT PRIMARY KEY,
+                          location TEXT
+                        );
+                        """);
+            }
+        }
+        return readConnection;
+    }
+
     public BackpackData loadOrCreate(UUID backpackId, String backpackType) {
         BackpackData data = new BackpackData(backpackId, backpackType);
 
@@ -191,17 +262,22 @@ public final class SQLiteBackpackRepository {
             }
 
             // Load contents from effective backpack ID
+            boolean statsUnknown = false;
             try (PreparedStatement ps = getConnection().prepareStatement(
-                    "SELECT backpack_type, contents, sort_locked, backpack_name FROM backpacks WHERE backpack_id = ?")) {
+                    "SELECT backpack_type, contents, used_slots, item_count, sort_locked, backpack_name, module_mask FROM backpacks WHERE backpack_id = ?")) {
                 ps.setString(1, effectiveId.toString());
                 try (ResultSet rs = ps.executeQuery()) {
                     if (rs.next()) {
                         data.backpackType(rs.getString("backpack_type"));
-                        data.contentsBytes(rs.getBytes("contents"));
+                        readContents(rs, data);
+                        statsUnknown = !data.hasContentsStats();
                         data.sortLocked(rs.getBoolean("sort_locked"));
                         String name = rs.getString("backpack_name");
                         if (name != null)
                             data.backpackName(name);
+                        long mask = rs.getLong("module_mask");
+                        if (!rs.wasNull())
+                            data.moduleMask(mask);
                     } else {
                         // insert new host backpack if it doesn't exist
                         try (PreparedStatement ins = getConnection().prepareStatement(
@@ -219,9 +295,14 @@ public final class SQLiteBackpackRepository {
                 }
             }
 
+            // Rows saved before the aggregate columns existed: count once and backfill.
+            if (statsUnknown)
+                saveContentsStats(effectiveId, data.usedSlots(), data.itemCount());
+
             // modules from effective backpack ID
+            Map<UUID, String> missingTypes = new HashMap<>();
             try (PreparedStatement ps = getConnection().prepareStatement(
-                    "SELECT slot_index, module_id, module_snapshot, module_state FROM backpack_modules WHERE backpack_id = ?")) {
+                    "SELECT slot_index, module_id, module_snapshot, module_state, module_type FROM backpack_modules WHERE backpack_id = ?")) {
                 ps.setString(1, effectiveId.toString());
                 try (ResultSet rs = ps.executeQuery()) {
                     while (rs.next()) {
@@ -229,8 +310,17 @@ public final class SQLiteBackpackRepository {
                         UUID moduleId = UUID.fromString(rs.getString("module_id"));
                         byte[] snapshot = rs.getBytes("module_snapshot");
                         byte[] state = rs.getBytes("module_state");
+                        String moduleType = rs.getString("module_type");
+                        if (moduleType == null) {
+                            // Installed before types were recorded: read it from the snapshot once.
+                            moduleType = moduleTypeOf(snapshot);
+                            if (moduleType != null)
+                                missingTypes.put(moduleId, moduleType);
+                        }
                         if (state != null)
                             data.moduleStates().put(moduleId, state);
+                        if (moduleType != null)
+                            data.moduleTypes().put(moduleId, moduleType);
 
                         data.installedModules().put(slotIndex, moduleId);
                         if (snapshot != null)
@@ -238,6 +328,8 @@ public final class SQLiteBackpackRepository {
                     }
                 }
             }
+            if (!missingTypes.isEmpty())
+                saveModuleTypes(effectiveId, missingTypes);
 
             return data;
         } catch (SQLException e) {
@@ -293,14 +385,13 @@ public final class SQLiteBackpackRepository {
         BackpackData data = new BackpackData(joinerId, null);
 
         try (PreparedStatement ps = getConnection().prepareStatement(
-                "SELECT backpack_type, contents FROM backpacks WHERE backpack_id = ?")) {
+                "SELECT backpack_type, contents, used_slots, item_count FROM backpacks WHERE backpack_id = ?")) {
             ps.setString(1, joinerId.toString());
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     String type = rs.getString("backpack_type");
-                    byte[] contents = rs.getBytes("contents");
                     data.backpackType(type);
-                    data.contentsBytes(contents);
+                    readContents(rs, data);
                     return data;
                 }
             }
@@ -415,12 +506,14 @@ public final class SQLiteBackpackRepository {
 
             // Save contents to host (modifications visible to all joiners)
             try (PreparedStatement ps = getConnection().prepareStatement(
-                    "UPDATE backpacks SET backpack_type = ?, contents = ?, sort_locked = ?, updated_at = ? WHERE backpack_id = ?")) {
+                    "UPDATE backpacks SET backpack_type = ?, contents = ?, sort_locked = ?, updated_at = ?, used_slots = ?, item_count = ? WHERE backpack_id = ?")) {
                 ps.setString(1, data.backpackType());
                 ps.setBytes(2, data.contentsBytes());
                 ps.setBoolean(3, data.sortLocked());
                 ps.setLong(4, System.currentTimeMillis());
-                ps.setString(5, hostId.toString());
+                ps.setInt(5, data.usedSlots());
+                ps.setInt(6, data.itemCount());
+                ps.setString(7, hostId.toString());
                 ps.executeUpdate();
             } catch (SQLException e) {
                 throw new RuntimeException("Failed to save host backpack contents " + hostId, e);
@@ -440,11 +533,12 @@ public final class SQLiteBackpackRepository {
             }
 
             // Modules go to the host's backpack (shared state)
-            saveModules(hostId, data.installedModules(), data.installedSnapshots(), data.moduleStates());
+            data.moduleMask(saveModules(hostId, data.installedModules(), data.installedSnapshots(),
+                    data.moduleStates(), data.moduleTypes()));
         } else {
             // This is an own backpack (not joined)
             try (PreparedStatement ps = getConnection().prepareStatement(
-                    "UPDATE backpacks SET backpack_type = ?, contents = ?, sort_locked = ?, updated_at = ?, is_shared = ?, share_password = ?, share_host_id = ?, backpack_name = ? WHERE backpack_id = ?")) {
+                    "UPDATE backpacks SET backpack_type = ?, contents = ?, sort_locked = ?, updated_at = ?, is_shared = ?, share_password = ?, share_host_id = ?, backpack_name = ?, used_slots = ?, item_count = ? WHERE backpack_id = ?")) {
                 ps.setString(1, data.backpackType());
                 ps.setBytes(2, data.contentsBytes());
                 ps.setBoolean(3, data.sortLocked());
@@ -453,13 +547,16 @@ public final class SQLiteBackpackRepository {
                 ps.setString(6, data.sharePassword());
                 ps.setString(7, data.shareHostId() != null ? data.shareHostId().toString() : null);
                 ps.setString(8, data.backpackName());
-                ps.setString(9, data.backpackId().toString());
+                ps.setInt(9, data.usedSlots());
+                ps.setInt(10, data.itemCount());
+                ps.setString(11, data.backpackId().toString());
                 ps.executeUpdate();
             } catch (SQLException e) {
                 throw new RuntimeException("Failed to save backpack " + data.backpackId(), e);
             }
 
-            saveModules(data.backpackId(), data.installedModules(), data.installedSnapshots(), data.moduleStates());
+            data.moduleMask(saveModules(data.backpackId(), data.installedModules(), data.installedSnapshots(),
+                    data.moduleStates(), data.moduleTypes()));
         }
     }
 
@@ -487,16 +584,130 @@ public final class SQLiteBackpackRepository {
         // Save ONLY the contents to the joiner's row (metadata will be updated
         // separately)
         try (PreparedStatement ps = getConnection().prepareStatement(
-                "UPDATE backpacks SET contents = ?, updated_at = ? WHERE backpack_id = ?")) {
+                "UPDATE backpacks SET contents = ?, updated_at = ?, used_slots = ?, item_count = ? WHERE backpack_id = ?")) {
             ps.setBytes(1, data.contentsBytes());
             ps.setLong(2, System.currentTimeMillis());
-            ps.setString(3, joinerId.toString());
+            ps.setInt(3, data.usedSlots());
+            ps.setInt(4, data.itemCount());
+            ps.setString(5, joinerId.toString());
             ps.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("Failed to save joiner backup for " + joinerId, e);
         }
     }
 
+    /**
+     * Backfills the contents aggregates of a row without rewriting its contents.
+     * Used when a row saved before the aggregate columns existed is first counted.
+     */
+    public void saveContentsStats(UUID backpackId, int usedSlots, int itemCount) {
+        try (PreparedStatement ps = getConnection().prepareStatement(
+                "UPDATE backpacks SET used_slots = ?, item_count = ? WHERE backpack_id = ?")) {
+            ps.setInt(1, usedSlots);
+            ps.setInt(2, itemCount);
+            ps.setString(3, backpackId.toString());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save contents stats for " + backpackId, e);
+        }
+    }
+
+    private void saveModuleTypes(UUID backpackId, Map<UUID, String> types) throws SQLException {
+        try (PreparedStatement ps = getConnection().prepareStatement(
+                "UPDATE backpack_modules SET module_type = ? WHERE backpack_id = ? AND module_id = ?")) {
+            for (Map.Entry<UUID, String> e : types.entrySet()) {
+                ps.setString(1, e.getValue());
+                ps.setString(2, backpackId.toString());
+                ps.setString(3, e.getKey().toString());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private String moduleTypeOf(byte[] snapshot) {
+        if (snapshot == null)
+            return null;
+        ItemStack[] arr = ItemStackCodec.fromBytes(snapshot);
+        if (arr.length == 0 || arr[0] == null || !arr[0].hasItemMeta())
+            return null;
+        return arr[0].getPersistentDataContainer().get(plugin.keys().MODULE_TYPE, PersistentDataType.STRING);
+    }
+
+    public ModuleCapabilities capabilities() {
+        return capabilities;
+    }
+
+    /**
+     * Reads the module mask of a backpack, following a share link to the host
+     * whose modules it uses.
+     *
+     * @return the mask, or {@link ModuleCapabilities#UNKNOWN} for unknown or
+     *         legacy rows
+     */
+    public long findModuleMask(UUID backpackId) {
+        if (backpackId == null)
+            return ModuleCapabilities.UNKNOWN;
+        try (PreparedStatement ps = getConnection().prepareStatement("""
+                SELECT CASE WHEN b.share_host_id IS NULL THEN b.module_mask ELSE h.module_mask END AS mask
+                  FROM backpacks b
+                  LEFT JOIN backpacks h ON h.backpack_id = b.share_host_id
+                 WHERE b.backpack_id = ?
+                """)) {
+            ps.setString(1, backpackId.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next())
+                    return ModuleCapabilities.UNKNOWN;
+                long mask = rs.getLong("mask");
+                return rs.wasNull() ? ModuleCapabilities.UNKNOWN : mask;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to read module mask for " + backpackId, e);
+        }
+    }
+
+    public void saveModuleMask(UUID backpackId, long mask) {
+        try (PreparedStatement ps = getConnection().prepareStatement(
+                "UPDATE backpacks SET module_mask = ? WHERE backpack_id = ?")) {
+            ps.setLong(1, mask);
+            ps.setString(2, backpackId.toString());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save module mask for " + backpackId, e);
+        }
+    }
+
+    /**
+     * Returns the bit for a module type, allocating the next free one.
+     *
+     * @return the bit index, or -1 when all bits are taken
+     */
+    private synchronized int allocateModuleBit(String moduleType) {
+        try {
+            Connection conn = getConnection();
+            try (PreparedStatement ins = conn.prepareStatement("""
+                    INSERT OR IGNORE INTO module_type_bits(module_type, bit)
+                    SELECT ?, COALESCE(MAX(bit) + 1, 0) FROM module_type_bits
+                    """)) {
+                ins.setString(1, moduleType);
+                ins.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT bit FROM module_type_bits WHERE module_type = ?")) {
+                ps.setString(1, moduleType);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next())
+                        return -1;
+                    int bit = rs.getInt("bit");
+                    return bit < ModuleCapabilities.MAX_BITS ? bit : -1;
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Failed to allocate module bit for " + moduleType + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
     /**
      * Disconnect all backpacks that have joined the specified host.
      * Sets their is_shared=false, share_host_id=null, share_password=''.
@@ -568,6 +779,21 @@ public final class SQLiteBackpackRepository {
         return out;
     }
 
+    /**
+     * Reads contents bytes plus their stored aggregates (NULL on rows saved
+     * before the aggregate columns existed).
+     */
+    private static void readContents(ResultSet rs, BackpackData data) throws SQLException {
+        byte[] contents = rs.getBytes("contents");
+        int usedSlots = rs.getInt("used_slots");
+        if (rs.wasNull())
+            usedSlots = -1;
+        int itemCount = rs.getInt("item_count");
+        if (rs.wasNull())
+            itemCount = -1;
+        data.contentsBytes(contents, usedSlots, itemCount);
+    }
+
     /**
      * Helper method for schema migrations with logging.
      */
@@ -582,6 +808,18 @@ public final class SQLiteBackpackRepository {
 
     public void saveModules(UUID backpackId, Map<Integer, UUID> slotToModule, Map<UUID, byte[]> snapshots,
             Map<UUID, byte[]> states) {
+        saveModules(backpackId, slotToModule, snapshots, states, Map.of());
+    }
+
+    /**
+     * Replaces the module rows and updates the backpack's module mask in the same
+     * transaction.
+     *
+     * @return the saved module mask
+     */
+    public long saveModules(UUID backpackId, Map<Integer, UUID> slotToModule, Map<UUID, byte[]> snapshots,
+            Map<UUID, byte[]> states, Map<UUID, String> types) {
+        long mask = capabilities.maskOf(slotToModule, snapshots, types);
         try {
             connection.setAutoCommit(false);
 
@@ -592,7 +830,7 @@ public final class SQLiteBackpackRepository {
             }
 
             try (PreparedStatement ins = getConnection().prepareStatement(
-                    "INSERT INTO backpack_modules(backpack_id, slot_index, module_id, module_snapshot, module_state) VALUES(?,?,?,?,?)")) {
+                    "INSERT INTO backpack_modules(backpack_id, slot_index, module_id, module_snapshot, module_state, module_type) VALUES(?,?,?,?,?,?)")) {
                 for (Map.Entry<Integer, UUID> e : slotToModule.entrySet()) {
                     UUID moduleId = e.getValue();
 
@@ -601,12 +839,21 @@ public final class SQLiteBackpackRepository {
                     ins.setString(3, moduleId.toString());
                     ins.setBytes(4, snapshots.get(moduleId));
                     ins.setBytes(5, states.get(moduleId));
+                    ins.setString(6, types.get(moduleId));
                     ins.addBatch();
                 }
                 ins.executeBatch();
             }
 
+            try (PreparedStatement upd = getConnection().prepareStatement(
+                    "UPDATE backpacks SET module_mask = ? WHERE backpack_id = ?")) {
+                upd.setLong(1, mask);
+                upd.setString(2, backpackId.toString());
+                upd.executeUpdate();
+            }
+
             connection.commit();
+            return mask;
         } catch (SQLException e) {
             try {
                 connection.rollback();
@@ -649,6 +896,213 @@ public final class SQLiteBackpackRepository {
         }
     }
 
+    /**
+     * Loads one sorted page of an owner's backpacks. Safe to call off the main
+     * thread: it only touches the read connection.
+     *
+     * @param placements backpackId -> location text, snapshotted on the main thread
+     * @param typeRanks  lower-cased type id -> tier rank used by {@link SummaryOrder#TYPE}
+     */
+    public BackpackPage listBackpackPage(UUID ownerUuid, SummaryOrder order, boolean ascending,
+            Map<UUID, String> placements, Map<String, Integer> typeRanks, int offset, int limit) {
+        if (ownerUuid == null)
+            return new BackpackPage(0, List.of());
+
+        StringBuilder typeRank = new StringBuilder();
+        if (typeRanks.isEmpty()) {
+            typeRank.append(Integer.MAX_VALUE);
+        } else {
+            typeRank.append("CASE LOWER(b.backpack_type)");
+            for (int i = 0; i < typeRanks.size(); i++) {
+                typeRank.append(" WHEN ? THEN ?");
+            }
+            typeRank.append(" ELSE ").append(Integer.MAX_VALUE).append(" END");
+        }
+
+        // Ranked in an inner query so the window and the page share one ordering.
+        // Joined backpacks show their host's contents and modules (aggregate_id).
+        String orderBy = order.orderBy(ascending);
+        String sql = """
+                SELECT r.*, ROW_NUMBER() OVER (PARTITION BY r.backpack_type ORDER BY %2$s) AS type_index
+                  FROM (
+                        SELECT b.backpack_id, b.backpack_type, b.backpack_name, b.owner_uuid, b.owner_name,
+                               b.updated_at,
+                               COALESCE(h.backpack_id, b.backpack_id) AS aggregate_id,
+                               CASE WHEN h.backpack_id IS NULL THEN b.item_count ELSE h.item_count END AS item_count,
+                               (SELECT COUNT(*) FROM backpack_modules m
+                                 WHERE m.backpack_id = COALESCE(h.backpack_id, b.backpack_id)) AS module_count,
+                               p.location AS location,
+                               CASE WHEN p.location IS NULL THEN 0 ELSE 1 END AS placed,
+                               %1$s AS type_rank
+                          FROM backpacks b
+                          LEFT JOIN backpacks h ON h.backpack_id = b.share_host_id
+                          LEFT JOIN temp.admin_list_placed p ON p.backpack_id = b.backpack_id
+                         WHERE b.owner_uuid = ?
+                       ) r
+                 ORDER BY %2$s
+                 LIMIT ? OFFSET ?
+                """.formatted(typeRank, orderBy);
+
+        synchronized (readLock) {
+            try {
+                Connection conn = getReadConnection();
+                int total;
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT COUNT(*) FROM backpacks WHERE owner_uuid = ?")) {
+                    ps.setString(1, ownerUuid.toString());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        total = rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+                if (total == 0 || offset >= total)
+                    return new BackpackPage(total, List.of());
+
+                try (Statement st = conn.createStatement()) {
+                    st.executeUpdate("DELETE FROM temp.admin_list_placed");
+                }
+                if (!placements.isEmpty()) {
+                    try (PreparedStatement ins = conn.prepareStatement(
+                            "INSERT OR REPLACE INTO temp.admin_list_placed(backpack_id, location) VALUES(?,?)")) {
+                        for (Map.Entry<UUID, String> e : placements.entrySet()) {
+                            ins.setString(1, e.getKey().toString());
+                            ins.setString(2, e.getValue());
+                            ins.addBatch();
+                        }
+                        ins.executeBatch();
+                    }
+                }
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    int idx = 1;
+                    for (Map.Entry<String, Integer> e : typeRanks.entrySet()) {
+                        ps.setString(idx++, e.getKey());
+                        ps.setInt(idx++, e.getValue());
+                    }
+                    ps.setString(idx++, ownerUuid.toString());
+                    ps.setInt(idx++, Math.max(1, limit));
+                    ps.setInt(idx, Math.max(0, offset));
+
+                    try (ResultSet rs = ps.executeQuery()) {
+                        List<BackpackPageRow> rows = new ArrayList<>();
+                        while (rs.next()) {
+                            int itemCount = rs.getInt("item_count");
+                            if (rs.wasNull())
+                                itemCount = -1;
+                            rows.add(new BackpackPageRow(
+                                    UUID.fromString(rs.getString("backpack_id")),
+                                    UUID.fromString(rs.getString("aggregate_id")),
+                                    rs.getString("backpack_type"),
+                                    rs.getString("backpack_name"),
+                                    rs.getString("owner_uuid"),
+                                    rs.getString("owner_name"),
+                                    itemCount,
+                                    rs.getInt("module_count"),
+                                    rs.getString("location"),
+                                    rs.getLong("updated_at"),
+                                    rs.getInt("type_index"),
+                                    null));
+                        }
+                        return new BackpackPage(total, withLegacyContents(conn, rows));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to list backpack page for owner " + ownerUuid, e);
+            }
+        }
+    }
+
+    // Rows saved before the aggregate columns existed are counted by the caller,
+    // from the contents of their aggregate row.
+    private static List<BackpackPageRow> withLegacyContents(Connection conn, List<BackpackPageRow> rows)
+            throws SQLException {
+        List<BackpackPageRow> out = new ArrayList<>(rows.size());
+        try (PreparedStatement ps = conn.prepareStatement("SELECT contents FROM backpacks WHERE backpack_id = ?")) {
+            for (BackpackPageRow row : rows) {
+                if (row.itemCount() >= 0) {
+                    out.add(row);
+                    continue;
+                }
+                ps.setString(1, row.aggregateId().toString());
+                byte[] contents = null;
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next())
+                        contents = rs.getBytes(1);
+                }
+                out.add(row.withLegacyContents(contents));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * SQL orderings for {@link #listBackpackPage}. The direction applies to
+     * every term, and every ordering ends on backpack_id.
+     */
+    public enum SummaryOrder {
+        TYPE("r.type_rank", "LOWER(r.backpack_type)", "LOWER(COALESCE(r.backpack_name, ''))", "r.backpack_id"),
+        NAME("LOWER(COALESCE(r.backpack_name, ''))", "LOWER(r.backpack_type)", "r.backpack_id"),
+        QUANTITY("COALESCE(r.item_count, 0)", "LOWER(r.backpack_type)", "r.backpack_id"),
+        MODULES("r.module_count", "LOWER(r.backpack_type)", "r.backpack_id"),
+        LOCATION("r.placed", "LOWER(COALESCE(r.location, ''))", "r.backpack_id"),
+        LAST_ACCESSED("COALESCE(r.updated_at, 0)", "r.backpack_id");
+
+        private final String[] terms;
+
+        SummaryOrder(String... terms) {
+            this.terms = terms;
+        }
+
+        private String orderBy(boolean ascending) {
+            String dir = ascending ? " ASC" : " DESC";
+            StringBuilder sb = new StringBuilder();
+            for (String term : terms) {
+                if (!sb.isEmpty())
+                    sb.append(", ");
+                sb.append(term).append(dir);
+            }
+            return sb.toString();
+        }
+    }
+
+    public record BackpackPage(int total, List<BackpackPageRow> rows) {
+    }
+
+    /**
+     * One admin-list row.
+     * - aggregateId: the share host for a joined backpack, else backpackId; the
+     * row whose aggregate columns are read and backfilled
+     * - itemCount, moduleCount, legacyContents: the aggregate row's, since a
+     * joined backpack's own columns are not kept up to date
+     * - itemCount: -1 for rows saved before the aggregate columns existed
+     * - legacyContents: contents blob, only loaded when itemCount is unknown
+     * - typeIndex: 1-based position among the owner's backpacks of this type,
+     * in the requested order
+     */
+    public record BackpackPageRow(
+            UUID backpackId,
+            UUID aggregateId,
+            String backpackType,
+            String backpackName,
+            String ownerUuid,
+            String ownerName,
+            int itemCount,
+            int moduleCount,
+            String locationText,
+            long updatedAt,
+            int typeIndex,
+            byte[] legacyContents) {
+
+        public BackpackPageRow withLegacyContents(byte[] contents) {
+            return new BackpackPageRow(backpackId, aggregateId, backpackType, backpackName, ownerUuid, ownerName,
+                    itemCount, moduleCount, locationText, updatedAt, typeIndex, contents);
+        }
+
+        public BackpackPageRow withItemCount(int count) {
+            return new BackpackPageRow(backpackId, aggregateId, backpackType, backpackName, ownerUuid, ownerName,
+                    count, moduleCount, locationText, updatedAt, typeIndex, null);
+        }
+    }
+
     public record BackpackSummary(
             UUID backpackId,
             String backpackType,
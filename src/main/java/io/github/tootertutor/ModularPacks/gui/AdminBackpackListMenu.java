@@ -5,11 +5,10 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
@@ -23,9 +22,11 @@ import org.bukkit.persistence.PersistentDataType;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
 import io.github.tootertutor.ModularPacks.config.BackpackTypeDef;
-import io.github.tootertutor.ModularPacks.data.BackpackData;
 import io.github.tootertutor.ModularPacks.data.ItemStackCodec;
-import io.github.tootertutor.ModularPacks.data.SQLiteBackpackRepository.BackpackSummary;
+import io.github.tootertutor.ModularPacks.data.PlacedBackpack;
+import io.github.tootertutor.ModularPacks.data.SQLiteBackpackRepository.BackpackPage;
+import io.github.tootertutor.ModularPacks.data.SQLiteBackpackRepository.BackpackPageRow;
+import io.github.tootertutor.ModularPacks.data.SQLiteBackpackRepository.SummaryOrder;
 import io.github.tootertutor.ModularPacks.gui.AdminBackpackListMenuHolder.AdminBackpackListEntry;
 import io.github.tootertutor.ModularPacks.gui.AdminBackpackListMenuHolder.InteractionMode;
 import io.github.tootertutor.ModularPacks.item.BackpackItems;
@@ -45,7 +46,10 @@ public final class AdminBackpackListMenu {
     private static final String GUI_NEXT = "admin-list-next";
     private static final String GUI_MODE = "admin-list-mode";
     private static final String GUI_SORT = "admin-list-sort";
+    private static final String GUI_LOADING = "admin-list-loading";
     private static final String GUI_OPEN_PREFIX = "admin-list-open:";
+    private static final int EMPTY_SLOT = 22;
+    private static final int ROWS_PER_TICK = 9;
 
     private static final DateTimeFormatter TS_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
             .withZone(ZoneId.systemDefault());
@@ -58,15 +62,17 @@ public final class AdminBackpackListMenu {
         this.backpackItems = new BackpackItems(plugin);
     }
 
-    public void openMenu(org.bukkit.entity.Player viewer, OfflinePlayer target, List<BackpackSummary> rows) {
+    /**
+     * Opens the list immediately with loading placeholders; the first page is
+     * fetched on a worker thread and filled in over the next ticks.
+     */
+    public void openMenu(org.bukkit.entity.Player viewer, OfflinePlayer target) {
         if (viewer == null || target == null) {
             return;
         }
 
         String ownerName = target.getName() == null ? target.getUniqueId().toString() : target.getName();
-        List<AdminBackpackListEntry> entries = buildEntries(rows);
-        AdminBackpackListMenuHolder holder = new AdminBackpackListMenuHolder(target.getUniqueId(), ownerName, entries,
-                0);
+        AdminBackpackListMenuHolder holder = new AdminBackpackListMenuHolder(target.getUniqueId(), ownerName, 0);
 
         Component title = Text.c("&8Backpacks: &7" + ownerName);
         Inventory inv = Bukkit.createInventory(holder, INVENTORY_SIZE, title);
@@ -76,32 +82,114 @@ public final class AdminBackpackListMenu {
         viewer.openInventory(inv);
     }
 
+    /**
+     * Shows loading placeholders for the current page and requests it, sorted
+     * and paged in SQL, from a worker thread.
+     */
     public void render(AdminBackpackListMenuHolder holder) {
         Inventory inv = holder.getInventory();
         if (inv == null) {
             return;
         }
 
-        inv.clear();
+        int generation = holder.beginLoad();
+        ItemStack loading = namedItemWithGuiMarker(Material.GRAY_STAINED_GLASS_PANE, "&7Loading...", GUI_LOADING);
+        for (int slot = 0; slot < holder.pageSize(); slot++) {
+            inv.setItem(slot, loading);
+        }
+        renderNavRow(holder, inv);
+
+        // Placements and type tiers live in memory; snapshot them for the query.
+        UUID ownerUuid = holder.ownerUuid();
+        SummaryOrder order = holder.sortField().order();
+        boolean ascending = holder.ascending();
+        int offset = holder.page() * holder.pageSize();
+        int limit = holder.pageSize();
+        Map<UUID, String> placements = placementSnapshot();
+        Map<String, Integer> typeRanks = typeRankSnapshot();
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            BackpackPage page;
+            try {
+                page = withLegacyCounts(plugin.repo().listBackpackPage(ownerUuid, order, ascending, placements,
+                        typeRanks, offset, limit));
+            } catch (RuntimeException ex) {
+                plugin.getLogger().warning("Failed to load backpack list for " + ownerUuid + ": " + ex.getMessage());
+                page = null;
+            }
+
+            BackpackPage loaded = page;
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> onPageLoaded(holder, generation, loaded));
+            }
+        });
+    }
+
+    /**
+     * Redraws the navigation row only (mode toggles do not change the rows).
+     */
+    public void renderControls(AdminBackpackListMenuHolder holder) {
+        Inventory inv = holder.getInventory();
+        if (inv != null) {
+            renderNavRow(holder, inv);
+        }
+    }
 
-        List<AdminBackpackListEntry> rows = sortedEntries(holder);
-        int start = holder.page() * holder.pageSize();
-        int end = Math.min(rows.size(), start + holder.pageSize());
+    private void onPageLoaded(AdminBackpackListMenuHolder holder, int generation, BackpackPage page) {
+        Inventory inv = holder.getInventory();
+        if (inv == null || !holder.isCurrentLoad(generation) || inv.getViewers().isEmpty()) {
+            return;
+        }
 
-        Map<String, Integer> typeCounter = new HashMap<>();
-        for (int i = 0; i < start; i++) {
-            incrementTypeCounter(typeCounter, safeType(rows.get(i).backpackType()));
+        if (page == null) {
+            clearEntrySlots(holder, inv, 0);
+            inv.setItem(EMPTY_SLOT, namedItemWithGuiMarker(Material.BARRIER, "&cFailed to load backpacks",
+                    List.of("&7See the server log for details."), GUI_LOADING));
+            return;
         }
 
-        int slot = 0;
-        for (int i = start; i < end; i++) {
-            AdminBackpackListEntry row = rows.get(i);
-            String typeKey = safeType(row.backpackType());
-            int index = incrementTypeCounter(typeCounter, typeKey);
-            inv.setItem(slot++, buildBackpackEntry(row, index));
+        holder.totalEntries(page.total());
+        if (page.rows().isEmpty() && page.total() > 0) {
+            // The list shrank below this page; show the last page instead.
+            holder.page(holder.page());
+            render(holder);
+            return;
         }
 
         renderNavRow(holder, inv);
+        List<BackpackPageRow> rows = page.rows();
+        clearEntrySlots(holder, inv, rows.size());
+        if (rows.isEmpty()) {
+            inv.setItem(EMPTY_SLOT, namedItemWithGuiMarker(Material.BARRIER, "&7No backpacks found", GUI_LOADING));
+            return;
+        }
+
+        int[] next = { 0 };
+        holder.fillTask(Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            if (!holder.isCurrentLoad(generation)) {
+                return;
+            }
+            if (inv.getViewers().isEmpty()) {
+                holder.cancelFill();
+                return;
+            }
+
+            int end = Math.min(rows.size(), next[0] + ROWS_PER_TICK);
+            for (; next[0] < end; next[0]++) {
+                AdminBackpackListEntry entry = toEntry(rows.get(next[0]));
+                holder.addEntry(entry);
+                inv.setItem(next[0], buildBackpackEntry(entry));
+            }
+            if (next[0] >= rows.size()) {
+                holder.cancelFill();
+            }
+        }, 0L, 1L));
+    }
+
+    private static void clearEntrySlots(AdminBackpackListMenuHolder holder, Inventory inv, int from) {
+        for (int slot = from; slot < holder.pageSize(); slot++) {
+            inv.setItem(slot, null);
+        }
     }
 
     public boolean isPreviousButton(ItemStack item) {
@@ -186,7 +274,8 @@ public final class AdminBackpackListMenu {
         }
     }
 
-    private ItemStack buildBackpackEntry(AdminBackpackListEntry row, int index) {
+    private ItemStack buildBackpackEntry(AdminBackpackListEntry row) {
+        int index = row.typeIndex();
         ItemStack item;
         try {
             item = backpackItems.createExisting(row.backpackId(), row.backpackType());
@@ -217,7 +306,7 @@ public final class AdminBackpackListMenu {
         lore.add("&aLeft-click: open/recover to you");
         lore.add("&bRight-click: recover to owner (recover mode)");
 
-        meta.lore(Text.lore(lore));
+        meta.lore(Text.dynamicLore(lore));
         meta.getPersistentDataContainer().set(
                 plugin.cfg().getGuiItemKey(),
                 PersistentDataType.STRING,
@@ -226,65 +315,82 @@ public final class AdminBackpackListMenu {
         return item;
     }
 
-    private List<AdminBackpackListEntry> buildEntries(List<BackpackSummary> rows) {
-        if (rows == null || rows.isEmpty()) {
-            return List.of();
-        }
-
-        List<AdminBackpackListEntry> out = new ArrayList<>(rows.size());
-        for (BackpackSummary row : rows) {
-            BackpackData data = plugin.repo().loadOrCreate(row.backpackId(), row.backpackType());
-            int itemCount = countItems(data);
-            int moduleCount = data.installedModules().size();
-
-            Set<Location> locations = plugin.placedBackpacks().getPlacementLocations(row.backpackId());
-            boolean placed = !locations.isEmpty();
-            String locationText = placed ? formatLocation(locations.iterator().next()) : "";
-
-            out.add(new AdminBackpackListEntry(
-                    row.backpackId(),
-                    row.backpackType(),
-                    data.backpackName(),
-                    row.ownerUuid(),
-                    row.ownerName(),
-                    itemCount,
-                    moduleCount,
-                    placed,
-                    locationText,
-                    row.updatedAt()));
+    private AdminBackpackListEntry toEntry(BackpackPageRow row) {
+        boolean placed = row.locationText() != null;
+        return new AdminBackpackListEntry(
+                row.backpackId(),
+                row.backpackType(),
+                row.backpackName(),
+                row.ownerUuid(),
+                row.ownerName(),
+                Math.max(0, row.itemCount()),
+                row.moduleCount(),
+                placed,
+                placed ? row.locationText() : "",
+                row.updatedAt(),
+                row.typeIndex());
+    }
+
+    /**
+     * Counts rows saved before the aggregate columns existed and backfills their
+     * aggregate row, so the next page load reads the stored count. Runs on the
+     * worker thread that loaded the page.
+     */
+    private BackpackPage withLegacyCounts(BackpackPage page) {
+        List<BackpackPageRow> rows = null;
+        Map<UUID, Integer> counted = new HashMap<>();
+        for (int i = 0; i < page.rows().size(); i++) {
+            BackpackPageRow row = page.rows().get(i);
+            if (row.itemCount() >= 0) {
+                continue;
+            }
+            if (rows == null) {
+                rows = new ArrayList<>(page.rows());
+            }
+            Integer total = counted.get(row.aggregateId());
+            if (total == null) {
+                total = countLegacyItems(row);
+                counted.put(row.aggregateId(), total);
+            }
+            rows.set(i, row.withItemCount(total));
+        }
+        return rows == null ? page : new BackpackPage(page.total(), rows);
+    }
+
+    private int countLegacyItems(BackpackPageRow row) {
+        byte[] bytes = row.legacyContents();
+        if (bytes == null || bytes.length == 0) {
+            return 0;
+        }
+
+        int used = 0;
+        int total = 0;
+        for (ItemStack item : ItemStackCodec.fromBytes(bytes)) {
+            if (ItemStacks.isNotAir(item)) {
+                used++;
+                total += Math.max(0, item.getAmount());
+            }
+        }
+        plugin.repo().saveContentsStats(row.aggregateId(), used, total);
+        return total;
+    }
+
+    private Map<UUID, String> placementSnapshot() {
+        Map<UUID, String> out = new HashMap<>();
+        for (PlacedBackpack placed : plugin.placedBackpacks().getAllPlaced().values()) {
+            if (placed.isValid()) {
+                out.putIfAbsent(placed.backpackId(), formatLocation(placed.location()));
+            }
         }
         return out;
     }
 
-    private List<AdminBackpackListEntry> sortedEntries(AdminBackpackListMenuHolder holder) {
-        List<AdminBackpackListEntry> sorted = new ArrayList<>(holder.entries());
-        Comparator<AdminBackpackListEntry> cmp = switch (holder.sortField()) {
-            case TYPE -> Comparator.comparingInt((AdminBackpackListEntry e) -> typeTierRank(e.backpackType()))
-                    .thenComparing(AdminBackpackListEntry::typeKey)
-                    .thenComparing(AdminBackpackListEntry::nameKey)
-                    .thenComparing(AdminBackpackListEntry::backpackId);
-            case NAME -> Comparator.comparing(AdminBackpackListEntry::nameKey)
-                    .thenComparing(AdminBackpackListEntry::typeKey)
-                    .thenComparing(AdminBackpackListEntry::backpackId);
-            case QUANTITY -> Comparator.comparingInt(AdminBackpackListEntry::itemCount)
-                    .thenComparing(AdminBackpackListEntry::typeKey)
-                    .thenComparing(AdminBackpackListEntry::backpackId);
-            case MODULES -> Comparator.comparingInt(AdminBackpackListEntry::moduleCount)
-                    .thenComparing(AdminBackpackListEntry::typeKey)
-                    .thenComparing(AdminBackpackListEntry::backpackId);
-            case LOCATION -> Comparator.comparing(AdminBackpackListEntry::placed)
-                    .thenComparing(AdminBackpackListEntry::locationKey)
-                    .thenComparing(AdminBackpackListEntry::backpackId);
-            case LAST_ACCESSED -> Comparator.comparingLong(AdminBackpackListEntry::lastAccessedMillis)
-                    .thenComparing(AdminBackpackListEntry::backpackId);
-        };
-
-        if (!holder.ascending()) {
-            cmp = cmp.reversed();
-        }
-
-        sorted.sort(cmp);
-        return sorted;
+    private Map<String, Integer> typeRankSnapshot() {
+        Map<String, Integer> out = new HashMap<>();
+        for (BackpackTypeDef def : plugin.cfg().getTypes()) {
+            out.put(def.id().toLowerCase(Locale.ROOT), typeTierRank(def.id()));
+        }
+        return out;
     }
 
     private int typeTierRank(String typeId) {
@@ -310,7 +416,7 @@ public final class AdminBackpackListMenu {
         if (meta != null) {
             meta.displayName(Text.c(name));
             if (lore != null && !lore.isEmpty()) {
-                meta.lore(Text.lore(lore));
+                meta.lore(Text.dynamicLore(lore));
             }
             meta.getPersistentDataContainer().set(plugin.cfg().getGuiItemKey(), PersistentDataType.STRING, guiValue);
             item.setItemMeta(meta);
@@ -334,28 +440,6 @@ public final class AdminBackpackListMenu {
         return type == null ? "unknown" : type;
     }
 
-    private static int incrementTypeCounter(Map<String, Integer> counts, String key) {
-        Integer current = counts.get(key);
-        int next = (current == null ? 1 : current + 1);
-        counts.put(key, next);
-        return next;
-    }
-
-    private static int countItems(BackpackData data) {
-        if (data == null || data.contentsBytes() == null || data.contentsBytes().length == 0) {
-            return 0;
-        }
-
-        int total = 0;
-        ItemStack[] items = ItemStackCodec.fromBytes(data.contentsBytes());
-        for (ItemStack item : items) {
-            if (ItemStacks.isNotAir(item)) {
-                total += Math.max(0, item.getAmount());
-            }
-        }
-        return total;
-    }
-
     private static String formatLocation(Location location) {
         if (location == null || location.getWorld() == null) {
             return "unknown";
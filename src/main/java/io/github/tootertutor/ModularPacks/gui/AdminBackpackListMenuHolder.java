@@ -1,19 +1,33 @@
 package io.github.tootertutor.ModularPacks.gui;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 import java.util.UUID;
 
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.scheduler.BukkitTask;
 
+import io.github.tootertutor.ModularPacks.data.SQLiteBackpackRepository.SummaryOrder;
+
+/**
+ * State of one admin backpack list view. Only the visible page is held:
+ * - entries: rows of the current page filled so far
+ * - totalEntries: owner's backpack count from the last page query
+ * - loadGeneration: bumped per page request so stale worker results are dropped
+ */
 public final class AdminBackpackListMenuHolder implements InventoryHolder {
 
     private static final int PAGE_SIZE = 45;
 
     private final UUID ownerUuid;
     private final String ownerName;
-    private final List<AdminBackpackListEntry> entries;
+    private final List<AdminBackpackListEntry> entries = new ArrayList<>(PAGE_SIZE);
+
+    private int totalEntries;
+    private int loadGeneration;
+    private BukkitTask fillTask;
 
     private int page;
     private SortField sortField = SortField.TYPE;
@@ -21,11 +35,9 @@ public final class AdminBackpackListMenuHolder implements InventoryHolder {
     private InteractionMode mode = InteractionMode.VIEW;
     private Inventory inventory;
 
-    public AdminBackpackListMenuHolder(UUID ownerUuid, String ownerName, List<AdminBackpackListEntry> entries,
-            int page) {
+    public AdminBackpackListMenuHolder(UUID ownerUuid, String ownerName, int page) {
         this.ownerUuid = ownerUuid;
         this.ownerName = ownerName == null || ownerName.isBlank() ? "Unknown" : ownerName;
-        this.entries = entries == null ? List.of() : List.copyOf(entries);
         this.page = Math.max(0, page);
     }
 
@@ -38,7 +50,46 @@ public final class AdminBackpackListMenuHolder implements InventoryHolder {
     }
 
     public List<AdminBackpackListEntry> entries() {
-        return entries;
+        return Collections.unmodifiableList(entries);
+    }
+
+    void addEntry(AdminBackpackListEntry entry) {
+        entries.add(entry);
+    }
+
+    public int totalEntries() {
+        return totalEntries;
+    }
+
+    void totalEntries(int totalEntries) {
+        this.totalEntries = Math.max(0, totalEntries);
+    }
+
+    /**
+     * Starts a new page load: cancels any fill in progress and clears the page.
+     *
+     * @return generation to pass back to {@link #isCurrentLoad(int)}
+     */
+    int beginLoad() {
+        cancelFill();
+        entries.clear();
+        return ++loadGeneration;
+    }
+
+    boolean isCurrentLoad(int generation) {
+        return generation == loadGeneration;
+    }
+
+    void fillTask(BukkitTask task) {
+        cancelFill();
+        this.fillTask = task;
+    }
+
+    public void cancelFill() {
+        if (fillTask != null) {
+            fillTask.cancel();
+            fillTask = null;
+        }
     }
 
     public AdminBackpackListEntry findEntry(UUID backpackId) {
@@ -66,7 +117,7 @@ public final class AdminBackpackListMenuHolder implements InventoryHolder {
     }
 
     public int pageCount() {
-        return Math.max(1, (int) Math.ceil(entries.size() / (double) PAGE_SIZE));
+        return Math.max(1, (int) Math.ceil(totalEntries / (double) PAGE_SIZE));
     }
 
     public SortField sortField() {
@@ -107,22 +158,28 @@ public final class AdminBackpackListMenuHolder implements InventoryHolder {
     }
 
     public enum SortField {
-        TYPE("Type"),
-        NAME("Name"),
-        QUANTITY("Quantity"),
-        MODULES("Current Modules"),
-        LOCATION("Location"),
-        LAST_ACCESSED("Last Accessed");
+        TYPE("Type", SummaryOrder.TYPE),
+        NAME("Name", SummaryOrder.NAME),
+        QUANTITY("Quantity", SummaryOrder.QUANTITY),
+        MODULES("Current Modules", SummaryOrder.MODULES),
+        LOCATION("Location", SummaryOrder.LOCATION),
+        LAST_ACCESSED("Last Accessed", SummaryOrder.LAST_ACCESSED);
 
         private final String label;
+        private final SummaryOrder order;
 
-        SortField(String label) {
+        SortField(String label, SummaryOrder order) {
             this.label = label;
+            this.order = order;
         }
 
         public String label() {
             return label;
         }
+
+        public SummaryOrder order() {
+            return order;
+        }
     }
 
     public enum InteractionMode {
@@ -140,18 +197,7 @@ public final class AdminBackpackListMenuHolder implements InventoryHolder {
             int moduleCount,
             boolean placed,
             String locationText,
-            long lastAccessedMillis) {
-
-        public String typeKey() {
-            return backpackType == null ? "unknown" : backpackType.toLowerCase(Locale.ROOT);
-        }
-
-        public String nameKey() {
-            return backpackName == null ? "" : backpackName.toLowerCase(Locale.ROOT);
-        }
-
-        public String locationKey() {
-            return locationText == null ? "" : locationText.toLowerCase(Locale.ROOT);
-        }
+            long lastAccessedMillis,
+            int typeIndex) {
     }
 }
@@ -1,11 +1,14 @@
 package io.github.tootertutor.ModularPacks.gui;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.bukkit.Location;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
 
 import io.github.tootertutor.ModularPacks.config.BackpackTypeDef;
 import io.github.tootertutor.ModularPacks.data.BackpackData;
@@ -26,11 +29,20 @@ public final class BackpackMenuHolder implements InventoryHolder {
 
     private final List<Integer> upgradeSlots; // actual inventory slot indices (bottom row)
 
-    private BackpackSortMode sortMode = BackpackSortMode.REGISTRY;
+    private SortMode sortMode = BackpackSortModes.defaultMode();
     private boolean sortLocked = false;
 
     private Inventory inventory;
 
+    // last items the renderer put in each slot (null until first render)
+    private ItemStack[] renderedFrame;
+
+    // moduleId -> rendered socket item, reused while snapshot/state bytes are unchanged
+    private final Map<UUID, SocketDisplay> socketDisplays = new HashMap<>();
+
+    record SocketDisplay(byte[] snapshot, byte[] state, int generation, ItemStack display) {
+    }
+
     public BackpackMenuHolder(UUID backpackId, BackpackTypeDef type, BackpackData data, Location placedLocation,
             boolean paginated, int pageSize,
             List<Integer> upgradeSlots) {
@@ -57,6 +69,18 @@ public final class BackpackMenuHolder implements InventoryHolder {
         return data;
     }
 
+    /**
+     * Live logical contents for this session (all pages). Page views write
+     * through to this array; it is serialized once when the data is persisted.
+     */
+    public ItemStack[] contents() {
+        return data.liveContents(logicalSlots);
+    }
+
+    public void markContentsDirty() {
+        data.markContentsDirty();
+    }
+
     public Location placedLocation() {
         return placedLocation == null ? null : placedLocation.clone();
     }
@@ -95,13 +119,13 @@ public final class BackpackMenuHolder implements InventoryHolder {
         return upgradeSlots;
     }
 
-    public BackpackSortMode sortMode() {
+    public SortMode sortMode() {
         return sortMode;
     }
 
-    public void sortMode(BackpackSortMode mode) {
+    public void sortMode(SortMode mode) {
         if (mode == null)
-            mode = BackpackSortMode.REGISTRY;
+            mode = BackpackSortModes.defaultMode();
         this.sortMode = mode;
     }
 
@@ -118,8 +142,21 @@ public final class BackpackMenuHolder implements InventoryHolder {
         return this.sortLocked;
     }
 
+    ItemStack[] renderedFrame() {
+        return renderedFrame;
+    }
+
+    void renderedFrame(ItemStack[] frame) {
+        this.renderedFrame = frame;
+    }
+
+    Map<UUID, SocketDisplay> socketDisplays() {
+        return socketDisplays;
+    }
+
     public void setInventory(Inventory inv) {
         this.inventory = inv;
+        this.renderedFrame = null;
     }
 
     @Override
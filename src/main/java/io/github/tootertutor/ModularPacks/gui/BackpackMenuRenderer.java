@@ -27,6 +27,8 @@ import net.kyori.adventure.text.Component;
 public final class BackpackMenuRenderer {
 
     private final ModularPacksPlugin plugin;
+    private final NavItemTemplates templates = new NavItemTemplates();
+    private int sortModesGeneration = -1;
 
     public BackpackMenuRenderer(ModularPacksPlugin plugin) {
         this.plugin = plugin;
@@ -195,7 +197,6 @@ public final class BackpackMenuRenderer {
 
     public void render(BackpackMenuHolder holder) {
         Inventory inv = holder.getInventory();
-        inv.clear();
 
         boolean hasNavRow = hasNavRow(holder);
         int invSize = inv.getSize();
@@ -204,15 +205,11 @@ public final class BackpackMenuRenderer {
 
         int visibleStorage = SlotLayout.storageAreaSize(invSize, hasNavRow);
 
-        // load logical contents
-        ItemStack[] logical = ItemStackCodec.fromBytes(holder.data().contentsBytes());
-        int logicalSize = holder.logicalSlots();
+        ItemStack[] logical = holder.contents();
+        int logicalSize = logical.length;
 
-        if (logical.length != logicalSize) {
-            ItemStack[] resized = new ItemStack[logicalSize];
-            System.arraycopy(logical, 0, resized, 0, Math.min(logical.length, logicalSize));
-            logical = resized;
-        }
+        // Build the full frame, then only touch slots that differ from what is shown.
+        ItemStack[] frame = new ItemStack[invSize];
 
         // draw storage area
         if (holder.paginated()) {
@@ -223,41 +220,81 @@ public final class BackpackMenuRenderer {
                 int logicalIndex = offset + i;
                 if (logicalIndex >= maxLogical)
                     break;
-                inv.setItem(i, logical[logicalIndex]);
+                frame[i] = logical[logicalIndex];
             }
 
         } else {
             // non-paginated: visibleStorage might be rows*9 (if hasNavRow) or invSize
             int limit = Math.min(logicalSize, visibleStorage);
             for (int i = 0; i < limit; i++) {
-                inv.setItem(i, logical[i]);
+                frame[i] = logical[i];
             }
         }
 
         // bottom row (nav row) with fillers + optional buttons + upgrade sockets
         if (hasNavRow) {
-            renderNavRow(holder);
-            renderUpgradeSockets(holder);
+            renderNavRow(holder, frame);
+            renderUpgradeSockets(holder, frame);
         }
 
         if (holder.paginated()) {
             int valid = validVisibleSlots(holder, storageSize); // note overload below
             if (valid < storageSize) {
-                ItemStack blocked = namedItemWithPdc(
-                        plugin.cfg().navBorderFiller(),
-                        "&7",
-                        plugin.cfg().getGuiItemKey(),
-                        "nav-border-filler");
+                ItemStack blocked = borderFiller();
                 for (int i = valid; i < storageSize; i++) {
-                    inv.setItem(i, blocked);
+                    frame[i] = blocked;
                 }
             }
         }
 
-        // write-back normalized logical array (so size stays stable)
-        holder.data().contentsBytes(ItemStackCodec.toBytes(logical));
+        applyFrame(holder, frame, hasNavRow ? navStart : invSize);
     }
 
+    /**
+     * Sets only the slots whose item changed. Storage slots and module sockets
+     * are compared with the live inventory (clicks edit them between renders);
+     * other nav-row slots are compared with the previous frame, usually by
+     * template identity.
+     */
+    private void applyFrame(BackpackMenuHolder holder, ItemStack[] frame, int editableSlots) {
+        Inventory inv = holder.getInventory();
+        ItemStack[] previous = holder.renderedFrame();
+        if (previous != null && previous.length != frame.length)
+            previous = null;
+
+        for (int slot = 0; slot < frame.length; slot++) {
+            ItemStack next = frame[slot];
+            boolean live = previous == null || slot < editableSlots || holder.upgradeSlots().contains(slot);
+            ItemStack current = live ? inv.getItem(slot) : previous[slot];
+            if (sameItem(current, next))
+                continue;
+            inv.setItem(slot, next);
+        }
+
+        holder.renderedFrame(frame);
+    }
+
+    private static boolean sameItem(ItemStack a, ItemStack b) {
+        if (a == b)
+            return true;
+        boolean aAir = a == null || a.getType().isAir();
+        boolean bAir = b == null || b.getType().isAir();
+        if (aAir || bAir)
+            return aAir && bAir;
+        return a.equals(b);
+    }
+
+    /**
+     * Drops cached nav/border templates (call after config reload).
+     */
+    public void invalidateTemplates() {
+        templates.clear();
+    }
+
+    /**
+     * Writes the visible page through to the holder's live contents. Only the
+     * page is copied; encoding happens when the data is persisted.
+     */
     public void saveVisibleStorageToData(BackpackMenuHolder holder) {
         Inventory inv = holder.getInventory();
 
@@ -265,14 +302,7 @@ public final class BackpackMenuRenderer {
         int invSize = inv.getSize();
         int visibleStorage = SlotLayout.storageAreaSize(invSize, hasNavRow);
 
-        ItemStack[] logical = ItemStackCodec.fromBytes(holder.data().contentsBytes());
-        int logicalSize = holder.logicalSlots();
-
-        if (logical.length != logicalSize) {
-            ItemStack[] resized = new ItemStack[logicalSize];
-            System.arraycopy(logical, 0, resized, 0, Math.min(logical.length, logicalSize));
-            logical = resized;
-        }
+        ItemStack[] logical = holder.contents();
 
         if (holder.paginated()) {
             int offset = holder.page() * 45;
@@ -298,23 +328,17 @@ public final class BackpackMenuRenderer {
             }
         }
 
-        holder.data().contentsBytes(ItemStackCodec.toBytes(logical));
-
+        holder.markContentsDirty();
     }
 
-    private void renderNavRow(BackpackMenuHolder holder) {
-        Inventory inv = holder.getInventory();
-        int invSize = inv.getSize();
+    private void renderNavRow(BackpackMenuHolder holder, ItemStack[] frame) {
+        int invSize = frame.length;
         int bottomStart = SlotLayout.bottomRowStart(invSize);
 
         // Fill bottom row with border fillers marked with PDC
-        ItemStack filler = namedItemWithPdc(
-                plugin.cfg().navBorderFiller(),
-                "&7",
-                plugin.cfg().getGuiItemKey(),
-                "nav-border-filler");
+        ItemStack filler = borderFiller();
         for (int slot = bottomStart; slot < invSize; slot++) {
-            inv.setItem(slot, filler);
+            frame[slot] = filler;
         }
 
         // Only show prev/next if paginated and valid for current page
@@ -325,14 +349,14 @@ public final class BackpackMenuRenderer {
             int nextSlot = SlotLayout.nextButtonSlot(invSize);
 
             if (holder.page() > 0) {
-                inv.setItem(prevSlot, namedItemWithPdc(
+                frame[prevSlot] = templates.get("nav-prev", () -> namedItemWithPdc(
                         plugin.cfg().navPageButtons(),
                         "&ePrevious Page",
                         plugin.cfg().getGuiItemKey(),
                         "nav-page-button"));
             }
             if (holder.page() < pageCount - 1) {
-                inv.setItem(nextSlot, namedItemWithPdc(
+                frame[nextSlot] = templates.get("nav-next", () -> namedItemWithPdc(
                         plugin.cfg().navPageButtons(),
                         "&eNext Page",
                         plugin.cfg().getGuiItemKey(),
@@ -342,29 +366,60 @@ public final class BackpackMenuRenderer {
 
         int sortSlot = SlotLayout.sortButtonSlot(invSize, holder.upgradeSlots(), holder.paginated());
         if (sortSlot >= 0) {
-            List<String> lore = new ArrayList<>();
-            lore.add("&7Left-click: &fSort");
-            lore.add("&7Right-click: &fChange mode");
-            lore.add("&7Shift + Right-click: &fLock/Unlock");
-            lore.add("&7Status: " + (holder.sortLocked() ? "&cLocked" : "&aUnlocked"));
-            lore.add("&7");
-            lore.add("&7Mode:");
-            for (BackpackSortMode mode : BackpackSortMode.values()) {
-                String color = (mode == holder.sortMode()) ? "&a" : "&7";
-                lore.add(color + mode.displayName());
+            SortMode sortMode = holder.sortMode();
+            boolean locked = holder.sortLocked();
+            // Sort buttons list the registered modes; rebuild them when the registry changes.
+            int sortGeneration = BackpackSortModes.generation();
+            if (sortGeneration != sortModesGeneration) {
+                templates.clear("sort:");
+                sortModesGeneration = sortGeneration;
             }
-
-            inv.setItem(sortSlot, namedItem(Material.COMPARATOR, "&eSort", lore));
+            frame[sortSlot] = templates.get("sort:" + sortMode.id() + ":" + locked,
+                    () -> sortButton(sortMode, locked));
         }
 
         // Render mode button (opposite side of sort button)
         int modeSlot = SlotLayout.modeButtonSlot(invSize, holder.upgradeSlots(), holder.paginated(), sortSlot);
         if (modeSlot >= 0) {
-            renderModeButton(inv, holder.data(), modeSlot);
+            frame[modeSlot] = modeButton(holder.data());
+        }
+    }
+
+    private ItemStack borderFiller() {
+        return templates.get("nav-border-filler", () -> namedItemWithPdc(
+                plugin.cfg().navBorderFiller(),
+                "&7",
+                plugin.cfg().getGuiItemKey(),
+                "nav-border-filler"));
+    }
+
+    private static ItemStack sortButton(SortMode sortMode, boolean locked) {
+        List<String> lore = new ArrayList<>();
+        lore.add("&7Left-click: &fSort");
+        lore.add("&7Right-click: &fChange mode");
+        lore.add("&7Shift + Right-click: &fLock/Unlock");
+        lore.add("&7Status: " + (locked ? "&cLocked" : "&aUnlocked"));
+        lore.add("&7");
+        lore.add("&7Mode:");
+        for (SortMode mode : BackpackSortModes.all()) {
+            String color = (mode == sortMode) ? "&a" : "&7";
+            lore.add(color + mode.displayName());
         }
+
+        return namedItem(Material.COMPARATOR, "&eSort", lore);
     }
 
-    private void renderModeButton(Inventory inv, BackpackData data, int slot) {
+    private ItemStack modeButton(BackpackData data) {
+        String state;
+        if (data.isShared()) {
+            state = data.isShareHost() ? "host" : "joined";
+        } else {
+            state = "private";
+        }
+        return templates.get("settings:" + state, () -> buildModeButton(state));
+    }
+
+    private static ItemStack buildModeButton(String state) {
         List<String> lore = new ArrayList<>();
         lore.add("&7Open backpack settings");
         lore.add("&7");
@@ -375,23 +430,16 @@ public final class BackpackMenuRenderer {
         lore.add("&7");
         lore.add("&8[&6ʟ-ᴄʟɪᴄᴋ&8]&7 Open");
 
-        if (data.isShared()) {
-            if (data.isShareHost()) {
-                lore.add("&7Current mode: &bHost");
-            } else {
-                lore.add("&7Current mode: &dJoined");
-            }
-        } else {
-            lore.add("&7Current mode: &cPrivate");
+        switch (state) {
+            case "host" -> lore.add("&7Current mode: &bHost");
+            case "joined" -> lore.add("&7Current mode: &dJoined");
+            default -> lore.add("&7Current mode: &cPrivate");
         }
 
-        inv.setItem(slot, namedItem(Material.REPEATER, "&6Settings", lore));
+        return namedItem(Material.REPEATER, "&6Settings", lore);
     }
 
-    private void renderUpgradeSockets(BackpackMenuHolder holder) {
-        Inventory inv = holder.getInventory();
-        Keys keys = plugin.keys();
-
+    private void renderUpgradeSockets(BackpackMenuHolder holder, ItemStack[] frame) {
         // If this backpack type has 0 upgrade slots, nothing to render.
         if (holder.type().upgradeSlots() <= 0)
             return;
@@ -402,61 +450,79 @@ public final class BackpackMenuRenderer {
 
             UUID moduleId = holder.data().installedModules().get(socketSlotIndex);
             if (moduleId == null) {
-                List<String> emptyLore = new ArrayList<>();
-                emptyLore.add("&7This is an empty module socket.");
-                emptyLore.add("&7Place a module here to activate");
-                emptyLore.add("&7special backpack abilities.");
-                inv.setItem(invSlot,
-                        namedItemWithPdc(
-                                plugin.cfg().unlockedUpgradeSlotMaterial(),
-                                "&eEmpty Module Slot",
-                                emptyLore,
-                                plugin.cfg().getGuiItemKey(),
-                                "unlocked-upgrade-slot"));
+                frame[invSlot] = templates.get("unlocked-upgrade-slot", () -> {
+                    List<String> emptyLore = new ArrayList<>();
+                    emptyLore.add("&7This is an empty module socket.");
+                    emptyLore.add("&7Place a module here to activate");
+                    emptyLore.add("&7special backpack abilities.");
+                    return namedItemWithPdc(
+                            plugin.cfg().unlockedUpgradeSlotMaterial(),
+                            "&eEmpty Module Slot",
+                            emptyLore,
+                            plugin.cfg().getGuiItemKey(),
+                            "unlocked-upgrade-slot");
+                });
                 continue;
             }
 
-            // We only have the snapshot here (fallback). Use it as the displayed item.
             byte[] snap = holder.data().installedSnapshots().get(moduleId);
-            ItemStack display = null;
+            byte[] state = holder.data().moduleStates().get(moduleId);
+            int generation = templates.generation();
 
-            if (snap != null) {
-                ItemStack[] arr = ItemStackCodec.fromBytes(snap);
-                if (arr.length > 0)
-                    display = arr[0];
-            }
-
-            if (display == null) {
-                display = namedItem(Material.BARRIER, "&cMissing Module Item");
-                inv.setItem(invSlot, display);
+            BackpackMenuHolder.SocketDisplay cached = holder.socketDisplays().get(moduleId);
+            if (cached != null && cached.snapshot() == snap && cached.state() == state
+                    && cached.generation() == generation) {
+                frame[invSlot] = cached.display();
                 continue;
             }
 
-            // Ensure it has module_id on it (if snapshot is old)
-            ItemMeta meta = display.getItemMeta();
-            if (meta != null && !meta.getPersistentDataContainer().has(keys.MODULE_ID, PersistentDataType.STRING)) {
-                meta.getPersistentDataContainer().set(keys.MODULE_ID, PersistentDataType.STRING, moduleId.toString());
-                display.setItemMeta(meta);
-            }
+            ItemStack display = buildSocketDisplay(holder, moduleId, snap, state);
+            holder.socketDisplays().put(moduleId,
+                    new BackpackMenuHolder.SocketDisplay(snap, state, generation, display));
+            frame[invSlot] = display;
+        }
+    }
+
+    private ItemStack buildSocketDisplay(BackpackMenuHolder holder, UUID moduleId, byte[] snap, byte[] state) {
+        Keys keys = plugin.keys();
+
+        // We only have the snapshot here (fallback). Use it as the displayed item.
+        ItemStack display = null;
 
-            // Dynamic visuals for Tank module based on stored state
-            ItemMeta meta2 = display.getItemMeta();
-            if (meta2 != null) {
-                String moduleType = meta2.getPersistentDataContainer().get(keys.MODULE_TYPE, PersistentDataType.STRING);
-                if (TankModuleLogic.isTankModuleType(moduleType)) {
-                    display = TankModuleLogic.applyVisuals(plugin, display, holder.data().moduleStates().get(moduleId));
-                } else if (moduleType != null) {
-                    var def = plugin.cfg().findUpgrade(moduleType);
-                    if (def != null) {
-                        meta2.displayName(Text.c(Placeholders.expandText(plugin, def, display, def.displayName())));
-                        meta2.lore(Text.lore(Placeholders.expandLore(plugin, def, display, def.lore())));
-                        display.setItemMeta(meta2);
-                    }
+        if (snap != null) {
+            ItemStack[] arr = ItemStackCodec.fromBytes(snap);
+            if (arr.length > 0)
+                display = arr[0];
+        }
+
+        if (display == null) {
+            return templates.get("missing-module", () -> namedItem(Material.BARRIER, "&cMissing Module Item"));
+        }
+
+        // Ensure it has module_id on it (if snapshot is old)
+        ItemMeta meta = display.getItemMeta();
+        if (meta != null && !meta.getPersistentDataContainer().has(keys.MODULE_ID, PersistentDataType.STRING)) {
+            meta.getPersistentDataContainer().set(keys.MODULE_ID, PersistentDataType.STRING, moduleId.toString());
+            display.setItemMeta(meta);
+        }
+
+        // Dynamic visuals for Tank module based on stored state
+        ItemMeta meta2 = display.getItemMeta();
+        if (meta2 != null) {
+            String moduleType = meta2.getPersistentDataContainer().get(keys.MODULE_TYPE, PersistentDataType.STRING);
+            if (TankModuleLogic.isTankModuleType(moduleType)) {
+                display = TankModuleLogic.applyVisuals(plugin, display, state);
+            } else if (moduleType != null) {
+                var def = plugin.cfg().findUpgrade(moduleType);
+                if (def != null) {
+                    meta2.displayName(Text.dynamic(Placeholders.expandText(plugin, def, display, def.displayName())));
+                    meta2.lore(Text.dynamicLore(Placeholders.expandLore(plugin, def, display, def.lore())));
+                    display.setItemMeta(meta2);
                 }
             }
-
-            inv.setItem(invSlot, display);
         }
+
+        return display;
     }
 
     private int validVisibleSlots(BackpackMenuHolder holder, int storageSize) {
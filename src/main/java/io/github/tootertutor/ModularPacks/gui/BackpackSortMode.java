@@ -1,7 +1,6 @@
 package io.github.tootertutor.ModularPacks.gui;
 
-import java.util.Comparator;
-import java.util.EnumMap;
+import java.util.Arrays;
 import java.util.IdentityHashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -14,12 +13,14 @@ import org.bukkit.inventory.CreativeCategory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
-import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
 import io.papermc.paper.datacomponent.DataComponentType;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 
-public enum BackpackSortMode {
+/**
+ * Built-in sort modes. Addon modes register through {@link BackpackSortModes}.
+ */
+public enum BackpackSortMode implements SortMode {
     REGISTRY("Registry"),
     CREATIVE_MENU("Creative Menu"),
     ALPHABETICALLY("Alphabetically"),
@@ -32,125 +33,70 @@ public enum BackpackSortMode {
         this.displayName = displayName;
     }
 
+    @Override
+    public String id() {
+        return name();
+    }
+
+    @Override
     public String displayName() {
         return displayName;
     }
 
-    public BackpackSortMode next() {
-        BackpackSortMode[] all = values();
-        return all[(ordinal() + 1) % all.length];
+    @Override
+    public boolean amountSensitive() {
+        return this == COUNT;
     }
 
-    public static Comparator<ItemStack> comparator(ModularPacksPlugin plugin, BackpackSortMode mode) {
-        return switch (mode) {
-            case REGISTRY -> byMaterialRegistryOrder();
-            case CREATIVE_MENU -> byCreativeMenuOrder();
-            case ALPHABETICALLY -> byAlphabeticalName();
-            case COUNT -> byCount();
-            case TAGS -> byDataComponents();
+    /**
+     * Extracts the sort key for one stack. Called once per stack per sort; the
+     * key comparison itself never reads item meta or registries.
+     */
+    @Override
+    public SortKey key(ItemStack it) {
+        Material t = type(it);
+        int registry = materialRegistryIndex(t);
+        return switch (this) {
+            // "Registered first" should appear closest to the top-left slot.
+            case REGISTRY -> new SortKey(new long[] { registry }, displayNameKey(it), 0);
+            // Earlier creative tabs should appear closer to the top-left slot.
+            case CREATIVE_MENU -> new SortKey(new long[] { creativeCategoryIndex(t), registry }, displayNameKey(it), 0);
+            case COUNT -> new SortKey(new long[] { -amount(it), registry }, displayNameKey(it), 0);
+            case TAGS -> dataComponentKey(it, registry);
+            case ALPHABETICALLY -> alphabeticalKey(it, registry);
         };
     }
 
-    private static Comparator<ItemStack> byMaterialRegistryOrder() {
-        // "Registered first" should appear closest to the top-left slot.
-        return Comparator
-                .comparingInt((ItemStack it) -> materialRegistryIndex(type(it)))
-                .thenComparing(displayNameComparator());
-    }
-
-    private static Comparator<ItemStack> byCreativeMenuOrder() {
-        // Earlier creative tabs should appear closer to the top-left slot.
-        return Comparator
-                .comparingInt((ItemStack it) -> creativeCategoryIndex(type(it)))
-                .thenComparingInt(it -> materialRegistryIndex(type(it)))
-                .thenComparing(displayNameComparator());
-    }
-
-    private static Comparator<ItemStack> byCount() {
-        return Comparator
-                .comparingInt(BackpackSortMode::amount)
-                .reversed()
-                .thenComparingInt(it -> materialRegistryIndex(type(it)))
-                .thenComparing(displayNameComparator());
-    }
-
-    private static Comparator<ItemStack> byDataComponents() {
-        Map<ItemStack, int[]> componentIndexCache = new IdentityHashMap<>();
-
-        return Comparator
-                .comparingInt((ItemStack it) -> dataComponentCount(it))
-                .reversed()
-                .thenComparing((a, b) -> compareComponentIndices(componentIndexCache, a, b))
-                .thenComparingInt(it -> materialRegistryIndex(type(it)))
-                .thenComparing(displayNameComparator());
-    }
-
-    private static Comparator<ItemStack> byAlphabeticalName() {
-        Map<ItemStack, AlphaKey> cache = new IdentityHashMap<>();
-        return Comparator
-                .comparing((ItemStack it) -> alphaKey(cache, it))
-                .thenComparingInt(it -> materialRegistryIndex(type(it)));
+    private static SortKey dataComponentKey(ItemStack it, int registry) {
+        // Equal component counts imply equal index lengths, so the count,
+        // indices and registry order can share one lexicographic head.
+        int[] components = componentIndices(it);
+        long[] head = new long[components.length + 2];
+        head[0] = -components.length;
+        for (int i = 0; i < components.length; i++) {
+            head[i + 1] = components[i];
+        }
+        head[head.length - 1] = registry;
+        return new SortKey(head, displayNameKey(it), 0);
     }
 
     // Rules:
     // - Names with 1-2 characters sort above all others.
     // - Non-alphanumeric names (ex: "%") sort last.
-    // - Otherwise, compare by first 3 characters (ascending), then full name (ascending).
-    private record AlphaKey(int group, int shortLen, String prefix3, String full) implements Comparable<AlphaKey> {
-        @Override
-        public int compareTo(AlphaKey o) {
-            if (o == null)
-                return -1;
-
-            int byGroup = Integer.compare(group, o.group);
-            if (byGroup != 0)
-                return byGroup;
-
-            if (group == 0) { // 1-2 char names
-                int byLen = Integer.compare(shortLen, o.shortLen);
-                if (byLen != 0)
-                    return byLen;
-            }
-
-            int byPrefix = String.CASE_INSENSITIVE_ORDER.compare(prefix3, o.prefix3);
-            if (byPrefix != 0)
-                return byPrefix;
-
-            return String.CASE_INSENSITIVE_ORDER.compare(full, o.full);
-        }
-    }
-
-    private static AlphaKey alphaKey(Map<ItemStack, AlphaKey> cache, ItemStack it) {
-        if (it == null)
-            return new AlphaKey(2, 0, "", "");
-        return cache.computeIfAbsent(it, BackpackSortMode::computeAlphaKey);
-    }
-
-    private static AlphaKey computeAlphaKey(ItemStack it) {
-        String full = displayNameKey(it);
-        String trimmed = full == null ? "" : full.strip();
-        String lower = trimmed.toLowerCase(Locale.ROOT);
+    // - Otherwise, compare by full name (ascending), then registry order.
+    private static SortKey alphabeticalKey(ItemStack it, int registry) {
+        String lower = it == null ? "" : displayNameKey(it).strip();
 
         if (lower.isEmpty())
-            return new AlphaKey(2, 0, "", "");
+            return new SortKey(new long[] { 2, 0 }, "", registry);
 
-        char c0 = lower.charAt(0);
-        if (!Character.isLetterOrDigit(c0)) {
-            String p = lower.length() <= 3 ? lower : lower.substring(0, 3);
-            return new AlphaKey(2, 0, p, lower);
-        }
-
-        if (lower.length() <= 2) {
-            String p = lower;
-            return new AlphaKey(0, lower.length(), p, lower);
-        }
+        if (!Character.isLetterOrDigit(lower.charAt(0)))
+            return new SortKey(new long[] { 2, 0 }, lower, registry);
 
-        String p = lower.length() <= 3 ? lower : lower.substring(0, 3);
-        return new AlphaKey(1, 0, p, lower);
-    }
+        if (lower.length() <= 2)
+            return new SortKey(new long[] { 0, lower.length() }, lower, registry);
 
-    private static Comparator<ItemStack> displayNameComparator() {
-        return Comparator.comparing(BackpackSortMode::displayNameKey, String.CASE_INSENSITIVE_ORDER);
+        return new SortKey(new long[] { 1, 0 }, lower, registry);
     }
 
     private static String displayNameKey(ItemStack it) {
@@ -164,7 +110,7 @@ public enum BackpackSortMode {
                 if (dn != null) {
                     String plain = PlainTextComponentSerializer.plainText().serialize(dn);
                     if (plain != null && !plain.isBlank())
-                        return plain;
+                        return plain.toLowerCase(Locale.ROOT);
                 }
             } catch (Exception ignored) {
             }
@@ -187,30 +133,6 @@ public enum BackpackSortMode {
         }
     }
 
-    private static int dataComponentCount(ItemStack it) {
-        if (it == null)
-            return 0;
-        try {
-            return it.getDataTypes().size();
-        } catch (Exception ignored) {
-            return 0;
-        }
-    }
-
-    private static int compareComponentIndices(Map<ItemStack, int[]> cache, ItemStack a, ItemStack b) {
-        int[] aa = cache.computeIfAbsent(a, BackpackSortMode::componentIndices);
-        int[] bb = cache.computeIfAbsent(b, BackpackSortMode::componentIndices);
-
-        int n = Math.min(aa.length, bb.length);
-        for (int i = 0; i < n; i++) {
-            // "Registered first" component types should appear closer to the top-left slot.
-            int cmp = Integer.compare(aa[i], bb[i]);
-            if (cmp != 0)
-                return cmp;
-        }
-        return Integer.compare(aa.length, bb.length);
-    }
-
     private static int[] componentIndices(ItemStack it) {
         if (it == null)
             return new int[0];
@@ -228,7 +150,7 @@ public enum BackpackSortMode {
         for (DataComponentType t : types) {
             idx[i++] = dataComponentTypeRegistryIndex(t);
         }
-        java.util.Arrays.sort(idx);
+        Arrays.sort(idx);
         return idx;
     }
 
@@ -239,38 +161,58 @@ public enum BackpackSortMode {
         return t == null ? Material.AIR : t;
     }
 
-    private static int creativeCategoryIndex(Material material) {
-        if (material == null)
-            return Integer.MAX_VALUE;
-        CreativeCategory cat;
-        try {
-            cat = material.getCreativeCategory();
-        } catch (Exception ignored) {
-            cat = null;
+    private static volatile int[] materialRegistryOrder;
+    private static volatile int[] creativeCategoryOrder;
+
+    /**
+     * Builds the Material.ordinal()-indexed registry and creative-tab tables.
+     * Called at startup; lookups fall back to building them lazily.
+     */
+    public static void precomputeOrders() {
+        synchronized (BackpackSortMode.class) {
+            int[] registry = new int[Material.values().length];
+            int[] creative = new int[registry.length];
+            Arrays.fill(registry, Integer.MAX_VALUE);
+            Arrays.fill(creative, Integer.MAX_VALUE);
+
+            int i = 0;
+            for (Material m : Registry.MATERIAL) {
+                registry[m.ordinal()] = i++;
+                CreativeCategory cat;
+                try {
+                    cat = m.getCreativeCategory();
+                } catch (Exception ignored) {
+                    cat = null;
+                }
+                if (cat != null)
+                    creative[m.ordinal()] = cat.ordinal();
+            }
+
+            creativeCategoryOrder = creative;
+            materialRegistryOrder = registry;
         }
-        return cat == null ? Integer.MAX_VALUE : cat.ordinal();
     }
 
-    private static volatile Map<Material, Integer> materialRegistryOrder;
-
     private static int materialRegistryIndex(Material material) {
         if (material == null)
             return Integer.MAX_VALUE;
-        ensureMaterialRegistryOrder();
-        return materialRegistryOrder.getOrDefault(material, Integer.MAX_VALUE);
+        int[] table = materialRegistryOrder;
+        if (table == null) {
+            precomputeOrders();
+            table = materialRegistryOrder;
+        }
+        return table[material.ordinal()];
     }
 
-    private static void ensureMaterialRegistryOrder() {
-        if (materialRegistryOrder != null)
-            return;
-        synchronized (BackpackSortMode.class) {
-            if (materialRegistryOrder != null)
-                return;
-            Map<Material, Integer> map = new EnumMap<>(Material.class);
-            AtomicInteger i = new AtomicInteger(0);
-            Registry.MATERIAL.stream().forEach(m -> map.put(m, i.getAndIncrement()));
-            materialRegistryOrder = Map.copyOf(map);
+    private static int creativeCategoryIndex(Material material) {
+        if (material == null)
+            return Integer.MAX_VALUE;
+        int[] table = creativeCategoryOrder;
+        if (table == null) {
+            precomputeOrders();
+            table = creativeCategoryOrder;
         }
+        return table[material.ordinal()];
     }
 
     private static volatile Map<DataComponentType, Integer> dataComponentTypeRegistryOrder;
@@ -0,0 +1,101 @@
+package io.github.tootertutor.ModularPacks.gui;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Registry of sort modes, in the order the sort button cycles through them.
+ * - built-ins: every {@link BackpackSortMode}, registered first
+ * - generation: bumped on every change so cached sort buttons are rebuilt
+ *
+ * Ids are case-insensitive. The default mode cannot be unregistered.
+ */
+public final class BackpackSortModes {
+
+    private static final Map<String, SortMode> MODES = new LinkedHashMap<>();
+    private static volatile List<SortMode> ordered = List.of();
+    private static volatile int generation;
+
+    static {
+        for (BackpackSortMode mode : BackpackSortMode.values()) {
+            register(mode);
+        }
+    }
+
+    private BackpackSortModes() {
+    }
+
+    /**
+     * Registers a mode after the existing ones.
+     *
+     * @throws IllegalArgumentException if the mode is invalid or the id is taken
+     */
+    public static synchronized void register(SortMode mode) {
+        if (mode == null)
+            throw new IllegalArgumentException("Sort mode cannot be null");
+        String id = mode.id();
+        if (id == null || id.isBlank())
+            throw new IllegalArgumentException("Sort mode ID cannot be null or blank");
+        if (MODES.putIfAbsent(key(id), mode) != null)
+            throw new IllegalArgumentException("Sort mode with ID '" + id + "' is already registered");
+        publish();
+    }
+
+    public static synchronized boolean unregister(String id) {
+        if (id == null || key(id).equals(key(defaultMode().id())))
+            return false;
+        if (MODES.remove(key(id)) == null)
+            return false;
+        publish();
+        return true;
+    }
+
+    public static SortMode get(String id) {
+        if (id == null)
+            return null;
+        String key = key(id);
+        for (SortMode mode : ordered) {
+            if (key(mode.id()).equals(key))
+                return mode;
+        }
+        return null;
+    }
+
+    /**
+     * @return registered modes in cycle order (immutable snapshot)
+     */
+    public static List<SortMode> all() {
+        return ordered;
+    }
+
+    public static SortMode defaultMode() {
+        return BackpackSortMode.REGISTRY;
+    }
+
+    /**
+     * @return the mode after {@code current}; unregistered modes restart the
+     *         cycle
+     */
+    public static SortMode next(SortMode current) {
+        List<SortMode> modes = ordered;
+        int index = modes.indexOf(current);
+        if (index < 0)
+            return modes.isEmpty() ? defaultMode() : modes.get(0);
+        return modes.get((index + 1) % modes.size());
+    }
+
+    public static int generation() {
+        return generation;
+    }
+
+    private static void publish() {
+        ordered = List.copyOf(MODES.values());
+        generation++;
+    }
+
+    private static String key(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+}
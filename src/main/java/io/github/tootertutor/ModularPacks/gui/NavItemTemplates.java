@@ -0,0 +1,43 @@
+package io.github.tootertutor.ModularPacks.gui;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Prebuilt nav-row and border items, keyed by what they depend on
+ * (e.g. "sort:REGISTRY:locked", "settings:host").
+ *
+ * Templates are shared between menus and must never be mutated; they are only
+ * passed to Inventory#setItem, which copies them. {@link #clear()} is called on
+ * config reload and bumps the generation so per-session caches built on top of
+ * the old config are dropped too.
+ */
+final class NavItemTemplates {
+
+    private final Map<String, ItemStack> templates = new ConcurrentHashMap<>();
+    private volatile int generation;
+
+    ItemStack get(String key, Supplier<ItemStack> factory) {
+        return templates.computeIfAbsent(key, k -> factory.get());
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    /**
+     * Drops the templates whose key starts with {@code prefix}, e.g. one button
+     * kind whose inputs changed, without bumping the generation.
+     */
+    void clear(String prefix) {
+        templates.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    void clear() {
+        templates.clear();
+        generation++;
+    }
+}
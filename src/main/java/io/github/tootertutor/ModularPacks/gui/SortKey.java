@@ -0,0 +1,55 @@
+package io.github.tootertutor.ModularPacks.gui;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Sort key extracted once per stack, so comparisons never touch item meta.
+ * - head: integer fields compared in order (a shorter array sorts first on a
+ * common prefix); wide enough for scaled prices or other addon values. Copied
+ * on construction, so callers may reuse their array
+ * - text: lower-cased name compared after head
+ * - tail: final integer tie-breaker
+ */
+public final class SortKey implements Comparable<SortKey> {
+
+    private static final long[] NO_VALUES = new long[0];
+
+    /** Used when a mode fails to extract a key; sorts after the built-in keys. */
+    public static final SortKey LAST = new SortKey(new long[] { Long.MAX_VALUE }, "", Integer.MAX_VALUE);
+
+    private final long[] head;
+    private final String text;
+    private final int tail;
+
+    public SortKey(long[] head, String text, int tail) {
+        this.head = head == null ? NO_VALUES : head.clone();
+        this.text = text == null ? "" : text;
+        this.tail = tail;
+    }
+
+    /**
+     * @return a key ordered by the given values only
+     */
+    public static SortKey of(long... head) {
+        return new SortKey(head, "", 0);
+    }
+
+    /**
+     * @return a key ordered by the given values, then by {@code text}
+     */
+    public static SortKey of(String text, long... head) {
+        return new SortKey(head, text == null ? "" : text.toLowerCase(Locale.ROOT), 0);
+    }
+
+    @Override
+    public int compareTo(SortKey o) {
+        int cmp = Arrays.compare(head, o.head);
+        if (cmp != 0)
+            return cmp;
+        cmp = text.compareTo(o.text);
+        if (cmp != 0)
+            return cmp;
+        return Integer.compare(tail, o.tail);
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.tootertutor.ModularPacks.gui;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * A backpack sort order, registered through {@link BackpackSortModes}.
+ * Modes supply a key per stack rather than a comparator: keys are extracted
+ * once per sort (once per kind of item unless {@link #amountSensitive()}) and
+ * then compared without touching the stacks again.
+ */
+public interface SortMode {
+    String id(); // e.g. "REGISTRY", "myplugin:price"
+
+    /**
+     * @return name shown in the sort button lore
+     */
+    String displayName();
+
+    /**
+     * Extracts the sort key for a stack. Called on the main thread; lower keys
+     * appear closer to the top-left slot.
+     */
+    SortKey key(ItemStack stack);
+
+    /**
+     * @return true when the key depends on the stack amount, so it cannot be
+     *         shared between merged stacks of the same kind
+     */
+    default boolean amountSensitive() {
+        return false;
+    }
+}
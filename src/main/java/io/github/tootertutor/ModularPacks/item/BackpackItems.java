@@ -68,7 +68,7 @@ public final class BackpackItems {
         List<String> lore = type.lore();
         if (lore != null && !lore.isEmpty()) {
             List<String> expanded = Placeholders.expandBackpackLore(plugin, type, id, lore);
-            meta.lore(Text.lore(expanded));
+            meta.lore(Text.dynamicLore(expanded));
         }
 
         // Load backpack data and add module-based CMD strings
@@ -81,6 +81,8 @@ public final class BackpackItems {
         } else {
             CustomModelDataUtil.setCustomModelDataStrings(meta, List.of());
         }
+        meta.getPersistentDataContainer().set(plugin.keys().BACKPACK_MODULES, PersistentDataType.LONG,
+                plugin.repo().capabilities().maskOf(backpackData));
 
         // Slot strings are authoritative for module medallion placement.
         // Clear flags to avoid stale type-indexed rendering behavior.
@@ -119,7 +121,7 @@ public final class BackpackItems {
         List<String> lore = type.lore();
         if (lore != null && !lore.isEmpty()) {
             List<String> expanded = Placeholders.expandBackpackLore(plugin, type, backpackId, data, totalSlots, lore);
-            meta.lore(Text.lore(expanded));
+            meta.lore(Text.dynamicLore(expanded));
         } else {
             meta.lore(null);
         }
@@ -132,6 +134,10 @@ public final class BackpackItems {
         } else {
             CustomModelDataUtil.setCustomModelDataStrings(meta, List.of());
         }
+        if (data != null) {
+            meta.getPersistentDataContainer().set(plugin.keys().BACKPACK_MODULES, PersistentDataType.LONG,
+                    plugin.repo().capabilities().maskOf(data));
+        }
 
         // Slot strings are authoritative for module medallion placement.
         // Clear flags to avoid stale type-indexed rendering behavior.
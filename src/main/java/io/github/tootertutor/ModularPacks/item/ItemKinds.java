@@ -0,0 +1,142 @@
+package io.github.tootertutor.ModularPacks.item;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+
+import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
+import io.github.tootertutor.ModularPacks.config.ConfigSnapshot;
+import io.github.tootertutor.ModularPacks.util.ItemStacks;
+import io.papermc.paper.persistence.PersistentDataContainerView;
+
+/**
+ * Classifies a stack into a set of kind flags in one go, so filters test bits
+ * instead of each re-reading the item.
+ * - material kinds (shulker, bundle, blacklisted, disallowed): one table
+ * lookup, rebuilt whenever the config snapshot changes
+ * - tag kinds (backpack, module, GUI marker): read from the stack's PDC view
+ * without cloning its meta, and only for stacks that have meta at all
+ *
+ * Any material can carry our tags (backpack and module materials are
+ * configurable and older items keep theirs), so the tag fast path is "no meta",
+ * not the material.
+ */
+public final class ItemKinds {
+
+    /** Backpack item: has both a backpack id and type. */
+    public static final int BACKPACK = 1;
+    /** Module item: has both a module id and type. */
+    public static final int MODULE = 1 << 1;
+    public static final int SHULKER = 1 << 2;
+    public static final int BUNDLE = 1 << 3;
+    /** Material is on the insert blacklist. */
+    public static final int BLACKLISTED = 1 << 4;
+    /** Menu item carrying the GUI marker key. */
+    public static final int GUI_MARKER = 1 << 5;
+    /** Carries a backpack or module id, even an incomplete one; never voided. */
+    public static final int TAGGED = 1 << 6;
+    /** May not go into a backpack under the current container rules. */
+    public static final int DISALLOWED = 1 << 7;
+
+    private final ModularPacksPlugin plugin;
+    private volatile MaterialTable table;
+
+    public ItemKinds(ModularPacksPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * @return the kind flags of the stack; 0 for air and plain items
+     */
+    public int of(ItemStack stack) {
+        if (ItemStacks.isAir(stack))
+            return 0;
+        int kinds = of(stack.getType());
+        if (!stack.hasItemMeta())
+            return kinds;
+        return kinds | tagKinds(stack.getPersistentDataContainer());
+    }
+
+    /**
+     * @return the material-only kind flags
+     */
+    public int of(Material material) {
+        if (material == null)
+            return 0;
+        return table().kinds[material.ordinal()];
+    }
+
+    public boolean isAllowedInBackpack(ItemStack stack) {
+        return ItemStacks.isAir(stack) || (of(stack.getType()) & DISALLOWED) == 0;
+    }
+
+    public static boolean has(int kinds, int kind) {
+        return (kinds & kind) != 0;
+    }
+
+    private int tagKinds(PersistentDataContainerView pdc) {
+        Keys keys = plugin.keys();
+        boolean backpackId = pdc.has(keys.BACKPACK_ID, PersistentDataType.STRING);
+        boolean moduleId = pdc.has(keys.MODULE_ID, PersistentDataType.STRING);
+
+        int kinds = 0;
+        if (backpackId || moduleId)
+            kinds |= TAGGED;
+        if (backpackId && pdc.has(keys.BACKPACK_TYPE, PersistentDataType.STRING))
+            kinds |= BACKPACK;
+        if (moduleId && pdc.has(keys.MODULE_TYPE, PersistentDataType.STRING))
+            kinds |= MODULE;
+        if (pdc.has(plugin.cfg().getGuiItemKey(), PersistentDataType.STRING))
+            kinds |= GUI_MARKER;
+        return kinds;
+    }
+
+    private MaterialTable table() {
+        ConfigSnapshot snapshot = plugin.cfg().snapshot();
+        MaterialTable current = table;
+        if (current == null || current.source != snapshot) {
+            current = MaterialTable.build(snapshot);
+            table = current;
+        }
+        return current;
+    }
+
+    private static boolean isShulkerBox(Material mat) {
+        return mat.name().endsWith("SHULKER_BOX");
+    }
+
+    private static boolean isBundle(Material mat) {
+        String name = mat.name();
+        return name.equals("BUNDLE") || name.endsWith("_BUNDLE");
+    }
+
+    private static final class MaterialTable {
+        private final ConfigSnapshot source;
+        private final int[] kinds;
+
+        private MaterialTable(ConfigSnapshot source, int[] kinds) {
+            this.source = source;
+            this.kinds = kinds;
+        }
+
+        private static MaterialTable build(ConfigSnapshot snapshot) {
+            Material[] materials = Material.values();
+            int[] kinds = new int[materials.length];
+            for (Material mat : materials) {
+                int k = 0;
+                if (isShulkerBox(mat))
+                    k |= SHULKER;
+                if (isBundle(mat))
+                    k |= BUNDLE;
+                if (snapshot.insertBlacklist().contains(mat))
+                    k |= BLACKLISTED;
+
+                if (has(k, BLACKLISTED) || (has(k, SHULKER) && !snapshot.allowShulkerBoxes())
+                        || (has(k, BUNDLE) && !snapshot.allowBundles()))
+                    k |= DISALLOWED;
+                kinds[mat.ordinal()] = k;
+            }
+            return new MaterialTable(snapshot, kinds);
+        }
+    }
+}
@@ -7,6 +7,7 @@ public final class Keys {
 
     public final NamespacedKey BACKPACK_ID; // UUID string
     public final NamespacedKey BACKPACK_TYPE; // e.g., "Leather"
+    public final NamespacedKey BACKPACK_MODULES; // long capability mask (see ModuleCapabilities)
 
     public final NamespacedKey MODULE_ID; // UUID string
     public final NamespacedKey MODULE_TYPE; // e.g., "Smelting"
@@ -28,6 +29,7 @@ public final class Keys {
     public Keys(JavaPlugin plugin) {
         BACKPACK_ID = new NamespacedKey(plugin, "backpack_id");
         BACKPACK_TYPE = new NamespacedKey(plugin, "backpack_type");
+        BACKPACK_MODULES = new NamespacedKey(plugin, "backpack_modules");
 
         MODULE_ID = new NamespacedKey(plugin, "module_id");
         MODULE_TYPE = new NamespacedKey(plugin, "module_type");
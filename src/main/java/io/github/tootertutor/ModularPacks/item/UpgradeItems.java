@@ -30,7 +30,7 @@ public final class UpgradeItems {
         ItemStack item = new ItemStack(def.material());
         ItemMeta meta = item.getItemMeta();
 
-        meta.displayName(Text.c(Placeholders.expandText(plugin, def, item, def.displayName())));
+        meta.displayName(Text.dynamic(Placeholders.expandText(plugin, def, item, def.displayName())));
         if (def.customModelData() > 0) {
             CustomModelDataUtil.setCustomModelData(meta, def.customModelData());
         }
@@ -78,7 +78,7 @@ public final class AdminBackpackListMenuListener implements Listener {
 
         if (menu.isModeButton(clicked)) {
             holder.toggleMode();
-            menu.render(holder);
+            menu.renderControls(holder);
             return;
         }
 
@@ -144,6 +144,7 @@ public final class AdminBackpackListMenuListener implements Listener {
         if (!leftovers.isEmpty()) {
             leftovers.values().forEach(it -> owner.getWorld().dropItemNaturally(owner.getLocation(), it));
         }
+        plugin.holders().markDirty(owner);
 
         plugin.repo().ensureBackpackExists(entry.backpackId(), entry.backpackType(), owner.getUniqueId(),
                 owner.getName());
@@ -1,5 +1,6 @@
 package io.github.tootertutor.ModularPacks.listeners.backpack;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -7,6 +8,7 @@ import java.util.UUID;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -21,22 +23,27 @@ import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.scheduler.BukkitTask;
 
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
 import io.github.tootertutor.ModularPacks.data.BackpackData;
-import io.github.tootertutor.ModularPacks.data.ItemStackCodec;
+import io.github.tootertutor.ModularPacks.data.ModuleCapabilities;
 import io.github.tootertutor.ModularPacks.item.Keys;
 import io.github.tootertutor.ModularPacks.util.ItemStacks;
 
 public final class BackpackEverlastingListener implements Listener {
 
     private static final int CACHE_TTL_TICKS = 100;
+    private static final int VOID_RESCUE_GUARD_Y = 8;
 
     private final ModularPacksPlugin plugin;
     private final Map<UUID, CacheEntry> cache = new HashMap<>();
-    private final Map<UUID, UUID> droppedBy = new HashMap<>(); // itemEntityId -> playerUuid
+    private final Map<UUID, RescueTarget> rescueTargets = new HashMap<>(); // itemEntityId -> dropped Everlasting item
+    private final Location scratch = new Location(null, 0, 0, 0);
     private final Map<UUID, List<ItemStack>> pendingRestore = new HashMap<>(); // playerUuid -> saved backpacks
 
     @SuppressWarnings("unused")
@@ -58,48 +65,56 @@ public final class BackpackEverlastingListener implements Listener {
         plugin.repo().ensureBackpackExists(ref.backpackId, ref.backpackType, e.getPlayer().getUniqueId(),
                 e.getPlayer().getName());
 
-        if (hasEverlasting(ref.backpackId, ref.backpackType)) {
-            droppedBy.put(item.getUniqueId(), e.getPlayer().getUniqueId());
+        if (hasEverlasting(ref)) {
+            rescueTargets.put(item.getUniqueId(), new RescueTarget(item, e.getPlayer().getUniqueId()));
         }
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPickup(EntityPickupItemEvent e) {
-        droppedBy.remove(e.getItem().getUniqueId());
+        rescueTargets.remove(e.getItem().getUniqueId());
     }
 
+    // Covers despawn, merges, kills and chunk/entity unloads alike.
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRemoveFromWorld(EntityRemoveFromWorldEvent e) {
+        if (e.getEntity() instanceof Item)
+            rescueTargets.remove(e.getEntity().getUniqueId());
+    }
+
+    /**
+     * Watches only the drops that were Everlasting when thrown; the flag is not
+     * re-checked here, so the scan never reaches the repository.
+     */
     private void scanVoidRescues() {
-        if (droppedBy.isEmpty())
+        if (rescueTargets.isEmpty())
             return;
 
-        int minYGuard = 8;
-
-        var it = droppedBy.entrySet().iterator();
+        List<RescueTarget> due = null;
+        var it = rescueTargets.values().iterator();
         while (it.hasNext()) {
-            var entry = it.next();
-            UUID itemId = entry.getKey();
-            UUID ownerId = entry.getValue();
-
-            var ent = Bukkit.getEntity(itemId);
-            if (!(ent instanceof Item item) || item.isDead()) {
+            RescueTarget target = it.next();
+            Item item = target.item;
+            if (!item.isValid()) {
                 it.remove();
                 continue;
             }
+            // Items in chunks that are loaded but not ticking cannot be falling.
+            if (!item.isTicking())
+                continue;
 
-            BackpackRef ref = readBackpackRef(item.getItemStack());
-            if (ref == null || !hasEverlasting(ref.backpackId, ref.backpackType)) {
+            if (item.getLocation(scratch).getY() <= target.rescueBelowY(item.getWorld())) {
                 it.remove();
-                continue;
+                if (due == null)
+                    due = new ArrayList<>();
+                due.add(target);
             }
+        }
 
-            Location loc = item.getLocation();
-            if (loc == null || loc.getWorld() == null)
-                continue;
-
-            int minY = loc.getWorld().getMinHeight();
-            if (loc.getY() <= (minY - minYGuard)) {
-                rescueToOwnerOrSurface(item, ownerId);
-                it.remove();
+        // Rescue after iterating: removing or teleporting items fires world events.
+        if (due != null) {
+            for (RescueTarget target : due) {
+                rescueToOwnerOrSurface(target.item, target.ownerId);
             }
         }
     }
@@ -110,7 +125,7 @@ public final class BackpackEverlastingListener implements Listener {
         BackpackRef ref = readBackpackRef(item.getItemStack());
         if (ref == null)
             return;
-        if (hasEverlasting(ref.backpackId, ref.backpackType)) {
+        if (hasEverlasting(ref)) {
             e.setCancelled(true);
         }
     }
@@ -122,7 +137,7 @@ public final class BackpackEverlastingListener implements Listener {
         BackpackRef ref = readBackpackRef(item.getItemStack());
         if (ref == null)
             return;
-        if (hasEverlasting(ref.backpackId, ref.backpackType)) {
+        if (hasEverlasting(ref)) {
             e.setCancelled(true);
         }
     }
@@ -136,14 +151,14 @@ public final class BackpackEverlastingListener implements Listener {
         if (ref == null)
             return;
 
-        if (!hasEverlasting(ref.backpackId, ref.backpackType))
+        if (!hasEverlasting(ref))
             return;
 
         switch (e.getCause()) {
             case VOID -> {
                 e.setCancelled(true);
-                rescueToOwnerOrSurface(item, droppedBy.get(item.getUniqueId()));
-                droppedBy.remove(item.getUniqueId());
+                RescueTarget target = rescueTargets.remove(item.getUniqueId());
+                rescueToOwnerOrSurface(item, target == null ? null : target.ownerId);
             }
             case LAVA, FIRE, FIRE_TICK, HOT_FLOOR, CONTACT, ENTITY_EXPLOSION, BLOCK_EXPLOSION -> {
                 // Protect the item from being destroyed, but do not move it. Only VOID
@@ -168,14 +183,14 @@ public final class BackpackEverlastingListener implements Listener {
         if (e.getDrops() == null || e.getDrops().isEmpty())
             return;
 
-        List<ItemStack> keep = new java.util.ArrayList<>();
+        List<ItemStack> keep = new ArrayList<>();
         var it = e.getDrops().iterator();
         while (it.hasNext()) {
             ItemStack drop = it.next();
             BackpackRef ref = readBackpackRef(drop);
             if (ref == null)
                 continue;
-            if (!hasEverlasting(ref.backpackId, ref.backpackType))
+            if (!hasEverlasting(ref))
                 continue;
 
             it.remove();
@@ -250,82 +265,62 @@ public final class BackpackEverlastingListener implements Listener {
         item.setVelocity(new org.bukkit.util.Vector(0, 0.1, 0));
     }
 
-    private BackpackRef readBackpackRef(ItemStack stack) {
-        if (ItemStacks.isAir(stack) || !stack.hasItemMeta())
-            return null;
-        ItemMeta meta = stack.getItemMeta();
-        if (meta == null)
-            return null;
-
-        Keys keys = plugin.keys();
-        String idStr = meta.getPersistentDataContainer().get(keys.BACKPACK_ID, PersistentDataType.STRING);
-        String type = meta.getPersistentDataContainer().get(keys.BACKPACK_TYPE, PersistentDataType.STRING);
-        if (idStr == null || type == null || idStr.isBlank() || type.isBlank())
-            return null;
-
-        try {
-            return new BackpackRef(UUID.fromString(idStr), type);
-        } catch (IllegalArgumentException ex) {
-            return null;
-        }
-    }
-
-    private boolean hasEverlasting(UUID backpackId, String backpackType) {
-        if (backpackId == null || backpackType == null)
+    private boolean hasEverlasting(BackpackRef ref) {
+        var def = plugin.cfg().findUpgrade("Everlasting");
+        if (def == null || !def.enabled())
             return false;
 
+        // The mask mirrored on the item is only as fresh as the item's last refresh;
+        // a module removed since (or from a shared host) leaves its bit set, so
+        // the repository's mask decides.
         int now = Bukkit.getCurrentTick();
-        CacheEntry cached = cache.get(backpackId);
+        CacheEntry cached = cache.get(ref.backpackId);
         if (cached != null && now - cached.atTick <= CACHE_TTL_TICKS) {
             return cached.enabled;
         }
 
-        boolean enabled = computeHasEverlasting(backpackId, backpackType);
-        cache.put(backpackId, new CacheEntry(now, enabled));
+        boolean enabled = computeHasEverlasting(ref.backpackId, ref.backpackType);
+        cache.put(ref.backpackId, new CacheEntry(now, enabled));
         return enabled;
     }
 
     private boolean computeHasEverlasting(UUID backpackId, String backpackType) {
-        var def = plugin.cfg().findUpgrade("Everlasting");
-        if (def == null || !def.enabled())
+        ModuleCapabilities capabilities = plugin.repo().capabilities();
+        long mask = plugin.repo().findModuleMask(backpackId);
+        if (capabilities.includes(mask, "Everlasting"))
+            return true;
+        if (capabilities.excludes(mask, "Everlasting"))
             return false;
 
+        // Legacy row without a mask: decode once and backfill it.
         String effectiveType = plugin.repo().findBackpackType(backpackId);
         if (effectiveType == null || effectiveType.isBlank())
             effectiveType = backpackType;
         BackpackData data = plugin.repo().loadOrCreate(backpackId, effectiveType);
+        mask = capabilities.maskOf(data);
+        plugin.repo().saveModuleMask(data.getEffectiveBackpackId(), mask);
+        return capabilities.includes(mask, "Everlasting");
+    }
 
-        for (UUID moduleId : data.installedModules().values()) {
-            if (moduleId == null)
-                continue;
-
-            byte[] snap = data.installedSnapshots().get(moduleId);
-            if (snap == null)
-                continue;
-
-            ItemStack[] arr = ItemStackCodec.fromBytes(snap);
-            if (arr.length == 0 || arr[0] == null)
-                continue;
-
-            ItemMeta meta = arr[0].getItemMeta();
-            if (meta == null)
-                continue;
-
-            String moduleType = meta.getPersistentDataContainer().get(plugin.keys().MODULE_TYPE,
-                    PersistentDataType.STRING);
-            if (moduleType == null || !moduleType.equalsIgnoreCase("Everlasting"))
-                continue;
+    private BackpackRef readBackpackRef(ItemStack stack) {
+        if (ItemStacks.isAir(stack) || !stack.hasItemMeta())
+            return null;
+        ItemMeta meta = stack.getItemMeta();
+        if (meta == null)
+            return null;
 
-            if (def.toggleable()) {
-                Byte en = meta.getPersistentDataContainer().get(plugin.keys().MODULE_ENABLED, PersistentDataType.BYTE);
-                if (en != null && en == 0)
-                    return false;
-            }
+        Keys keys = plugin.keys();
+        PersistentDataContainer pdc = meta.getPersistentDataContainer();
+        String idStr = pdc.get(keys.BACKPACK_ID, PersistentDataType.STRING);
+        String type = pdc.get(keys.BACKPACK_TYPE, PersistentDataType.STRING);
+        if (idStr == null || type == null || idStr.isBlank() || type.isBlank())
+            return null;
 
-            return true;
+        try {
+            return new BackpackRef(UUID.fromString(idStr), type);
+        } catch (IllegalArgumentException ex) {
+            return null;
         }
-
-        return false;
     }
 
     private record BackpackRef(UUID backpackId, String backpackType) {
@@ -333,4 +328,29 @@ public final class BackpackEverlastingListener implements Listener {
 
     private record CacheEntry(int atTick, boolean enabled) {
     }
+
+    /**
+     * A dropped Everlasting backpack.
+     * - item: the live entity; invalid once removed or unloaded
+     * - rescueBelowY: world min height minus the guard, cached per world
+     */
+    private static final class RescueTarget {
+        private final Item item;
+        private final UUID ownerId;
+        private World world;
+        private double rescueBelowY;
+
+        private RescueTarget(Item item, UUID ownerId) {
+            this.item = item;
+            this.ownerId = ownerId;
+        }
+
+        private double rescueBelowY(World current) {
+            if (current != world) {
+                world = current;
+                rescueBelowY = current.getMinHeight() - VOID_RESCUE_GUARD_Y;
+            }
+            return rescueBelowY;
+        }
+    }
 }
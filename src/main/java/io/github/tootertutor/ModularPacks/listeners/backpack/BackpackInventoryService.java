@@ -1,15 +1,20 @@
 package io.github.tootertutor.ModularPacks.listeners.backpack;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
+import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
-import io.github.tootertutor.ModularPacks.data.ItemStackCodec;
 import io.github.tootertutor.ModularPacks.gui.BackpackMenuHolder;
 import io.github.tootertutor.ModularPacks.gui.BackpackMenuRenderer;
-import io.github.tootertutor.ModularPacks.gui.BackpackSortMode;
+import io.github.tootertutor.ModularPacks.gui.SortKey;
+import io.github.tootertutor.ModularPacks.gui.SortMode;
 import io.github.tootertutor.ModularPacks.util.ItemStacks;
 
 /**
@@ -18,6 +23,9 @@ import io.github.tootertutor.ModularPacks.util.ItemStacks;
  */
 public final class BackpackInventoryService {
 
+    /** Item count (reached by the 900-slot types) above which sorting forks. */
+    private static final int PARALLEL_SORT_THRESHOLD = 512;
+
     private final ModularPacksPlugin plugin;
 
     public BackpackInventoryService(ModularPacksPlugin plugin) {
@@ -30,14 +38,7 @@ public final class BackpackInventoryService {
         if (!plugin.cfg().isAllowedInBackpack(stack))
             return stack;
 
-        ItemStack[] logical = ItemStackCodec.fromBytes(holder.data().contentsBytes());
-        int logicalSize = holder.logicalSlots();
-
-        if (logical.length != logicalSize) {
-            ItemStack[] resized = new ItemStack[logicalSize];
-            System.arraycopy(logical, 0, resized, 0, Math.min(logical.length, logicalSize));
-            logical = resized;
-        }
+        ItemStack[] logical = holder.contents();
 
         // Prefer inserting into the CURRENT page range first (prevents client-side
         // sorting mods from using shift-click to accidentally rewrite earlier pages).
@@ -46,7 +47,7 @@ public final class BackpackInventoryService {
             int pageEnd = Math.min(pageStart + 45, logical.length);
             ItemStack remainder = insertIntoLogicalRange(logical, pageStart, pageEnd, stack);
             if (ItemStacks.isAir(remainder) || remainder.getAmount() <= 0) {
-                holder.data().contentsBytes(ItemStackCodec.toBytes(logical));
+                holder.markContentsDirty();
                 return null;
             }
             stack = remainder;
@@ -55,7 +56,7 @@ public final class BackpackInventoryService {
         // Fallback: insert anywhere (vanilla-ish behavior if current page is full)
         stack = insertIntoLogicalRange(logical, 0, logical.length, stack);
 
-        holder.data().contentsBytes(ItemStackCodec.toBytes(logical));
+        holder.markContentsDirty();
         return stack;
     }
 
@@ -63,33 +64,58 @@ public final class BackpackInventoryService {
         // Ensure the current visible page is merged into the logical contents first.
         renderer.saveVisibleStorageToData(holder);
 
-        int logicalSize = holder.logicalSlots();
-        ItemStack[] logical = ItemStackCodec.fromBytes(holder.data().contentsBytes());
+        ItemStack[] logical = holder.contents();
 
-        if (logical.length != logicalSize) {
-            ItemStack[] resized = new ItemStack[logicalSize];
-            System.arraycopy(logical, 0, resized, 0, Math.min(logical.length, logicalSize));
-            logical = resized;
+        // Merge partial stacks BEFORE sorting (so COUNT sort and other modes
+        // behave predictably and we don't leave unnecessary partials).
+        List<ItemStack> items = new ArrayList<>(logical.length);
+        List<StackKind> kinds = new ArrayList<>(logical.length);
+        mergePartialStacks(logical, items, kinds);
+
+        // Keys are extracted on the main thread, once per kind unless the mode
+        // depends on amounts; only the pure key comparisons run in the sort.
+        SortMode mode = holder.sortMode();
+        boolean perStack = mode.amountSensitive();
+        int n = items.size();
+        SortKey[] keys = new SortKey[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            StackKind kind = kinds.get(i);
+            if (perStack) {
+                keys[i] = extractKey(mode, items.get(i));
+            } else {
+                if (kind.key == null)
+                    kind.key = extractKey(mode, kind.prototype);
+                keys[i] = kind.key;
+            }
+            order[i] = i;
         }
 
-        List<ItemStack> items = new ArrayList<>(logical.length);
-        for (ItemStack it : logical) {
-            if (ItemStacks.isNotAir(it))
-                items.add(it.clone());
+        Comparator<Integer> byKey = (a, b) -> {
+            int cmp = keys[a].compareTo(keys[b]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        };
+        if (n >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(order, byKey);
+        } else {
+            Arrays.sort(order, byKey);
         }
 
-        // Merge partial stacks BEFORE sorting (so COUNT sort and other comparators
-        // behave predictably and we don't leave unnecessary partials).
-        items = mergePartialStacks(items);
+        for (int i = 0; i < logical.length; i++) {
+            logical[i] = i < n ? items.get(order[i]) : null;
+        }
 
-        items.sort(BackpackSortMode.comparator(plugin, holder.sortMode()));
+        holder.markContentsDirty();
+    }
 
-        ItemStack[] out = new ItemStack[logicalSize];
-        for (int i = 0; i < Math.min(out.length, items.size()); i++) {
-            out[i] = items.get(i);
+    private SortKey extractKey(SortMode mode, ItemStack stack) {
+        try {
+            SortKey key = mode.key(stack);
+            return key == null ? SortKey.LAST : key;
+        } catch (RuntimeException ex) {
+            plugin.getLogger().warning("Sort mode '" + mode.id() + "' failed to extract a key: " + ex.getMessage());
+            return SortKey.LAST;
         }
-
-        holder.data().contentsBytes(ItemStackCodec.toBytes(out));
     }
 
     private ItemStack insertIntoLogicalRange(ItemStack[] logical, int start, int end, ItemStack stack) {
@@ -133,47 +159,61 @@ public final class BackpackInventoryService {
         return stack;
     }
 
-    private static List<ItemStack> mergePartialStacks(List<ItemStack> input) {
-        if (input == null || input.isEmpty())
-            return input;
-
-        ArrayList<ItemStack> merged = new ArrayList<>(input.size());
+    /** One kind of item (isSimilar-equal stacks) seen while merging. */
+    private static final class StackKind {
+        private final ItemStack prototype;
+        private ItemStack open; // the single partial stack still accepting items
+        private SortKey key;
 
-        for (ItemStack stack : input) {
-            if (ItemStacks.isAir(stack))
-                continue;
-
-            boolean didMerge = false;
-
-            for (int i = 0; i < merged.size(); i++) {
-                ItemStack existing = merged.get(i);
-                if (existing == null)
-                    continue;
+        private StackKind(ItemStack prototype) {
+            this.prototype = prototype;
+        }
+    }
 
-                if (!existing.isSimilar(stack))
-                    continue;
+    /**
+     * Copies the non-air stacks in slot order into {@code items}, folding each
+     * partial stack into the open partial of its kind. Kinds are bucketed by
+     * material, so the isSimilar checks stay within one type.
+     */
+    private static void mergePartialStacks(ItemStack[] logical, List<ItemStack> items, List<StackKind> kindOf) {
+        Map<Material, List<StackKind>> byType = new EnumMap<>(Material.class);
 
-                int maxStack = existing.getMaxStackSize();
-                int current = existing.getAmount();
-                int incoming = stack.getAmount();
-                int total = current + incoming;
+        for (ItemStack it : logical) {
+            if (ItemStacks.isAir(it))
+                continue;
 
-                if (total <= maxStack) {
-                    existing.setAmount(total);
-                    didMerge = true;
+            ItemStack stack = it.clone();
+            List<StackKind> candidates = byType.computeIfAbsent(stack.getType(), t -> new ArrayList<>(2));
+            StackKind kind = null;
+            for (StackKind candidate : candidates) {
+                if (candidate.prototype.isSimilar(stack)) {
+                    kind = candidate;
                     break;
-                } else {
-                    int toMove = maxStack - current;
-                    existing.setAmount(maxStack);
-                    stack.setAmount(incoming - toMove);
                 }
             }
+            if (kind == null) {
+                kind = new StackKind(stack.clone());
+                candidates.add(kind);
+            }
+
+            int maxStack = stack.getMaxStackSize();
+            if (stack.getAmount() < maxStack) {
+                ItemStack existing = kind.open;
+                if (existing != null) {
+                    int toMove = Math.min(maxStack - existing.getAmount(), stack.getAmount());
+                    existing.setAmount(existing.getAmount() + toMove);
+                    stack.setAmount(stack.getAmount() - toMove);
+                    if (existing.getAmount() >= maxStack)
+                        kind.open = null;
+                }
+                if (stack.getAmount() > 0)
+                    kind.open = stack;
+            }
 
-            if (!didMerge) {
-                merged.add(stack.clone());
+            if (stack.getAmount() > 0) {
+                items.add(stack);
+                kindOf.add(kind);
             }
         }
-
-        return merged;
     }
 }
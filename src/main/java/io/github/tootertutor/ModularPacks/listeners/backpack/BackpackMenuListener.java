@@ -37,6 +37,7 @@ import io.github.tootertutor.ModularPacks.data.ItemStackCodec;
 import io.github.tootertutor.ModularPacks.gui.BackpackMenuHolder;
 import io.github.tootertutor.ModularPacks.gui.BackpackMenuRenderer;
 import io.github.tootertutor.ModularPacks.gui.BackpackSettingsMenu;
+import io.github.tootertutor.ModularPacks.gui.BackpackSortModes;
 import io.github.tootertutor.ModularPacks.gui.ColorPickerHolder;
 import io.github.tootertutor.ModularPacks.gui.ModuleScreenHolder;
 import io.github.tootertutor.ModularPacks.gui.ScreenRouter;
@@ -137,7 +138,7 @@ public final class BackpackMenuListener implements Listener {
         // Hard block: never allow swapping a backpack item into an open backpack
         if (isBackpackHotbarSwap(player, e) || isBackpack(e.getCursor()) || isBackpack(e.getCurrentItem())) {
             e.setCancelled(true);
-            Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+            plugin.resyncs().request(player);
             return;
         }
 
@@ -151,12 +152,12 @@ public final class BackpackMenuListener implements Listener {
                 ItemStack cursor = e.getCursor();
                 if (ItemStacks.isNotAir(cursor) && !plugin.cfg().isAllowedInBackpack(cursor)) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
                 if (hasNestedBlacklistedItems(cursor)) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     sendNestedBlacklistMessage(player, cursor);
                     return;
                 }
@@ -168,12 +169,12 @@ public final class BackpackMenuListener implements Listener {
                     ItemStack hotbar = player.getInventory().getItem(btn);
                     if (ItemStacks.isNotAir(hotbar) && !plugin.cfg().isAllowedInBackpack(hotbar)) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return;
                     }
                     if (hasNestedBlacklistedItems(hotbar)) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         sendNestedBlacklistMessage(player, hotbar);
                         return;
                     }
@@ -249,20 +250,20 @@ public final class BackpackMenuListener implements Listener {
             if (ItemStacks.isAir(moving))
                 return;
             if (isBackpack(moving)) {
-                Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                plugin.resyncs().request(player);
                 return;
             }
             if (!plugin.cfg().isAllowedInBackpack(moving)) {
-                Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                plugin.resyncs().request(player);
                 return;
             }
             if (hasNestedBlacklistedItems(moving)) {
-                Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                plugin.resyncs().request(player);
                 sendNestedBlacklistMessage(player, moving);
                 return;
             }
 
-            Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+            plugin.resyncs().request(player);
             renderer.saveVisibleStorageToData(holder);
 
             ItemStack remainder = inventoryService.insertIntoBackpackLogical(holder, moving.clone());
@@ -291,7 +292,7 @@ public final class BackpackMenuListener implements Listener {
                 e.setCancelled(true);
                 ItemStack cursor = player.getItemOnCursor();
                 if (ItemStacks.isNotAir(cursor)) {
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
 
@@ -311,7 +312,7 @@ public final class BackpackMenuListener implements Listener {
                         return;
                     }
 
-                    holder.sortMode(holder.sortMode().next());
+                    holder.sortMode(BackpackSortModes.next(holder.sortMode()));
                     renderer.render(holder);
                     saveManager.scheduleSave(player, holder);
                     return;
@@ -355,7 +356,7 @@ public final class BackpackMenuListener implements Listener {
                     e.setCancelled(true);
                     ItemStack cursor = player.getItemOnCursor();
                     if (ItemStacks.isNotAir(cursor)) {
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return;
                     }
 
@@ -408,7 +409,7 @@ public final class BackpackMenuListener implements Listener {
             for (int rawSlot : e.getRawSlots()) {
                 if (rawSlot >= 0 && rawSlot < visibleStorage) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
             }
@@ -417,7 +418,7 @@ public final class BackpackMenuListener implements Listener {
             for (int rawSlot : e.getRawSlots()) {
                 if (rawSlot >= 0 && rawSlot < visibleStorage) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     sendNestedBlacklistMessage(player, cursor);
                     return;
                 }
@@ -533,6 +534,8 @@ public final class BackpackMenuListener implements Listener {
                     fs.cookTotal = old.cookTotal;
                     fs.xpStored = old.xpStored;
                 }
+                // The open screen was ticked up to now.
+                fs.lastSimulated = System.currentTimeMillis();
 
                 data.moduleStates().put(msh.moduleId(), FurnaceStateCodec.encode(fs));
                 plugin.repo().saveBackpack(data);
@@ -691,13 +694,7 @@ public final class BackpackMenuListener implements Listener {
         int movedBackpacks = 0;
         int movedBlocked = 0;
 
-        ItemStack[] logical = ItemStackCodec.fromBytes(holder.data().contentsBytes());
-        int logicalSize = holder.logicalSlots();
-        if (logical.length != logicalSize) {
-            ItemStack[] resized = new ItemStack[logicalSize];
-            System.arraycopy(logical, 0, resized, 0, Math.min(logical.length, logicalSize));
-            logical = resized;
-        }
+        ItemStack[] logical = holder.contents();
 
         for (int i = 0; i < logical.length; i++) {
             ItemStack it = logical[i];
@@ -719,8 +716,8 @@ public final class BackpackMenuListener implements Listener {
         }
 
         if (movedBackpacks > 0 || movedBlocked > 0) {
-            holder.data().contentsBytes(ItemStackCodec.toBytes(logical));
-            Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+            holder.markContentsDirty();
+            plugin.resyncs().request(player);
         }
 
         return new EjectResult(movedBackpacks, movedBlocked);
@@ -42,7 +42,7 @@ public class BackpackSharingJoiner {
 
         BackpackData restored = plugin.repo().loadJoinerContents(holder.backpackId());
         if (restored != null && restored.contentsBytes() != null) {
-            holder.data().contentsBytes(restored.contentsBytes());
+            holder.data().copyContentsFrom(restored);
             holder.data().installedModules().clear();
             holder.data().installedSnapshots().clear();
             holder.data().moduleStates().clear();
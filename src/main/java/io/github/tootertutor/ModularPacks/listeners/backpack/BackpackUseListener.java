@@ -108,7 +108,7 @@ public final class BackpackUseListener implements Listener {
                 // Restore joiner's own contents and detach from host
                 var restored = plugin.repo().loadJoinerContents(backpackId);
                 if (restored != null && restored.contentsBytes() != null) {
-                    data.contentsBytes(restored.contentsBytes());
+                    data.copyContentsFrom(restored);
                     data.installedModules().clear();
                     data.installedSnapshots().clear();
                     data.moduleStates().clear();
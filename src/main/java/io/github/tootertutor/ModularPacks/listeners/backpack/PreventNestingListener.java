@@ -9,11 +9,10 @@ import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
-import org.bukkit.persistence.PersistentDataType;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
 import io.github.tootertutor.ModularPacks.gui.BackpackMenuHolder;
-import io.github.tootertutor.ModularPacks.item.Keys;
+import io.github.tootertutor.ModularPacks.item.ItemKinds;
 
 public final class PreventNestingListener implements Listener {
 
@@ -92,11 +91,6 @@ public final class PreventNestingListener implements Listener {
     }
 
     private boolean isBackpack(ItemStack item) {
-        if (item == null || !item.hasItemMeta())
-            return false;
-        Keys keys = plugin.keys();
-        var pdc = item.getItemMeta().getPersistentDataContainer();
-        return pdc.has(keys.BACKPACK_ID, PersistentDataType.STRING)
-                && pdc.has(keys.BACKPACK_TYPE, PersistentDataType.STRING);
+        return ItemKinds.has(plugin.itemKinds().of(item), ItemKinds.BACKPACK);
     }
 }
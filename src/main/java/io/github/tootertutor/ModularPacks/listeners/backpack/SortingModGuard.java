@@ -5,7 +5,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -83,7 +82,7 @@ public final class SortingModGuard {
             plugin.repo().saveBackpack(holder.data());
         }
 
-        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+        plugin.resyncs().request(player);
     }
 
     public void clearPlayerData(UUID playerId) {
@@ -57,7 +57,7 @@ public final class CraftingModuleListener implements Listener {
                 ItemStack cursor = e.getCursor();
                 if (ItemStacks.isNotAir(cursor) && !plugin.cfg().isAllowedInBackpack(cursor)) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
             }
@@ -67,7 +67,7 @@ public final class CraftingModuleListener implements Listener {
                     ItemStack hotbar = player.getInventory().getItem(btn);
                     if (ItemStacks.isNotAir(hotbar) && !plugin.cfg().isAllowedInBackpack(hotbar)) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return;
                     }
                 }
@@ -81,7 +81,7 @@ public final class CraftingModuleListener implements Listener {
 
             if (!clickedTop && e.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY) {
                 e.setCancelled(true);
-                Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                plugin.resyncs().request(player);
                 return;
             }
         }
@@ -127,7 +127,7 @@ public final class CraftingModuleListener implements Listener {
             ItemStack cursor = e.getOldCursor();
             if (ItemStacks.isNotAir(cursor)) {
                 if (!plugin.cfg().isAllowedInBackpack(cursor)) {
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
 
@@ -152,7 +152,7 @@ public final class CraftingModuleListener implements Listener {
             for (int raw : e.getRawSlots()) {
                 if (raw >= 0 && raw < topSize) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
             }
@@ -222,7 +222,7 @@ public final class CraftingModuleListener implements Listener {
                 ItemStack hotbar = player.getInventory().getItem(button);
                 if (ItemStacks.isNotAir(hotbar)) {
                     if (!plugin.cfg().isAllowedInBackpack(hotbar)) {
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return true;
                     }
                     replacement = ghostCopy(hotbar);
@@ -237,7 +237,7 @@ public final class CraftingModuleListener implements Listener {
             ItemStack cursor = e.getCursor();
             if (ItemStacks.isNotAir(cursor)) {
                 if (!plugin.cfg().isAllowedInBackpack(cursor)) {
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return true;
                 }
                 replacement = ghostCopy(cursor);
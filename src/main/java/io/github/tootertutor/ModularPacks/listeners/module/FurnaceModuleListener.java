@@ -95,7 +95,9 @@ public final class FurnaceModuleListener implements Listener {
 
                     BackpackData data = plugin.repo().loadOrCreate(expectedBackpackId, expectedBackpackType);
                     byte[] stateBytes = data.moduleStates().get(expectedModuleId);
-                    FurnaceStateCodec.State state = FurnaceStateCodec.decode(stateBytes);
+                    FurnaceStateCodec.State state = FurnaceStateCodec.tryDecode(stateBytes);
+                    if (state == null)
+                        return;
 
                     double xpStored = Math.max(0.0, state.xpStored);
                     if (xpStored <= 0.0)
@@ -68,7 +68,7 @@ public final class ModuleFilterScreenListener implements Listener {
         // Block all shift-click transfers (so players don't accidentally dump items in)
         if (e.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY) {
             e.setCancelled(true);
-            Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+            plugin.resyncs().request(player);
             return;
         }
 
@@ -140,7 +140,7 @@ public final class ModuleFilterScreenListener implements Listener {
                 for (int raw : e.getRawSlots()) {
                     if (raw >= 0 && raw < topSize) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, ((Player) e.getWhoClicked())::updateInventory);
+                        plugin.resyncs().request((Player) e.getWhoClicked());
                         return;
                     }
                 }
@@ -181,7 +181,7 @@ public final class ModuleFilterScreenListener implements Listener {
                     return;
                 if (!isMusicDisc(moving.getType())) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
 
@@ -209,7 +209,7 @@ public final class ModuleFilterScreenListener implements Listener {
                 ItemStack cursor = e.getCursor();
                 if (ItemStacks.isNotAir(cursor) && !isMusicDisc(cursor.getType())) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
             }
@@ -220,7 +220,7 @@ public final class ModuleFilterScreenListener implements Listener {
                     ItemStack hotbar = player.getInventory().getItem(btn);
                     if (ItemStacks.isNotAir(hotbar) && !isMusicDisc(hotbar.getType())) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return;
                     }
                 }
@@ -233,7 +233,7 @@ public final class ModuleFilterScreenListener implements Listener {
                     ItemStack hotbar = player.getInventory().getItem(btn);
                     if (ItemStacks.isNotAir(hotbar) && !isMusicDisc(hotbar.getType())) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return;
                     }
                 }
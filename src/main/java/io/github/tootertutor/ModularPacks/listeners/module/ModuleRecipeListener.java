@@ -57,7 +57,7 @@ public final class ModuleRecipeListener implements Listener {
                     ItemStack cursor = e.getCursor();
                     if (ItemStacks.isNotAir(cursor) && !plugin.cfg().isAllowedInBackpack(cursor)) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return;
                     }
                 }
@@ -68,7 +68,7 @@ public final class ModuleRecipeListener implements Listener {
                         ItemStack hotbar = player.getInventory().getItem(btn);
                         if (ItemStacks.isNotAir(hotbar) && !plugin.cfg().isAllowedInBackpack(hotbar)) {
                             e.setCancelled(true);
-                            Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                            plugin.resyncs().request(player);
                             return;
                         }
                     }
@@ -79,7 +79,7 @@ public final class ModuleRecipeListener implements Listener {
                 ItemStack moving = e.getCurrentItem();
                 if (ItemStacks.isNotAir(moving) && !plugin.cfg().isAllowedInBackpack(moving)) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
             }
@@ -180,7 +180,7 @@ public final class ModuleRecipeListener implements Listener {
                 for (int raw : e.getRawSlots()) {
                     if (raw >= 0 && raw < topSize) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return;
                     }
                 }
@@ -3,7 +3,6 @@ package io.github.tootertutor.ModularPacks.listeners.module;
 import java.util.List;
 import java.util.UUID;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
@@ -27,6 +26,7 @@ import io.github.tootertutor.ModularPacks.gui.ScreenRouter;
 import io.github.tootertutor.ModularPacks.item.BackpackItems;
 import io.github.tootertutor.ModularPacks.item.Keys;
 import io.github.tootertutor.ModularPacks.listeners.backpack.BackpackSaveManager;
+import io.github.tootertutor.ModularPacks.modules.furnace.FurnaceStateCodec;
 import io.github.tootertutor.ModularPacks.modules.tank.TankExperience;
 import io.github.tootertutor.ModularPacks.modules.tank.TankModuleLogic;
 import io.github.tootertutor.ModularPacks.modules.tank.TankStateCodec;
@@ -276,7 +276,7 @@ public final class ModuleSocketHandler {
         }
 
         if (changed) {
-            Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+            plugin.resyncs().request(player);
         }
 
         plugin.placedBackpacks().syncModuleCmd(holder.backpackId(), holder.data());
@@ -509,7 +509,9 @@ public final class ModuleSocketHandler {
         if (!TankModuleLogic.isFluidTankType(moduleType))
             return null;
 
-        TankStateCodec.State state = TankStateCodec.decode(readModuleState(holder, moduleId, moduleItem));
+        TankStateCodec.State state = TankStateCodec.tryDecode(readModuleState(holder, moduleId, moduleItem));
+        if (state == null)
+            return null;
 
         Material cursorMat = cursor.getType();
         if (TankModuleLogic.isSupportedFluidBucket(cursorMat)) {
@@ -536,7 +538,9 @@ public final class ModuleSocketHandler {
         if (!legacyTank && !expTank)
             return null;
 
-        TankStateCodec.State state = TankStateCodec.decode(readModuleState(holder, moduleId, moduleItem));
+        TankStateCodec.State state = TankStateCodec.tryDecode(readModuleState(holder, moduleId, moduleItem));
+        if (state == null)
+            return null;
 
         if (click == ClickType.RIGHT) {
             if (legacyTank && state.fluidBuckets <= 0 && state.expTotalPoints <= 0) {
@@ -612,7 +616,7 @@ public final class ModuleSocketHandler {
         }
 
         ItemStack updated = persistTankState(holder, moduleId, moduleItem, state, moduleType);
-        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+        plugin.resyncs().request(player);
         return updated;
     }
 
@@ -650,7 +654,7 @@ public final class ModuleSocketHandler {
         }
 
         ItemStack updated = persistTankState(holder, moduleId, moduleItem, state, moduleType);
-        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+        plugin.resyncs().request(player);
         return updated;
     }
 
@@ -777,7 +781,7 @@ public final class ModuleSocketHandler {
 
         holder.data().installedModules().put(socketIndex, moduleId);
 
-        byte[] importedState = readModuleStateFromItem(cursor);
+        byte[] importedState = FurnaceStateCodec.withoutSimulationTime(readModuleStateFromItem(cursor));
         if (TankModuleLogic.isTankModuleType(moduleType) && importedState == null) {
             importedState = TankStateCodec.encode(new TankStateCodec.State());
         }
@@ -796,6 +800,7 @@ public final class ModuleSocketHandler {
         returnModuleBundleContents(player, cursor);
 
         holder.data().installedSnapshots().put(moduleId, ItemStackCodec.toBytes(new ItemStack[] { cursor.clone() }));
+        holder.data().moduleTypes().put(moduleId, moduleType);
 
         player.setItemOnCursor(null);
 
@@ -840,7 +845,7 @@ public final class ModuleSocketHandler {
                 item = arr[0];
         }
 
-        byte[] state = holder.data().moduleStates().get(moduleId);
+        byte[] state = FurnaceStateCodec.withoutSimulationTime(holder.data().moduleStates().get(moduleId));
         if (item != null) {
             writeModuleStateToItem(item, state);
             if (isTankModule(item)) {
@@ -854,6 +859,8 @@ public final class ModuleSocketHandler {
         holder.data().installedModules().remove(socketIndex);
         holder.data().installedSnapshots().remove(moduleId);
         holder.data().moduleStates().remove(moduleId);
+        holder.data().moduleTypes().remove(moduleId);
+        plugin.repo().capabilities().forget(moduleId);
 
         if (item != null)
             giveOrDrop(player, item);
@@ -921,9 +928,9 @@ public final class ModuleSocketHandler {
         if (meta == null)
             return;
 
-        meta.displayName(Text.c(Placeholders.expandText(plugin, def, moduleItem, def.displayName())));
+        meta.displayName(Text.dynamic(Placeholders.expandText(plugin, def, moduleItem, def.displayName())));
         List<String> expanded = Placeholders.expandLore(plugin, def, moduleItem, def.lore());
-        meta.lore(Text.lore(expanded));
+        meta.lore(Text.dynamicLore(expanded));
         moduleItem.setItemMeta(meta);
     }
 
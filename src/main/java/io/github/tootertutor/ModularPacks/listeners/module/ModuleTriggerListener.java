@@ -0,0 +1,91 @@
+package io.github.tootertutor.ModularPacks.listeners.module;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.player.PlayerExpChangeEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerItemDamageEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerLevelChangeEvent;
+import org.bukkit.inventory.EquipmentSlot;
+
+import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
+
+/**
+ * Wakes the event-driven passive modules (Restock, Pump, ExpPump) when a
+ * player does something they react to, so they run on the next tick instead of
+ * waiting for the engine's slow safety sweep.
+ */
+public final class ModuleTriggerListener implements Listener {
+
+    private static final int NO_SLOT = -1;
+
+    private final ModularPacksPlugin plugin;
+
+    public ModuleTriggerListener(ModularPacksPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onConsume(PlayerItemConsumeEvent e) {
+        wakeRestock(e.getPlayer(), e.getHand());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent e) {
+        wakeRestock(e.getPlayer(), e.getHand());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent e) {
+        Player player = e.getPlayer();
+        plugin.engines().wake(player, "Restock", player.getInventory().getHeldItemSlot());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent e) {
+        wakeRestock(e.getPlayer(), e.getHand());
+        plugin.engines().wake(e.getPlayer(), "Pump", NO_SLOT);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent e) {
+        wakeRestock(e.getPlayer(), e.getHand());
+        plugin.engines().wake(e.getPlayer(), "Pump", NO_SLOT);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onHeld(PlayerItemHeldEvent e) {
+        plugin.engines().wake(e.getPlayer(), "Restock", e.getNewSlot());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onExpChange(PlayerExpChangeEvent e) {
+        plugin.engines().wake(e.getPlayer(), "ExpPump", NO_SLOT);
+    }
+
+    // Enchanting and anvils spend levels without an exp change event.
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLevelChange(PlayerLevelChangeEvent e) {
+        plugin.engines().wake(e.getPlayer(), "ExpPump", NO_SLOT);
+    }
+
+    // Worn-down mending gear is repair demand for the ExpPump.
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemDamage(PlayerItemDamageEvent e) {
+        plugin.engines().wake(e.getPlayer(), "ExpPump", NO_SLOT);
+    }
+
+    private void wakeRestock(Player player, EquipmentSlot hand) {
+        // Restock only fills storage slots; an off-hand stack has none to target.
+        if (hand == EquipmentSlot.OFF_HAND)
+            return;
+        plugin.engines().wake(player, "Restock", player.getInventory().getHeldItemSlot());
+    }
+}
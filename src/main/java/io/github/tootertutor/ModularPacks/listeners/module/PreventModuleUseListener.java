@@ -11,12 +11,9 @@ import org.bukkit.event.player.PlayerBucketFillEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerItemConsumeEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.BundleMeta;
-import org.bukkit.persistence.PersistentDataContainer;
-import org.bukkit.persistence.PersistentDataType;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
-import io.github.tootertutor.ModularPacks.item.Keys;
+import io.github.tootertutor.ModularPacks.item.ItemKinds;
 
 /**
  * Prevents module items from being used as their underlying material (e.g.
@@ -107,18 +104,12 @@ public final class PreventModuleUseListener implements Listener {
     }
 
     private boolean isModuleItem(ItemStack item) {
-        if (item == null || !item.hasItemMeta())
-            return false;
-        PersistentDataContainer pdc = item.getItemMeta().getPersistentDataContainer();
-        Keys keys = plugin.keys();
-        return pdc.has(keys.MODULE_ID, PersistentDataType.STRING)
-                && pdc.has(keys.MODULE_TYPE, PersistentDataType.STRING);
+        return ItemKinds.has(plugin.itemKinds().of(item), ItemKinds.MODULE);
     }
 
     private boolean isModuleBundle(ItemStack item) {
-        if (!isModuleItem(item))
-            return false;
-        return item.getItemMeta() instanceof BundleMeta;
+        int kinds = plugin.itemKinds().of(item);
+        return ItemKinds.has(kinds, ItemKinds.BUNDLE) && ItemKinds.has(kinds, ItemKinds.MODULE);
     }
 
     private boolean isBundleAction(InventoryAction action) {
@@ -2,7 +2,6 @@ package io.github.tootertutor.ModularPacks.listeners.module;
 
 import java.util.List;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -50,7 +49,7 @@ public final class PumpSettingsListener implements Listener {
             return;
 
         render(top, holder);
-        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+        plugin.resyncs().request(player);
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
@@ -94,7 +93,7 @@ public final class PumpSettingsListener implements Listener {
             render(top, holder);
         }
 
-        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+        plugin.resyncs().request(player);
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
@@ -313,9 +312,9 @@ public final class PumpSettingsListener implements Listener {
         if (meta == null)
             return;
 
-        meta.displayName(Text.c(Placeholders.expandText(plugin, def, moduleItem, def.displayName())));
+        meta.displayName(Text.dynamic(Placeholders.expandText(plugin, def, moduleItem, def.displayName())));
         List<String> expanded = Placeholders.expandLore(plugin, def, moduleItem, def.lore());
-        meta.lore(Text.lore(expanded));
+        meta.lore(Text.dynamicLore(expanded));
         moduleItem.setItemMeta(meta);
     }
 
@@ -437,9 +436,9 @@ public final class PumpSettingsListener implements Listener {
         ItemStack it = new ItemStack(Material.EXPERIENCE_BOTTLE);
         ItemMeta meta = it.getItemMeta();
         if (meta != null) {
-            meta.displayName(Text.c(Placeholders.expandLangText(plugin, def, moduleItem,
+            meta.displayName(Text.dynamic(Placeholders.expandLangText(plugin, def, moduleItem,
                     "expPumpLevels.targetLevel", "&6Target Level: &f{level}")));
-            meta.lore(Text.lore(List.of(
+            meta.lore(Text.dynamicLore(List.of(
                     Placeholders.expandLangText(plugin, def, moduleItem, "expPumpLevels.levelUp1",
                             "&8[&6Left-click&8]&7 +1 Level"),
                     Placeholders.expandLangText(plugin, def, moduleItem, "expPumpLevels.levelDown1",
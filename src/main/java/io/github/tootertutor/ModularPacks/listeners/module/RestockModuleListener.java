@@ -61,7 +61,7 @@ public final class RestockModuleListener implements Listener {
         top.clear();
         writeThreshold(top, threshold);
         renderIfNeeded(top);
-        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+        plugin.resyncs().request(player);
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
@@ -83,7 +83,7 @@ public final class RestockModuleListener implements Listener {
 
         int raw = e.getRawSlot();
         if (top == null || raw < 0 || raw >= top.getSize()) {
-            Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+            plugin.resyncs().request(player);
             return;
         }
 
@@ -122,7 +122,7 @@ public final class RestockModuleListener implements Listener {
             return;
         }
 
-        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+        plugin.resyncs().request(player);
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
@@ -1,6 +1,5 @@
 package io.github.tootertutor.ModularPacks.listeners.module;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -48,7 +47,7 @@ public final class SmithingModuleListener implements Listener {
                 ItemStack cursor = e.getCursor();
                 if (ItemStacks.isNotAir(cursor) && !plugin.cfg().isAllowedInBackpack(cursor)) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
             }
@@ -58,7 +57,7 @@ public final class SmithingModuleListener implements Listener {
                     ItemStack hotbar = player.getInventory().getItem(btn);
                     if (ItemStacks.isNotAir(hotbar) && !plugin.cfg().isAllowedInBackpack(hotbar)) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return;
                     }
                 }
@@ -69,7 +68,7 @@ public final class SmithingModuleListener implements Listener {
             ItemStack moving = e.getCurrentItem();
             if (ItemStacks.isNotAir(moving) && !plugin.cfg().isAllowedInBackpack(moving)) {
                 e.setCancelled(true);
-                Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                plugin.resyncs().request(player);
             }
         }
     }
@@ -91,7 +90,7 @@ public final class SmithingModuleListener implements Listener {
             for (int raw : e.getRawSlots()) {
                 if (raw >= 0 && raw < topSize) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
             }
@@ -1,6 +1,5 @@
 package io.github.tootertutor.ModularPacks.listeners.module;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -49,7 +48,7 @@ public final class StonecutterModuleListener implements Listener {
                 ItemStack cursor = e.getCursor();
                 if (ItemStacks.isNotAir(cursor) && !plugin.cfg().isAllowedInBackpack(cursor)) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
             }
@@ -59,7 +58,7 @@ public final class StonecutterModuleListener implements Listener {
                     ItemStack hotbar = player.getInventory().getItem(btn);
                     if (ItemStacks.isNotAir(hotbar) && !plugin.cfg().isAllowedInBackpack(hotbar)) {
                         e.setCancelled(true);
-                        Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                        plugin.resyncs().request(player);
                         return;
                     }
                 }
@@ -70,7 +69,7 @@ public final class StonecutterModuleListener implements Listener {
             ItemStack moving = e.getCurrentItem();
             if (ItemStacks.isNotAir(moving) && !plugin.cfg().isAllowedInBackpack(moving)) {
                 e.setCancelled(true);
-                Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                plugin.resyncs().request(player);
             }
         }
     }
@@ -92,7 +91,7 @@ public final class StonecutterModuleListener implements Listener {
             for (int raw : e.getRawSlots()) {
                 if (raw >= 0 && raw < topSize) {
                     e.setCancelled(true);
-                    Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+                    plugin.resyncs().request(player);
                     return;
                 }
             }
@@ -0,0 +1,472 @@
+package io.github.tootertutor.ModularPacks.modules;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Set;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import io.github.tootertutor.ModularPacks.api.modules.BackpackContents;
+import io.github.tootertutor.ModularPacks.util.ItemStacks;
+
+/**
+ * Decoded logical backpack contents with a lazily built slot index.
+ * - byMaterial: Material -> occupied slots holding that material
+ * - emptySlots: air slots (lowest set bit is the first-empty cursor)
+ *
+ * All writes must go through this class so the index stays consistent with the
+ * backing array. Passive engines use it to visit only candidate slots instead
+ * of calling isSimilar on every slot of large (900-slot) backpacks.
+ */
+public final class BackpackContentsIndex implements BackpackContents {
+
+    private final ItemStack[] slots;
+
+    private EnumMap<Material, BitSet> byMaterial; // null until first query
+    private BitSet emptySlots;
+    private BackpackContents readOnly;
+
+    private BackpackContentsIndex(ItemStack[] slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * Wraps a decoded contents array. The index is built on first use.
+     *
+     * @param slots logical contents (not copied)
+     * @return indexed view over the array
+     */
+    public static BackpackContentsIndex of(ItemStack[] slots) {
+        return new BackpackContentsIndex(slots == null ? new ItemStack[0] : slots);
+    }
+
+    /**
+     * @return the backing array (for encoding); do not write to it directly
+     */
+    public ItemStack[] array() {
+        return slots;
+    }
+
+    /**
+     * @return a view that reads this index and rejects writes; stacks it hands
+     *         out are copies
+     */
+    public BackpackContents readOnly() {
+        if (readOnly == null)
+            readOnly = new ReadOnlyView();
+        return readOnly;
+    }
+
+    @Override
+    public int size() {
+        return slots.length;
+    }
+
+    @Override
+    public ItemStack get(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Replaces a slot and updates the index.
+     */
+    @Override
+    public void set(int slot, ItemStack stack) {
+        ItemStack previous = slots[slot];
+        if (ItemStacks.isAir(stack))
+            stack = null;
+        slots[slot] = stack;
+
+        if (byMaterial == null)
+            return;
+
+        if (ItemStacks.isNotAir(previous)) {
+            BitSet bits = byMaterial.get(previous.getType());
+            if (bits != null) {
+                bits.clear(slot);
+                if (bits.isEmpty())
+                    byMaterial.remove(previous.getType());
+            }
+        }
+
+        if (stack == null) {
+            emptySlots.set(slot);
+        } else {
+            emptySlots.clear(slot);
+            byMaterial.computeIfAbsent(stack.getType(), m -> new BitSet()).set(slot);
+        }
+    }
+
+    /**
+     * Removes up to {@code amount} items from a slot, clearing it when empty.
+     *
+     * @return number of items actually removed
+     */
+    @Override
+    public int shrink(int slot, int amount) {
+        ItemStack cur = slots[slot];
+        if (ItemStacks.isAir(cur) || amount <= 0)
+            return 0;
+
+        int removed = Math.min(amount, cur.getAmount());
+        int next = cur.getAmount() - removed;
+        if (next <= 0) {
+            set(slot, null);
+        } else {
+            cur.setAmount(next);
+        }
+        return removed;
+    }
+
+    /**
+     * Occupied slots holding the given material. The returned set is live; do not
+     * modify it, and re-read bits after mutating this index.
+     */
+    @Override
+    public BitSet slotsOf(Material material) {
+        ensureIndexed();
+        BitSet bits = material == null ? null : byMaterial.get(material);
+        return bits == null ? new BitSet(0) : bits;
+    }
+
+    /**
+     * Materials currently present in the contents.
+     */
+    @Override
+    public Set<Material> materials() {
+        ensureIndexed();
+        return Collections.unmodifiableSet(byMaterial.keySet());
+    }
+
+    /**
+     * @return lowest empty slot, or -1 when the contents are full
+     */
+    @Override
+    public int firstEmpty() {
+        ensureIndexed();
+        return emptySlots.nextSetBit(0);
+    }
+
+    /**
+     * Sums the amount of stacks similar to {@code marker}, stopping once
+     * {@code cap} is reached.
+     */
+    @Override
+    public int countSimilar(ItemStack marker, int cap) {
+        if (ItemStacks.isAir(marker) || cap <= 0)
+            return 0;
+
+        BitSet bits = slotsOf(marker.getType());
+        int total = 0;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            ItemStack cur = slots[i];
+            if (!cur.isSimilar(marker))
+                continue;
+            total += cur.getAmount();
+            if (total >= cap)
+                return total;
+        }
+        return total;
+    }
+
+    /**
+     * @return number of empty slots
+     */
+    @Override
+    public int emptyCount() {
+        ensureIndexed();
+        return emptySlots.cardinality();
+    }
+
+    /**
+     * Free room in existing stacks similar to {@code stack} (empty slots not
+     * included).
+     */
+    @Override
+    public int mergeSpace(ItemStack stack) {
+        if (ItemStacks.isAir(stack))
+            return 0;
+
+        BitSet bits = slotsOf(stack.getType());
+        int space = 0;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            ItemStack cur = slots[i];
+            if (!cur.isSimilar(stack))
+                continue;
+            space += Math.max(0, cur.getMaxStackSize() - cur.getAmount());
+        }
+        return space;
+    }
+
+    /**
+     * Number of slots that {@link #take(ItemStack, int)} would empty completely
+     * for the same arguments, without mutating anything.
+     */
+    @Override
+    public int drainedSlots(ItemStack marker, int amount) {
+        if (ItemStacks.isAir(marker) || amount <= 0)
+            return 0;
+
+        BitSet bits = slotsOf(marker.getType());
+        int drained = 0;
+        for (int i = bits.nextSetBit(0); i >= 0 && amount > 0; i = bits.nextSetBit(i + 1)) {
+            ItemStack cur = slots[i];
+            if (!cur.isSimilar(marker))
+                continue;
+            if (cur.getAmount() <= amount)
+                drained++;
+            amount -= cur.getAmount();
+        }
+        return drained;
+    }
+
+    /**
+     * Removes up to {@code amount} items similar to {@code marker}, draining slots
+     * in ascending order.
+     *
+     * @return number of items actually removed
+     */
+    @Override
+    public int take(ItemStack marker, int amount) {
+        if (ItemStacks.isAir(marker) || amount <= 0)
+            return 0;
+
+        BitSet bits = slotsOf(marker.getType());
+        int taken = 0;
+        for (int i = bits.nextSetBit(0); i >= 0 && taken < amount; i = bits.nextSetBit(i + 1)) {
+            if (!slots[i].isSimilar(marker))
+                continue;
+            taken += shrink(i, amount - taken);
+        }
+        return taken;
+    }
+
+    /**
+     * Inserts {@code total} copies of {@code prototype}, split into stacks of at
+     * most its max stack size.
+     *
+     * @return number of items that did not fit
+     */
+    @Override
+    public int insertCopies(ItemStack prototype, int total) {
+        if (ItemStacks.isAir(prototype) || total <= 0)
+            return 0;
+
+        int chunkSize = Math.max(1, prototype.getMaxStackSize());
+        int left = total;
+        while (left > 0) {
+            ItemStack chunk = prototype.clone();
+            int size = Math.min(chunkSize, left);
+            chunk.setAmount(size);
+            ItemStack remainder = insert(chunk);
+            int notPlaced = ItemStacks.isAir(remainder) ? 0 : remainder.getAmount();
+            left -= size - notPlaced;
+            if (notPlaced > 0)
+                break;
+        }
+        return left;
+    }
+
+    /**
+     * Takes a single item similar to {@code marker} from the first matching slot.
+     *
+     * @return a one-item stack, or null when nothing matches
+     */
+    @Override
+    public ItemStack takeOne(ItemStack marker) {
+        if (ItemStacks.isAir(marker))
+            return null;
+
+        BitSet bits = slotsOf(marker.getType());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            ItemStack cur = slots[i];
+            if (!cur.isSimilar(marker))
+                continue;
+
+            ItemStack out = cur.clone();
+            out.setAmount(1);
+            shrink(i, 1);
+            return out;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether {@code stack} fits without actually inserting it.
+     */
+    @Override
+    public boolean canFit(ItemStack stack) {
+        if (ItemStacks.isAir(stack))
+            return true;
+
+        int needed = stack.getAmount();
+        if (needed <= 0 || firstEmpty() >= 0)
+            return true;
+
+        BitSet bits = slotsOf(stack.getType());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            ItemStack cur = slots[i];
+            if (!cur.isSimilar(stack))
+                continue;
+            int space = cur.getMaxStackSize() - cur.getAmount();
+            if (space <= 0)
+                continue;
+            needed -= space;
+            if (needed <= 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Merges into similar stacks first, then fills empty slots (respecting max
+     * stack size). Changes the passed stack in place: its amount is reduced by
+     * what was inserted and a remainder is that same instance, so pass a copy
+     * of a stack that must stay intact. Stacks placed in empty slots are copies.
+     *
+     * @return null when fully inserted, otherwise the remainder
+     */
+    @Override
+    public ItemStack insert(ItemStack stack) {
+        if (ItemStacks.isAir(stack))
+            return stack;
+
+        BitSet bits = slotsOf(stack.getType());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            ItemStack cur = slots[i];
+            if (!cur.isSimilar(stack))
+                continue;
+            int space = cur.getMaxStackSize() - cur.getAmount();
+            if (space <= 0)
+                continue;
+
+            int move = Math.min(space, stack.getAmount());
+            cur.setAmount(cur.getAmount() + move);
+
+            stack.setAmount(stack.getAmount() - move);
+            if (stack.getAmount() <= 0)
+                return null;
+        }
+
+        for (int i = emptySlots.nextSetBit(0); i >= 0; i = emptySlots.nextSetBit(i + 1)) {
+            int toPlace = Math.min(stack.getMaxStackSize(), stack.getAmount());
+            ItemStack placed = stack.clone();
+            placed.setAmount(toPlace);
+            set(i, placed);
+
+            stack.setAmount(stack.getAmount() - toPlace);
+            if (stack.getAmount() <= 0)
+                return null;
+        }
+
+        return stack;
+    }
+
+    private void ensureIndexed() {
+        if (byMaterial != null)
+            return;
+
+        EnumMap<Material, BitSet> index = new EnumMap<>(Material.class);
+        BitSet empty = new BitSet(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            ItemStack cur = slots[i];
+            if (ItemStacks.isAir(cur)) {
+                slots[i] = null;
+                empty.set(i);
+                continue;
+            }
+            index.computeIfAbsent(cur.getType(), m -> new BitSet()).set(i);
+        }
+        this.byMaterial = index;
+        this.emptySlots = empty;
+    }
+
+    private final class ReadOnlyView implements BackpackContents {
+        @Override
+        public int size() {
+            return BackpackContentsIndex.this.size();
+        }
+
+        @Override
+        public ItemStack get(int slot) {
+            ItemStack stack = slots[slot];
+            return stack == null ? null : stack.clone();
+        }
+
+        @Override
+        public void set(int slot, ItemStack stack) {
+            throw readOnlyWrite();
+        }
+
+        @Override
+        public int shrink(int slot, int amount) {
+            throw readOnlyWrite();
+        }
+
+        @Override
+        public BitSet slotsOf(Material material) {
+            return BackpackContentsIndex.this.slotsOf(material);
+        }
+
+        @Override
+        public Set<Material> materials() {
+            return BackpackContentsIndex.this.materials();
+        }
+
+        @Override
+        public int firstEmpty() {
+            return BackpackContentsIndex.this.firstEmpty();
+        }
+
+        @Override
+        public int emptyCount() {
+            return BackpackContentsIndex.this.emptyCount();
+        }
+
+        @Override
+        public int countSimilar(ItemStack marker, int cap) {
+            return BackpackContentsIndex.this.countSimilar(marker, cap);
+        }
+
+        @Override
+        public int mergeSpace(ItemStack stack) {
+            return BackpackContentsIndex.this.mergeSpace(stack);
+        }
+
+        @Override
+        public int drainedSlots(ItemStack marker, int amount) {
+            return BackpackContentsIndex.this.drainedSlots(marker, amount);
+        }
+
+        @Override
+        public boolean canFit(ItemStack stack) {
+            return BackpackContentsIndex.this.canFit(stack);
+        }
+
+        @Override
+        public int take(ItemStack marker, int amount) {
+            throw readOnlyWrite();
+        }
+
+        @Override
+        public ItemStack takeOne(ItemStack marker) {
+            throw readOnlyWrite();
+        }
+
+        @Override
+        public ItemStack insert(ItemStack stack) {
+            throw readOnlyWrite();
+        }
+
+        @Override
+        public int insertCopies(ItemStack prototype, int total) {
+            throw readOnlyWrite();
+        }
+
+        private UnsupportedOperationException readOnlyWrite() {
+            return new UnsupportedOperationException("Read-only backpack contents");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.github.tootertutor.ModularPacks.modules;
 
 import org.bukkit.inventory.ItemStack;
 
+import io.github.tootertutor.ModularPacks.api.modules.BackpackContents;
 import io.github.tootertutor.ModularPacks.util.ItemStacks;
 
 public final class BackpackInventoryUtil {
@@ -21,49 +22,16 @@ public final class BackpackInventoryUtil {
     }
 
     public static ItemStack insertIntoContents(ItemStack[] contents, ItemStack stack) {
+        if (contents == null)
+            return stack;
+        return insertIntoContents(BackpackContentsIndex.of(contents), stack);
+    }
+
+    public static ItemStack insertIntoContents(BackpackContents contents, ItemStack stack) {
         if (contents == null)
             return stack;
         if (ItemStacks.isAir(stack))
             return stack;
-
-        // Merge into existing stacks first
-        for (int i = 0; i < contents.length; i++) {
-            ItemStack cur = contents[i];
-            if (ItemStacks.isAir(cur))
-                continue;
-            if (!cur.isSimilar(stack))
-                continue;
-            int max = cur.getMaxStackSize();
-            int space = max - cur.getAmount();
-            if (space <= 0)
-                continue;
-
-            int move = Math.min(space, stack.getAmount());
-            ItemStack merged = cur.clone();
-            merged.setAmount(cur.getAmount() + move);
-            contents[i] = merged;
-
-            stack.setAmount(stack.getAmount() - move);
-            if (stack.getAmount() <= 0)
-                return null;
-        }
-
-        // Empty slots
-        for (int i = 0; i < contents.length; i++) {
-            ItemStack cur = contents[i];
-            if (ItemStacks.isNotAir(cur))
-                continue;
-
-            int toPlace = Math.min(stack.getMaxStackSize(), stack.getAmount());
-            ItemStack placed = stack.clone();
-            placed.setAmount(toPlace);
-            contents[i] = placed;
-
-            stack.setAmount(stack.getAmount() - toPlace);
-            if (stack.getAmount() <= 0)
-                return null;
-        }
-
-        return stack;
+        return contents.insert(stack);
     }
 }
@@ -1,17 +1,23 @@
 package io.github.tootertutor.ModularPacks.modules;
 
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
@@ -21,6 +27,11 @@ import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.scheduler.BukkitTask;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
+import io.github.tootertutor.ModularPacks.api.ModularPacksAPI;
+import io.github.tootertutor.ModularPacks.api.modules.BackpackContents;
+import io.github.tootertutor.ModularPacks.api.modules.ModuleRegistry;
+import io.github.tootertutor.ModularPacks.api.modules.ModuleTickContext;
+import io.github.tootertutor.ModularPacks.api.modules.TickingModule;
 import io.github.tootertutor.ModularPacks.config.BackpackTypeDef;
 import io.github.tootertutor.ModularPacks.config.ScreenType;
 import io.github.tootertutor.ModularPacks.data.BackpackData;
@@ -30,8 +41,8 @@ import io.github.tootertutor.ModularPacks.gui.ModuleScreenHolder;
 import io.github.tootertutor.ModularPacks.gui.ScreenRouter;
 import io.github.tootertutor.ModularPacks.item.BackpackItems;
 import io.github.tootertutor.ModularPacks.item.Keys;
+import io.github.tootertutor.ModularPacks.modules.crafting.AutocraftingPlanner;
 import io.github.tootertutor.ModularPacks.modules.crafting.AutocraftingStateCodec;
-import io.github.tootertutor.ModularPacks.modules.crafting.CraftingModuleLogic;
 import io.github.tootertutor.ModularPacks.modules.feeding.FeedingEngine;
 import io.github.tootertutor.ModularPacks.modules.furnace.FurnaceEngine;
 import io.github.tootertutor.ModularPacks.modules.furnace.FurnaceModule;
@@ -52,6 +63,9 @@ public final class ModuleEngineService {
     private static final long ENGINE_PERIOD_TICKS = 10L;
     private static final int ENGINE_DT_TICKS = 10;
     private static final int MAX_EXP_PUMP_TARGET_LEVEL = 100;
+    private static final int SAFETY_SWEEP_TICKS = 100;
+    private static final EquipmentSlot[] MENDING_SLOTS = { EquipmentSlot.HAND, EquipmentSlot.OFF_HAND,
+            EquipmentSlot.FEET, EquipmentSlot.LEGS, EquipmentSlot.CHEST, EquipmentSlot.HEAD };
 
     private final ModularPacksPlugin plugin;
     private final BackpackItems backpackItems;
@@ -62,9 +76,25 @@ public final class ModuleEngineService {
     private final RestockEngine restockEngine;
     private final ScreenRouter screenRouter;
     private final ConcurrentMap<UUID, Integer> autocraftingCooldownTicks = new ConcurrentHashMap<>();
-    private final ConcurrentMap<UUID, Integer> pumpCooldownTicks = new ConcurrentHashMap<>();
-    private final ConcurrentMap<UUID, Integer> expPumpCooldownTicks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Integer> pumpReadyTicks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Integer> expPumpReadyTicks = new ConcurrentHashMap<>();
+    private final ModuleRegistry moduleRegistry;
+    private final List<TickingModule> builtInTickingModules;
+    private final ConcurrentMap<TickingModule, Map<UUID, Integer>> tickCountdowns = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Object> preparedTicks = new ConcurrentHashMap<>();
+    private final Set<UUID> preparingTicks = ConcurrentHashMap.newKeySet();
+    // Woken modules per player (main thread only): module -> server tick the wake
+    // lapses at, plus the modules and slots still waiting for the next-tick pass.
+    private final Map<UUID, Map<TickingModule, Integer>> wokenModules = new HashMap<>();
+    private final Map<UUID, Set<TickingModule>> pendingWakes = new HashMap<>();
+    private final Map<UUID, BitSet> pendingWakeSlots = new HashMap<>();
+    // Backpacks and module instances ticked since the last eviction (main thread
+    // only); tick state of anything else is dropped once per safety sweep.
+    private final Set<UUID> sweepBackpacks = new HashSet<>();
+    private final Set<UUID> sweepModules = new HashSet<>();
+    private int nextEvictionTick;
     private BukkitTask task;
+    private BukkitTask wakeTask;
 
     public ModuleEngineService(ModularPacksPlugin plugin, ScreenRouter screenRouter) {
         this.plugin = plugin;
@@ -75,11 +105,18 @@ public final class ModuleEngineService {
         this.magnetVoidEngine = new MagnetVoidEngine(plugin);
         this.furnaceEngine = new FurnaceEngine(plugin);
         this.restockEngine = new RestockEngine(plugin);
+        this.moduleRegistry = ModularPacksAPI.getInstance().getModuleRegistry();
+        this.builtInTickingModules = List.of(new FeedingTicker(), new MagnetTicker(), new RestockTicker(),
+                new AutocraftingTicker(), new PumpTicker(), new ExpPumpTicker());
     }
 
     public void start() {
         if (task != null)
             return;
+        for (TickingModule module : builtInTickingModules) {
+            if (moduleRegistry.getTickingModule(module.getModuleId()).isEmpty())
+                moduleRegistry.registerTickingModule(module);
+        }
         task = Bukkit.getScheduler().runTaskTimer(plugin, this::tickOpenScreens, ENGINE_PERIOD_TICKS,
                 ENGINE_PERIOD_TICKS);
     }
@@ -88,12 +125,147 @@ public final class ModuleEngineService {
         if (task != null)
             task.cancel();
         task = null;
+        if (wakeTask != null)
+            wakeTask.cancel();
+        wakeTask = null;
+        wokenModules.clear();
+        pendingWakes.clear();
+        pendingWakeSlots.clear();
+        sweepBackpacks.clear();
+        sweepModules.clear();
+        tickCountdowns.clear();
+        preparedTicks.clear();
+        autocraftingCooldownTicks.clear();
+        pumpReadyTicks.clear();
+        expPumpReadyTicks.clear();
+        for (TickingModule module : builtInTickingModules) {
+            if (moduleRegistry.getTickingModule(module.getModuleId()).orElse(null) == module)
+                moduleRegistry.unregisterTickingModule(module.getModuleId());
+        }
+    }
+
+    /**
+     * Wakes a ticking module for the player's carried backpacks: it is evaluated
+     * on the next tick, then every engine cycle for as long as it keeps making
+     * progress, instead of waiting for its (slow) interval.
+     *
+     * @param moduleType the ticking module id (e.g. "Restock")
+     * @param slot       the inventory slot the triggering event touched, or -1;
+     *                   a restock wake only looks at the woken slots
+     */
+    public void wake(Player player, String moduleType, int slot) {
+        if (task == null || player == null || moduleType == null)
+            return;
+        TickingModule module = moduleRegistry.getTickingModule(moduleType).orElse(null);
+        if (module == null)
+            return;
+
+        UUID playerId = player.getUniqueId();
+        keepAwake(playerId, module, Bukkit.getCurrentTick());
+        pendingWakes.computeIfAbsent(playerId, k -> new HashSet<>()).add(module);
+        if (slot >= 0)
+            pendingWakeSlots.computeIfAbsent(playerId, k -> new BitSet()).set(slot);
+
+        if (wakeTask == null)
+            wakeTask = Bukkit.getScheduler().runTask(plugin, this::runPendingWakes);
+    }
+
+    private void runPendingWakes() {
+        wakeTask = null;
+        if (pendingWakes.isEmpty())
+            return;
+        Map<UUID, Set<TickingModule>> wakes = new HashMap<>(pendingWakes);
+        Map<UUID, BitSet> slots = new HashMap<>(pendingWakeSlots);
+        pendingWakes.clear();
+        pendingWakeSlots.clear();
+
+        Set<UUID> openModuleIds = new HashSet<>();
+        Set<UUID> openBackpackIds = new HashSet<>();
+        collectOpenScreens(openModuleIds, openBackpackIds, false);
+
+        Keys keys = plugin.keys();
+        for (Map.Entry<UUID, Set<TickingModule>> wake : wakes.entrySet()) {
+            Player player = Bukkit.getPlayer(wake.getKey());
+            if (player == null)
+                continue;
+
+            Set<UUID> processedBackpacks = new HashSet<>();
+            for (ItemStack item : player.getInventory().getContents()) {
+                UUID backpackId = readBackpackId(keys, item);
+                if (backpackId == null || !processedBackpacks.add(backpackId))
+                    continue;
+
+                String backpackType = readBackpackType(keys, item);
+                if (backpackType == null || backpackType.isBlank())
+                    continue;
+
+                tickBackpack(player, backpackId, backpackType, openModuleIds, openBackpackIds, wake.getValue(),
+                        slots.get(wake.getKey()));
+            }
+        }
+    }
+
+    private void keepAwake(UUID playerId, TickingModule module, int now) {
+        int wakeTicks = module instanceof EventDriven ed ? ed.wakeTicks() : ENGINE_DT_TICKS;
+        wokenModules.computeIfAbsent(playerId, k -> new HashMap<>()).merge(module, now + wakeTicks, Math::max);
+    }
+
+    private boolean isAwake(UUID playerId, TickingModule module, int now) {
+        Map<TickingModule, Integer> woken = wokenModules.get(playerId);
+        if (woken == null)
+            return false;
+        Integer until = woken.get(module);
+        if (until == null)
+            return false;
+        if (now <= until)
+            return true;
+        woken.remove(module);
+        if (woken.isEmpty())
+            wokenModules.remove(playerId);
+        return false;
     }
 
     private void tickOpenScreens() {
         Set<UUID> openModuleIds = new HashSet<>();
         Set<UUID> openBackpackIds = new HashSet<>();
+        collectOpenScreens(openModuleIds, openBackpackIds, true);
+
+        wokenModules.keySet().removeIf(playerId -> Bukkit.getPlayer(playerId) == null);
+
+        tickCarriedBackpacks(openModuleIds, openBackpackIds);
+        tickPlacedBackpacks(openModuleIds, openBackpackIds);
+
+        int now = Bukkit.getCurrentTick();
+        if (now >= nextEvictionTick) {
+            evictStaleTickState();
+            nextEvictionTick = now + SAFETY_SWEEP_TICKS;
+        }
+    }
+
+    /**
+     * Drops countdowns, cooldowns and prepared results of backpacks that left the
+     * tick set, modules uninstalled from them and unregistered ticking modules.
+     * In-flight preparations (preparingTicks) clear themselves when they finish;
+     * a result landing after eviction goes at the next one.
+     */
+    private void evictStaleTickState() {
+        List<TickingModule> registered = moduleRegistry.getTickingModules();
+        tickCountdowns.keySet().retainAll(registered);
+        for (Map<UUID, Integer> countdowns : tickCountdowns.values())
+            countdowns.keySet().retainAll(sweepBackpacks);
+        for (Map<TickingModule, Integer> woken : wokenModules.values())
+            woken.keySet().retainAll(registered);
+
+        preparedTicks.keySet().retainAll(sweepModules);
+        autocraftingCooldownTicks.keySet().retainAll(sweepModules);
+        pumpReadyTicks.keySet().retainAll(sweepModules);
+        expPumpReadyTicks.keySet().retainAll(sweepModules);
+
+        sweepBackpacks.clear();
+        sweepModules.clear();
+    }
 
+    private void collectOpenScreens(Set<UUID> openModuleIds, Set<UUID> openBackpackIds, boolean tickFurnaces) {
         for (Player player : Bukkit.getOnlinePlayers()) {
             Inventory top = player.getOpenInventory().getTopInventory();
             if (top.getHolder() instanceof BackpackMenuHolder bmh) {
@@ -108,7 +280,8 @@ public final class ModuleEngineService {
                 ScreenType st = furnaceModule.getSessionScreenType(player);
                 if (moduleId != null && backpackId != null && backpackType != null && st != null) {
                     openModuleIds.add(moduleId);
-                    if (st == ScreenType.SMELTING || st == ScreenType.BLASTING || st == ScreenType.SMOKING) {
+                    if (tickFurnaces
+                            && (st == ScreenType.SMELTING || st == ScreenType.BLASTING || st == ScreenType.SMOKING)) {
                         furnaceEngine.tickFurnaceScreen(player, backpackId, backpackType,
                                 moduleId, st, top, ENGINE_DT_TICKS);
                     }
@@ -122,16 +295,14 @@ public final class ModuleEngineService {
             openModuleIds.add(msh.moduleId());
 
             ScreenType st = msh.screenType();
-            if (st == ScreenType.SMELTING || st == ScreenType.BLASTING || st == ScreenType.SMOKING) {
+            if (tickFurnaces
+                    && (st == ScreenType.SMELTING || st == ScreenType.BLASTING || st == ScreenType.SMOKING)) {
                 furnaceEngine.tickFurnaceScreen(player, msh.backpackId(), msh.backpackType(), msh.moduleId(), st, top,
                         ENGINE_DT_TICKS);
             }
 
             // Later: add other engines here (stonecutter, smithing, etc.)
         }
-
-        tickCarriedBackpacks(openModuleIds, openBackpackIds);
-        tickPlacedBackpacks(openModuleIds, openBackpackIds);
     }
 
     private void tickCarriedBackpacks(Set<UUID> openModuleIds, Set<UUID> openBackpackIds) {
@@ -191,80 +362,70 @@ public final class ModuleEngineService {
             String backpackType,
             Set<UUID> openModuleIds,
             Set<UUID> openBackpackIds) {
+        tickBackpack(player, backpackId, backpackType, openModuleIds, openBackpackIds, null, null);
+    }
+
+    /**
+     * @param onlyModules the woken modules to run right away, or null for a
+     *                    regular engine cycle
+     * @param wakeSlots   inventory slots the wake is about, or null for all
+     */
+    private void tickBackpack(
+            Player player,
+            UUID backpackId,
+            String backpackType,
+            Set<UUID> openModuleIds,
+            Set<UUID> openBackpackIds,
+            Set<TickingModule> onlyModules,
+            BitSet wakeSlots) {
 
         var typeDef = plugin.cfg().findType(backpackType);
         if (typeDef == null)
             return;
 
         BackpackData data = plugin.repo().loadOrCreate(backpackId, backpackType);
+        sweepBackpacks.add(backpackId);
+        sweepModules.addAll(data.installedModules().values());
 
         boolean allowContentsMutations = openBackpackIds == null || !openBackpackIds.contains(backpackId);
 
         boolean changedAny = false;
 
-        // Passive modules that mutate backpack contents (skip while that backpack GUI
-        // is open)
-        if (allowContentsMutations) {
-            ItemStack[] logical = ensureLogicalContentsSize(data, typeDef.rows() * 9);
-
-            UUID voidId = findInstalledModuleId(data, "Void");
-            Set<Material> voidWhitelist = (voidId == null) ? Set.of() : readWhitelistFromState(data, voidId);
-
-            // Feeding module only works when player is present (carried backpacks)
-            if (player != null) {
-                UUID feedingId = findInstalledModuleId(data, "Feeding");
-                if (feedingId != null) {
-                    ItemStack feedingSnapshot = resolveModuleSnapshotItem(data, feedingId);
-                    List<Material> orderedWhitelist = readWhitelistOrderedFromState(data, feedingId);
-                    changedAny |= feedingEngine.applyFeeding(player, logical, feedingSnapshot, orderedWhitelist);
-                }
-            }
-
-            // Magnet module works differently for placed vs carried backpacks
-            UUID magnetId = findInstalledModuleId(data, "Magnet");
-            if (magnetId != null) {
-                ItemStack magnetSnapshot = resolveModuleSnapshotItem(data, magnetId);
-                ItemStack voidSnapshot = (voidId == null) ? null : resolveModuleSnapshotItem(data, voidId);
-
-                if (player != null) {
-                    // Carried backpack: use player location
-                    changedAny |= magnetVoidEngine.applyMagnet(player, logical, readWhitelistFromState(data, magnetId),
-                            magnetSnapshot, backpackId, backpackType, voidId, voidWhitelist, voidSnapshot);
-                } else {
-                    // Placed backpack: use block location
-                    changedAny |= applyPlacedBackpackMagnet(backpackId, logical, magnetSnapshot, voidId, voidWhitelist,
-                            voidSnapshot, data);
-                }
-            }
-
-            // Restock module only works when player is present (carried backpacks)
-            if (player != null) {
-                UUID restockId = findInstalledModuleId(data, "Restock");
-                if (restockId != null) {
-                    int threshold = readRestockThresholdFromState(data, restockId);
-                    java.util.List<ItemStack> whitelist = readRestockWhitelistFromState(data, restockId);
-                    changedAny |= restockEngine.applyRestock(player, logical, threshold, whitelist);
-                }
-
-                UUID pumpId = findInstalledModuleId(data, "Pump");
-                if (pumpId != null) {
-                    changedAny |= applyFluidPump(player, data, pumpId);
-                }
+        // Passive modules, built-in and external. Modules that mutate the backpack
+        // are skipped while that backpack GUI is open; contents are decoded only
+        // once a module past its precondition asks for them.
+        TickFrame frame = new TickFrame(player, backpackId, backpackType, data, typeDef.rows() * 9, openModuleIds);
+        frame.wakeSlots = wakeSlots;
+        int now = Bukkit.getCurrentTick();
+        for (TickingModule module : moduleRegistry.getTickingModules()) {
+            if (onlyModules != null && !onlyModules.contains(module))
+                continue;
+            if (module.mutatesContents() && !allowContentsMutations)
+                continue;
+            if (!mayHaveModule(data, module.getModuleId()))
+                continue;
 
-                UUID expPumpId = findInstalledModuleId(data, "ExpPump");
-                if (expPumpId != null) {
-                    changedAny |= applyExpPump(player, data, expPumpId);
-                }
-            }
+            // Awake modules run every cycle; their own interval only paces the sweep.
+            boolean awake = player != null && isAwake(player.getUniqueId(), module, now);
+            if (onlyModules == null && !awake && !isTickDue(module, backpackId))
+                continue;
 
-            UUID autocraftingId = findInstalledModuleId(data, "Autocrafting");
-            if (autocraftingId != null && (openModuleIds == null || !openModuleIds.contains(autocraftingId))) {
-                changedAny |= applyAutocrafting(player, data, autocraftingId, logical);
-            }
+            boolean changed = runTickingModule(module, frame);
+            if (changed && player != null && (awake || module instanceof EventDriven))
+                keepAwake(player.getUniqueId(), module, now);
+            changedAny |= changed;
+        }
+        if (frame.contentsChanged) {
+            data.contents(frame.logical.array());
+        }
 
+        if (onlyModules != null) {
             if (changedAny) {
-                data.contentsBytes(ItemStackCodec.toBytes(logical));
+                plugin.repo().saveBackpack(data);
+                refreshBackpackItemsFor(player, backpackId, typeDef, data);
+                plugin.sessions().refreshLinkedBackpacksThrottled(backpackId, data);
             }
+            return;
         }
 
         // Ticking module states (furnace-like) is safe even if backpack GUI is open.
@@ -295,54 +456,141 @@ public final class ModuleEngineService {
         tickBackpack(player, backpackId, backpackType, openModuleIds, openBackpackIds);
     }
 
-    private boolean applyPlacedBackpackMagnet(UUID backpackId, ItemStack[] logical, ItemStack magnetSnapshot,
-            UUID voidId, Set<Material> voidWhitelist, ItemStack voidSnapshot, BackpackData data) {
-        // Get the placed backpack location
-        var placedBackpack = plugin.placedBackpacks().getAllPlaced().values().stream()
-                .filter(pb -> pb.backpackId().equals(backpackId))
-                .findFirst()
-                .orElse(null);
+    private boolean runTickingModule(TickingModule module, TickFrame frame) {
+        frame.begin(module);
+        try {
+            if (!module.shouldTick(frame))
+                return false;
+            UUID moduleId = frame.moduleId();
+            if (moduleId == null)
+                return false;
+
+            if (module.hasAsyncPhase()) {
+                Object prepared = preparedTicks.remove(moduleId);
+                if (prepared == null) {
+                    prepareAsync(module, frame.backpackId, moduleId, frame.moduleState());
+                    return false;
+                }
+                frame.prepared = prepared;
+            }
 
-        if (placedBackpack == null || !placedBackpack.isValid()) {
+            boolean changed = module.tick(frame);
+            if (changed && frame.logical != null && module.mutatesContents())
+                frame.contentsChanged = true;
+            return changed;
+        } catch (RuntimeException ex) {
+            plugin.getLogger().warning("Ticking module " + module.getModuleId() + " failed for backpack "
+                    + frame.backpackId + ": " + ex);
             return false;
+        } finally {
+            frame.end();
         }
-
-        // Use a special magnet implementation for placed backpacks
-        return magnetVoidEngine.applyMagnetAtLocation(placedBackpack.location(), logical,
-                readWhitelistFromState(data, findInstalledModuleId(data, "Magnet")),
-                magnetSnapshot, backpackId, data.backpackType(), voidId, voidWhitelist, voidSnapshot);
     }
 
-    private boolean applyAutocrafting(Player player, BackpackData data, UUID moduleId, ItemStack[] logical) {
-        if (data == null || moduleId == null || logical == null)
+    /**
+     * Counts down the module's interval for this backpack; modules ticking every
+     * engine cycle are not tracked.
+     */
+    private boolean isTickDue(TickingModule module, UUID backpackId) {
+        int interval = module.getTickInterval();
+        if (interval <= ENGINE_DT_TICKS)
+            return true;
+        Map<UUID, Integer> countdowns = tickCountdowns.computeIfAbsent(module, m -> new ConcurrentHashMap<>());
+        int remaining = countdowns.getOrDefault(backpackId, 0) - ENGINE_DT_TICKS;
+        if (remaining > 0) {
+            countdowns.put(backpackId, remaining);
             return false;
+        }
+        countdowns.put(backpackId, interval);
+        return true;
+    }
+
+    private void prepareAsync(TickingModule module, UUID backpackId, UUID moduleId, byte[] state) {
+        if (!preparingTicks.add(moduleId))
+            return;
+        byte[] stateCopy = state == null ? null : state.clone();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                Object prepared = module.prepareAsync(backpackId, moduleId, stateCopy);
+                if (prepared != null)
+                    preparedTicks.put(moduleId, prepared);
+            } catch (RuntimeException ex) {
+                plugin.getLogger().warning("Ticking module " + module.getModuleId() + " failed to prepare for backpack "
+                        + backpackId + ": " + ex);
+            } finally {
+                preparingTicks.remove(moduleId);
+            }
+        });
+    }
+
+    private Location placedLocation(UUID backpackId) {
+        for (var placed : plugin.placedBackpacks().getAllPlaced().values()) {
+            if (placed.backpackId().equals(backpackId))
+                return placed.isValid() ? placed.location() : null;
+        }
+        return null;
+    }
+
+    /**
+     * Counts down a known in-memory cooldown without decoding the module state.
+     *
+     * @return true when the cooldown is unknown or expires this cycle
+     */
+    private boolean isAutocraftingDue(UUID moduleId) {
+        Integer cooldown = autocraftingCooldownTicks.get(moduleId);
+        if (cooldown == null || cooldown <= ENGINE_DT_TICKS)
+            return true;
+        autocraftingCooldownTicks.put(moduleId, cooldown - ENGINE_DT_TICKS);
+        return false;
+    }
+
+    /**
+     * Module-state-only probe: decodes the template, never the backpack contents.
+     * A module without a template backs off for a crafting interval.
+     *
+     * @return the compiled template, or null when there is nothing to craft from
+     */
+    private AutocraftingProbe probeAutocrafting(BackpackData data, UUID moduleId) {
+        AutocraftingStateCodec.State state = AutocraftingStateCodec.tryDecode(data.moduleStates().get(moduleId));
+        if (state == null) {
+            autocraftingCooldownTicks.put(moduleId, plugin.cfg().snapshot().autocrafting().craftingIntervalTicks());
+            return null;
+        }
+        ItemStack[] moduleInv = ensureCraftingInventorySize(state.inventoryItems());
+        AutocraftingPlanner plan = AutocraftingPlanner.compile(moduleInv);
+        if (plan == null) {
+            autocraftingCooldownTicks.put(moduleId, plugin.cfg().snapshot().autocrafting().craftingIntervalTicks());
+            return null;
+        }
+        return new AutocraftingProbe(state, moduleInv, plan);
+    }
 
-        byte[] rawState = data.moduleStates().get(moduleId);
-        AutocraftingStateCodec.State state = AutocraftingStateCodec.decode(rawState);
+    private boolean applyAutocrafting(Player player, BackpackData data, UUID moduleId, AutocraftingProbe probe,
+            ModuleTickContext ctx) {
+        if (data == null || moduleId == null || probe == null)
+            return false;
 
-        int intervalTicks = Math.max(10, plugin.cfg().getInt("Upgrades.Autocrafting.CraftingIntervalTicks", 120));
+        AutocraftingStateCodec.State state = probe.state();
+        int intervalTicks = plugin.cfg().snapshot().autocrafting().craftingIntervalTicks();
         int persistedCooldown = Math.max(0, state.cooldownTicks());
         int cooldown = autocraftingCooldownTicks.compute(moduleId,
                 (id, existing) -> existing != null ? existing : persistedCooldown);
         cooldown = Math.max(0, cooldown - ENGINE_DT_TICKS);
 
         boolean changed = state.inventoryItems() != null && state.inventoryItems().length != 10;
-        ItemStack[] moduleInv = ensureCraftingInventorySize(state.inventoryItems());
+        ItemStack[] moduleInv = probe.moduleInv();
 
         if (cooldown <= 0) {
             int desired = AutocraftingStateCodec.clampDesiredAmount(state.desiredAmount());
-            int craftedItems = craftAutocraftingBatch(player, moduleInv, logical, desired);
-            if (craftedItems > 0) {
+            // Contents are decoded only now that there is a template to craft from.
+            int craftedItems = probe.plan().craftBatch(plugin.recipes(), player, ctx.contents(), desired);
+            if (craftedItems > 0)
                 changed = true;
-                cooldown = intervalTicks;
-            }
-        }
-
-        if (cooldown > 0) {
-            autocraftingCooldownTicks.put(moduleId, cooldown);
-        } else {
-            autocraftingCooldownTicks.remove(moduleId);
+            // Idle modules (missing ingredients, no output room) wait a full interval
+            // too, instead of decoding the backpack again every cycle.
+            cooldown = intervalTicks;
         }
+        autocraftingCooldownTicks.put(moduleId, cooldown);
 
         if (changed) {
             data.moduleStates().put(moduleId,
@@ -355,23 +603,27 @@ public final class ModuleEngineService {
         return changed;
     }
 
+    private record AutocraftingProbe(AutocraftingStateCodec.State state, ItemStack[] moduleInv,
+            AutocraftingPlanner plan) {
+    }
+
     private boolean applyFluidPump(Player player, BackpackData data, UUID pumpModuleId) {
         if (player == null || data == null || pumpModuleId == null)
             return false;
 
-        int interval = Math.max(10, plugin.cfg().getInt("Upgrades.Pump.IntervalTicks", 40));
-        int cooldown = pumpCooldownTicks.getOrDefault(pumpModuleId, 0);
-        cooldown = Math.max(0, cooldown - ENGINE_DT_TICKS);
-        if (cooldown > 0) {
-            pumpCooldownTicks.put(pumpModuleId, cooldown);
+        int now = Bukkit.getCurrentTick();
+        if (now < pumpReadyTicks.getOrDefault(pumpModuleId, 0))
+            return false;
+
+        // World-only probe: nothing to fill or empty without buckets in hand.
+        if (!holdsAnyBucket(player))
             return false;
-        }
 
         UUID tankModuleId = findFluidTankModuleId(data);
         if (tankModuleId == null)
             return false;
 
-        TankStateCodec.State state = TankStateCodec.decode(data.moduleStates().get(tankModuleId));
+        TankStateCodec.State state = TankStateCodec.tryDecode(data.moduleStates().get(tankModuleId));
         if (state == null)
             return false;
 
@@ -401,7 +653,7 @@ public final class ModuleEngineService {
         data.moduleStates().put(tankModuleId, TankStateCodec.encode(state));
         updateTankSnapshot(data, tankModuleId, state);
 
-        pumpCooldownTicks.put(pumpModuleId, interval);
+        pumpReadyTicks.put(pumpModuleId, now + pumpIntervalTicks());
         return true;
     }
 
@@ -409,19 +661,15 @@ public final class ModuleEngineService {
         if (player == null || data == null || expPumpModuleId == null)
             return false;
 
-        int interval = Math.max(10, plugin.cfg().getInt("Upgrades.ExpPump.IntervalTicks", 40));
-        int cooldown = expPumpCooldownTicks.getOrDefault(expPumpModuleId, 0);
-        cooldown = Math.max(0, cooldown - ENGINE_DT_TICKS);
-        if (cooldown > 0) {
-            expPumpCooldownTicks.put(expPumpModuleId, cooldown);
+        int now = Bukkit.getCurrentTick();
+        if (now < expPumpReadyTicks.getOrDefault(expPumpModuleId, 0))
             return false;
-        }
 
         UUID tankModuleId = findExperienceTankModuleId(data);
         if (tankModuleId == null)
             return false;
 
-        TankStateCodec.State state = TankStateCodec.decode(data.moduleStates().get(tankModuleId));
+        TankStateCodec.State state = TankStateCodec.tryDecode(data.moduleStates().get(tankModuleId));
         if (state == null)
             return false;
 
@@ -435,7 +683,7 @@ public final class ModuleEngineService {
                     state.expTotalPoints -= granted;
                     int remaining = granted;
                     if (isExpPumpMendingEnabled(data, expPumpModuleId)) {
-                        int mendingBudget = Math.min(granted, resolveExpPumpMendingBudgetPerCycle());
+                        int mendingBudget = Math.min(granted, plugin.cfg().snapshot().expPump().mendingXpPerCycle());
                         int mendingLeftover = applyMendingToEquippedItems(player, mendingBudget);
                         remaining = (granted - mendingBudget) + mendingLeftover;
                     }
@@ -471,15 +719,23 @@ public final class ModuleEngineService {
         data.moduleStates().put(tankModuleId, TankStateCodec.encode(state));
         updateTankSnapshot(data, tankModuleId, state);
 
-        expPumpCooldownTicks.put(expPumpModuleId, interval);
+        expPumpReadyTicks.put(expPumpModuleId, now + expPumpIntervalTicks());
         return true;
     }
 
+    private int pumpIntervalTicks() {
+        return plugin.cfg().snapshot().pump().intervalTicks();
+    }
+
+    private int expPumpIntervalTicks() {
+        return plugin.cfg().snapshot().expPump().intervalTicks();
+    }
+
     private boolean isExpPumpMendingEnabled(BackpackData data, UUID expPumpModuleId) {
         if (data == null || expPumpModuleId == null)
-            return plugin.cfg().getBoolean("Upgrades.ExpPump.MendEquippedItems", false);
+            return plugin.cfg().snapshot().expPump().mendEquippedItems();
 
-        boolean fallback = plugin.cfg().getBoolean("Upgrades.ExpPump.MendEquippedItems", false);
+        boolean fallback = plugin.cfg().snapshot().expPump().mendEquippedItems();
         ItemStack moduleItem = resolveModuleSnapshotItem(data, expPumpModuleId);
         if (moduleItem == null || !moduleItem.hasItemMeta())
             return fallback;
@@ -495,66 +751,43 @@ public final class ModuleEngineService {
         return b == 1;
     }
 
+    /**
+     * Repairs mending gear in one pass over the equipment, main hand first, then
+     * off hand and armor from boots up, 2 durability per point.
+     *
+     * @return the points left over
+     */
     private int applyMendingToEquippedItems(Player player, int xpPoints) {
         if (player == null || xpPoints <= 0)
             return Math.max(0, xpPoints);
 
         int remaining = xpPoints;
         PlayerInventory inv = player.getInventory();
+        for (EquipmentSlot slot : MENDING_SLOTS) {
+            if (remaining <= 0)
+                break;
+            ItemStack item = inv.getItem(slot);
+            if (ItemStacks.isAir(item))
+                continue;
 
-        remaining = mendEquippedSlot(inv, inv.getItemInMainHand(), remaining, slot -> inv.setItemInMainHand(slot));
-        if (remaining <= 0)
-            return 0;
+            ItemMeta meta = item.getItemMeta();
+            if (!(meta instanceof Damageable dmg) || !meta.hasEnchant(Enchantment.MENDING))
+                continue;
 
-        remaining = mendEquippedSlot(inv, inv.getItemInOffHand(), remaining, slot -> inv.setItemInOffHand(slot));
-        if (remaining <= 0)
-            return 0;
+            int damage = Math.max(0, dmg.getDamage());
+            if (!shouldExpPumpMendDamage(damage))
+                continue;
 
-        ItemStack[] armor = inv.getArmorContents();
-        for (int i = 0; i < armor.length && remaining > 0; i++) {
-            final int idx = i;
-            remaining = mendEquippedSlot(inv, armor[i], remaining, repaired -> {
-                ItemStack[] updated = inv.getArmorContents();
-                if (idx >= 0 && idx < updated.length) {
-                    updated[idx] = repaired;
-                    inv.setArmorContents(updated);
-                }
-            });
+            int repairedDurability = Math.min(damage, remaining * 2);
+            dmg.setDamage(damage - repairedDurability);
+            item.setItemMeta(meta);
+            inv.setItem(slot, item);
+            remaining -= (repairedDurability + 1) / 2;
         }
 
         return Math.max(0, remaining);
     }
 
-    private int mendEquippedSlot(PlayerInventory inv, ItemStack item, int xpPoints,
-            java.util.function.Consumer<ItemStack> applySlot) {
-        if (xpPoints <= 0 || ItemStacks.isAir(item) || applySlot == null)
-            return xpPoints;
-
-        ItemMeta meta = item.getItemMeta();
-        if (!(meta instanceof Damageable dmg))
-            return xpPoints;
-        if (!meta.hasEnchant(Enchantment.MENDING))
-            return xpPoints;
-
-        int damage = Math.max(0, dmg.getDamage());
-        if (!shouldExpPumpMendDamage(damage))
-            return xpPoints;
-
-        int maxRepair = xpPoints * 2;
-        int repairedDurability = Math.min(damage, maxRepair);
-        if (repairedDurability <= 0)
-            return xpPoints;
-
-        int xpUsed = (repairedDurability + 1) / 2;
-        dmg.setDamage(damage - repairedDurability);
-
-        ItemStack clone = item.clone();
-        clone.setItemMeta((ItemMeta) dmg);
-        applySlot.accept(clone);
-
-        return Math.max(0, xpPoints - xpUsed);
-    }
-
     private String resolvePumpMode(BackpackData data, UUID moduleId, String upgradeId) {
         return resolvePumpMode(data, moduleId, upgradeId, false);
     }
@@ -590,48 +823,39 @@ public final class ModuleEngineService {
             return false;
 
         int targetLevel = resolveExpPumpTargetLevel(data, expPumpModuleId);
-        int keepLevelStepBudget = resolveExpPumpKeepLevelStepBudgetPerCycle();
+        int keepLevelStepBudget = plugin.cfg().snapshot().expPump().keepLevelStepsPerCycle();
         if (keepLevelStepBudget <= 0)
             return false;
 
-        // Move the player's displayed level toward target in discrete level steps.
-        if (player.getLevel() > targetLevel) {
+        // Move the player's displayed level toward target in whole levels, keeping
+        // the progress into the level; one update however many levels are moved.
+        int level = player.getLevel();
+        float progress = player.getExp();
+        if (level > targetLevel) {
             int room = TankModuleLogic.MAX_EXP_POINTS - state.expTotalPoints;
             if (room <= 0)
                 return false;
 
-            int movedTotal = 0;
-            for (int i = 0; i < keepLevelStepBudget && player.getLevel() > targetLevel; i++) {
-                int pointsForOneLevel = pointsForOneDisplayedLevelLoss(player);
-                if (pointsForOneLevel <= 0 || pointsForOneLevel > room)
-                    break;
-
-                player.giveExp(-pointsForOneLevel);
-                state.expTotalPoints += pointsForOneLevel;
-                room -= pointsForOneLevel;
-                movedTotal += pointsForOneLevel;
-            }
+            int newLevel = Math.max(targetLevel, Math.max(level - keepLevelStepBudget,
+                    TankExperience.lowestLevelAffordable(level, progress, room)));
+            int moved = -TankExperience.pointsBetweenLevels(level, newLevel, progress);
+            if (moved <= 0)
+                return false;
 
-            return movedTotal > 0;
+            setPlayerLevel(player, newLevel, -moved);
+            state.expTotalPoints += moved;
+            return true;
         }
 
-        if (player.getLevel() < targetLevel) {
-            int grantedTotal = 0;
-            int available = state.expTotalPoints;
-            for (int i = 0; i < keepLevelStepBudget && player.getLevel() < targetLevel; i++) {
-                int pointsForOneLevel = pointsForOneDisplayedLevelGain(player);
-                if (pointsForOneLevel <= 0 || pointsForOneLevel > available)
-                    break;
-
-                player.giveExp(pointsForOneLevel);
-                available -= pointsForOneLevel;
-                grantedTotal += pointsForOneLevel;
-            }
-
-            if (grantedTotal <= 0)
+        if (level < targetLevel) {
+            int newLevel = Math.min(targetLevel, Math.min(level + keepLevelStepBudget,
+                    TankExperience.highestLevelAffordable(level, progress, state.expTotalPoints)));
+            int granted = TankExperience.pointsBetweenLevels(level, newLevel, progress);
+            if (granted <= 0)
                 return false;
 
-            state.expTotalPoints -= grantedTotal;
+            setPlayerLevel(player, newLevel, granted);
+            state.expTotalPoints -= granted;
             return true;
         }
 
@@ -640,13 +864,11 @@ public final class ModuleEngineService {
         if (!isExpPumpMendingEnabled(data, expPumpModuleId))
             return false;
 
-        int repairDemand = estimateMendingXpDemand(player);
-        if (repairDemand <= 0 || state.expTotalPoints <= 0)
+        if (state.expTotalPoints <= 0)
             return false;
 
-        int toMend = Math.min(repairDemand, Math.min(resolveExpPumpMendingBudgetPerCycle(), state.expTotalPoints));
-        if (toMend <= 0)
-            return false;
+        // Unneeded points come back as leftover, so no separate demand estimate.
+        int toMend = Math.min(plugin.cfg().snapshot().expPump().mendingXpPerCycle(), state.expTotalPoints);
 
         int leftover = applyMendingToEquippedItems(player, toMend);
         int used = Math.max(0, toMend - leftover);
@@ -659,7 +881,7 @@ public final class ModuleEngineService {
     }
 
     private int resolveExpPumpTargetLevel(BackpackData data, UUID expPumpModuleId) {
-        int fallback = plugin.cfg().getInt("Upgrades.ExpPump.TargetLevel", 30);
+        int fallback = plugin.cfg().snapshot().expPump().targetLevel();
         ItemStack moduleItem = resolveModuleSnapshotItem(data, expPumpModuleId);
         if (moduleItem == null || !moduleItem.hasItemMeta())
             return clampExpPumpTargetLevel(fallback);
@@ -677,50 +899,6 @@ public final class ModuleEngineService {
         return Math.max(0, Math.min(MAX_EXP_PUMP_TARGET_LEVEL, level));
     }
 
-    private int estimateMendingXpDemand(Player player) {
-        if (player == null)
-            return 0;
-
-        int total = 0;
-        PlayerInventory inv = player.getInventory();
-        total += estimateMendingXpDemand(inv.getItemInMainHand());
-        total += estimateMendingXpDemand(inv.getItemInOffHand());
-        for (ItemStack armor : inv.getArmorContents()) {
-            total += estimateMendingXpDemand(armor);
-        }
-        return Math.max(0, total);
-    }
-
-    private int resolveExpPumpMendingBudgetPerCycle() {
-        int fallback = 2;
-        int configured = plugin.cfg().getInt("Upgrades.ExpPump.MendingXpPerTick", fallback);
-        return Math.max(1, Math.min(100, configured));
-    }
-
-    private int resolveExpPumpKeepLevelStepBudgetPerCycle() {
-        int fallback = 1;
-        int configured = plugin.cfg().getInt("Upgrades.ExpPump.KeepLevelLevelsPerTick",
-                plugin.cfg().getInt("Upgrades.ExpPump.KeepLevelXpPerTick", fallback));
-        return Math.max(1, Math.min(10, configured));
-    }
-
-    private int estimateMendingXpDemand(ItemStack item) {
-        if (ItemStacks.isAir(item))
-            return 0;
-
-        ItemMeta meta = item.getItemMeta();
-        if (!(meta instanceof Damageable dmg))
-            return 0;
-        if (!meta.hasEnchant(Enchantment.MENDING))
-            return 0;
-
-        int damage = Math.max(0, dmg.getDamage());
-        if (!shouldExpPumpMendDamage(damage))
-            return 0;
-
-        return (damage + 1) / 2;
-    }
-
     private boolean shouldExpPumpMendDamage(int damage) {
         return damage > 2;
     }
@@ -739,6 +917,17 @@ public final class ModuleEngineService {
         return findInstalledModuleId(data, "Tank");
     }
 
+    private static boolean holdsAnyBucket(Player player) {
+        for (ItemStack stack : player.getInventory().getStorageContents()) {
+            if (ItemStacks.isAir(stack))
+                continue;
+            Material mat = stack.getType();
+            if (mat == Material.BUCKET || TankModuleLogic.isSupportedFluidBucket(mat))
+                return true;
+        }
+        return false;
+    }
+
     private boolean depositFluidFromInventory(Player player, TankStateCodec.State state) {
         if (player == null || state == null)
             return false;
@@ -845,18 +1034,26 @@ public final class ModuleEngineService {
         if (player == null)
             return 0;
 
-        int oldTotal = TankExperience.totalFromLevelAndProgress(player.getLevel(), player.getExp());
-        int newTotal = TankExperience.totalFromLevelAndProgress(player.getLevel() + 1, player.getExp());
-        return Math.max(0, newTotal - oldTotal);
+        return Math.max(0, TankExperience.pointsBetweenLevels(player.getLevel(), player.getLevel() + 1,
+                player.getExp()));
     }
 
     private int pointsForOneDisplayedLevelLoss(Player player) {
         if (player == null || player.getLevel() <= 0)
             return 0;
 
-        int oldTotal = TankExperience.totalFromLevelAndProgress(player.getLevel(), player.getExp());
-        int newTotal = TankExperience.totalFromLevelAndProgress(player.getLevel() - 1, player.getExp());
-        return Math.max(0, oldTotal - newTotal);
+        return Math.max(0, -TankExperience.pointsBetweenLevels(player.getLevel(), player.getLevel() - 1,
+                player.getExp()));
+    }
+
+    /**
+     * Jumps to a displayed level in one update instead of a giveExp per level;
+     * the progress bar stays where it is, so the points moved are exactly
+     * {@link TankExperience#pointsBetweenLevels}.
+     */
+    private static void setPlayerLevel(Player player, int level, int deltaPoints) {
+        player.setLevel(level);
+        player.setTotalExperience(Math.max(0, player.getTotalExperience() + deltaPoints));
     }
 
     private ItemStack[] ensureCraftingInventorySize(ItemStack[] items) {
@@ -872,259 +1069,6 @@ public final class ModuleEngineService {
         return normalized;
     }
 
-    private int craftAutocraftingBatch(Player player, ItemStack[] moduleInv, ItemStack[] logical, int desiredAmount) {
-        if (moduleInv == null || moduleInv.length < 10 || logical == null || desiredAmount <= 0) {
-            return 0;
-        }
-
-        ItemStack[] template = buildAutocraftingTemplate(moduleInv);
-        if (template == null) {
-            return 0;
-        }
-
-        if (!canSatisfyTemplateOnce(template, logical)) {
-            return 0;
-        }
-
-        Inventory virtual = Bukkit.createInventory(null, 18);
-
-        int completedOperations = 0;
-        for (int operations = 0; operations < 64 && completedOperations < desiredAmount; operations++) {
-            virtual.clear();
-
-            if (!hydrateAutocraftingMatrixFromLogical(template, logical, virtual)) {
-                break;
-            }
-
-            ItemStack crafted = CraftingModuleLogic.craftOnce(plugin.recipes(), player, virtual,
-                    candidate -> canInsertIntoLogical(logical, candidate));
-            boolean leftoversStored = storeMatrixRemaindersInLogical(virtual, logical);
-            if (ItemStacks.isAir(crafted)) {
-                break;
-            }
-            if (!leftoversStored) {
-                break;
-            }
-
-            ItemStack remainder = insertIntoLogical(logical, crafted);
-            if (ItemStacks.isNotAir(remainder)) {
-                break;
-            }
-
-            completedOperations++;
-        }
-
-        return completedOperations;
-    }
-
-    private boolean canSatisfyTemplateOnce(ItemStack[] template, ItemStack[] logical) {
-        if (template == null || logical == null) {
-            return false;
-        }
-
-        ItemStack[] remaining = new ItemStack[logical.length];
-        for (int i = 0; i < logical.length; i++) {
-            ItemStack slot = logical[i];
-            if (ItemStacks.isNotAir(slot)) {
-                remaining[i] = slot.clone();
-            }
-        }
-
-        for (ItemStack marker : template) {
-            if (ItemStacks.isAir(marker)) {
-                continue;
-            }
-
-            boolean matched = false;
-            for (int i = 0; i < remaining.length; i++) {
-                ItemStack slot = remaining[i];
-                if (ItemStacks.isAir(slot) || !slot.isSimilar(marker)) {
-                    continue;
-                }
-
-                int nextAmount = slot.getAmount() - 1;
-                if (nextAmount > 0) {
-                    slot.setAmount(nextAmount);
-                } else {
-                    remaining[i] = null;
-                }
-                matched = true;
-                break;
-            }
-
-            if (!matched) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    private ItemStack[] buildAutocraftingTemplate(ItemStack[] moduleInv) {
-        if (moduleInv == null || moduleInv.length < 10) {
-            return null;
-        }
-
-        ItemStack[] template = new ItemStack[9];
-        boolean hasAny = false;
-        for (int i = 0; i < 9; i++) {
-            ItemStack src = moduleInv[i + 1];
-            if (ItemStacks.isAir(src)) {
-                continue;
-            }
-
-            ItemStack marker = src.clone();
-            marker.setAmount(1);
-            template[i] = marker;
-            hasAny = true;
-        }
-
-        return hasAny ? template : null;
-    }
-
-    private boolean hydrateAutocraftingMatrixFromLogical(ItemStack[] template, ItemStack[] logical, Inventory working) {
-        if (template == null || logical == null || working == null) {
-            return false;
-        }
-
-        for (int i = 0; i < template.length; i++) {
-            ItemStack marker = template[i];
-            if (ItemStacks.isAir(marker)) {
-                working.setItem(i + 1, null);
-                continue;
-            }
-
-            ItemStack one = takeOneMatchingFromLogical(logical, marker);
-            if (ItemStacks.isAir(one)) {
-                storeMatrixRemaindersInLogical(working, logical);
-                return false;
-            }
-            working.setItem(i + 1, one);
-        }
-
-        working.setItem(0, null);
-        return true;
-    }
-
-    private ItemStack takeOneMatchingFromLogical(ItemStack[] logical, ItemStack marker) {
-        if (logical == null || ItemStacks.isAir(marker)) {
-            return null;
-        }
-
-        for (int i = 0; i < logical.length; i++) {
-            ItemStack slot = logical[i];
-            if (ItemStacks.isAir(slot) || !slot.isSimilar(marker)) {
-                continue;
-            }
-
-            ItemStack out = slot.clone();
-            out.setAmount(1);
-
-            int next = slot.getAmount() - 1;
-            if (next > 0) {
-                slot.setAmount(next);
-            } else {
-                logical[i] = null;
-            }
-
-            return out;
-        }
-
-        return null;
-    }
-
-    private boolean storeMatrixRemaindersInLogical(Inventory working, ItemStack[] logical) {
-        if (working == null || logical == null) {
-            return false;
-        }
-
-        for (int i = 1; i <= 9; i++) {
-            ItemStack slot = working.getItem(i);
-            if (ItemStacks.isAir(slot)) {
-                continue;
-            }
-
-            ItemStack remainder = insertIntoLogical(logical, slot.clone());
-            if (ItemStacks.isNotAir(remainder)) {
-                return false;
-            }
-            working.setItem(i, null);
-        }
-
-        working.setItem(0, null);
-        return true;
-    }
-
-    private boolean canInsertIntoLogical(ItemStack[] logical, ItemStack stack) {
-        if (ItemStacks.isAir(stack) || logical == null) {
-            return true;
-        }
-
-        int needed = stack.getAmount();
-        if (needed <= 0) {
-            return true;
-        }
-
-        for (ItemStack slot : logical) {
-            if (ItemStacks.isAir(slot)) {
-                return true;
-            }
-            if (!slot.isSimilar(stack)) {
-                continue;
-            }
-
-            int space = slot.getMaxStackSize() - slot.getAmount();
-            if (space <= 0) {
-                continue;
-            }
-
-            needed -= space;
-            if (needed <= 0) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    private ItemStack insertIntoLogical(ItemStack[] logical, ItemStack stack) {
-        if (ItemStacks.isAir(stack) || logical == null) {
-            return null;
-        }
-
-        ItemStack moving = stack.clone();
-
-        for (int i = 0; i < logical.length; i++) {
-            ItemStack slot = logical[i];
-            if (ItemStacks.isAir(slot) || !slot.isSimilar(moving)) {
-                continue;
-            }
-
-            int maxStack = slot.getMaxStackSize();
-            int space = maxStack - slot.getAmount();
-            if (space <= 0) {
-                continue;
-            }
-
-            int toMove = Math.min(space, moving.getAmount());
-            slot.setAmount(slot.getAmount() + toMove);
-            moving.setAmount(moving.getAmount() - toMove);
-            if (moving.getAmount() <= 0) {
-                return null;
-            }
-        }
-
-        for (int i = 0; i < logical.length; i++) {
-            if (ItemStacks.isNotAir(logical[i])) {
-                continue;
-            }
-            logical[i] = moving.clone();
-            return null;
-        }
-
-        return moving;
-    }
-
     private void refreshBackpackItemsFor(Player player, UUID backpackId, BackpackTypeDef typeDef,
             BackpackData data) {
         if (player == null || backpackId == null || typeDef == null || data == null)
@@ -1164,13 +1108,37 @@ public final class ModuleEngineService {
         return logical;
     }
 
+    /**
+     * Cheap presence check from the module mask, then the persisted module types;
+     * snapshots are not decoded. Modules saved before types were recorded count
+     * as possible.
+     */
+    private boolean mayHaveModule(BackpackData data, String targetModuleType) {
+        if (plugin.repo().capabilities().excludes(data.moduleMask(), targetModuleType))
+            return false;
+        Map<UUID, String> types = data.moduleTypes();
+        for (UUID moduleId : data.installedModules().values()) {
+            if (moduleId == null)
+                continue;
+            String type = types.get(moduleId);
+            if (type == null || type.equalsIgnoreCase(targetModuleType))
+                return true;
+        }
+        return false;
+    }
+
     private UUID findInstalledModuleId(BackpackData data, String targetModuleType) {
         if (data == null || targetModuleType == null)
             return null;
+        if (plugin.repo().capabilities().excludes(data.moduleMask(), targetModuleType))
+            return null;
 
         for (UUID moduleId : data.installedModules().values()) {
             if (moduleId == null)
                 continue;
+            String knownType = data.moduleTypes().get(moduleId);
+            if (knownType != null && !knownType.equalsIgnoreCase(targetModuleType))
+                continue;
             ItemStack moduleItem = resolveModuleSnapshotItem(data, moduleId);
             if (moduleItem == null || !moduleItem.hasItemMeta())
                 continue;
@@ -1332,4 +1300,335 @@ public final class ModuleEngineService {
             return null;
         return meta.getPersistentDataContainer().get(keys.BACKPACK_TYPE, PersistentDataType.STRING);
     }
+
+    /**
+     * Per-backpack {@link ModuleTickContext}, reused for each module in turn.
+     * - logical: decoded contents, shared between modules once decoded
+     * - moduleId/snapshot: resolved per module on first use
+     */
+    private final class TickFrame implements ModuleTickContext {
+        private final Player player;
+        private final UUID backpackId;
+        private final String backpackType;
+        private final BackpackData data;
+        private final int contentsSize;
+        private final Set<UUID> openModuleIds;
+
+        private BitSet wakeSlots;
+        private Location location;
+        private boolean locationResolved;
+        private BackpackContentsIndex logical;
+        private boolean contentsChanged;
+
+        private TickingModule module;
+        private UUID moduleId;
+        private boolean moduleIdResolved;
+        private ItemStack snapshot;
+        private boolean snapshotResolved;
+        private Object prepared;
+        private Object probeResult;
+
+        private TickFrame(Player player, UUID backpackId, String backpackType, BackpackData data, int contentsSize,
+                Set<UUID> openModuleIds) {
+            this.player = player;
+            this.backpackId = backpackId;
+            this.backpackType = backpackType;
+            this.data = data;
+            this.contentsSize = contentsSize;
+            this.openModuleIds = openModuleIds;
+        }
+
+        private void begin(TickingModule module) {
+            this.module = module;
+        }
+
+        private void end() {
+            module = null;
+            moduleId = null;
+            moduleIdResolved = false;
+            snapshot = null;
+            snapshotResolved = false;
+            prepared = null;
+            probeResult = null;
+        }
+
+        @Override
+        public Player player() {
+            return player;
+        }
+
+        @Override
+        public Location location() {
+            if (player != null)
+                return player.getLocation();
+            if (!locationResolved) {
+                location = placedLocation(backpackId);
+                locationResolved = true;
+            }
+            return location;
+        }
+
+        @Override
+        public UUID backpackId() {
+            return backpackId;
+        }
+
+        @Override
+        public String backpackType() {
+            return backpackType;
+        }
+
+        @Override
+        public BackpackData data() {
+            return data;
+        }
+
+        @Override
+        public UUID moduleId() {
+            if (!moduleIdResolved) {
+                moduleId = findInstalledModuleId(data, module.getModuleId());
+                moduleIdResolved = true;
+            }
+            return moduleId;
+        }
+
+        @Override
+        public ItemStack moduleSnapshot() {
+            if (!snapshotResolved) {
+                UUID id = moduleId();
+                snapshot = id == null ? null : resolveModuleSnapshotItem(data, id);
+                snapshotResolved = true;
+            }
+            return snapshot;
+        }
+
+        @Override
+        public byte[] moduleState() {
+            UUID id = moduleId();
+            return id == null ? null : data.moduleStates().get(id);
+        }
+
+        @Override
+        public boolean isModuleScreenOpen() {
+            UUID id = moduleId();
+            return id != null && openModuleIds != null && openModuleIds.contains(id);
+        }
+
+        @Override
+        public BackpackContents contents() {
+            if (logical == null)
+                logical = BackpackContentsIndex.of(ensureLogicalContentsSize(data, contentsSize));
+            return module != null && !module.mutatesContents() ? logical.readOnly() : logical;
+        }
+
+        @Override
+        public BitSet wakeSlots() {
+            return wakeSlots;
+        }
+
+        @Override
+        public Object prepared() {
+            return prepared;
+        }
+
+        @Override
+        public Object probeResult() {
+            return probeResult;
+        }
+
+        @Override
+        public void probeResult(Object value) {
+            probeResult = value;
+        }
+    }
+
+    private final class FeedingTicker implements TickingModule {
+        @Override
+        public String getModuleId() {
+            return "Feeding";
+        }
+
+        @Override
+        public boolean shouldTick(ModuleTickContext ctx) {
+            return ctx.player() != null && feedingEngine.wantsToFeed(ctx.player());
+        }
+
+        @Override
+        public boolean tick(ModuleTickContext ctx) {
+            List<Material> orderedWhitelist = readWhitelistOrderedFromState(ctx.data(), ctx.moduleId());
+            return feedingEngine.applyFeeding(ctx.player(), ctx.contents(), ctx.moduleSnapshot(), orderedWhitelist);
+        }
+    }
+
+    private final class MagnetTicker implements TickingModule {
+        @Override
+        public String getModuleId() {
+            return "Magnet";
+        }
+
+        @Override
+        public boolean shouldTick(ModuleTickContext ctx) {
+            // Magnet module works differently for placed vs carried backpacks
+            List<Item> candidates = ctx.player() != null
+                    ? magnetVoidEngine.pickupCandidates(ctx.player())
+                    : magnetVoidEngine.pickupCandidates(ctx.location());
+            if (candidates.isEmpty())
+                return false;
+            ctx.probeResult(candidates);
+            return true;
+        }
+
+        @Override
+        public boolean tick(ModuleTickContext ctx) {
+            @SuppressWarnings("unchecked")
+            List<Item> candidates = (List<Item>) ctx.probeResult();
+            BackpackData data = ctx.data();
+            UUID magnetId = ctx.moduleId();
+            UUID voidId = findInstalledModuleId(data, "Void");
+            Set<Material> voidWhitelist = (voidId == null) ? Set.of() : readWhitelistFromState(data, voidId);
+            ItemStack voidSnapshot = (voidId == null) ? null : resolveModuleSnapshotItem(data, voidId);
+            Set<Material> magnetWhitelist = readWhitelistFromState(data, magnetId);
+
+            if (ctx.player() != null) {
+                // Carried backpack: use player location
+                return magnetVoidEngine.applyMagnet(ctx.player(), candidates, ctx.contents(), magnetWhitelist,
+                        ctx.moduleSnapshot(), ctx.backpackId(), ctx.backpackType(), voidId, voidWhitelist,
+                        voidSnapshot);
+            }
+            // Placed backpack: use block location
+            return magnetVoidEngine.applyMagnetAtLocation(ctx.location(), candidates, ctx.contents(),
+                    magnetWhitelist, ctx.moduleSnapshot(), ctx.backpackId(), data.backpackType(), voidId,
+                    voidWhitelist, voidSnapshot);
+        }
+    }
+
+    /**
+     * Built-in modules woken by player events (ModuleTriggerListener). Their tick
+     * interval is only a safety sweep for changes no event reports.
+     */
+    private interface EventDriven {
+        /**
+         * @return how long a wake, or progress while awake, keeps the module
+         *         ticking every cycle
+         */
+        int wakeTicks();
+    }
+
+    private final class RestockTicker implements TickingModule, EventDriven {
+        @Override
+        public String getModuleId() {
+            return "Restock";
+        }
+
+        @Override
+        public int getTickInterval() {
+            return SAFETY_SWEEP_TICKS;
+        }
+
+        @Override
+        public int wakeTicks() {
+            return ENGINE_DT_TICKS;
+        }
+
+        @Override
+        public boolean shouldTick(ModuleTickContext ctx) {
+            // Restock module only works when player is present (carried backpacks)
+            if (ctx.player() == null || ctx.moduleId() == null)
+                return false;
+            int threshold = readRestockThresholdFromState(ctx.data(), ctx.moduleId());
+            if (!restockEngine.hasRestockCandidate(ctx.player(), threshold, ctx.wakeSlots()))
+                return false;
+            ctx.probeResult(threshold);
+            return true;
+        }
+
+        @Override
+        public boolean tick(ModuleTickContext ctx) {
+            List<ItemStack> whitelist = readRestockWhitelistFromState(ctx.data(), ctx.moduleId());
+            return restockEngine.applyRestock(ctx.player(), ctx.contents(), (Integer) ctx.probeResult(), whitelist,
+                    ctx.wakeSlots());
+        }
+    }
+
+    private final class AutocraftingTicker implements TickingModule {
+        @Override
+        public String getModuleId() {
+            return "Autocrafting";
+        }
+
+        @Override
+        public boolean shouldTick(ModuleTickContext ctx) {
+            UUID id = ctx.moduleId();
+            if (id == null || ctx.isModuleScreenOpen() || !isAutocraftingDue(id))
+                return false;
+            AutocraftingProbe probe = probeAutocrafting(ctx.data(), id);
+            if (probe == null)
+                return false;
+            ctx.probeResult(probe);
+            return true;
+        }
+
+        @Override
+        public boolean tick(ModuleTickContext ctx) {
+            return applyAutocrafting(ctx.player(), ctx.data(), ctx.moduleId(), (AutocraftingProbe) ctx.probeResult(),
+                    ctx);
+        }
+    }
+
+    // Pumps move items between the player and tank states, never the contents, but
+    // they rewrite tank snapshots the open GUI shows.
+    private final class PumpTicker implements TickingModule, EventDriven {
+        @Override
+        public String getModuleId() {
+            return "Pump";
+        }
+
+        @Override
+        public int getTickInterval() {
+            return SAFETY_SWEEP_TICKS;
+        }
+
+        @Override
+        public int wakeTicks() {
+            // Long enough to outlast the pump's own interval after each bucket.
+            return pumpIntervalTicks() + ENGINE_DT_TICKS;
+        }
+
+        @Override
+        public boolean shouldTick(ModuleTickContext ctx) {
+            return ctx.player() != null;
+        }
+
+        @Override
+        public boolean tick(ModuleTickContext ctx) {
+            return applyFluidPump(ctx.player(), ctx.data(), ctx.moduleId());
+        }
+    }
+
+    private final class ExpPumpTicker implements TickingModule, EventDriven {
+        @Override
+        public String getModuleId() {
+            return "ExpPump";
+        }
+
+        @Override
+        public int getTickInterval() {
+            return SAFETY_SWEEP_TICKS;
+        }
+
+        @Override
+        public int wakeTicks() {
+            return expPumpIntervalTicks() + ENGINE_DT_TICKS;
+        }
+
+        @Override
+        public boolean shouldTick(ModuleTickContext ctx) {
+            return ctx.player() != null;
+        }
+
+        @Override
+        public boolean tick(ModuleTickContext ctx) {
+            return applyExpPump(ctx.player(), ctx.data(), ctx.moduleId());
+        }
+    }
 }
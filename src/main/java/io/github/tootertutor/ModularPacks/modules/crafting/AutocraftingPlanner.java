@@ -0,0 +1,273 @@
+package io.github.tootertutor.ModularPacks.modules.crafting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import io.github.tootertutor.ModularPacks.api.modules.BackpackContents;
+import io.github.tootertutor.ModularPacks.recipes.RecipeManager;
+import io.github.tootertutor.ModularPacks.util.ItemStacks;
+
+/**
+ * Compiled autocrafting template.
+ * - ingredients: distinct template markers (amount 1) with per-craft counts
+ * - remainders: container items left behind per craft (e.g. buckets)
+ *
+ * A batch is planned arithmetically: the craftable count comes from aggregated
+ * ingredient totals, output room is checked without simulating, then
+ * consumption and output insertion are applied once for the whole batch. The
+ * room check never overestimates; should an insert still leave items over, the
+ * batch is undone.
+ */
+public final class AutocraftingPlanner {
+
+    private static final int MATRIX_SIZE = 9;
+    private static final int MAX_BATCH = 64;
+
+    private final ItemStack[] matrix;
+    private final List<ItemStack> ingredients;
+    private final int[] perCraft;
+    private final List<ItemStack> remainders;
+    private final int[] remaindersPerCraft;
+
+    private AutocraftingPlanner(ItemStack[] matrix, List<ItemStack> ingredients, int[] perCraft,
+            List<ItemStack> remainders, int[] remaindersPerCraft) {
+        this.matrix = matrix;
+        this.ingredients = ingredients;
+        this.perCraft = perCraft;
+        this.remainders = remainders;
+        this.remaindersPerCraft = remaindersPerCraft;
+    }
+
+    /**
+     * Compiles the module inventory (result slot 0, matrix 1..9) into an
+     * ingredient-count vector.
+     *
+     * @return the plan, or null when the template matrix is empty
+     */
+    public static AutocraftingPlanner compile(ItemStack[] moduleInv) {
+        if (moduleInv == null || moduleInv.length < MATRIX_SIZE + 1)
+            return null;
+
+        ItemStack[] matrix = new ItemStack[MATRIX_SIZE];
+        List<ItemStack> ingredients = new ArrayList<>(MATRIX_SIZE);
+        int[] perCraft = new int[MATRIX_SIZE];
+        List<ItemStack> remainders = new ArrayList<>(MATRIX_SIZE);
+        int[] remaindersPerCraft = new int[MATRIX_SIZE];
+
+        for (int i = 0; i < MATRIX_SIZE; i++) {
+            ItemStack src = moduleInv[i + 1];
+            if (ItemStacks.isAir(src))
+                continue;
+
+            ItemStack marker = src.clone();
+            marker.setAmount(1);
+            matrix[i] = marker;
+            perCraft[indexOfSimilar(ingredients, marker)]++;
+
+            Material rem = marker.getType().getCraftingRemainingItem();
+            if (rem != null && !rem.isAir()) {
+                remaindersPerCraft[indexOfSimilar(remainders, new ItemStack(rem, 1))]++;
+            }
+        }
+
+        if (ingredients.isEmpty())
+            return null;
+
+        return new AutocraftingPlanner(matrix, ingredients, perCraft, remainders, remaindersPerCraft);
+    }
+
+    /**
+     * Crafts up to {@code desiredAmount} operations (capped at 64) from the
+     * backpack contents in one pass.
+     *
+     * @return number of craft operations applied
+     */
+    public int craftBatch(RecipeManager recipes, Player player, BackpackContents logical, int desiredAmount) {
+        if (logical == null || desiredAmount <= 0)
+            return 0;
+
+        int batch = Math.min(MAX_BATCH, desiredAmount);
+        for (int j = 0; j < ingredients.size() && batch > 0; j++) {
+            int available = logical.countSimilar(ingredients.get(j), perCraft[j] * batch);
+            batch = Math.min(batch, available / perCraft[j]);
+        }
+        if (batch <= 0)
+            return 0;
+
+        CraftingModuleLogic.ResolvedCraft craft = CraftingModuleLogic.resolve(recipes, player, matrix);
+        if (craft == null)
+            return 0;
+
+        ItemStack result = craft.result();
+        List<Output> outputs = outputs(logical, result, craft.dynamic());
+        batch = largestBatch(batch, b -> freeSlotsAfter(logical, b), outputs);
+        if (batch <= 0)
+            return 0;
+
+        for (int j = 0; j < ingredients.size(); j++) {
+            logical.take(ingredients.get(j), perCraft[j] * batch);
+        }
+
+        List<Placed> placed = new ArrayList<>();
+        boolean complete;
+        if (craft.dynamic()) {
+            // UUID-bearing results must be created per operation.
+            complete = true;
+            for (int k = 0; k < batch && complete; k++) {
+                complete = insert(logical, craft.nextResult(), placed);
+            }
+        } else {
+            complete = insertCopies(logical, result, result.getAmount() * batch, placed);
+        }
+        for (int j = 0; j < remainders.size() && complete; j++) {
+            complete = insertCopies(logical, remainders.get(j), remaindersPerCraft[j] * batch, placed);
+        }
+
+        if (!complete) {
+            // fits() only ever underestimates the room, so this is not expected; undo
+            // the batch rather than lose the outputs that did not fit.
+            for (Placed p : placed) {
+                logical.take(p.marker(), p.amount());
+            }
+            for (int j = 0; j < ingredients.size(); j++) {
+                logical.insertCopies(ingredients.get(j), perCraft[j] * batch);
+            }
+            return 0;
+        }
+        return batch;
+    }
+
+    private int freeSlotsAfter(BackpackContents logical, int batch) {
+        // Slots emptied by consumption become available for outputs.
+        int freeSlots = logical.emptyCount();
+        for (int j = 0; j < ingredients.size(); j++) {
+            freeSlots += logical.drainedSlots(ingredients.get(j), perCraft[j] * batch);
+        }
+        return freeSlots;
+    }
+
+    /**
+     * Groups the outputs of one craft by similarity, so the merge room of existing
+     * stacks is reserved once for all outputs that share it.
+     */
+    private List<Output> outputs(BackpackContents logical, ItemStack result, boolean dynamic) {
+        List<Output> outputs = new ArrayList<>(remainders.size() + 1);
+        List<ItemStack> prototypes = new ArrayList<>(remainders.size() + 1);
+        if (dynamic) {
+            // Every result is distinct, so none merge with existing stacks or each other.
+            outputs.add(new Output(result.getAmount(), 0, result.getMaxStackSize(), true));
+            prototypes.add(null);
+        } else {
+            addOutput(outputs, prototypes, logical, result, result.getAmount());
+        }
+        for (int j = 0; j < remainders.size(); j++) {
+            addOutput(outputs, prototypes, logical, remainders.get(j), remaindersPerCraft[j]);
+        }
+        return outputs;
+    }
+
+    private void addOutput(List<Output> outputs, List<ItemStack> prototypes, BackpackContents logical,
+            ItemStack stack, int perCraft) {
+        for (int i = 0; i < prototypes.size(); i++) {
+            ItemStack prototype = prototypes.get(i);
+            if (prototype != null && prototype.isSimilar(stack)) {
+                Output o = outputs.get(i);
+                outputs.set(i, new Output(o.perCraft() + perCraft, o.mergeRoom(), o.maxStack(), false));
+                return;
+            }
+        }
+        // A stack an ingredient drains is already counted as a free slot; its room
+        // must not be counted again.
+        int mergeRoom = indexOfSimilarOrNone(ingredients, stack) >= 0 ? 0 : logical.mergeSpace(stack);
+        outputs.add(new Output(perCraft, mergeRoom, stack.getMaxStackSize(), false));
+        prototypes.add(stack);
+    }
+
+    /**
+     * Binary search for the largest batch, up to {@code upper}, whose outputs fit
+     * into the slots free after consuming that batch.
+     */
+    static int largestBatch(int upper, IntUnaryOperator freeSlotsAfter, List<Output> outputs) {
+        int lo = 0;
+        int hi = upper;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (fits(freeSlotsAfter.applyAsInt(mid), outputs, mid)) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private static boolean fits(int freeSlots, List<Output> outputs, int batch) {
+        long needed = 0;
+        for (Output output : outputs) {
+            needed += output.slotsFor(batch);
+            if (needed > freeSlots)
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean insert(BackpackContents logical, ItemStack stack, List<Placed> placed) {
+        ItemStack marker = stack.clone();
+        ItemStack rest = logical.insert(stack);
+        int inserted = marker.getAmount() - (rest == null ? 0 : rest.getAmount());
+        if (inserted > 0)
+            placed.add(new Placed(marker, inserted));
+        return rest == null;
+    }
+
+    private static boolean insertCopies(BackpackContents logical, ItemStack prototype, int total,
+            List<Placed> placed) {
+        if (total <= 0)
+            return true;
+        int left = logical.insertCopies(prototype, total);
+        if (total > left)
+            placed.add(new Placed(prototype, total - left));
+        return left == 0;
+    }
+
+    private static int indexOfSimilarOrNone(List<ItemStack> distinct, ItemStack stack) {
+        for (int j = 0; j < distinct.size(); j++) {
+            if (distinct.get(j).isSimilar(stack))
+                return j;
+        }
+        return -1;
+    }
+
+    private static int indexOfSimilar(List<ItemStack> distinct, ItemStack stack) {
+        int j = indexOfSimilarOrNone(distinct, stack);
+        if (j >= 0)
+            return j;
+        distinct.add(stack);
+        return distinct.size() - 1;
+    }
+
+    /**
+     * One distinct output of a craft.
+     * - perCraft: items produced per craft
+     * - mergeRoom: room in existing stacks it may fill before taking empty slots
+     * - separate: every craft's output needs its own slots (dynamic results)
+     */
+    record Output(int perCraft, int mergeRoom, int maxStack, boolean separate) {
+
+        long slotsFor(int batch) {
+            int max = Math.max(1, maxStack);
+            if (separate)
+                return (long) batch * ((perCraft + max - 1) / max);
+            long rest = (long) perCraft * batch - mergeRoom;
+            return rest <= 0 ? 0 : (rest + max - 1) / max;
+        }
+    }
+
+    private record Placed(ItemStack marker, int amount) {
+    }
+}
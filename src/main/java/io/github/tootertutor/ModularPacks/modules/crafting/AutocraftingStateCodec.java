@@ -1,18 +1,28 @@
 package io.github.tootertutor.ModularPacks.modules.crafting;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
 import java.io.DataInputStream;
-import java.io.DataOutputStream;
+import java.io.DataOutput;
+import java.io.IOException;
 
 import org.bukkit.inventory.ItemStack;
 
 import io.github.tootertutor.ModularPacks.data.ItemStackCodec;
+import io.github.tootertutor.ModularPacks.data.ModuleStateCodec;
+import io.github.tootertutor.ModularPacks.data.ModuleStateCodecs;
 
 public final class AutocraftingStateCodec {
 
-    private static final int MAGIC = 0x4d504143; // "MPAC"
-    private static final int VERSION = 1;
+    /**
+     * v1 layout: desiredAmount, cooldownTicks, item count (int), then
+     * length-prefixed items.
+     */
+    public static final ModuleStateCodec<State> CODEC = new Codec();
+
+    private static final int LEGACY_MAGIC = 0x4d504143; // "MPAC"
+    private static final int LEGACY_VERSION = 1;
+    private static final int MAX_ITEMS = 256;
 
     private AutocraftingStateCodec() {
     }
@@ -24,63 +34,99 @@ public final class AutocraftingStateCodec {
         if (state == null) {
             return ItemStackCodec.toBytes(new ItemStack[0]);
         }
-
-        ItemStack[] items = state.inventoryItems() == null ? new ItemStack[0] : state.inventoryItems();
-        byte[] itemBytes = ItemStackCodec.toBytes(items);
-        int desired = clampDesiredAmount(state.desiredAmount());
-        int cooldown = Math.max(0, state.cooldownTicks());
-
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            DataOutputStream out = new DataOutputStream(baos);
-            out.writeInt(MAGIC);
-            out.writeInt(VERSION);
-            out.writeInt(desired);
-            out.writeInt(cooldown);
-            out.writeInt(itemBytes.length);
-            out.write(itemBytes);
-            out.flush();
-            return baos.toByteArray();
-        } catch (Exception ex) {
-            return ItemStackCodec.toBytes(items);
-        }
+        return ModuleStateCodecs.encode(CODEC, state);
     }
 
     public static State decode(byte[] bytes) {
-        if (bytes == null || bytes.length == 0) {
-            return new State(new ItemStack[0], 1, 0);
+        return ModuleStateCodecs.decode(CODEC, bytes);
+    }
+
+    /**
+     * @return null when the bytes cannot be read; see
+     *         {@link ModuleStateCodecs#tryDecode}
+     */
+    public static State tryDecode(byte[] bytes) {
+        return ModuleStateCodecs.tryDecode(CODEC, bytes);
+    }
+
+    public static int clampDesiredAmount(int desired) {
+        return Math.max(1, Math.min(64, desired));
+    }
+
+    private static final class Codec implements ModuleStateCodec<State> {
+
+        @Override
+        public String id() {
+            return "Autocrafting";
         }
 
-        try {
-            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
-            int magic = in.readInt();
-            if (magic != MAGIC) {
-                throw new IllegalArgumentException("Not autocrafting state bytes");
-            }
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public State empty() {
+            return new State(new ItemStack[0], 1, 0);
+        }
 
-            int version = in.readInt();
-            if (version != VERSION) {
-                throw new IllegalArgumentException("Unsupported autocrafting state version: " + version);
+        @Override
+        public void write(State state, DataOutput out) throws IOException {
+            ItemStack[] items = state.inventoryItems() == null ? new ItemStack[0] : state.inventoryItems();
+            out.writeInt(clampDesiredAmount(state.desiredAmount()));
+            out.writeInt(Math.max(0, state.cooldownTicks()));
+            out.writeInt(items.length);
+            for (ItemStack item : items) {
+                ModuleStateCodecs.writeItem(out, item);
             }
+        }
 
+        @Override
+        public State read(DataInput in, int version) throws IOException {
             int desired = clampDesiredAmount(in.readInt());
             int cooldown = Math.max(0, in.readInt());
-            int len = in.readInt();
-            if (len < 0 || len > (16 * 1024 * 1024)) {
-                throw new IllegalArgumentException("Invalid item payload size: " + len);
+            int count = in.readInt();
+            if (count < 0 || count > MAX_ITEMS) {
+                throw new IOException("Invalid item count: " + count);
             }
 
-            byte[] itemBytes = new byte[len];
-            in.readFully(itemBytes);
-            ItemStack[] items = ItemStackCodec.fromBytes(itemBytes);
+            ItemStack[] items = new ItemStack[count];
+            for (int i = 0; i < count; i++) {
+                items[i] = ModuleStateCodecs.readItem(in);
+            }
             return new State(items, desired, cooldown);
-        } catch (Exception ex) {
-            ItemStack[] legacy = ItemStackCodec.fromBytes(bytes);
-            return new State(legacy, 1, 0);
         }
-    }
 
-    public static int clampDesiredAmount(int desired) {
-        return Math.max(1, Math.min(64, desired));
+        @Override
+        public State decodeLegacy(byte[] bytes) {
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                int magic = in.readInt();
+                if (magic != LEGACY_MAGIC) {
+                    throw new IllegalArgumentException("Not autocrafting state bytes");
+                }
+
+                int version = in.readInt();
+                if (version != LEGACY_VERSION) {
+                    throw new IllegalArgumentException("Unsupported autocrafting state version: " + version);
+                }
+
+                int desired = clampDesiredAmount(in.readInt());
+                int cooldown = Math.max(0, in.readInt());
+                int len = in.readInt();
+                if (len < 0 || len > (16 * 1024 * 1024)) {
+                    throw new IllegalArgumentException("Invalid item payload size: " + len);
+                }
+
+                byte[] itemBytes = new byte[len];
+                in.readFully(itemBytes);
+                ItemStack[] items = ItemStackCodec.fromBytes(itemBytes);
+                return new State(items, desired, cooldown);
+            } catch (Exception ex) {
+                // Plain crafting grid (ItemStackCodec) from before autocrafting state existed.
+                ItemStack[] legacy = ItemStackCodec.fromBytes(bytes);
+                return new State(legacy, 1, 0);
+            }
+        }
     }
 }
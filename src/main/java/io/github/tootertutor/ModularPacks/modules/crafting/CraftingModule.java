@@ -67,7 +67,13 @@ public final class CraftingModule extends AbstractModule {
         if (state != null && state.length > 0) {
             ItemStack[] saved;
             if (mode == SessionMode.AUTOCRAFTING) {
-                var decoded = AutocraftingStateCodec.decode(state);
+                var decoded = AutocraftingStateCodec.tryDecode(state);
+                if (decoded == null) {
+                    // Closing would write an empty template over the unreadable state.
+                    plugin.getLogger().warning("Cannot read the state of module " + moduleId + "; not opening it");
+                    sessionModes.remove(playerId);
+                    return;
+                }
                 saved = normalizeAutocraftingInventory(decoded.inventoryItems(), top.getSize());
                 autocraftingDesiredAmounts.put(playerId,
                         AutocraftingStateCodec.clampDesiredAmount(decoded.desiredAmount()));
@@ -2,6 +2,7 @@ package io.github.tootertutor.ModularPacks.modules.crafting;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
@@ -29,10 +30,30 @@ public final class CraftingModuleLogic {
     private static final int RESULT_SLOT = 0;
     private static final int MATRIX_FIRST_SLOT = 1;
     private static final int MATRIX_SIZE = 9;
+    private static final int MATCH_CACHE_LIMIT = 512;
+
+    // Normalized matrix fingerprint -> resolved match (or NO_MATCH). Cleared on
+    // recipe reload.
+    private static final Map<MatrixKey, CachedMatch> MATCH_CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MatrixKey, CachedMatch> eldest) {
+            return size() > MATCH_CACHE_LIMIT;
+        }
+    };
 
     private CraftingModuleLogic() {
     }
 
+    /**
+     * Drops all memoized matrix matches. Must be called whenever the server
+     * recipe set changes.
+     */
+    public static void invalidateMatchCache() {
+        synchronized (MATCH_CACHE) {
+            MATCH_CACHE.clear();
+        }
+    }
+
     public static void updateResult(Inventory inv) {
         updateResult(null, null, inv);
     }
@@ -89,6 +110,73 @@ public final class CraftingModuleLogic {
         return out;
     }
 
+    /**
+     * Resolves the recipe for a fixed 9-slot matrix once so callers can produce
+     * many results without re-matching (used by autocrafting batches).
+     *
+     * @return the resolved craft, or null when the matrix matches no recipe
+     */
+    public static ResolvedCraft resolve(RecipeManager recipes, Player player, ItemStack[] matrix) {
+        if (matrix == null || matrix.length != MATRIX_SIZE)
+            return null;
+
+        CraftMatch match = findMatch(recipes, player, matrix);
+        if (match == null)
+            return null;
+
+        ItemStack first = craftResult(recipes, player, match, matrix);
+        if (ItemStacks.isAir(first))
+            return null;
+
+        boolean dynamic = recipes != null && recipes.isDynamicRecipe(match.recipe);
+        return new ResolvedCraft(recipes, player, match, matrix.clone(), first, dynamic);
+    }
+
+    /**
+     * A recipe match bound to its matrix. Static results are cloned; dynamic
+     * (UUID-bearing) results are re-created for every call.
+     */
+    public static final class ResolvedCraft {
+        private final RecipeManager recipes;
+        private final Player player;
+        private final CraftMatch match;
+        private final ItemStack[] matrix;
+        private final ItemStack result;
+        private final boolean dynamic;
+        private boolean firstTaken = false;
+
+        private ResolvedCraft(RecipeManager recipes, Player player, CraftMatch match, ItemStack[] matrix,
+                ItemStack result, boolean dynamic) {
+            this.recipes = recipes;
+            this.player = player;
+            this.match = match;
+            this.matrix = matrix;
+            this.result = result;
+            this.dynamic = dynamic;
+        }
+
+        public boolean dynamic() {
+            return dynamic;
+        }
+
+        /**
+         * @return a prototype of the result (do not hand out for dynamic recipes)
+         */
+        public ItemStack result() {
+            return result.clone();
+        }
+
+        public ItemStack nextResult() {
+            if (!dynamic)
+                return result.clone();
+            if (!firstTaken) {
+                firstTaken = true;
+                return result.clone();
+            }
+            return craftResult(recipes, player, match, matrix);
+        }
+    }
+
     public static boolean handleResultClick(RecipeManager recipes, InventoryClickEvent e, Player player) {
         Inventory inv = e.getView().getTopInventory();
         if (inv.getSize() < MATRIX_FIRST_SLOT + MATRIX_SIZE)
@@ -255,6 +343,29 @@ public final class CraftingModuleLogic {
         if (matrix == null || matrix.length != MATRIX_SIZE)
             return null;
 
+        MatrixKey key = MatrixKey.of(matrix, player != null);
+        if (key == null)
+            return null;
+
+        CachedMatch cached;
+        synchronized (MATCH_CACHE) {
+            cached = MATCH_CACHE.get(key);
+        }
+        if (cached != null)
+            return cached.toMatch(key);
+
+        CraftMatch match = findMatchUncached(recipes, player, matrix);
+        CachedMatch entry = CachedMatch.from(key, match);
+        if (entry != null) {
+            synchronized (MATCH_CACHE) {
+                MATCH_CACHE.put(key, entry);
+            }
+        }
+        return match;
+    }
+
+    private static CraftMatch findMatchUncached(RecipeManager recipes, Player player, ItemStack[] matrix) {
+
         // Prefer the server's recipe matcher when available (Paper/Spigot API differs
         // across versions). This is more reliable than iterating Bukkit recipes
         // ourselves.
@@ -303,6 +414,140 @@ public final class CraftingModuleLogic {
         return null;
     }
 
+    /**
+     * Offset-normalized matrix fingerprint: the bounding box of non-empty slots,
+     * with per-cell one-item samples compared via isSimilar. The origin is kept
+     * for re-anchoring cached consumption but is not part of equality.
+     */
+    private static final class MatrixKey {
+        final int originX;
+        final int originY;
+        final int width;
+        final int height;
+        final boolean serverLookup;
+        final ItemStack[] cells;
+        final int hash;
+
+        private MatrixKey(int originX, int originY, int width, int height, boolean serverLookup,
+                ItemStack[] cells, int hash) {
+            this.originX = originX;
+            this.originY = originY;
+            this.width = width;
+            this.height = height;
+            this.serverLookup = serverLookup;
+            this.cells = cells;
+            this.hash = hash;
+        }
+
+        static MatrixKey of(ItemStack[] matrix, boolean serverLookup) {
+            int minX = 3, minY = 3, maxX = -1, maxY = -1;
+            for (int i = 0; i < MATRIX_SIZE; i++) {
+                if (isEmpty(matrix[i]))
+                    continue;
+                int x = i % 3;
+                int y = i / 3;
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+            if (maxX < 0)
+                return null;
+
+            int width = maxX - minX + 1;
+            int height = maxY - minY + 1;
+            ItemStack[] cells = new ItemStack[width * height];
+            int hash = 31 * width + height;
+            hash = 31 * hash + (serverLookup ? 1 : 0);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    ItemStack in = matrix[(minY + y) * 3 + minX + x];
+                    ItemStack sample = null;
+                    if (!isEmpty(in)) {
+                        sample = in.clone();
+                        sample.setAmount(1);
+                    }
+                    cells[y * width + x] = sample;
+                    hash = 31 * hash + (sample == null ? 0 : sample.hashCode());
+                }
+            }
+            return new MatrixKey(minX, minY, width, height, serverLookup, cells, hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof MatrixKey other))
+                return false;
+            if (hash != other.hash || width != other.width || height != other.height
+                    || serverLookup != other.serverLookup)
+                return false;
+            for (int i = 0; i < cells.length; i++) {
+                ItemStack a = cells[i];
+                ItemStack b = other.cells[i];
+                if (a == null || b == null) {
+                    if (a != b)
+                        return false;
+                    continue;
+                }
+                if (!a.isSimilar(b))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    private static final class CachedMatch {
+        static final CachedMatch NO_MATCH = new CachedMatch(null, null, null);
+
+        final Recipe recipe;
+        final ItemStack result;
+        final int[] consumeInBox;
+
+        private CachedMatch(Recipe recipe, ItemStack result, int[] consumeInBox) {
+            this.recipe = recipe;
+            this.result = result;
+            this.consumeInBox = consumeInBox;
+        }
+
+        static CachedMatch from(MatrixKey key, CraftMatch match) {
+            if (match == null)
+                return NO_MATCH;
+
+            int[] rel = new int[key.width * key.height];
+            for (int i = 0; i < MATRIX_SIZE; i++) {
+                int consume = match.consumePerSlot[i];
+                if (consume <= 0)
+                    continue;
+                int x = i % 3 - key.originX;
+                int y = i / 3 - key.originY;
+                if (x < 0 || y < 0 || x >= key.width || y >= key.height)
+                    return null; // consumption outside the occupied box; don't memoize
+                rel[y * key.width + x] = consume;
+            }
+            return new CachedMatch(match.recipe, match.result.clone(), rel);
+        }
+
+        CraftMatch toMatch(MatrixKey key) {
+            if (recipe == null)
+                return null;
+
+            int[] consume = new int[MATRIX_SIZE];
+            for (int y = 0; y < key.height; y++) {
+                for (int x = 0; x < key.width; x++) {
+                    consume[(key.originY + y) * 3 + key.originX + x] = consumeInBox[y * key.width + x];
+                }
+            }
+            return new CraftMatch(recipe, result.clone(), consume);
+        }
+    }
+
     private static volatile boolean lookedUpCraftingMethod = false;
     private static volatile java.lang.reflect.Method serverGetCraftingRecipe = null;
     private static volatile java.lang.reflect.Method bukkitGetCraftingRecipe = null;
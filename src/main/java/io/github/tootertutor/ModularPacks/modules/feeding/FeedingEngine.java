@@ -1,5 +1,6 @@
 package io.github.tootertutor.ModularPacks.modules.feeding;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -13,19 +14,18 @@ import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.inventory.meta.components.FoodComponent;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.potion.PotionEffectTypeCategory;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
+import io.github.tootertutor.ModularPacks.api.modules.BackpackContents;
+import io.github.tootertutor.ModularPacks.config.ConfigSnapshot;
 import io.github.tootertutor.ModularPacks.item.Keys;
 import io.github.tootertutor.ModularPacks.modules.BackpackInventoryUtil;
 import io.github.tootertutor.ModularPacks.util.ItemStacks;
 import io.papermc.paper.datacomponent.DataComponentTypes;
 import io.papermc.paper.datacomponent.item.Consumable;
-import io.papermc.paper.datacomponent.item.FoodProperties;
 import io.papermc.paper.datacomponent.item.SuspiciousStewEffects;
 import io.papermc.paper.datacomponent.item.consumable.ConsumeEffect;
 import io.papermc.paper.potion.SuspiciousEffectEntry;
@@ -34,25 +34,41 @@ public final class FeedingEngine {
 
     private final ModularPacksPlugin plugin;
     private final Map<UUID, Integer> lastFedTickByPlayer = new HashMap<>();
+    private final FoodTable foods;
 
     public FeedingEngine(ModularPacksPlugin plugin) {
         this.plugin = plugin;
+        this.foods = FoodTable.build();
     }
 
-    public boolean applyFeeding(Player player, ItemStack[] contents, ItemStack moduleSnapshot,
+    /**
+     * World-only probe: the player is below MinFoodLevel and off cooldown.
+     * When false, feeding has nothing to do and contents need not be decoded.
+     */
+    public boolean wantsToFeed(Player player) {
+        if (player == null)
+            return false;
+        ConfigSnapshot.Feeding cfg = plugin.cfg().snapshot().feeding();
+        if (player.getFoodLevel() >= cfg.minFoodLevel())
+            return false;
+        int lastFed = lastFedTickByPlayer.getOrDefault(player.getUniqueId(), -99999);
+        return Bukkit.getCurrentTick() - lastFed >= cfg.cooldownTicks();
+    }
+
+    public boolean applyFeeding(Player player, BackpackContents contents, ItemStack moduleSnapshot,
             List<Material> orderedWhitelist) {
         if (player == null || contents == null)
             return false;
 
-        int minFood = Math.max(0, Math.min(20, plugin.cfg().getInt("Upgrades.Feeding.MinFoodLevel", 18)));
+        ConfigSnapshot.Feeding cfg = plugin.cfg().snapshot().feeding();
+        int minFood = cfg.minFoodLevel();
         int foodLevel = player.getFoodLevel();
         if (foodLevel >= minFood)
             return false;
 
         int now = Bukkit.getCurrentTick();
         int lastFed = lastFedTickByPlayer.getOrDefault(player.getUniqueId(), -99999);
-        int cooldown = Math.max(0, plugin.cfg().getInt("Upgrades.Feeding.CooldownTicks", 20));
-        if (now - lastFed < cooldown)
+        if (now - lastFed < cfg.cooldownTicks())
             return false;
 
         FeedingSettings settings = readFeedingSettings(moduleSnapshot);
@@ -75,15 +91,11 @@ public final class FeedingEngine {
         CandidatePick good = new CandidatePick();
         CandidatePick bad = new CandidatePick();
 
-        for (int i = 0; i < contents.length; i++) {
-            ItemStack it = contents[i];
-            if (ItemStacks.isAir(it))
-                continue;
-            if (!it.getType().isEdible())
+        for (Material mat : contents.materials()) {
+            if (!mat.isEdible())
                 continue;
 
             // Apply whitelist/blacklist filter
-            Material mat = it.getType();
             boolean inFilter = filterSet.contains(mat);
             if (!filterSet.isEmpty()) {
                 if ((isBlacklist && inFilter) || (!isBlacklist && !inFilter)) {
@@ -93,17 +105,22 @@ public final class FeedingEngine {
                 }
             }
 
-            FoodValues v = FoodValues.lookup(it);
-            int nutrition = v.nutrition();
-            if (nutrition <= 0)
-                continue;
+            BitSet slots = contents.slotsOf(mat);
+            for (int i = slots.nextSetBit(0); i >= 0; i = slots.nextSetBit(i + 1)) {
+                ItemStack it = contents.get(i);
 
-            float satPoints = saturationPoints(nutrition, v.saturation());
-            int overshoot = (foodLevel + nutrition) - minFood;
+                FoodTable.FoodInfo v = foods.lookup(it);
+                int nutrition = v.nutrition();
+                if (nutrition <= 0)
+                    continue;
+
+                float satPoints = saturationPoints(nutrition, v.saturation());
+                int overshoot = (foodLevel + nutrition) - minFood;
 
-            boolean harmful = settings.preference == FeedingPreference.EFFECTS && hasHarmfulFoodEffects(it);
-            CandidatePick pick = harmful ? bad : good;
-            pick.consider(i, nutrition, satPoints, overshoot, settings.preference);
+                boolean harmful = settings.preference == FeedingPreference.EFFECTS && v.harmful();
+                CandidatePick pick = harmful ? bad : good;
+                pick.consider(i, nutrition, satPoints, overshoot, settings.preference);
+            }
         }
 
         int chosen;
@@ -124,13 +141,13 @@ public final class FeedingEngine {
 
     private boolean consumeFeeding(
             Player player,
-            ItemStack[] contents,
+            BackpackContents contents,
             int index,
             int minFood,
             int beforeFood,
             FeedingSettings settings,
             int now) {
-        ItemStack it = contents[index];
+        ItemStack it = contents.get(index);
         if (ItemStacks.isAir(it))
             return false;
 
@@ -139,7 +156,7 @@ public final class FeedingEngine {
 
         // Consume one item
         ItemStack after = BackpackInventoryUtil.decrementOne(it);
-        contents[index] = after;
+        contents.set(index, after);
 
         // Handle remaining container item (e.g. soup -> bowl)
         Material rem = it.getType().getCraftingRemainingItem();
@@ -157,7 +174,7 @@ public final class FeedingEngine {
         int effectsApplied = applyFoodEffects(player, it);
 
         if (debug) {
-            FoodValues v = FoodValues.lookup(it);
+            FoodTable.FoodInfo v = foods.lookup(it);
             int nutrition = v.nutrition();
             float satPoints = saturationPoints(nutrition, v.saturation());
             plugin.getLogger().info(String.format(
@@ -171,7 +188,7 @@ public final class FeedingEngine {
                     nutrition,
                     v.saturation(),
                     satPoints,
-                    hasHarmfulFoodEffects(it),
+                    v.harmful(),
                     effectsApplied,
                     settings.mode,
                     settings.preference,
@@ -183,7 +200,7 @@ public final class FeedingEngine {
     }
 
     private int chooseFeedingByWhitelistOrder(
-            ItemStack[] contents,
+            BackpackContents contents,
             List<Material> orderedWhitelist,
             FeedingPreference preference,
             int minFood,
@@ -194,20 +211,17 @@ public final class FeedingEngine {
         for (Material mat : orderedWhitelist) {
             if (mat == null || mat.isAir())
                 continue;
+            if (!mat.isEdible())
+                continue;
 
             CandidatePick good = new CandidatePick();
             CandidatePick bad = new CandidatePick();
 
-            for (int i = 0; i < contents.length; i++) {
-                ItemStack it = contents[i];
-                if (ItemStacks.isAir(it))
-                    continue;
-                if (it.getType() != mat)
-                    continue;
-                if (!it.getType().isEdible())
-                    continue;
+            BitSet slots = contents.slotsOf(mat);
+            for (int i = slots.nextSetBit(0); i >= 0; i = slots.nextSetBit(i + 1)) {
+                ItemStack it = contents.get(i);
 
-                FoodValues v = FoodValues.lookup(it);
+                FoodTable.FoodInfo v = foods.lookup(it);
                 int nutrition = v.nutrition();
                 if (nutrition <= 0)
                     continue;
@@ -215,7 +229,7 @@ public final class FeedingEngine {
                 float satPoints = saturationPoints(nutrition, v.saturation());
                 int overshoot = (foodLevel + nutrition) - minFood;
 
-                boolean harmful = preference == FeedingPreference.EFFECTS && hasHarmfulFoodEffects(it);
+                boolean harmful = preference == FeedingPreference.EFFECTS && v.harmful();
                 CandidatePick pick = harmful ? bad : good;
                 pick.consider(i, nutrition, satPoints, overshoot, preference);
             }
@@ -269,54 +283,11 @@ public final class FeedingEngine {
         return new FeedingSettings(mode, pref);
     }
 
-    private boolean hasHarmfulFoodEffects(ItemStack foodItem) {
-        if (ItemStacks.isAir(foodItem))
-            return false;
-
-        try {
-            Consumable consumable = foodItem.getData(DataComponentTypes.CONSUMABLE);
-            if (consumable != null) {
-                for (ConsumeEffect effect : consumable.consumeEffects()) {
-                    if (!(effect instanceof ConsumeEffect.ApplyStatusEffects ase))
-                        continue;
-                    float prob = ase.probability();
-                    if (prob <= 0.0f)
-                        continue;
-
-                    for (Object o : ase.effects()) {
-                        if (!(o instanceof PotionEffect pe))
-                            continue;
-                        PotionEffectType type = pe.getType();
-                        if (type != null && type.getCategory() == PotionEffectTypeCategory.HARMFUL) {
-                            return true;
-                        }
-                    }
-                }
-            }
-        } catch (Throwable ignored) {
-        }
-
-        try {
-            SuspiciousStewEffects stew = foodItem.getData(DataComponentTypes.SUSPICIOUS_STEW_EFFECTS);
-            if (stew != null) {
-                for (SuspiciousEffectEntry e : stew.effects()) {
-                    PotionEffectType type = e.effect();
-                    if (type != null && type.getCategory() == PotionEffectTypeCategory.HARMFUL) {
-                        return true;
-                    }
-                }
-            }
-        } catch (Throwable ignored) {
-        }
-
-        return false;
-    }
-
     private void applyFoodValues(Player player, ItemStack foodItem) {
         if (player == null || ItemStacks.isAir(foodItem))
             return;
 
-        FoodValues values = FoodValues.lookup(foodItem);
+        FoodTable.FoodInfo values = foods.lookup(foodItem);
         int nutrition = values.nutrition();
         float saturationPoints = saturationPoints(nutrition, values.saturation());
 
@@ -397,46 +368,6 @@ public final class FeedingEngine {
         return s;
     }
 
-    private record FoodValues(int nutrition, float saturation) {
-        static FoodValues lookup(ItemStack stack) {
-            if (ItemStacks.isAir(stack))
-                return new FoodValues(0, 0.0f);
-
-            // Paper data components: works for all vanilla food items (and custom food
-            // components).
-            try {
-                FoodProperties fp = stack.getData(DataComponentTypes.FOOD);
-                if (fp != null) {
-                    return new FoodValues(Math.max(0, fp.nutrition()), Math.max(0.0f, fp.saturation()));
-                }
-            } catch (Throwable ignored) {
-            }
-
-            FoodComponent fc = foodComponentFromMeta(stack.getItemMeta());
-            if (fc == null) {
-                // Default values for the material (covers normal food items).
-                fc = foodComponentFromMeta(new ItemStack(stack.getType()).getItemMeta());
-            }
-
-            if (fc != null) {
-                return new FoodValues(Math.max(0, fc.getNutrition()), Math.max(0.0f, fc.getSaturation()));
-            }
-
-            // Final fallback: edible but unknown food values.
-            return new FoodValues(stack.getType().isEdible() ? 1 : 0, 0.0f);
-        }
-
-        private static FoodComponent foodComponentFromMeta(ItemMeta meta) {
-            if (meta == null || !meta.hasFood())
-                return null;
-            try {
-                return meta.getFood();
-            } catch (Throwable ignored) {
-                return null;
-            }
-        }
-    }
-
     private static final class CandidatePick {
         int bestIndex = -1;
         int bestOvershoot = Integer.MAX_VALUE;
@@ -447,10 +378,14 @@ public final class FeedingEngine {
         int fallbackNutrition = -1;
         float fallbackSatPoints = -1.0f;
 
+        // Candidates arrive grouped by material, not in slot order; equal ones go
+        // to the lowest slot, as a plain slot scan would pick.
         void consider(int index, int nutrition, float satPoints, int overshoot, FeedingPreference preference) {
             if (overshoot >= 0) {
-                if (overshoot < bestOvershoot
-                        || (overshoot == bestOvershoot && isBetterTie(nutrition, satPoints, preference))) {
+                int cmp = overshoot != bestOvershoot
+                        ? Integer.compare(bestOvershoot, overshoot)
+                        : compareTie(nutrition, satPoints, preference);
+                if (cmp > 0 || (cmp == 0 && index < bestIndex)) {
                     bestIndex = index;
                     bestOvershoot = overshoot;
                     bestNutrition = nutrition;
@@ -459,22 +394,25 @@ public final class FeedingEngine {
                 return;
             }
 
-            if (nutrition > fallbackNutrition || (nutrition == fallbackNutrition && satPoints > fallbackSatPoints)) {
+            int cmp = nutrition != fallbackNutrition
+                    ? Integer.compare(nutrition, fallbackNutrition)
+                    : Float.compare(satPoints, fallbackSatPoints);
+            if (cmp > 0 || (cmp == 0 && index < fallbackIndex)) {
                 fallbackIndex = index;
                 fallbackNutrition = nutrition;
                 fallbackSatPoints = satPoints;
             }
         }
 
-        private boolean isBetterTie(int nutrition, float satPoints, FeedingPreference preference) {
+        private int compareTie(int nutrition, float satPoints, FeedingPreference preference) {
             if (preference == FeedingPreference.NUTRITION) {
                 if (nutrition != bestNutrition)
-                    return nutrition > bestNutrition;
-                return satPoints > bestSatPoints;
+                    return Integer.compare(nutrition, bestNutrition);
+                return Float.compare(satPoints, bestSatPoints);
             }
             if (satPoints != bestSatPoints)
-                return satPoints > bestSatPoints;
-            return nutrition > bestNutrition;
+                return Float.compare(satPoints, bestSatPoints);
+            return Integer.compare(nutrition, bestNutrition);
         }
     }
 
@@ -0,0 +1,181 @@
+package io.github.tootertutor.ModularPacks.modules.feeding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.components.FoodComponent;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.potion.PotionEffectTypeCategory;
+
+import io.github.tootertutor.ModularPacks.util.ItemStacks;
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.Consumable;
+import io.papermc.paper.datacomponent.item.FoodProperties;
+import io.papermc.paper.datacomponent.item.SuspiciousStewEffects;
+import io.papermc.paper.datacomponent.item.consumable.ConsumeEffect;
+import io.papermc.paper.potion.SuspiciousEffectEntry;
+
+/**
+ * Food values resolved once instead of per slot per cycle.
+ * - byMaterial: defaults for every edible material, indexed by ordinal and
+ * built from the item registry's default components
+ * - overlay: stacks overriding a food-relevant component (custom foods,
+ * suspicious stew), keyed by material and meta; bounded, least recently used
+ * evicted. Other stacks with meta (names, enchantments) use byMaterial.
+ *
+ * Main thread only.
+ */
+final class FoodTable {
+
+    private static final int OVERLAY_LIMIT = 256;
+    private static final FoodInfo NONE = new FoodInfo(0, 0.0f, false);
+
+    private final FoodInfo[] byMaterial;
+    private final Map<OverlayKey, FoodInfo> overlay = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<OverlayKey, FoodInfo> eldest) {
+            return size() > OVERLAY_LIMIT;
+        }
+    };
+
+    private FoodTable(FoodInfo[] byMaterial) {
+        this.byMaterial = byMaterial;
+    }
+
+    static FoodTable build() {
+        Material[] materials = Material.values();
+        FoodInfo[] table = new FoodInfo[materials.length];
+        for (Material mat : materials) {
+            if (mat.isLegacy() || !mat.isItem() || !mat.isEdible())
+                continue;
+            table[mat.ordinal()] = compute(new ItemStack(mat));
+        }
+        return new FoodTable(table);
+    }
+
+    FoodInfo lookup(ItemStack stack) {
+        if (ItemStacks.isAir(stack))
+            return NONE;
+
+        Material mat = stack.getType();
+        FoodInfo defaults = byMaterial[mat.ordinal()];
+        if (!overridesFood(stack))
+            return defaults != null ? defaults : compute(stack);
+
+        OverlayKey key = new OverlayKey(mat, stack.getItemMeta());
+        FoodInfo info = overlay.get(key);
+        if (info == null) {
+            info = compute(stack);
+            overlay.put(key, info);
+        }
+        return info;
+    }
+
+    /**
+     * Checks the component patch only; no meta is copied.
+     */
+    private static boolean overridesFood(ItemStack stack) {
+        if (!stack.hasItemMeta())
+            return false;
+        try {
+            return stack.isDataOverridden(DataComponentTypes.FOOD)
+                    || stack.isDataOverridden(DataComponentTypes.CONSUMABLE)
+                    || stack.isDataOverridden(DataComponentTypes.SUSPICIOUS_STEW_EFFECTS);
+        } catch (Throwable ignored) {
+            return true;
+        }
+    }
+
+    private static FoodInfo compute(ItemStack stack) {
+        int nutrition;
+        float saturation;
+
+        FoodProperties fp = null;
+        // Paper data components: works for all vanilla food items (and custom food
+        // components).
+        try {
+            fp = stack.getData(DataComponentTypes.FOOD);
+        } catch (Throwable ignored) {
+        }
+
+        if (fp != null) {
+            nutrition = Math.max(0, fp.nutrition());
+            saturation = Math.max(0.0f, fp.saturation());
+        } else {
+            FoodComponent fc = foodComponentFromMeta(stack.getItemMeta());
+            if (fc == null) {
+                // Default values for the material (covers normal food items).
+                fc = foodComponentFromMeta(new ItemStack(stack.getType()).getItemMeta());
+            }
+            if (fc != null) {
+                nutrition = Math.max(0, fc.getNutrition());
+                saturation = Math.max(0.0f, fc.getSaturation());
+            } else {
+                // Final fallback: edible but unknown food values.
+                nutrition = stack.getType().isEdible() ? 1 : 0;
+                saturation = 0.0f;
+            }
+        }
+
+        return new FoodInfo(nutrition, saturation, hasHarmfulEffects(stack));
+    }
+
+    private static FoodComponent foodComponentFromMeta(ItemMeta meta) {
+        if (meta == null || !meta.hasFood())
+            return null;
+        try {
+            return meta.getFood();
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    private static boolean hasHarmfulEffects(ItemStack foodItem) {
+        try {
+            Consumable consumable = foodItem.getData(DataComponentTypes.CONSUMABLE);
+            if (consumable != null) {
+                for (ConsumeEffect effect : consumable.consumeEffects()) {
+                    if (!(effect instanceof ConsumeEffect.ApplyStatusEffects ase))
+                        continue;
+                    if (ase.probability() <= 0.0f)
+                        continue;
+
+                    for (Object o : ase.effects()) {
+                        if (!(o instanceof PotionEffect pe))
+                            continue;
+                        PotionEffectType type = pe.getType();
+                        if (type != null && type.getCategory() == PotionEffectTypeCategory.HARMFUL) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        } catch (Throwable ignored) {
+        }
+
+        try {
+            SuspiciousStewEffects stew = foodItem.getData(DataComponentTypes.SUSPICIOUS_STEW_EFFECTS);
+            if (stew != null) {
+                for (SuspiciousEffectEntry e : stew.effects()) {
+                    PotionEffectType type = e.effect();
+                    if (type != null && type.getCategory() == PotionEffectTypeCategory.HARMFUL) {
+                        return true;
+                    }
+                }
+            }
+        } catch (Throwable ignored) {
+        }
+
+        return false;
+    }
+
+    record FoodInfo(int nutrition, float saturation, boolean harmful) {
+    }
+
+    private record OverlayKey(Material material, ItemMeta meta) {
+    }
+}
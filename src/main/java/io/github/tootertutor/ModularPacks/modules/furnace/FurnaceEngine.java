@@ -3,7 +3,10 @@ package io.github.tootertutor.ModularPacks.modules.furnace;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -30,8 +33,16 @@ import io.github.tootertutor.ModularPacks.util.ItemStacks;
 
 public final class FurnaceEngine {
 
+    // Gaps shorter than this are ticked normally; longer ones are fast-forwarded.
+    private static final int FAST_FORWARD_MIN_TICKS = 100;
+    private static final long MILLIS_PER_TICK = 50L;
+    private static final int MAX_IDLE_ENTRIES = 4096;
+
     private final ModularPacksPlugin plugin;
 
+    // moduleId -> state bytes that produced no change last tick (idle fixed point)
+    private final Map<UUID, byte[]> idleStates = new HashMap<>();
+
     public FurnaceEngine(ModularPacksPlugin plugin) {
         this.plugin = plugin;
     }
@@ -47,7 +58,9 @@ public final class FurnaceEngine {
         BackpackData data = plugin.repo().loadOrCreate(backpackId, backpackType);
 
         byte[] bytes = data.moduleStates().get(moduleId);
-        FurnaceStateCodec.State stored = FurnaceStateCodec.decode(bytes);
+        FurnaceStateCodec.State stored = FurnaceStateCodec.tryDecode(bytes);
+        if (stored == null)
+            return;
 
         // Merge: use CURRENT UI items, keep STORED progress
         FurnaceStateCodec.State s = new FurnaceStateCodec.State();
@@ -61,9 +74,17 @@ public final class FurnaceEngine {
         s.cookTotal = stored.cookTotal;
         s.xpStored = reconcileXpStored(stored, s.output);
 
-        boolean changed = tickFurnaceLike(screenType, s, dtTicks);
-        if (!changed)
+        long now = System.currentTimeMillis();
+        boolean changed = advance(screenType, s, elapsedTicks(stored, dtTicks, now), now);
+        if (!changed) {
+            // Idle states are not rewritten, so keep the time fresh while the screen
+            // is open; otherwise items put in later would fast-forward over the idle gap.
+            if (now - stored.lastSimulated >= FAST_FORWARD_MIN_TICKS * MILLIS_PER_TICK) {
+                data.moduleStates().put(moduleId, FurnaceStateCodec.encode(s));
+                plugin.repo().saveBackpack(data);
+            }
             return;
+        }
 
         // Push back to UI
         inv.setItem(0, s.input);
@@ -94,22 +115,70 @@ public final class FurnaceEngine {
             if (openModuleIds != null && openModuleIds.contains(moduleId))
                 continue;
 
+            // Unchanged since it last went idle: nothing to simulate.
+            byte[] stateBytes = data.moduleStates().get(moduleId);
+            byte[] idle = idleStates.get(moduleId);
+            if (idle != null && Arrays.equals(idle, stateBytes))
+                continue;
+
             ScreenType st = resolveInstalledModuleScreenType(data, moduleId);
             if (st != ScreenType.SMELTING && st != ScreenType.BLASTING && st != ScreenType.SMOKING)
                 continue;
 
-            byte[] stateBytes = data.moduleStates().get(moduleId);
-            FurnaceStateCodec.State s = FurnaceStateCodec.decode(stateBytes);
-            boolean changed = tickFurnaceLike(st, s, dtTicks);
-            if (!changed)
+            // Unreadable (e.g. written by a newer version): keep the bytes as they are.
+            FurnaceStateCodec.State s = FurnaceStateCodec.tryDecode(stateBytes);
+            if (s == null) {
+                rememberIdle(moduleId, stateBytes);
                 continue;
+            }
+            long now = System.currentTimeMillis();
+            boolean changed = advance(st, s, elapsedTicks(s, dtTicks, now), now);
+            if (!changed) {
+                rememberIdle(moduleId, stateBytes);
+                continue;
+            }
 
+            idleStates.remove(moduleId);
             data.moduleStates().put(moduleId, FurnaceStateCodec.encode(s));
             changedAny = true;
         }
         return changedAny;
     }
 
+    private void rememberIdle(UUID moduleId, byte[] stateBytes) {
+        if (stateBytes == null)
+            return;
+        if (idleStates.size() >= MAX_IDLE_ENTRIES)
+            idleStates.clear();
+        idleStates.put(moduleId, stateBytes);
+    }
+
+    /**
+     * Ticks since the state was last simulated, or {@code dtTicks} when that is
+     * unknown or the gap is just a regular engine period.
+     */
+    private static int elapsedTicks(FurnaceStateCodec.State s, int dtTicks, long now) {
+        if (s == null || s.lastSimulated <= 0L)
+            return dtTicks;
+
+        long ticks = (now - s.lastSimulated) / MILLIS_PER_TICK;
+        if (ticks < FAST_FORWARD_MIN_TICKS)
+            return dtTicks;
+        return (int) Math.min(Integer.MAX_VALUE, ticks);
+    }
+
+    /**
+     * Simulates {@code ticks} and records {@code now} as the time the state was
+     * last simulated.
+     */
+    private boolean advance(ScreenType type, FurnaceStateCodec.State s, int ticks, long now) {
+        boolean changed = ticks < FAST_FORWARD_MIN_TICKS
+                ? tickFurnaceLike(type, s, ticks)
+                : fastForward(type, s, ticks);
+        s.lastSimulated = now;
+        return changed;
+    }
+
     private ScreenType resolveInstalledModuleScreenType(BackpackData data, UUID moduleId) {
         byte[] snap = data.installedSnapshots().get(moduleId);
         if (snap == null)
@@ -340,6 +409,84 @@ public final class FurnaceEngine {
         return changed;
     }
 
+    /**
+     * Closed-form equivalent of repeatedly calling {@link #tickFurnaceLike} over
+     * {@code ticks}; see {@link FurnaceFastForward#run}.
+     */
+    private boolean fastForward(ScreenType type, FurnaceStateCodec.State s, int ticks) {
+        int burnTime0 = s.burnTime;
+        int burnTotal0 = s.burnTotal;
+        int cookTime0 = s.cookTime;
+        int cookTotal0 = s.cookTotal;
+
+        CookingRecipe<?> recipe = ItemStacks.isNotAir(s.input) ? findCookingRecipe(type, s.input) : null;
+        ItemStack result = recipe == null ? null : recipe.getResult();
+        if (recipe != null) {
+            int total = recipe.getCookingTime();
+            if (total <= 0)
+                total = 200;
+            if (s.cookTotal != total) {
+                s.cookTotal = total;
+                s.cookTime = 0;
+            }
+        }
+
+        int inputItems = 0;
+        int roomCrafts = 0;
+        int producedPerCraft = 1;
+        if (ItemStacks.isNotAir(result)) {
+            producedPerCraft = Math.max(1, result.getAmount());
+            int outputSpace;
+            if (ItemStacks.isAir(s.output)) {
+                outputSpace = result.getMaxStackSize();
+            } else if (s.output.isSimilar(result)) {
+                outputSpace = s.output.getMaxStackSize() - s.output.getAmount();
+            } else {
+                outputSpace = 0;
+            }
+            inputItems = s.input.getAmount();
+            roomCrafts = Math.max(0, outputSpace) / producedPerCraft;
+        }
+
+        int perFuel = fuelTicks(s.fuel);
+        boolean containerFuel = perFuel > 0 && isContainerFuel(s.fuel);
+        int fuelItems = ItemStacks.isAir(s.fuel) ? 0 : s.fuel.getAmount();
+
+        FurnaceFastForward f = FurnaceFastForward.run(s.burnTime, s.burnTotal, s.cookTime, s.cookTotal,
+                inputItems, roomCrafts, fuelItems, perFuel, containerFuel, ticks);
+        s.burnTime = f.burnTime;
+        s.burnTotal = f.burnTotal;
+        s.cookTime = f.cookTime;
+        s.fuel = consumeFuel(s.fuel, f.fuelUsed, containerFuel);
+
+        if (f.crafts > 0) {
+            int produced = f.crafts * producedPerCraft;
+            if (ItemStacks.isAir(s.output)) {
+                s.output = result.clone();
+                s.output.setAmount(produced);
+            } else {
+                s.output.setAmount(s.output.getAmount() + produced);
+            }
+
+            int left = s.input.getAmount() - f.crafts;
+            if (left <= 0) {
+                s.input = null;
+            } else {
+                s.input.setAmount(left);
+            }
+
+            double xpPerCraft = Math.max(0.0, recipe.getExperience());
+            if (xpPerCraft > 0.0)
+                s.xpStored += xpPerCraft * f.crafts;
+        }
+
+        return f.crafts > 0
+                || s.burnTime != burnTime0
+                || s.burnTotal != burnTotal0
+                || s.cookTime != cookTime0
+                || s.cookTotal != cookTotal0;
+    }
+
     private static double reconcileXpStored(FurnaceStateCodec.State stored, ItemStack currentOutput) {
         if (stored == null)
             return 0.0;
@@ -419,6 +566,24 @@ public final class FurnaceEngine {
         return BackpackInventoryUtil.decrementOne(fuel);
     }
 
+    private static boolean isContainerFuel(ItemStack fuel) {
+        Material remaining = fuel.getType().getCraftingRemainingItem();
+        return remaining != null && !remaining.isAir();
+    }
+
+    private ItemStack consumeFuel(ItemStack fuel, int count, boolean containerFuel) {
+        if (count <= 0)
+            return fuel;
+        if (containerFuel)
+            return consumeOneFuel(fuel);
+
+        int left = fuel.getAmount() - count;
+        if (left <= 0)
+            return null;
+        fuel.setAmount(left);
+        return fuel;
+    }
+
     /**
      * Sends container data updates for furnace-like menus, including blast furnace
      * and smoker.
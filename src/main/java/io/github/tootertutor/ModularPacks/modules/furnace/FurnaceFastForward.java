@@ -0,0 +1,82 @@
+package io.github.tootertutor.ModularPacks.modules.furnace;
+
+/**
+ * Item-free arithmetic behind {@link FurnaceEngine}'s fast-forward: the engine
+ * reduces stacks and the recipe to counts, runs this, and applies the result.
+ * - fuelUsed: fuel items lit during the window
+ * - crafts: items completed during the window
+ */
+final class FurnaceFastForward {
+
+    int burnTime;
+    int burnTotal;
+    int cookTime;
+    int cookTotal;
+    int fuelUsed;
+    int crafts;
+
+    private FurnaceFastForward(int burnTime, int burnTotal, int cookTime, int cookTotal) {
+        this.burnTime = burnTime;
+        this.burnTotal = burnTotal;
+        this.cookTime = cookTime;
+        this.cookTotal = cookTotal;
+    }
+
+    /**
+     * Closed-form equivalent of ticking the furnace over {@code ticks}: burns fuel
+     * down, completes as many items as input, output room and fuel allow, then
+     * decays/cools for whatever time is left.
+     *
+     * @param inputItems    items in the input slot with a matching recipe, else 0
+     * @param roomCrafts    crafts the output slot still has room for
+     * @param fuelItems     amount of the fuel stack, 0 when the slot is empty
+     * @param perFuel       burn ticks per fuel item, 0 when it is not fuel
+     * @param containerFuel fuel that leaves a container behind (lava bucket), so
+     *                      only one item can be lit
+     */
+    static FurnaceFastForward run(int burnTime, int burnTotal, int cookTime, int cookTotal, int inputItems,
+            int roomCrafts, int fuelItems, int perFuel, boolean containerFuel, long ticks) {
+        FurnaceFastForward f = new FurnaceFastForward(burnTime, burnTotal, cookTime, cookTotal);
+        long remaining = ticks;
+
+        int maxCrafts = Math.min(inputItems, roomCrafts);
+        if (maxCrafts > 0 && cookTotal > 0) {
+            int lightable = perFuel <= 0 ? 0 : (containerFuel ? Math.min(1, fuelItems) : fuelItems);
+
+            long workNeeded = Math.max(1L, (long) maxCrafts * cookTotal - f.cookTime);
+            long capacity = Math.max(0, f.burnTime) + (long) lightable * perFuel;
+            long work = Math.min(remaining, Math.min(workNeeded, capacity));
+
+            if (work > 0) {
+                if (work > f.burnTime) {
+                    long fromFuel = work - Math.max(0, f.burnTime);
+                    f.fuelUsed = (int) ((fromFuel + perFuel - 1) / perFuel);
+                    f.burnTime = (int) (Math.max(0, f.burnTime) + (long) f.fuelUsed * perFuel - work);
+                    f.burnTotal = perFuel;
+                } else {
+                    f.burnTime -= (int) work;
+                }
+
+                long progress = f.cookTime + work;
+                f.crafts = (int) Math.min(maxCrafts, progress / cookTotal);
+                f.cookTime = (int) (progress - (long) f.crafts * cookTotal);
+                remaining -= work;
+            }
+
+            // Input ran out: the furnace forgets partial progress.
+            if (f.crafts > 0 && f.crafts >= inputItems)
+                f.cookTime = 0;
+        }
+
+        // Idle for the rest of the window: burn decays, progress cools down.
+        if (remaining > 0) {
+            f.burnTime -= (int) Math.min(remaining, Math.max(0, f.burnTime));
+            f.cookTime = (int) Math.max(0L, f.cookTime - 2L * remaining);
+        }
+
+        boolean fuelLeft = fuelItems > 0 && (containerFuel || fuelItems > f.fuelUsed);
+        if (f.burnTime <= 0 && !fuelLeft)
+            f.burnTotal = 0;
+        return f;
+    }
+}
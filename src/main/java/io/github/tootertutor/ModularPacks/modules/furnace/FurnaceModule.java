@@ -74,6 +74,15 @@ public final class FurnaceModule extends AbstractModule {
         if (plugin == null || player == null || !player.isOnline())
             return;
 
+        // Unreadable state (e.g. written by a newer version) is not opened, so closing
+        // the screen cannot write an empty furnace over it.
+        BackpackData data = plugin.repo().loadOrCreate(backpackId, backpackType);
+        FurnaceStateCodec.State s = FurnaceStateCodec.tryDecode(data.moduleStates().get(moduleId));
+        if (s == null) {
+            plugin.getLogger().warning("Cannot read the state of module " + moduleId + "; not opening it");
+            return;
+        }
+
         var builder = switch (screenType) {
             case SMELTING -> MenuType.FURNACE.builder();
             case BLASTING -> MenuType.BLAST_FURNACE.builder();
@@ -97,11 +106,7 @@ public final class FurnaceModule extends AbstractModule {
         if (view == null)
             return;
 
-        // Load and restore state
-        BackpackData data = plugin.repo().loadOrCreate(backpackId, backpackType);
-        byte[] stateBytes = data.moduleStates().get(moduleId);
-        FurnaceStateCodec.State s = FurnaceStateCodec.decode(stateBytes);
-
+        // Restore state
         Inventory top = view.getTopInventory();
         top.setItem(INPUT_SLOT, s.input);
         top.setItem(FUEL_SLOT, s.fuel);
@@ -180,6 +185,8 @@ public final class FurnaceModule extends AbstractModule {
             fs.cookTotal = old.cookTotal;
             fs.xpStored = reconcileXpStoredOnClose(old, output);
         }
+        // The open screen was ticked up to now.
+        fs.lastSimulated = System.currentTimeMillis();
 
         return FurnaceStateCodec.encode(fs);
     }
@@ -225,6 +232,8 @@ public final class FurnaceModule extends AbstractModule {
         fs.cookTime = old.cookTime;
         fs.cookTotal = old.cookTotal;
         fs.xpStored = reconcileXpStoredOnClose(old, output);
+        // The open screen was ticked up to now.
+        fs.lastSimulated = System.currentTimeMillis();
 
         data.moduleStates().put(session.moduleId(), FurnaceStateCodec.encode(fs));
         plugin.repo().saveBackpack(data);
@@ -1,7 +1,9 @@
 package io.github.tootertutor.ModularPacks.modules.furnace;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -9,8 +11,18 @@ import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
 
+import io.github.tootertutor.ModularPacks.data.ModuleStateCodec;
+import io.github.tootertutor.ModularPacks.data.ModuleStateCodecs;
+
 public final class FurnaceStateCodec {
 
+    /**
+     * Shared by the Smelting, Blasting and Smoking modules.
+     * v1 layout: input, fuel, output (length-prefixed items), burnTime, burnTotal,
+     * cookTime, cookTotal (int), xpStored (double), lastSimulated (long).
+     */
+    public static final ModuleStateCodec<State> CODEC = new Codec();
+
     private FurnaceStateCodec() {
     }
 
@@ -25,53 +37,115 @@ public final class FurnaceStateCodec {
         public int cookTotal;
 
         public double xpStored;
+
+        // Wall-clock millis up to which the engine has simulated this state (0 =
+        // unknown, so the engine does not fast-forward).
+        public long lastSimulated;
     }
 
     public static byte[] encode(State s) {
-        YamlConfiguration yaml = new YamlConfiguration();
+        return ModuleStateCodecs.encode(CODEC, s);
+    }
 
-        List<Object> items = new ArrayList<>(3);
-        items.add(s.input == null ? null : s.input.serialize());
-        items.add(s.fuel == null ? null : s.fuel.serialize());
-        items.add(s.output == null ? null : s.output.serialize());
-        yaml.set("items", items);
+    /**
+     * Clears the simulation time of furnace state bytes, so a module taken out of
+     * a backpack resumes where it stopped instead of fast-forwarding over the time
+     * it spent loose. Bytes of other modules are returned unchanged.
+     */
+    public static byte[] withoutSimulationTime(byte[] bytes) {
+        if (bytes == null || !CODEC.id().equalsIgnoreCase(ModuleStateCodecs.idOf(bytes)))
+            return bytes;
+        State s = tryDecode(bytes);
+        if (s == null || s.lastSimulated == 0L)
+            return bytes;
+        s.lastSimulated = 0L;
+        return encode(s);
+    }
 
-        yaml.set("burnTime", s.burnTime);
-        yaml.set("burnTotal", s.burnTotal);
-        yaml.set("cookTime", s.cookTime);
-        yaml.set("cookTotal", s.cookTotal);
-        yaml.set("xpStored", s.xpStored);
+    public static State decode(byte[] bytes) {
+        return ModuleStateCodecs.decode(CODEC, bytes);
+    }
 
-        return yaml.saveToString().getBytes(StandardCharsets.UTF_8);
+    /**
+     * @return null when the bytes cannot be read; see
+     *         {@link ModuleStateCodecs#tryDecode}
+     */
+    public static State tryDecode(byte[] bytes) {
+        return ModuleStateCodecs.tryDecode(CODEC, bytes);
     }
 
-    public static State decode(byte[] bytes) {
-        State s = new State();
-        if (bytes == null || bytes.length == 0)
-            return s;
+    private static final class Codec implements ModuleStateCodec<State> {
 
-        String str = new String(bytes, StandardCharsets.UTF_8);
-        YamlConfiguration yaml = new YamlConfiguration();
-        try {
-            yaml.loadFromString(str);
-        } catch (InvalidConfigurationException e) {
-            // If the old format was raw ItemStack[] bytes, just return empty state.
-            return s;
+        @Override
+        public String id() {
+            return "Furnace";
         }
 
-        List<?> items = yaml.getList("items");
-        if (items != null) {
-            s.input = deserializeItem(items, 0);
-            s.fuel = deserializeItem(items, 1);
-            s.output = deserializeItem(items, 2);
+        @Override
+        public int version() {
+            return 1;
         }
 
-        s.burnTime = yaml.getInt("burnTime", 0);
-        s.burnTotal = yaml.getInt("burnTotal", 0);
-        s.cookTime = yaml.getInt("cookTime", 0);
-        s.cookTotal = yaml.getInt("cookTotal", 0);
-        s.xpStored = yaml.getDouble("xpStored", 0.0);
-        return s;
+        @Override
+        public State empty() {
+            return new State();
+        }
+
+        @Override
+        public void write(State s, DataOutput out) throws IOException {
+            ModuleStateCodecs.writeItem(out, s.input);
+            ModuleStateCodecs.writeItem(out, s.fuel);
+            ModuleStateCodecs.writeItem(out, s.output);
+            out.writeInt(s.burnTime);
+            out.writeInt(s.burnTotal);
+            out.writeInt(s.cookTime);
+            out.writeInt(s.cookTotal);
+            out.writeDouble(s.xpStored);
+            out.writeLong(s.lastSimulated);
+        }
+
+        @Override
+        public State read(DataInput in, int version) throws IOException {
+            State s = new State();
+            s.input = ModuleStateCodecs.readItem(in);
+            s.fuel = ModuleStateCodecs.readItem(in);
+            s.output = ModuleStateCodecs.readItem(in);
+            s.burnTime = in.readInt();
+            s.burnTotal = in.readInt();
+            s.cookTime = in.readInt();
+            s.cookTotal = in.readInt();
+            s.xpStored = in.readDouble();
+            s.lastSimulated = in.readLong();
+            return s;
+        }
+
+        @Override
+        public State decodeLegacy(byte[] bytes) {
+            String str = new String(bytes, StandardCharsets.UTF_8);
+            YamlConfiguration yaml = new YamlConfiguration();
+            try {
+                yaml.loadFromString(str);
+            } catch (InvalidConfigurationException e) {
+                // If the old format was raw ItemStack[] bytes, just return empty state.
+                return null;
+            }
+
+            State s = new State();
+            List<?> items = yaml.getList("items");
+            if (items != null) {
+                s.input = deserializeItem(items, 0);
+                s.fuel = deserializeItem(items, 1);
+                s.output = deserializeItem(items, 2);
+            }
+
+            s.burnTime = yaml.getInt("burnTime", 0);
+            s.burnTotal = yaml.getInt("burnTotal", 0);
+            s.cookTime = yaml.getInt("cookTime", 0);
+            s.cookTotal = yaml.getInt("cookTotal", 0);
+            s.xpStored = yaml.getDouble("xpStored", 0.0);
+            s.lastSimulated = yaml.getLong("lastSimulated", 0L);
+            return s;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -1,7 +1,9 @@
 package io.github.tootertutor.ModularPacks.modules.jukebox;
 
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -9,10 +11,12 @@ import java.util.Set;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Registry;
 import org.bukkit.SoundCategory;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -21,6 +25,7 @@ import org.bukkit.inventory.meta.components.JukeboxPlayableComponent;
 import org.bukkit.persistence.PersistentDataType;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
+import io.github.tootertutor.ModularPacks.config.ConfigSnapshot;
 import io.github.tootertutor.ModularPacks.config.ScreenType;
 import io.github.tootertutor.ModularPacks.data.BackpackData;
 import io.github.tootertutor.ModularPacks.data.ItemStackCodec;
@@ -30,6 +35,11 @@ import io.github.tootertutor.ModularPacks.util.ItemStacks;
 
 public final class JukeboxEngine {
 
+    private static final int LISTENER_CHECK_TICKS = 20;
+    // Listeners keep the track until they are this far beyond HearRadius, so
+    // walking along the edge does not restart it.
+    private static final double LISTENER_LEAVE_MARGIN = 8.0;
+
     private final ModularPacksPlugin plugin;
     private final Map<UUID, JukeboxPlayback> jukeboxByPlayer = new HashMap<>();
 
@@ -91,8 +101,9 @@ public final class JukeboxEngine {
 
         JukeboxMode mode = readJukeboxMode(moduleSnapshot);
 
-        float volume = (float) plugin.cfg().getDouble("Upgrades.Jukebox.Volume", 1.0);
-        float pitch = (float) plugin.cfg().getDouble("Upgrades.Jukebox.Pitch", 1.0);
+        ConfigSnapshot.Jukebox cfg = plugin.cfg().snapshot().jukebox();
+        float volume = cfg.volume();
+        float pitch = cfg.pitch();
 
         int now = Bukkit.getCurrentTick();
         if (current == null) {
@@ -106,11 +117,7 @@ public final class JukeboxEngine {
         }
 
         // If mode changed, update (no need to restart unless rotation triggers)
-        if (current.mode() != mode) {
-            current = new JukeboxPlayback(current.backpackId(), current.moduleId(), current.disc(),
-                    current.sound(), current.listeners(), current.endTick(), mode);
-            jukeboxByPlayer.put(playerId, current);
-        }
+        current.mode = mode;
 
         // If the currently-playing disc is no longer present, advance/stop.
         boolean discStillPresent = current.disc() != null && playlist.contains(current.disc());
@@ -126,6 +133,12 @@ public final class JukeboxEngine {
             Material nextDisc = playlist.get(nextIndex);
             int duration = discDurationTicks(nextDisc);
             switchJukeboxTrack(player, backpackId, moduleId, mode, nextDisc, duration, volume, pitch, current);
+            return;
+        }
+
+        if (now >= current.nextListenerCheckTick) {
+            current.nextListenerCheckTick = now + LISTENER_CHECK_TICKS;
+            updateListeners(player, current, volume, pitch);
         }
     }
 
@@ -195,14 +208,44 @@ public final class JukeboxEngine {
         }
     }
 
-    private record JukeboxPlayback(
-            UUID backpackId,
-            UUID moduleId,
-            Material disc,
-            org.bukkit.Sound sound,
-            Set<UUID> listeners,
-            int endTick,
-            JukeboxMode mode) {
+    /**
+     * The track one player's backpack is playing.
+     * - listeners: players the sound was sent to; updated as players come and go
+     * - nextListenerCheckTick: when to next compare listeners against HearRadius
+     */
+    private static final class JukeboxPlayback {
+        private final UUID backpackId;
+        private final UUID moduleId;
+        private final Material disc;
+        private final org.bukkit.Sound sound;
+        private final Set<UUID> listeners;
+        private final int endTick;
+        private JukeboxMode mode;
+        private int nextListenerCheckTick;
+
+        private JukeboxPlayback(UUID backpackId, UUID moduleId, Material disc, org.bukkit.Sound sound,
+                Set<UUID> listeners, int endTick, JukeboxMode mode, int nextListenerCheckTick) {
+            this.backpackId = backpackId;
+            this.moduleId = moduleId;
+            this.disc = disc;
+            this.sound = sound;
+            this.listeners = listeners;
+            this.endTick = endTick;
+            this.mode = mode;
+            this.nextListenerCheckTick = nextListenerCheckTick;
+        }
+
+        private UUID backpackId() {
+            return backpackId;
+        }
+
+        private Material disc() {
+            return disc;
+        }
+
+        private int endTick() {
+            return endTick;
+        }
     }
 
     private static boolean isMusicDisc(Material mat) {
@@ -307,8 +350,8 @@ public final class JukeboxEngine {
 
         Set<UUID> listeners = playDiscAround(player, sound, volume, pitch);
         int now = Bukkit.getCurrentTick();
-        jukeboxByPlayer.put(player.getUniqueId(),
-                new JukeboxPlayback(backpackId, moduleId, disc, sound, listeners, now + durationTicks, mode));
+        jukeboxByPlayer.put(player.getUniqueId(), new JukeboxPlayback(backpackId, moduleId, disc, sound, listeners,
+                now + durationTicks, mode, now + LISTENER_CHECK_TICKS));
     }
 
     private void switchJukeboxTrack(
@@ -332,44 +375,86 @@ public final class JukeboxEngine {
     }
 
     private Set<UUID> playDiscAround(Player emitter, org.bukkit.Sound sound, float volume, float pitch) {
+        Set<UUID> listeners = new HashSet<>();
         if (emitter == null || sound == null)
-            return java.util.Collections.emptySet();
+            return listeners;
+
+        double hearRadius = hearRadius();
+        for (Player p : nearbyPlayers(emitter, hearRadius)) {
+            listeners.add(p.getUniqueId());
+            playDisc(p, emitter, sound, volume, pitch);
+        }
+        return listeners;
+    }
 
-        double hearRadius = Math.max(0.0, plugin.cfg().getDouble("Upgrades.Jukebox.HearRadius", 32.0));
-        double hearRadiusSq = hearRadius * hearRadius;
+    /**
+     * Starts the track for players who walked into range and stops it for those
+     * who left, instead of fixing the audience when the track starts. Late
+     * joiners hear the disc from its beginning.
+     */
+    private void updateListeners(Player emitter, JukeboxPlayback playback, float volume, float pitch) {
+        if (playback.sound == null)
+            return;
 
-        java.util.HashSet<UUID> listeners = new java.util.HashSet<>();
+        double hearRadius = hearRadius();
+        double joinRadiusSq = hearRadius * hearRadius;
+        Location at = emitter.getLocation();
 
-        var loc = emitter.getLocation();
-        for (Player p : Bukkit.getOnlinePlayers()) {
-            if (p == null || !p.isOnline())
+        Set<UUID> stillNear = new HashSet<>();
+        double queryRadius = hearRadius > 0.0 ? hearRadius + LISTENER_LEAVE_MARGIN : 0.0;
+        for (Player p : nearbyPlayers(emitter, queryRadius)) {
+            UUID id = p.getUniqueId();
+            if (playback.listeners.contains(id)) {
+                stillNear.add(id);
                 continue;
-            if (p.getWorld() == null || emitter.getWorld() == null)
+            }
+            if (hearRadius > 0.0 && p.getLocation().distanceSquared(at) > joinRadiusSq)
                 continue;
-            if (!p.getWorld().equals(emitter.getWorld()))
+            playback.listeners.add(id);
+            stillNear.add(id);
+            playDisc(p, emitter, playback.sound, volume, pitch);
+        }
+
+        var it = playback.listeners.iterator();
+        while (it.hasNext()) {
+            UUID id = it.next();
+            if (stillNear.contains(id))
                 continue;
+            it.remove();
+            Player p = Bukkit.getPlayer(id);
+            if (p != null && p.isOnline())
+                p.stopSound(playback.sound, SoundCategory.RECORDS);
+        }
+    }
 
-            if (hearRadius > 0.0) {
-                if (p.getLocation().distanceSquared(loc) > hearRadiusSq)
-                    continue;
-            }
+    /**
+     * World-local query: players within {@code radius} of the emitter, or the
+     * whole world when the radius is 0 (unlimited).
+     */
+    private static Collection<Player> nearbyPlayers(Player emitter, double radius) {
+        World world = emitter.getWorld();
+        if (radius <= 0.0)
+            return world.getPlayers();
+        return world.getNearbyPlayers(emitter.getLocation(), radius);
+    }
 
-            listeners.add(p.getUniqueId());
+    private double hearRadius() {
+        return plugin.cfg().snapshot().jukebox().hearRadius();
+    }
 
-            // Prefer an entity-emitter sound so it follows the player while moving.
-            if (!EntitySound.tryPlay(p, emitter, sound, SoundCategory.RECORDS, volume, pitch)) {
-                p.playSound(loc, sound, SoundCategory.RECORDS, volume, pitch);
-            }
+    private static void playDisc(Player listener, Player emitter, org.bukkit.Sound sound, float volume,
+            float pitch) {
+        // Prefer an entity-emitter sound so it follows the player while moving.
+        if (!EntitySound.tryPlay(listener, emitter, sound, SoundCategory.RECORDS, volume, pitch)) {
+            listener.playSound(emitter.getLocation(), sound, SoundCategory.RECORDS, volume, pitch);
         }
-
-        return java.util.Collections.unmodifiableSet(listeners);
     }
 
     private void stopDiscForListeners(JukeboxPlayback current) {
-        if (current == null || current.sound() == null)
+        if (current == null || current.sound == null)
             return;
 
-        Set<UUID> listeners = current.listeners();
+        Set<UUID> listeners = current.listeners;
         if (listeners == null || listeners.isEmpty())
             return;
 
@@ -377,7 +462,7 @@ public final class JukeboxEngine {
             Player p = Bukkit.getPlayer(id);
             if (p == null || !p.isOnline())
                 continue;
-            p.stopSound(current.sound(), SoundCategory.RECORDS);
+            p.stopSound(current.sound, SoundCategory.RECORDS);
         }
     }
 
@@ -421,7 +506,7 @@ public final class JukeboxEngine {
     }
 
     private int discDurationTicks(Material disc) {
-        int fallback = Math.max(20, plugin.cfg().getInt("Upgrades.Jukebox.TrackDurationTicks", 2400));
+        int fallback = plugin.cfg().snapshot().jukebox().trackDurationTicks();
         if (disc == null)
             return fallback;
 
@@ -1,5 +1,8 @@
 package io.github.tootertutor.ModularPacks.modules.magnet;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -10,12 +13,12 @@ import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.persistence.PersistentDataType;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
+import io.github.tootertutor.ModularPacks.api.modules.BackpackContents;
 import io.github.tootertutor.ModularPacks.data.ItemStackCodec;
 import io.github.tootertutor.ModularPacks.data.SQLiteBackpackRepository.VoidedItemRecord;
-import io.github.tootertutor.ModularPacks.item.Keys;
+import io.github.tootertutor.ModularPacks.item.ItemKinds;
 import io.github.tootertutor.ModularPacks.modules.BackpackInventoryUtil;
 import io.github.tootertutor.ModularPacks.util.ItemStacks;
 
@@ -27,9 +30,52 @@ public final class MagnetVoidEngine {
         this.plugin = plugin;
     }
 
+    /**
+     * World-only probe: items near the player that could be picked up right now.
+     * An empty result means the magnet has nothing to do this cycle.
+     */
+    public List<Item> pickupCandidates(Player player) {
+        if (player == null)
+            return List.of();
+        double range = plugin.cfg().snapshot().magnet().range();
+        if (range <= 0.1)
+            return List.of();
+        return pickupCandidates(player.getNearbyEntities(range, range, range));
+    }
+
+    /**
+     * World-only probe for placed backpacks, around a fixed location.
+     */
+    public List<Item> pickupCandidates(Location location) {
+        if (location == null || location.getWorld() == null)
+            return List.of();
+        double range = plugin.cfg().snapshot().magnet().range();
+        if (range <= 0.1)
+            return List.of();
+        return pickupCandidates(location.getWorld().getNearbyEntities(location, range, range, range));
+    }
+
+    private static List<Item> pickupCandidates(Collection<Entity> nearby) {
+        List<Item> out = null;
+        for (Entity ent : nearby) {
+            if (!(ent instanceof Item itemEnt))
+                continue;
+            if (itemEnt.getPickupDelay() > 0)
+                continue;
+            if (out == null)
+                out = new ArrayList<>();
+            out.add(itemEnt);
+        }
+        return out == null ? List.of() : out;
+    }
+
+    /**
+     * @param candidates items from {@link #pickupCandidates(Player)}
+     */
     public boolean applyMagnet(
             Player player,
-            ItemStack[] contents,
+            List<Item> candidates,
+            BackpackContents contents,
             Set<Material> whitelist,
             ItemStack magnetSnapshot,
             UUID backpackId,
@@ -37,14 +83,10 @@ public final class MagnetVoidEngine {
             UUID voidModuleId,
             Set<Material> voidWhitelist,
             ItemStack voidSnapshot) {
-        if (player == null || contents == null || whitelist == null)
+        if (player == null || candidates == null || contents == null || whitelist == null)
             return false;
 
-        double range = plugin.cfg().getDouble("Upgrades.Magnet.Range", 6.0);
-        if (range <= 0.1)
-            return false;
-        int maxEntities = Math.max(1,
-                Math.min(256, plugin.cfg().getInt("Upgrades.Magnet.MaxItemsPerTick", 32)));
+        int maxEntities = plugin.cfg().snapshot().magnet().maxItemsPerTick();
 
         boolean changed = false;
         int processed = 0;
@@ -55,22 +97,18 @@ public final class MagnetVoidEngine {
         // Check if magnet is in blacklist mode
         boolean isBlacklist = isBlacklistMode(magnetSnapshot);
 
-        for (Entity ent : player.getNearbyEntities(range, range, range)) {
+        for (Item itemEnt : candidates) {
             if (processed >= maxEntities)
                 break;
-            if (!(ent instanceof Item itemEnt))
-                continue;
-            if (itemEnt.getPickupDelay() > 0)
+            if (!itemEnt.isValid())
                 continue;
 
             ItemStack stack = itemEnt.getItemStack();
             if (ItemStacks.isAir(stack))
                 continue;
-            // Never auto-pickup backpacks/modules (prevents nesting, module loss, etc.)
-            if (isProtectedFromVoid(stack))
-                continue;
-            // Container rules + admin blacklist
-            if (!plugin.cfg().isAllowedInBackpack(stack))
+            // Never auto-pickup backpacks/modules (prevents nesting, module loss, etc.),
+            // nor anything the container rules or admin blacklist keep out.
+            if ((plugin.itemKinds().of(stack) & (ItemKinds.TAGGED | ItemKinds.DISALLOWED)) != 0)
                 continue;
 
             // Apply whitelist/blacklist filter for magnet
@@ -91,7 +129,7 @@ public final class MagnetVoidEngine {
                 // Only void items explicitly in the whitelist
                 boolean shouldVoid = !voidWhitelist.isEmpty() && inVoidFilter;
 
-                if (shouldVoid && !isProtectedFromVoid(stack)) {
+                if (shouldVoid) {
                     boolean logged = tryLogVoidedItem(player, backpackId, backpackType, voidModuleId, stack,
                             itemEnt.getLocation());
                     if (logged) {
@@ -129,7 +167,8 @@ public final class MagnetVoidEngine {
      */
     public boolean applyMagnetAtLocation(
             Location location,
-            ItemStack[] contents,
+            List<Item> candidates,
+            BackpackContents contents,
             Set<Material> whitelist,
             ItemStack magnetSnapshot,
             UUID backpackId,
@@ -137,14 +176,10 @@ public final class MagnetVoidEngine {
             UUID voidModuleId,
             Set<Material> voidWhitelist,
             ItemStack voidSnapshot) {
-        if (location == null || contents == null || whitelist == null)
+        if (location == null || candidates == null || contents == null || whitelist == null)
             return false;
 
-        double range = plugin.cfg().getDouble("Upgrades.Magnet.Range", 6.0);
-        if (range <= 0.1)
-            return false;
-        int maxEntities = Math.max(1,
-                Math.min(256, plugin.cfg().getInt("Upgrades.Magnet.MaxItemsPerTick", 32)));
+        int maxEntities = plugin.cfg().snapshot().magnet().maxItemsPerTick();
 
         boolean changed = false;
         int processed = 0;
@@ -155,26 +190,18 @@ public final class MagnetVoidEngine {
         // Check if magnet is in blacklist mode
         boolean isBlacklist = isBlacklistMode(magnetSnapshot);
 
-        // Get entities near the placed backpack location
-        if (location.getWorld() == null)
-            return false;
-
-        for (Entity ent : location.getWorld().getNearbyEntities(location, range, range, range)) {
+        for (Item itemEnt : candidates) {
             if (processed >= maxEntities)
                 break;
-            if (!(ent instanceof Item itemEnt))
-                continue;
-            if (itemEnt.getPickupDelay() > 0)
+            if (!itemEnt.isValid())
                 continue;
 
             ItemStack stack = itemEnt.getItemStack();
             if (ItemStacks.isAir(stack))
                 continue;
-            // Never auto-pickup backpacks/modules (prevents nesting, module loss, etc.)
-            if (isProtectedFromVoid(stack))
-                continue;
-            // Container rules + admin blacklist
-            if (!plugin.cfg().isAllowedInBackpack(stack))
+            // Never auto-pickup backpacks/modules (prevents nesting, module loss, etc.),
+            // nor anything the container rules or admin blacklist keep out.
+            if ((plugin.itemKinds().of(stack) & (ItemKinds.TAGGED | ItemKinds.DISALLOWED)) != 0)
                 continue;
 
             // Apply whitelist/blacklist filter for magnet
@@ -190,7 +217,7 @@ public final class MagnetVoidEngine {
                 boolean inVoidFilter = voidWhitelist.contains(mat);
                 boolean shouldVoid = !voidWhitelist.isEmpty() && inVoidFilter;
 
-                if (shouldVoid && !isProtectedFromVoid(stack)) {
+                if (shouldVoid) {
                     // For placed backpacks, log voiding with null player
                     boolean logged = tryLogVoidedItemAtLocation(backpackId, backpackType, voidModuleId, stack,
                             itemEnt.getLocation());
@@ -222,18 +249,6 @@ public final class MagnetVoidEngine {
         return changed;
     }
 
-    private boolean isProtectedFromVoid(ItemStack stack) {
-        if (ItemStacks.isAir(stack) || !stack.hasItemMeta())
-            return false;
-        ItemMeta meta = stack.getItemMeta();
-        if (meta == null)
-            return false;
-        var pdc = meta.getPersistentDataContainer();
-        Keys keys = plugin.keys();
-        return pdc.has(keys.BACKPACK_ID, PersistentDataType.STRING)
-                || pdc.has(keys.MODULE_ID, PersistentDataType.STRING);
-    }
-
     private boolean tryLogVoidedItem(
             Player player,
             UUID backpackId,
@@ -1,5 +1,6 @@
 package io.github.tootertutor.ModularPacks.modules.restock;
 
+import java.util.BitSet;
 import java.util.List;
 
 import org.bukkit.entity.Player;
@@ -8,6 +9,7 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 
 import io.github.tootertutor.ModularPacks.ModularPacksPlugin;
+import io.github.tootertutor.ModularPacks.api.modules.BackpackContents;
 import io.github.tootertutor.ModularPacks.item.Keys;
 import io.github.tootertutor.ModularPacks.util.ItemStacks;
 
@@ -21,7 +23,11 @@ public final class RestockEngine {
         this.plugin = plugin;
     }
 
-    public boolean applyRestock(Player player, ItemStack[] backpackContents, int threshold, List<ItemStack> whitelist) {
+    /**
+     * @param slots inventory slots to restock, or null for all of them
+     */
+    public boolean applyRestock(Player player, BackpackContents backpackContents, int threshold,
+            List<ItemStack> whitelist, BitSet slots) {
         if (player == null || backpackContents == null)
             return false;
         threshold = clampThreshold(threshold);
@@ -32,12 +38,38 @@ public final class RestockEngine {
         // Hotbar first (0..8), then main inventory (9..35). Skip armor/offhand.
         var inv = player.getInventory();
 
-        changed |= restockRange(inv, backpackContents, threshold, whitelist, hasWhitelist, 0, 9);
-        changed |= restockRange(inv, backpackContents, threshold, whitelist, hasWhitelist, 9, 36);
+        changed |= restockRange(inv, backpackContents, threshold, whitelist, hasWhitelist, slots, 0, 9);
+        changed |= restockRange(inv, backpackContents, threshold, whitelist, hasWhitelist, slots, 9, 36);
 
         return changed;
     }
 
+    /**
+     * World-only probe: some stackable inventory stack is at or below the
+     * threshold and not full. Blocked (backpack/module) stacks are not
+     * excluded here; {@link #applyRestock} still skips them.
+     *
+     * @param slots inventory slots to look at, or null for all of them
+     */
+    public boolean hasRestockCandidate(Player player, int threshold, BitSet slots) {
+        if (player == null)
+            return false;
+        threshold = clampThreshold(threshold);
+        var inv = player.getInventory();
+        for (int slot = 0; slot < 36; slot++) {
+            if (slots != null && !slots.get(slot))
+                continue;
+            ItemStack stack = inv.getItem(slot);
+            if (ItemStacks.isAir(stack))
+                continue;
+            int max = stack.getMaxStackSize();
+            int amt = stack.getAmount();
+            if (max > 1 && amt > 0 && amt <= threshold && amt < max)
+                return true;
+        }
+        return false;
+    }
+
     public static int clampThreshold(int threshold) {
         if (threshold <= 0)
             return DEFAULT_THRESHOLD;
@@ -46,14 +78,17 @@ public final class RestockEngine {
 
     private boolean restockRange(
             org.bukkit.inventory.PlayerInventory inv,
-            ItemStack[] backpackContents,
+            BackpackContents backpackContents,
             int threshold,
             List<ItemStack> whitelist,
             boolean hasWhitelist,
+            BitSet slots,
             int startInclusive,
             int endExclusive) {
         boolean changed = false;
         for (int slot = startInclusive; slot < endExclusive; slot++) {
+            if (slots != null && !slots.get(slot))
+                continue;
             ItemStack stack = inv.getItem(slot);
             if (ItemStacks.isAir(stack))
                 continue;
@@ -81,27 +116,20 @@ public final class RestockEngine {
                 continue;
 
             ItemStack updated = stack.clone();
+            BitSet candidates = backpackContents.slotsOf(stack.getType());
 
-            for (int i = 0; i < backpackContents.length && need > 0; i++) {
-                ItemStack src = backpackContents[i];
-                if (ItemStacks.isAir(src))
-                    continue;
+            for (int i = candidates.nextSetBit(0); i >= 0 && need > 0; i = candidates.nextSetBit(i + 1)) {
+                ItemStack src = backpackContents.get(i);
                 if (hasBlockedPdc(src))
                     continue;
                 if (!src.isSimilar(updated))
                     continue;
 
-                int move = Math.min(need, src.getAmount());
+                int move = backpackContents.shrink(i, need);
                 if (move <= 0)
                     continue;
 
                 updated.setAmount(updated.getAmount() + move);
-                src.setAmount(src.getAmount() - move);
-                if (src.getAmount() <= 0) {
-                    backpackContents[i] = null;
-                } else {
-                    backpackContents[i] = src;
-                }
                 need -= move;
                 changed = true;
             }
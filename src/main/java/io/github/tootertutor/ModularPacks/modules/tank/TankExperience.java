@@ -29,18 +29,26 @@ public final class TankExperience {
 
     public static int levelFromTotal(int totalPoints) {
         int xp = Math.max(0, totalPoints);
+        int level;
         if (xp <= 352) {
             // level = sqrt(total + 9) - 3
-            return Math.max(0, (int) Math.floor(Math.sqrt(xp + 9.0) - 3.0));
-        }
-        if (xp <= 1507) {
+            level = Math.max(0, (int) Math.floor(Math.sqrt(xp + 9.0) - 3.0));
+        } else if (xp <= 1507) {
             // level = 81/10 + sqrt((2/5) * (total - 7839/40))
             double value = 8.1 + Math.sqrt((2.0 / 5.0) * (xp - (7839.0 / 40.0)));
-            return Math.max(0, (int) Math.floor(value));
+            level = Math.max(0, (int) Math.floor(value));
+        } else {
+            // level = 325/18 + sqrt((2/9) * (total - 54215/72))
+            double value = (325.0 / 18.0) + Math.sqrt((2.0 / 9.0) * (xp - (54215.0 / 72.0)));
+            level = Math.max(0, (int) Math.floor(value));
         }
-        // level = 325/18 + sqrt((2/9) * (total - 54215/72))
-        double value = (325.0 / 18.0) + Math.sqrt((2.0 / 9.0) * (xp - (54215.0 / 72.0)));
-        return Math.max(0, (int) Math.floor(value));
+
+        // The square roots can land a hair off on exact level boundaries.
+        while (level > 0 && totalForLevel(level) > xp)
+            level--;
+        while (totalForLevel(level + 1) <= xp)
+            level++;
+        return level;
     }
 
     public static int progressInCurrentLevel(int totalPoints) {
@@ -56,4 +64,41 @@ public final class TankExperience {
         int partial = Math.min(toNext - 1, (int) Math.floor(clamped * toNext));
         return totalForLevel(lv) + Math.max(0, partial);
     }
-}
\ No newline at end of file
+
+    /**
+     * Points needed to go from one displayed level to another while keeping the
+     * same progress into the level; negative when going down. Equal to the sum of
+     * the single-level steps in between.
+     */
+    public static int pointsBetweenLevels(int fromLevel, int toLevel, float expProgress) {
+        return totalFromLevelAndProgress(toLevel, expProgress) - totalFromLevelAndProgress(fromLevel, expProgress);
+    }
+
+    /**
+     * @return the highest level at or above {@code level} that costs at most
+     *         {@code points} to reach, keeping the progress into the level
+     */
+    public static int highestLevelAffordable(int level, float expProgress, int points) {
+        int lv = Math.max(0, level);
+        int budget = totalFromLevelAndProgress(lv, expProgress) + Math.max(0, points);
+        int reachable = levelFromTotal(budget);
+        if (totalFromLevelAndProgress(reachable, expProgress) > budget)
+            reachable--;
+        return Math.max(lv, reachable);
+    }
+
+    /**
+     * @return the lowest level at or below {@code level} that frees at most
+     *         {@code points} to reach, keeping the progress into the level
+     */
+    public static int lowestLevelAffordable(int level, float expProgress, int points) {
+        int lv = Math.max(0, level);
+        int floor = totalFromLevelAndProgress(lv, expProgress) - Math.max(0, points);
+        if (floor <= 0)
+            return 0;
+        int reachable = levelFromTotal(floor);
+        if (totalFromLevelAndProgress(reachable, expProgress) < floor)
+            reachable++;
+        return Math.min(lv, reachable);
+    }
+}
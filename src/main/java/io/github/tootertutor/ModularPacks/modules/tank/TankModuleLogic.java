@@ -128,10 +128,10 @@ public final class TankModuleLogic {
             return out;
 
         if (def != null) {
-            meta.displayName(Text.c(Placeholders.expandText(plugin, def, out, def.displayName())));
+            meta.displayName(Text.dynamic(Placeholders.expandText(plugin, def, out, def.displayName())));
 
             List<String> base = Placeholders.expandLore(plugin, def, out, def.lore());
-            meta.lore(Text.lore(expandContainedFluid(plugin, base, s)));
+            meta.lore(Text.dynamicLore(expandContainedFluid(plugin, base, s)));
         }
 
         out.setItemMeta(meta);
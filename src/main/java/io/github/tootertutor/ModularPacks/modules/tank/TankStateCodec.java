@@ -1,13 +1,25 @@
 package io.github.tootertutor.ModularPacks.modules.tank;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 
+import io.github.tootertutor.ModularPacks.data.ModuleStateCodec;
+import io.github.tootertutor.ModularPacks.data.ModuleStateCodecs;
+
 public final class TankStateCodec {
 
+    /**
+     * v1 layout: expMode (boolean), fluidBucketMaterial (nullable UTF),
+     * fluidBuckets (int), expTotalPoints (int).
+     */
+    public static final ModuleStateCodec<State> CODEC = new Codec();
+
     private TankStateCodec() {
     }
 
@@ -26,56 +38,98 @@ public final class TankStateCodec {
     }
 
     public static byte[] encode(State s) {
-        YamlConfiguration yaml = new YamlConfiguration();
-        yaml.set("v", 3);
-        yaml.set("expMode", s.expMode);
-        yaml.set("fluidBucketMaterial", s.fluidBucketMaterial);
-        yaml.set("fluidBuckets", Math.max(0, s.fluidBuckets));
-        int expPoints = Math.max(0, s.expTotalPoints);
-        yaml.set("expTotalPoints", expPoints);
-        // Keep writing expLevels for downgrade compatibility.
-        yaml.set("expLevels", TankExperience.levelFromTotal(expPoints));
-        return yaml.saveToString().getBytes(StandardCharsets.UTF_8);
+        return ModuleStateCodecs.encode(CODEC, s);
     }
 
     public static State decode(byte[] bytes) {
-        State s = new State();
-        if (bytes == null || bytes.length == 0)
-            return s;
-
-        String str = new String(bytes, StandardCharsets.UTF_8);
-        YamlConfiguration yaml = new YamlConfiguration();
-        try {
-            yaml.loadFromString(str);
-        } catch (InvalidConfigurationException e) {
-            return s;
+        return ModuleStateCodecs.decode(CODEC, bytes);
+    }
+
+    /**
+     * @return null when the bytes cannot be read; see
+     *         {@link ModuleStateCodecs#tryDecode}
+     */
+    public static State tryDecode(byte[] bytes) {
+        return ModuleStateCodecs.tryDecode(CODEC, bytes);
+    }
+
+    private static final class Codec implements ModuleStateCodec<State> {
+
+        @Override
+        public String id() {
+            return "Tank";
         }
 
-        // v2 fields
-        s.expMode = yaml.getBoolean("expMode", false);
-        s.fluidBucketMaterial = yaml.getString("fluidBucketMaterial");
-        s.fluidBuckets = Math.max(0, yaml.getInt("fluidBuckets", 0));
-
-        int expPoints = yaml.getInt("expTotalPoints", -1);
-        if (expPoints >= 0) {
-            s.expTotalPoints = expPoints;
-        } else {
-            // Migrate legacy level-only storage to exact total points at that level.
-            int legacyLevels = Math.max(0, yaml.getInt("expLevels", 0));
-            s.expTotalPoints = TankExperience.totalForLevel(legacyLevels);
+        @Override
+        public int version() {
+            return 1;
         }
 
-        // v1 compatibility (waterBuckets/lavaBuckets)
-        int water = Math.max(0, yaml.getInt("waterBuckets", 0));
-        int lava = Math.max(0, yaml.getInt("lavaBuckets", 0));
-        if (s.fluidBuckets <= 0 && water > 0) {
-            s.fluidBucketMaterial = "WATER_BUCKET";
-            s.fluidBuckets = water;
-        } else if (s.fluidBuckets <= 0 && lava > 0) {
-            s.fluidBucketMaterial = "LAVA_BUCKET";
-            s.fluidBuckets = lava;
+        @Override
+        public State empty() {
+            return new State();
         }
 
+        @Override
+        public void write(State s, DataOutput out) throws IOException {
+            out.writeBoolean(s.expMode);
+            ModuleStateCodecs.writeNullableUTF(out, s.fluidBucketMaterial);
+            out.writeInt(Math.max(0, s.fluidBuckets));
+            out.writeInt(Math.max(0, s.expTotalPoints));
+        }
+
+        @Override
+        public State read(DataInput in, int version) throws IOException {
+            State s = new State();
+            s.expMode = in.readBoolean();
+            s.fluidBucketMaterial = ModuleStateCodecs.readNullableUTF(in);
+            s.fluidBuckets = Math.max(0, in.readInt());
+            s.expTotalPoints = in.readInt();
+            return sanitize(s);
+        }
+
+        @Override
+        public State decodeLegacy(byte[] bytes) {
+            String str = new String(bytes, StandardCharsets.UTF_8);
+            YamlConfiguration yaml = new YamlConfiguration();
+            try {
+                yaml.loadFromString(str);
+            } catch (InvalidConfigurationException e) {
+                return null;
+            }
+
+            State s = new State();
+
+            // v2 fields
+            s.expMode = yaml.getBoolean("expMode", false);
+            s.fluidBucketMaterial = yaml.getString("fluidBucketMaterial");
+            s.fluidBuckets = Math.max(0, yaml.getInt("fluidBuckets", 0));
+
+            int expPoints = yaml.getInt("expTotalPoints", -1);
+            if (expPoints >= 0) {
+                s.expTotalPoints = expPoints;
+            } else {
+                // Migrate legacy level-only storage to exact total points at that level.
+                int legacyLevels = Math.max(0, yaml.getInt("expLevels", 0));
+                s.expTotalPoints = TankExperience.totalForLevel(legacyLevels);
+            }
+
+            // v1 compatibility (waterBuckets/lavaBuckets)
+            int water = Math.max(0, yaml.getInt("waterBuckets", 0));
+            int lava = Math.max(0, yaml.getInt("lavaBuckets", 0));
+            if (s.fluidBuckets <= 0 && water > 0) {
+                s.fluidBucketMaterial = "WATER_BUCKET";
+                s.fluidBuckets = water;
+            } else if (s.fluidBuckets <= 0 && lava > 0) {
+                s.fluidBucketMaterial = "LAVA_BUCKET";
+                s.fluidBuckets = lava;
+            }
+
+            return sanitize(s);
+        }
+    }
+
+    private static State sanitize(State s) {
         // sanitize impossible mixed states
         if (s.expTotalPoints > 0) {
             s.expMode = true;
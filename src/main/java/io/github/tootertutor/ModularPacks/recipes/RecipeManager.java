@@ -41,8 +41,10 @@ import io.github.tootertutor.ModularPacks.item.BackpackItems;
 import io.github.tootertutor.ModularPacks.item.CustomModelDataUtil;
 import io.github.tootertutor.ModularPacks.item.Keys;
 import io.github.tootertutor.ModularPacks.item.UpgradeItems;
+import io.github.tootertutor.ModularPacks.modules.crafting.CraftingModuleLogic;
 import io.github.tootertutor.ModularPacks.util.ItemStacks;
 import io.github.tootertutor.ModularPacks.util.Text;
+import io.papermc.paper.event.server.ServerResourcesReloadedEvent;
 
 /**
  * Registers recipes from config and handles "dynamic output" (unique IDs).
@@ -72,6 +74,7 @@ public final class RecipeManager implements Listener {
     }
 
     public void reload() {
+        CraftingModuleLogic.invalidateMatchCache();
         unregisterBackpackRecipes();
         registerBackpackRecipesFromConfig();
         registerUpgradeRecipesFromConfig();
@@ -185,6 +188,13 @@ public final class RecipeManager implements Listener {
 
     public void close() {
         unregisterAll();
+        CraftingModuleLogic.invalidateMatchCache();
+    }
+
+    @EventHandler
+    public void onServerResourcesReloaded(ServerResourcesReloadedEvent e) {
+        // Datapack reloads can add/remove vanilla recipes behind our back.
+        CraftingModuleLogic.invalidateMatchCache();
     }
 
     private void unregisterAll() {
@@ -613,7 +623,7 @@ public final class RecipeManager implements Listener {
 
         if (!validateDynamicIngredients(recipe, e.getInventory() != null ? e.getInventory().getMatrix() : null)) {
             e.setCancelled(true);
-            Bukkit.getScheduler().runTask(plugin, player::updateInventory);
+            plugin.resyncs().request(player);
             return;
         }
 
@@ -1,23 +1,126 @@
 package io.github.tootertutor.ModularPacks.util;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 
+/**
+ * Legacy & code text to Adventure components.
+ *
+ * Parsed components are kept in a bounded LRU keyed by the raw string; they
+ * are immutable, so one instance can back any number of items. Strings that
+ * embed per-item values (counts, names, amounts) should use the dynamic
+ * variants, which read the cache but never fill it.
+ */
 public final class Text {
 
     private static final MiniMessage MM = MiniMessage.miniMessage();
+    private static final int CACHE_CAPACITY = 2048;
+
+    private static final Map<String, Component> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Component> eldest) {
+                    return size() > CACHE_CAPACITY;
+                }
+            });
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder UNCACHED = new LongAdder();
 
     private Text() {
     }
 
+    /**
+     * Cache counters since the last {@link #clearCache()}.
+     * - misses: parsed and stored
+     * - uncached: parsed by a dynamic call and not stored
+     */
+    public record CacheStats(long hits, long misses, long uncached, int size) {
+        public long lookups() {
+            return hits + misses + uncached;
+        }
+
+        public double hitRate() {
+            long lookups = lookups();
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.ROOT, "%d/%d hits (%.1f%%), %d cached", hits, lookups(),
+                    hitRate() * 100.0, size);
+        }
+    }
+
     /** Deserialize a config/lang string that may contain legacy & codes. */
     public static Component c(String input) {
         if (input == null || input.isEmpty())
             return Component.empty();
 
+        Component cached = CACHE.get(input);
+        if (cached != null) {
+            HITS.increment();
+            return cached;
+        }
+
+        MISSES.increment();
+        Component parsed = parse(input);
+        CACHE.put(input, parsed);
+        return parsed;
+    }
+
+    /**
+     * Like {@link #c(String)} for strings carrying runtime values: a cached
+     * component is reused, but a miss is not stored.
+     */
+    public static Component dynamic(String input) {
+        if (input == null || input.isEmpty())
+            return Component.empty();
+
+        Component cached = CACHE.get(input);
+        if (cached != null) {
+            HITS.increment();
+            return cached;
+        }
+
+        UNCACHED.increment();
+        return parse(input);
+    }
+
+    /**
+     * Parses and stores strings ahead of use (e.g. lang and config text at
+     * reload). Not counted in the cache statistics.
+     */
+    public static void preload(Iterable<String> inputs) {
+        if (inputs == null)
+            return;
+        for (String input : inputs) {
+            if (input == null || input.isEmpty() || CACHE.containsKey(input))
+                continue;
+            CACHE.put(input, parse(input));
+        }
+    }
+
+    public static CacheStats cacheStats() {
+        return new CacheStats(HITS.sum(), MISSES.sum(), UNCACHED.sum(), CACHE.size());
+    }
+
+    /** Empties the cache and resets its counters. */
+    public static void clearCache() {
+        CACHE.clear();
+        HITS.reset();
+        MISSES.reset();
+        UNCACHED.reset();
+    }
+
+    private static Component parse(String input) {
         // If you later decide to allow raw minimessage in config, you can detect it
         // here.
         // For now we always convert '&' -> minimessage.
@@ -38,6 +141,16 @@ public final class Text {
         return out;
     }
 
+    /** {@link #lore(List)} for lines carrying runtime values; see {@link #dynamic(String)}. */
+    public static List<Component> dynamicLore(List<String> lines) {
+        if (lines == null || lines.isEmpty())
+            return List.of();
+        List<Component> out = new ArrayList<>(lines.size());
+        for (String s : lines)
+            out.add(dynamic(s));
+        return out;
+    }
+
     /**
      * Converts legacy color codes (&a, &7, &l, &r, etc.) into MiniMessage tags.
      * Supports hex in the form &#RRGGBB.
@@ -0,0 +1,76 @@
+package io.github.tootertutor.ModularPacks.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PlaceholderTemplateTest {
+
+    @Test
+    void splitsLiteralsAndKeys() {
+        PlaceholderTemplate t = PlaceholderTemplate.compile("&7Items: {items}/{max_items} ({pct})");
+
+        assertTrue(t.hasPlaceholders());
+        assertEquals(List.of("&7Items: ", "{items}", "/", "{max_items}", " (", "{pct}", ")"), parts(t));
+        assertNull(t.pureKey());
+        assertEquals("&7Items: {items}/{max_items} ({pct})", t.source());
+    }
+
+    @Test
+    void acceptsTheFullKeyAlphabet() {
+        PlaceholderTemplate t = PlaceholderTemplate.compile("{Upgrades.Magnet-Range_2}");
+
+        assertEquals(List.of("{Upgrades.Magnet-Range_2}"), parts(t));
+    }
+
+    @Test
+    void keepsInvalidBracesLiteral() {
+        for (String line : List.of("{}", "{ spaced }", "{open", "close}", "{a b}", "{{x}", "}{", "{a:b}")) {
+            PlaceholderTemplate t = PlaceholderTemplate.compile(line);
+            String joined = String.join("", parts(t));
+            assertEquals(line, joined, line);
+        }
+        assertFalse(PlaceholderTemplate.compile("{a b} {}").hasPlaceholders());
+        assertEquals(List.of("{", "{x}"), parts(PlaceholderTemplate.compile("{{x}")));
+    }
+
+    @Test
+    void adjacentKeysHaveNoEmptyLiterals() {
+        assertEquals(List.of("{a}", "{b}", "{c}"), parts(PlaceholderTemplate.compile("{a}{b}{c}")));
+    }
+
+    @Test
+    void pureKeyIgnoresSurroundingWhitespaceOnly() {
+        assertEquals("actions", PlaceholderTemplate.compile("{actions}").pureKey());
+        assertEquals("actions", PlaceholderTemplate.compile("  {actions}\t").pureKey());
+        assertNull(PlaceholderTemplate.compile("- {actions}").pureKey());
+        assertNull(PlaceholderTemplate.compile("{a}{b}").pureKey());
+        assertNull(PlaceholderTemplate.compile("plain").pureKey());
+    }
+
+    @Test
+    void plainAndEmptyLines() {
+        PlaceholderTemplate plain = PlaceholderTemplate.compile("no placeholders here");
+        assertFalse(plain.hasPlaceholders());
+        assertEquals(List.of("no placeholders here"), parts(plain));
+
+        PlaceholderTemplate empty = PlaceholderTemplate.compile("");
+        assertFalse(empty.hasPlaceholders());
+        assertEquals(0, empty.size());
+    }
+
+    // Keys are rendered back in braces so tests can compare against the source.
+    private static List<String> parts(PlaceholderTemplate t) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < t.size(); i++) {
+            out.add(t.isKey(i) ? "{" + t.part(i) + "}" : t.part(i));
+        }
+        return out;
+    }
+}
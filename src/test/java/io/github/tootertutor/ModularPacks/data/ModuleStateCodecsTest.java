@@ -0,0 +1,198 @@
+package io.github.tootertutor.ModularPacks.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ModuleStateCodecsTest {
+
+    private static final Counter EMPTY = new Counter(0, null);
+
+    @AfterEach
+    void unregisterTestCodecs() {
+        ModuleStateCodecs.unregister("TestCounter");
+    }
+
+    @Test
+    void roundTripsTheCurrentLayout() {
+        CounterCodec codec = new CounterCodec(2);
+        Counter state = new Counter(42, "hello");
+
+        byte[] bytes = ModuleStateCodecs.encode(codec, state);
+
+        assertTrue(ModuleStateCodecs.isFramed(bytes));
+        assertEquals("TestCounter", ModuleStateCodecs.idOf(bytes));
+        assertEquals(state, ModuleStateCodecs.decode(codec, bytes));
+        assertEquals(new Counter(-1, null),
+                ModuleStateCodecs.decode(codec, ModuleStateCodecs.encode(codec, new Counter(-1, null))));
+    }
+
+    @Test
+    void writesTheVersionAfterTheId() {
+        byte[] bytes = ModuleStateCodecs.encode(new CounterCodec(7), new Counter(1, null));
+
+        // header (3) + UTF length (2) + "TestCounter" (11)
+        assertArrayEquals(new byte[] { 0x00, 'M', 'S' }, Arrays.copyOf(bytes, 3));
+        assertEquals(7, bytes[3 + 2 + "TestCounter".length()]);
+    }
+
+    @Test
+    void readsOlderVersionsWithTheirOwnLayout() {
+        byte[] v1 = ModuleStateCodecs.encode(new CounterCodec(1), new Counter(5, "dropped by v1"));
+
+        assertEquals(new Counter(5, null), ModuleStateCodecs.decode(new CounterCodec(2), v1));
+    }
+
+    @Test
+    void newerVersionsAreUnreadable() {
+        byte[] v3 = ModuleStateCodecs.encode(new CounterCodec(3), new Counter(5, "x"));
+
+        assertNull(ModuleStateCodecs.tryDecode(new CounterCodec(2), v3));
+        assertSame(EMPTY, ModuleStateCodecs.decode(new CounterCodec(2), v3));
+    }
+
+    @Test
+    void maxVersionIsReadAsUnsigned() {
+        CounterCodec codec = new CounterCodec(255);
+        Counter state = new Counter(9, "top");
+
+        assertEquals(state, ModuleStateCodecs.decode(codec, ModuleStateCodecs.encode(codec, state)));
+    }
+
+    @Test
+    void foreignIdsAreUnreadable() {
+        byte[] bytes = ModuleStateCodecs.encode(new CounterCodec("OtherModule", 1), new Counter(5, "x"));
+
+        assertNull(ModuleStateCodecs.tryDecode(new CounterCodec(1), bytes));
+        assertSame(EMPTY, ModuleStateCodecs.decode(new CounterCodec(1), bytes));
+    }
+
+    @Test
+    void idsMatchCaseInsensitively() {
+        byte[] bytes = ModuleStateCodecs.encode(new CounterCodec("testcounter", 1), new Counter(5, null));
+
+        assertEquals(new Counter(5, null), ModuleStateCodecs.decode(new CounterCodec(1), bytes));
+    }
+
+    @Test
+    void missingBytesDecodeToEmpty() {
+        CounterCodec codec = new CounterCodec(2);
+
+        assertSame(EMPTY, ModuleStateCodecs.tryDecode(codec, null));
+        assertSame(EMPTY, ModuleStateCodecs.tryDecode(codec, new byte[0]));
+    }
+
+    @Test
+    void truncatedBytesAreUnreadable() {
+        CounterCodec codec = new CounterCodec(2);
+        byte[] bytes = ModuleStateCodecs.encode(codec, new Counter(42, "hello"));
+
+        for (int length = 3; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertNull(ModuleStateCodecs.tryDecode(codec, truncated), "length " + length);
+            assertSame(EMPTY, ModuleStateCodecs.decode(codec, truncated), "length " + length);
+        }
+    }
+
+    @Test
+    void unframedBytesGoToTheLegacyDecoder() {
+        CounterCodec codec = new CounterCodec(2);
+
+        assertFalse(ModuleStateCodecs.isFramed("value: 12".getBytes(StandardCharsets.UTF_8)));
+        assertNull(ModuleStateCodecs.idOf("value: 12".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(new Counter(12, "legacy"),
+                ModuleStateCodecs.decode(codec, "value: 12".getBytes(StandardCharsets.UTF_8)));
+        // Unrecognised legacy bytes have nothing to preserve; they are replaced on the next write.
+        assertSame(EMPTY, ModuleStateCodecs.tryDecode(codec, "garbage".getBytes(StandardCharsets.UTF_8)));
+        assertSame(EMPTY, ModuleStateCodecs.tryDecode(codec, "value: x".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void registrationValidatesIdsAndVersions() {
+        assertThrows(IllegalArgumentException.class, () -> ModuleStateCodecs.register(null));
+        assertThrows(IllegalArgumentException.class, () -> ModuleStateCodecs.register(new CounterCodec(" ", 1)));
+        assertThrows(IllegalArgumentException.class, () -> ModuleStateCodecs.register(new CounterCodec(-1)));
+        assertThrows(IllegalArgumentException.class, () -> ModuleStateCodecs.register(new CounterCodec(256)));
+
+        CounterCodec codec = new CounterCodec(255);
+        ModuleStateCodecs.register(codec);
+        assertSame(codec, ModuleStateCodecs.get("testcounter"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ModuleStateCodecs.register(new CounterCodec("TESTCOUNTER", 1)));
+
+        assertTrue(ModuleStateCodecs.unregister("TestCounter"));
+        assertNull(ModuleStateCodecs.get("TestCounter"));
+        assertFalse(ModuleStateCodecs.unregister("TestCounter"));
+    }
+
+    private record Counter(int value, String label) {
+    }
+
+    /**
+     * v1: value (int); v2 adds label (nullable UTF). Legacy text is
+     * {@code value: <int>}.
+     */
+    private static final class CounterCodec implements ModuleStateCodec<Counter> {
+        private final String id;
+        private final int version;
+
+        CounterCodec(int version) {
+            this("TestCounter", version);
+        }
+
+        CounterCodec(String id, int version) {
+            this.id = id;
+            this.version = version;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public int version() {
+            return version;
+        }
+
+        @Override
+        public Counter empty() {
+            return EMPTY;
+        }
+
+        @Override
+        public void write(Counter state, DataOutput out) throws IOException {
+            out.writeInt(state.value());
+            if (version >= 2)
+                ModuleStateCodecs.writeNullableUTF(out, state.label());
+        }
+
+        @Override
+        public Counter read(DataInput in, int version) throws IOException {
+            int value = in.readInt();
+            String label = version >= 2 ? ModuleStateCodecs.readNullableUTF(in) : null;
+            return new Counter(value, label);
+        }
+
+        @Override
+        public Counter decodeLegacy(byte[] bytes) {
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            if (!text.startsWith("value: "))
+                return null;
+            return new Counter(Integer.parseInt(text.substring("value: ".length())), "legacy");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.tootertutor.ModularPacks.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SortKeyTest {
+
+    @Test
+    void comparesHeadThenTextThenTail() {
+        assertTrue(SortKey.of(1, 5).compareTo(SortKey.of(2, 0)) < 0);
+        assertTrue(SortKey.of("b", 1).compareTo(SortKey.of("a", 2)) < 0);
+        assertTrue(SortKey.of("a", 1).compareTo(SortKey.of("b", 1)) < 0);
+        assertTrue(new SortKey(new long[] { 1 }, "a", 1).compareTo(new SortKey(new long[] { 1 }, "a", 2)) < 0);
+        assertEquals(0, SortKey.of("Same", 3).compareTo(SortKey.of("same", 3)));
+    }
+
+    @Test
+    void shorterHeadSortsFirstOnACommonPrefix() {
+        assertTrue(SortKey.of(1).compareTo(SortKey.of(1, 0)) < 0);
+        assertTrue(SortKey.of().compareTo(SortKey.of(Long.MIN_VALUE)) < 0);
+    }
+
+    @Test
+    void usesTheFullLongRange() {
+        assertTrue(SortKey.of(Long.MIN_VALUE).compareTo(SortKey.of(0)) < 0);
+        assertTrue(SortKey.of((long) Integer.MAX_VALUE + 1).compareTo(SortKey.of(Integer.MAX_VALUE)) > 0);
+    }
+
+    @Test
+    void lastSortsAfterBuiltInKeys() {
+        assertTrue(SortKey.LAST.compareTo(SortKey.of(Long.MAX_VALUE - 1, Long.MAX_VALUE)) > 0);
+        assertTrue(SortKey.LAST.compareTo(SortKey.of("zzz", Integer.MAX_VALUE, Long.MAX_VALUE)) > 0);
+    }
+
+    @Test
+    void nullPartsActAsEmpty() {
+        assertEquals(0, new SortKey(null, null, 0).compareTo(SortKey.of()));
+        assertEquals(0, SortKey.of((String) null, 1).compareTo(SortKey.of("", 1)));
+    }
+
+    @Test
+    void copiesTheHeadArray() {
+        long[] reused = { 5 };
+        SortKey key = new SortKey(reused, "", 0);
+        reused[0] = 1;
+
+        assertEquals(0, key.compareTo(SortKey.of(5)));
+    }
+
+    @Test
+    void sortsAListStably() {
+        List<SortKey> keys = new ArrayList<>(List.of(SortKey.of("b", 2), SortKey.LAST, SortKey.of("a", 2),
+                SortKey.of(1), SortKey.of("a", 1)));
+        keys.sort(null);
+
+        assertEquals(List.of(keys.get(0), keys.get(1), keys.get(2), keys.get(3), SortKey.LAST), keys);
+        assertEquals(0, keys.get(0).compareTo(SortKey.of(1)));
+        assertEquals(0, keys.get(1).compareTo(SortKey.of("a", 1)));
+        assertEquals(0, keys.get(2).compareTo(SortKey.of("a", 2)));
+        assertEquals(0, keys.get(3).compareTo(SortKey.of("b", 2)));
+    }
+}
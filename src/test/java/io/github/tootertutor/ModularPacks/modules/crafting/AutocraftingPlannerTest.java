@@ -0,0 +1,284 @@
+package io.github.tootertutor.ModularPacks.modules.crafting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class AutocraftingPlannerTest {
+
+    private static final int TYPES = 6;
+
+    @Test
+    void mergeRoomIsSharedByEveryOutput() {
+        // Result and remainder are the same item: 10 room in one stack, 20 items per batch of 10.
+        List<AutocraftingPlanner.Output> outputs = List.of(new AutocraftingPlanner.Output(2, 10, 64, false));
+
+        assertEquals(64, AutocraftingPlanner.largestBatch(64, b -> 2, outputs));
+        assertEquals(5, AutocraftingPlanner.largestBatch(64, b -> 0, outputs));
+    }
+
+    @Test
+    void dynamicResultsNeedASlotPerCraft() {
+        List<AutocraftingPlanner.Output> outputs = List.of(new AutocraftingPlanner.Output(1, 0, 64, true));
+
+        assertEquals(3, AutocraftingPlanner.largestBatch(64, b -> 3, outputs));
+        assertEquals(0, AutocraftingPlanner.largestBatch(64, b -> 0, outputs));
+    }
+
+    @Test
+    void neverPlansMoreThanTheContentsCanHold() {
+        Random random = new Random(27);
+        for (int i = 0; i < 20_000; i++) {
+            Case c = Case.random(random);
+            int planned = c.plan();
+
+            String at = "case " + i;
+            assertTrue(c.bulkFits(planned), at);
+            if (!c.outputsShareAnIngredient()) {
+                // Room is exact when no output stacks onto a drained ingredient.
+                assertTrue(planned >= c.stepLoop(), at);
+                assertTrue(planned == c.upper() || !c.bulkFits(planned + 1), at);
+            }
+        }
+    }
+
+    @Test
+    void undercountsRoomOnStacksAnIngredientDrains() {
+        // One slot holds 2 of item 1; each craft uses one and makes one more of it.
+        Case c = new Case(new int[] { 1 }, new int[] { 2 }, new int[] { 1 }, new int[] { 1 }, 1, 1,
+                new int[0], new int[0]);
+
+        assertEquals(0, c.plan());
+        assertFalse(c.bulkFits(3));
+    }
+
+    /**
+     * Slots as item type and amount (type 0 is empty); every type stacks to
+     * {@code maxStack(type)}.
+     */
+    private record Case(int[] types, int[] amounts, int[] ingredientTypes, int[] perCraft, int resultType,
+            int resultAmount, int[] remainderTypes, int[] remaindersPerCraft) {
+
+        static Case random(Random random) {
+            int size = 1 + random.nextInt(9);
+            int[] types = new int[size];
+            int[] amounts = new int[size];
+            for (int s = 0; s < size; s++) {
+                if (random.nextInt(3) == 0)
+                    continue;
+                types[s] = 1 + random.nextInt(TYPES);
+                amounts[s] = 1 + random.nextInt(maxStack(types[s]));
+            }
+
+            int ingredients = 1 + random.nextInt(3);
+            int[] ingredientTypes = new int[ingredients];
+            int[] perCraft = new int[ingredients];
+            for (int j = 0; j < ingredients; j++) {
+                ingredientTypes[j] = 1 + j;
+                perCraft[j] = 1 + random.nextInt(3);
+            }
+
+            // Keep outputs clear of ingredients most of the time, where the room is exact.
+            boolean shared = random.nextInt(4) == 0;
+            int low = shared ? 1 : ingredients + 1;
+            int remainders = random.nextInt(3);
+            int[] remainderTypes = new int[remainders];
+            int[] remaindersPerCraft = new int[remainders];
+            for (int j = 0; j < remainders; j++) {
+                remainderTypes[j] = low + random.nextInt(TYPES + 1 - low);
+                remaindersPerCraft[j] = 1 + random.nextInt(2);
+            }
+            return new Case(types, amounts, ingredientTypes, perCraft, low + random.nextInt(TYPES + 1 - low),
+                    1 + random.nextInt(4), remainderTypes, remaindersPerCraft);
+        }
+
+        static int maxStack(int type) {
+            return type % 3 == 0 ? 1 : type % 3 == 1 ? 64 : 16;
+        }
+
+        int upper() {
+            int upper = 64;
+            for (int j = 0; j < ingredientTypes.length; j++) {
+                upper = Math.min(upper, count(types, amounts, ingredientTypes[j]) / perCraft[j]);
+            }
+            return upper;
+        }
+
+        boolean outputsShareAnIngredient() {
+            for (int output : outputTypes()) {
+                if (isIngredient(output))
+                    return true;
+            }
+            return false;
+        }
+
+        /** Mirrors how the planner groups outputs and reserves their merge room. */
+        int plan() {
+            List<Integer> distinct = new ArrayList<>();
+            List<AutocraftingPlanner.Output> outputs = new ArrayList<>();
+            int[] outputTypes = outputTypes();
+            int[] outputAmounts = outputAmounts();
+            for (int k = 0; k < outputTypes.length; k++) {
+                int type = outputTypes[k];
+                int at = distinct.indexOf(type);
+                if (at >= 0) {
+                    AutocraftingPlanner.Output o = outputs.get(at);
+                    outputs.set(at, new AutocraftingPlanner.Output(o.perCraft() + outputAmounts[k], o.mergeRoom(),
+                            o.maxStack(), false));
+                    continue;
+                }
+                int mergeRoom = isIngredient(type) ? 0 : room(types, amounts, type);
+                distinct.add(type);
+                outputs.add(new AutocraftingPlanner.Output(outputAmounts[k], mergeRoom, maxStack(type), false));
+            }
+            return AutocraftingPlanner.largestBatch(upper(), this::freeSlotsAfter, outputs);
+        }
+
+        private int freeSlotsAfter(int batch) {
+            int[] t = types.clone();
+            int[] a = amounts.clone();
+            int free = 0;
+            for (int s = 0; s < t.length; s++) {
+                if (t[s] == 0)
+                    free++;
+            }
+            for (int j = 0; j < ingredientTypes.length; j++) {
+                free += take(t, a, ingredientTypes[j], perCraft[j] * batch);
+            }
+            return free;
+        }
+
+        /** Consumes and inserts the whole batch at once, as the planner applies it. */
+        boolean bulkFits(int batch) {
+            if (batch > upper())
+                return false;
+            int[] t = types.clone();
+            int[] a = amounts.clone();
+            for (int j = 0; j < ingredientTypes.length; j++) {
+                take(t, a, ingredientTypes[j], perCraft[j] * batch);
+            }
+            int[] outputTypes = outputTypes();
+            int[] outputAmounts = outputAmounts();
+            for (int k = 0; k < outputTypes.length; k++) {
+                if (insert(t, a, outputTypes[k], outputAmounts[k] * batch) > 0)
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * The simulation loop the planner replaced: consume one craft's ingredients,
+         * store its outputs, stop at the first craft that does not fit.
+         */
+        int stepLoop() {
+            int[] t = types.clone();
+            int[] a = amounts.clone();
+            int ops = 0;
+            while (ops < 64) {
+                for (int j = 0; j < ingredientTypes.length; j++) {
+                    if (count(t, a, ingredientTypes[j]) < perCraft[j])
+                        return ops;
+                }
+                int[] nt = t.clone();
+                int[] na = a.clone();
+                for (int j = 0; j < ingredientTypes.length; j++) {
+                    take(nt, na, ingredientTypes[j], perCraft[j]);
+                }
+                int[] outputTypes = outputTypes();
+                int[] outputAmounts = outputAmounts();
+                for (int k = 0; k < outputTypes.length; k++) {
+                    if (insert(nt, na, outputTypes[k], outputAmounts[k]) > 0)
+                        return ops;
+                }
+                t = nt;
+                a = na;
+                ops++;
+            }
+            return ops;
+        }
+
+        private int[] outputTypes() {
+            int[] out = new int[remainderTypes.length + 1];
+            out[0] = resultType;
+            System.arraycopy(remainderTypes, 0, out, 1, remainderTypes.length);
+            return out;
+        }
+
+        private int[] outputAmounts() {
+            int[] out = new int[remaindersPerCraft.length + 1];
+            out[0] = resultAmount;
+            System.arraycopy(remaindersPerCraft, 0, out, 1, remaindersPerCraft.length);
+            return out;
+        }
+
+        private boolean isIngredient(int type) {
+            for (int ingredient : ingredientTypes) {
+                if (ingredient == type)
+                    return true;
+            }
+            return false;
+        }
+
+        private static int count(int[] t, int[] a, int type) {
+            int count = 0;
+            for (int s = 0; s < t.length; s++) {
+                if (t[s] == type)
+                    count += a[s];
+            }
+            return count;
+        }
+
+        private static int room(int[] t, int[] a, int type) {
+            int room = 0;
+            for (int s = 0; s < t.length; s++) {
+                if (t[s] == type)
+                    room += maxStack(type) - a[s];
+            }
+            return room;
+        }
+
+        /** Drains in slot order; returns the number of slots emptied. */
+        private static int take(int[] t, int[] a, int type, int amount) {
+            int emptied = 0;
+            for (int s = 0; s < t.length && amount > 0; s++) {
+                if (t[s] != type)
+                    continue;
+                int n = Math.min(amount, a[s]);
+                a[s] -= n;
+                amount -= n;
+                if (a[s] == 0) {
+                    t[s] = 0;
+                    emptied++;
+                }
+            }
+            return emptied;
+        }
+
+        /** Tops up similar stacks, then fills empty slots; returns what did not fit. */
+        private static int insert(int[] t, int[] a, int type, int amount) {
+            int max = maxStack(type);
+            for (int s = 0; s < t.length && amount > 0; s++) {
+                if (t[s] != type)
+                    continue;
+                int n = Math.min(amount, max - a[s]);
+                a[s] += n;
+                amount -= n;
+            }
+            for (int s = 0; s < t.length && amount > 0; s++) {
+                if (t[s] != 0)
+                    continue;
+                int n = Math.min(amount, max);
+                t[s] = type;
+                a[s] = n;
+                amount -= n;
+            }
+            return amount;
+        }
+    }
+}
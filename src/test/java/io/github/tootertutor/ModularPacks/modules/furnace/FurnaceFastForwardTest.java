@@ -0,0 +1,133 @@
+package io.github.tootertutor.ModularPacks.modules.furnace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class FurnaceFastForwardTest {
+
+    private static final int STEP = 10;
+
+    @Test
+    void burnsFuelDownAndKeepsLeftoverProgress() {
+        // 30 ticks still lit plus two 40-tick fuel items, cooking 20-tick items.
+        FurnaceFastForward f = FurnaceFastForward.run(30, 40, 10, 20, 64, 64, 2, 40, false, 60);
+
+        assertEquals(3, f.crafts);
+        assertEquals(1, f.fuelUsed);
+        assertEquals(10, f.burnTime);
+        assertEquals(40, f.burnTotal);
+        assertEquals(10, f.cookTime);
+    }
+
+    @Test
+    void stopsWhenInputRunsOutAndForgetsProgress() {
+        FurnaceFastForward f = FurnaceFastForward.run(0, 0, 0, 20, 2, 64, 4, 100, false, 500);
+
+        assertEquals(2, f.crafts);
+        assertEquals(1, f.fuelUsed);
+        assertEquals(0, f.cookTime);
+        assertEquals(0, f.burnTime);
+        assertEquals(100, f.burnTotal);
+    }
+
+    @Test
+    void outOfFuelCoolsDownAndClearsBurnTotal() {
+        FurnaceFastForward f = FurnaceFastForward.run(30, 40, 0, 20, 64, 64, 0, 0, false, 100);
+
+        assertEquals(1, f.crafts);
+        assertEquals(0, f.fuelUsed);
+        assertEquals(0, f.burnTime);
+        assertEquals(0, f.burnTotal);
+        assertEquals(0, f.cookTime);
+    }
+
+    @Test
+    void containerFuelLightsOnce() {
+        FurnaceFastForward f = FurnaceFastForward.run(0, 0, 0, 20, 64, 64, 1, 100, true, 1000);
+
+        assertEquals(5, f.crafts);
+        assertEquals(1, f.fuelUsed);
+        assertEquals(0, f.burnTime);
+        // The empty container stays in the fuel slot.
+        assertEquals(100, f.burnTotal);
+    }
+
+    @Test
+    void matchesTheStepLoop() {
+        Random random = new Random(29);
+        for (int i = 0; i < 20_000; i++) {
+            int cookTotal = STEP * (1 + random.nextInt(20));
+            int perFuel = random.nextInt(4) == 0 ? 0 : STEP * (1 + random.nextInt(30));
+            boolean containerFuel = perFuel > 0 && random.nextInt(5) == 0;
+            int fuelItems = containerFuel ? 1 : random.nextInt(6);
+            int burnTotal = perFuel > 0 ? perFuel : STEP * random.nextInt(10);
+            int burnTime = STEP * random.nextInt(1 + burnTotal / STEP);
+            int cookTime = STEP * random.nextInt(cookTotal / STEP);
+            int inputItems = random.nextInt(8);
+            int roomCrafts = random.nextInt(8);
+            int ticks = STEP * (10 + random.nextInt(300));
+
+            Stepped expected = stepLoop(burnTime, burnTotal, cookTime, cookTotal, inputItems,
+                    roomCrafts, fuelItems, perFuel, containerFuel, ticks);
+            FurnaceFastForward actual = FurnaceFastForward.run(burnTime, burnTotal, cookTime, cookTotal,
+                    inputItems, roomCrafts, fuelItems, perFuel, containerFuel, ticks);
+
+            String at = "case " + i;
+            assertEquals(expected, new Stepped(actual.crafts, actual.fuelUsed, actual.burnTime, actual.burnTotal,
+                    actual.cookTime), at);
+        }
+    }
+
+    private record Stepped(int crafts, int fuelUsed, int burnTime, int burnTotal, int cookTime) {
+    }
+
+    /**
+     * The per-tick rules of FurnaceEngine.tickFurnaceLike, stepped 10 ticks at a
+     * time, on counts instead of stacks.
+     */
+    private static Stepped stepLoop(int burnTime, int burnTotal, int cookTime, int cookTotal, int inputItems,
+            int roomCrafts, int fuelItems, int perFuel, boolean containerFuel, int ticks) {
+        int crafts = 0;
+        int fuelUsed = 0;
+        int input = inputItems;
+        int room = roomCrafts;
+        int fuel = fuelItems;
+        boolean fuelAir = fuelItems <= 0;
+
+        for (int t = 0; t < ticks; t += STEP) {
+            boolean canCook = input > 0 && room > 0;
+            if (canCook && burnTime <= 0 && perFuel > 0 && fuel > 0) {
+                fuelUsed++;
+                burnTime = perFuel;
+                burnTotal = perFuel;
+                fuel = containerFuel ? 0 : fuel - 1;
+                fuelAir = !containerFuel && fuel <= 0;
+            }
+
+            if (canCook && burnTime > 0) {
+                int burn = Math.min(STEP, burnTime);
+                burnTime -= burn;
+                int cook = cookTime + burn;
+                while (cook >= cookTotal && input > 0 && room > 0) {
+                    crafts++;
+                    input--;
+                    room--;
+                    cook -= cookTotal;
+                    if (input == 0)
+                        cook = 0;
+                }
+                cookTime = cook;
+            } else {
+                burnTime -= Math.min(STEP, Math.max(0, burnTime));
+                cookTime = Math.max(0, cookTime - 2 * STEP);
+            }
+
+            if (burnTime <= 0 && fuelAir)
+                burnTotal = 0;
+        }
+        return new Stepped(crafts, fuelUsed, burnTime, burnTotal, cookTime);
+    }
+}
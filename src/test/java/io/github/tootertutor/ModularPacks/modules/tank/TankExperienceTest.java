@@ -0,0 +1,133 @@
+package io.github.tootertutor.ModularPacks.modules.tank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TankExperienceTest {
+
+    private static final float[] PROGRESS = { 0.0f, 0.25f, 0.5f, 0.999f, 1.0f };
+
+    @Test
+    void matchesVanillaTotalsAtFormulaBoundaries() {
+        assertEquals(0, TankExperience.totalForLevel(0));
+        assertEquals(7, TankExperience.totalForLevel(1));
+        assertEquals(352, TankExperience.totalForLevel(16));
+        assertEquals(394, TankExperience.totalForLevel(17));
+        assertEquals(1395, TankExperience.totalForLevel(30));
+        assertEquals(1507, TankExperience.totalForLevel(31));
+        assertEquals(1628, TankExperience.totalForLevel(32));
+
+        assertEquals(7, TankExperience.pointsToNextLevel(0));
+        assertEquals(37, TankExperience.pointsToNextLevel(15));
+        assertEquals(42, TankExperience.pointsToNextLevel(16));
+        assertEquals(112, TankExperience.pointsToNextLevel(30));
+        assertEquals(121, TankExperience.pointsToNextLevel(31));
+    }
+
+    @Test
+    void totalsAreTheSumOfLevelSteps() {
+        int total = 0;
+        for (int level = 0; level <= 1000; level++) {
+            assertEquals(total, TankExperience.totalForLevel(level), "level " + level);
+            total += TankExperience.pointsToNextLevel(level);
+        }
+    }
+
+    @Test
+    void levelFromTotalRoundTripsOnExactBoundaries() {
+        for (int level = 0; level <= 1000; level++) {
+            int total = TankExperience.totalForLevel(level);
+            assertEquals(level, TankExperience.levelFromTotal(total), "total " + total);
+            assertEquals(0, TankExperience.progressInCurrentLevel(total));
+            if (level > 0) {
+                assertEquals(level - 1, TankExperience.levelFromTotal(total - 1), "total " + (total - 1));
+                assertEquals(TankExperience.pointsToNextLevel(level - 1) - 1,
+                        TankExperience.progressInCurrentLevel(total - 1));
+            }
+        }
+    }
+
+    @Test
+    void negativeInputsClampToLevelZero() {
+        assertEquals(0, TankExperience.totalForLevel(-5));
+        assertEquals(0, TankExperience.levelFromTotal(-100));
+        assertEquals(0, TankExperience.progressInCurrentLevel(-100));
+        assertEquals(TankExperience.totalFromLevelAndProgress(0, 0.5f),
+                TankExperience.totalFromLevelAndProgress(-3, 0.5f));
+        assertEquals(0, TankExperience.lowestLevelAffordable(-3, 0.0f, 10));
+    }
+
+    @Test
+    void progressNeverReachesTheNextLevel() {
+        for (int level = 0; level <= 100; level++) {
+            assertEquals(TankExperience.totalForLevel(level + 1) - 1,
+                    TankExperience.totalFromLevelAndProgress(level, 1.0f));
+            assertEquals(TankExperience.totalForLevel(level), TankExperience.totalFromLevelAndProgress(level, -1.0f));
+        }
+    }
+
+    @Test
+    void pointsBetweenLevelsMatchesSingleSteps() {
+        for (float progress : PROGRESS) {
+            for (int from = 0; from <= 60; from++) {
+                int sum = 0;
+                for (int to = from; to <= 60; to++) {
+                    assertEquals(sum, TankExperience.pointsBetweenLevels(from, to, progress));
+                    assertEquals(-sum, TankExperience.pointsBetweenLevels(to, from, progress));
+                    sum += TankExperience.pointsBetweenLevels(to, to + 1, progress);
+                }
+            }
+        }
+    }
+
+    @Test
+    void affordableLevelsMatchAStepLoop() {
+        Random random = new Random(48);
+        for (int i = 0; i < 20_000; i++) {
+            int level = random.nextInt(120);
+            float progress = PROGRESS[random.nextInt(PROGRESS.length)];
+            int points = random.nextInt(20_000);
+
+            assertEquals(highestByLoop(level, progress, points),
+                    TankExperience.highestLevelAffordable(level, progress, points),
+                    "up from " + level + " with " + points);
+            assertEquals(lowestByLoop(level, progress, points),
+                    TankExperience.lowestLevelAffordable(level, progress, points),
+                    "down from " + level + " with " + points);
+        }
+    }
+
+    @Test
+    void affordableLevelsStopExactlyOnTheBudget() {
+        for (float progress : PROGRESS) {
+            for (int level = 0; level <= 60; level++) {
+                int step = TankExperience.pointsBetweenLevels(level, level + 1, progress);
+                assertEquals(level + 1, TankExperience.highestLevelAffordable(level, progress, step));
+                assertEquals(level, TankExperience.highestLevelAffordable(level, progress, step - 1));
+                assertEquals(level, TankExperience.highestLevelAffordable(level, progress, 0));
+
+                int up = level + 1;
+                assertEquals(level, TankExperience.lowestLevelAffordable(up, progress, step));
+                assertEquals(up, TankExperience.lowestLevelAffordable(up, progress, step - 1));
+                assertEquals(up, TankExperience.lowestLevelAffordable(up, progress, 0));
+            }
+        }
+    }
+
+    private static int highestByLoop(int level, float progress, int points) {
+        int lv = level;
+        while (TankExperience.pointsBetweenLevels(level, lv + 1, progress) <= points)
+            lv++;
+        return lv;
+    }
+
+    private static int lowestByLoop(int level, float progress, int points) {
+        int lv = level;
+        while (lv > 0 && TankExperience.pointsBetweenLevels(lv - 1, level, progress) <= points)
+            lv--;
+        return lv;
+    }
+}